@@ -0,0 +1,777 @@
+package lk.oop.cw.backend;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The bookkeeping every {@link TicketPoolEngine} shares, whatever it stores its tickets in.
+ * <p>
+ * This class owns the journal, the log, the metrics, the activity events and the callbacks of parked agents,
+ * holds, and the live {@link #handOver} to a replacement pool. It keeps no inventory and takes no lock of its
+ * own: an engine stores tickets its own way, synchronises as it sees fit, and calls the {@code record*},
+ * {@code finish*} and {@code signal*} methods from its release and purchase paths. An engine that can take
+ * tickets back for holds overrides {@link #returnHeldTickets} and {@link #sellHeldTickets}.
+ * </p>
+ */
+public abstract class AbstractTicketPool implements TicketPoolEngine {
+    protected final int maxTicketCapacity;
+    protected final int totalTickets;
+
+    private final AtomicReference<PoolSnapshot> snapshot = new AtomicReference<>();
+    private LogStore logs = new LogStore();
+
+    private volatile PoolEventListener eventListener = PoolEventListener.NONE;
+    private volatile SalesJournal journal = SalesJournal.DISABLED;
+    private final Queue<Runnable> notEmptyCallbacks = new ConcurrentLinkedQueue<>();
+    private final Queue<Runnable> notFullCallbacks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean soldOutPublished = new AtomicBoolean();
+    private final Map<TicketDescriptor, TicketDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * Number of public add and remove calls in progress, and the handover started by {@link #handOver}; null
+     * while the pool is in service.
+     */
+    private final LongAdder activeCalls = new LongAdder();
+    private final AtomicReference<CompletableFuture<TicketPoolEngine>> handover = new AtomicReference<>();
+
+    /**
+     * Outstanding holds by ID and the number of tickets they hold; shared with the successor on a handover.
+     */
+    private Map<String, TicketHold> holds = new ConcurrentHashMap<>();
+    private AtomicInteger ticketsOnHold = new AtomicInteger();
+
+    /**
+     * Latency histograms and counters for this pool; engines record into it on every operation.
+     */
+    protected PoolMetrics metrics = new PoolMetrics();
+
+    private static final AsyncEventLogger eventLogger = LoggingConfig.getEventLogger();
+    private static final long HANDOVER_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final HoldWheel holdWheel = new HoldWheel(100, TimeUnit.MILLISECONDS, 4096);
+    private static final AtomicLong holdCounter = new AtomicLong();
+    private static final AtomicLong snapshotCounter = new AtomicLong();
+
+    /**
+     * How long {@link #getSnapshot} may keep serving a snapshot after the pool has changed.
+     */
+    static final long SNAPSHOT_MAX_AGE_MILLIS = 100;
+
+    /**
+     * Creates the shared state of a pool with the given limits.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets that can be in the pool at a time.
+     */
+    protected AbstractTicketPool(int totalTickets, int maxTicketCapacity) {
+        this.totalTickets = totalTickets;
+        this.maxTicketCapacity = maxTicketCapacity;
+    }
+
+    /**
+     * Sells the tickets of a hold.
+     * @param holdId ID of the hold.
+     * @return The details of the tickets sold, or null if the hold does not exist or has already ended.
+     */
+    public List<TicketDescriptor> confirmHold(String holdId) {
+        long start = beginCall();
+        try {
+            TicketHold hold = holds.get(holdId);
+            if (hold == null || !hold.close()) {
+                return null;
+            }
+            holds.remove(holdId);
+            sellHeldTickets(hold.getCustomerId(), hold.getTickets());
+            purchaseCompleted();
+            return hold.getTickets();
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Ends a hold early and returns its tickets to the pool.
+     * @param holdId ID of the hold.
+     * @return true if the tickets were returned; false if the hold does not exist or has already ended.
+     */
+    public boolean releaseHold(String holdId) {
+        TicketHold hold = holds.get(holdId);
+        return hold != null && returnHold(hold, "released");
+    }
+
+    /**
+     * Retrieves the number of tickets currently on hold.
+     * @return Tickets held and neither confirmed nor returned yet.
+     */
+    public int getTicketsOnHold() {
+        return ticketsOnHold.get();
+    }
+
+    /**
+     * Registers a hold for tickets an engine has just taken out of its inventory and schedules its expiry.
+     * @param customerId ID of the customer the tickets are held for.
+     * @param held       The tickets taken.
+     * @param ttl        How long the hold lasts.
+     * @param unit       Unit of {@code ttl}.
+     * @return The hold.
+     */
+    protected TicketHold placeHold(String customerId, List<TicketDescriptor> held, long ttl, TimeUnit unit) {
+        TicketHold hold = new TicketHold("Hold-" + holdCounter.incrementAndGet(), customerId, held,
+                System.currentTimeMillis() + unit.toMillis(ttl));
+        holds.put(hold.getHoldId(), hold);
+        holdWheel.schedule(ttl, unit, () -> expire(hold));
+        addLog(customerId + " is holding " + held.size() + " tickets as " + hold.getHoldId() + ".");
+        return hold;
+    }
+
+    /**
+     * Counts tickets taken out of the inventory for a hold, or given back or sold when it ends. Engines call this
+     * with the lock that guards the affected tickets held.
+     * @param delta Positive when tickets are held, negative when a hold ends.
+     */
+    protected void holdsChanged(int delta) {
+        ticketsOnHold.addAndGet(delta);
+    }
+
+    /**
+     * Lets an engine that keeps its own account of held tickets take over holds from the pool it replaces, whose
+     * tickets return to it when they end. Called during {@link #handOver}, before the pool is shared.
+     * @param held The holds taken over.
+     */
+    protected void holdsTransferred(Collection<TicketHold> held) {
+    }
+
+    /**
+     * Puts the tickets of an expired or released hold back into the engine's inventory, calls
+     * {@link #holdsChanged} and wakes waiting customers. Engines that can hold tickets override this.
+     * @param held The tickets of the hold.
+     * @throws UnsupportedPoolOperationException If the engine does not support {@link PoolCapability#HOLDS}.
+     */
+    protected void returnHeldTickets(List<TicketDescriptor> held) {
+        throw new UnsupportedPoolOperationException(getMode(), PoolCapability.HOLDS);
+    }
+
+    /**
+     * Counts the sale of the tickets of a confirmed hold, calls {@link #holdsChanged} and
+     * {@link #recordPurchase(String, List, int)}, and frees the tickets' room. Engines that can hold tickets
+     * override this.
+     * @param customerId ID of the customer that held the tickets.
+     * @param held       The tickets of the hold.
+     * @throws UnsupportedPoolOperationException If the engine does not support {@link PoolCapability#HOLDS}.
+     */
+    protected void sellHeldTickets(String customerId, List<TicketDescriptor> held) {
+        throw new UnsupportedPoolOperationException(getMode(), PoolCapability.HOLDS);
+    }
+
+    /**
+     * Returns the tickets of a hold to the pool, unless it has already ended.
+     * @param hold   The hold.
+     * @param reason How the hold ended, for the log.
+     * @return true if the tickets were returned; false otherwise.
+     */
+    private boolean returnHold(TicketHold hold, String reason) {
+        beginCall();
+        try {
+            if (!hold.close()) {
+                return false;
+            }
+            holds.remove(hold.getHoldId());
+            returnHeldTickets(hold.getTickets());
+            signalNotEmptyWaiters();
+            addLog(hold.getHoldId() + " " + reason + ": " + hold.getCount() + " tickets returned to the pool.");
+            return true;
+        } finally {
+            endCall();
+        }
+    }
+
+    /**
+     * Ends every outstanding hold without returning its tickets, when the pool is replaced by a new sale.
+     */
+    private void cancelHolds() {
+        for (TicketHold hold : holds.values()) {
+            if (hold.close()) {
+                holdsChanged(-hold.getCount());
+            }
+        }
+        holds.clear();
+    }
+
+    /**
+     * Runs on the {@link HoldWheel} thread when a hold's time is up. If the pool has been reconfigured since and
+     * the holds moved to the pool that replaced it, the tickets go back to that pool.
+     */
+    private void expire(TicketHold hold) {
+        AbstractTicketPool pool = this;
+        while (true) {
+            try {
+                pool.returnHold(hold, "expired");
+                return;
+            } catch (PoolRetiredException e) {
+                if (!(e.getSuccessor() instanceof AbstractTicketPool next) || next.holds != pool.holds) {
+                    return;
+                }
+                pool = next;
+            }
+        }
+    }
+
+    /**
+     * Appends the purchase of a single ticket to the journal, writes its log record and publishes its event.
+     * @param customerId ID of the customer that purchased the ticket.
+     * @param ticket     The details of the ticket taken from the pool.
+     * @param remaining  Number of tickets in the pool after the purchase.
+     */
+    protected void recordPurchase(String customerId, TicketDescriptor ticket, int remaining) {
+        journal.purchased(ticket, 1);
+        metrics.recordPurchase(ticket, 1);
+        eventLogger.ticketPurchased(this, customerId, ticket, remaining);
+        publishTicketsPurchased(customerId, ticket.getEventId(), 1, remaining);
+    }
+
+    /**
+     * Appends one purchase to the journal, writes its log record and publishes its events.
+     * <p>
+     * A single ticket is logged with its full details. A basket is logged as one aggregated record listing the
+     * number of tickets per event and the total price, and one purchase event is published per event.
+     * </p>
+     * @param customerId ID of the customer that purchased the tickets.
+     * @param purchased  The details of each ticket taken from the pool, oldest first.
+     * @param remaining  Number of tickets in the pool after the purchase.
+     */
+    protected void recordPurchase(String customerId, List<TicketDescriptor> purchased, int remaining) {
+        if (purchased.size() == 1) {
+            recordPurchase(customerId, purchased.get(0), remaining);
+            return;
+        }
+
+        journal.purchased(purchased);
+        eventLogger.ticketsPurchased(this, customerId, purchased, remaining);
+        Map<String, Integer> countByEvent = new LinkedHashMap<>();
+        for (TicketDescriptor ticket : purchased) {
+            metrics.recordPurchase(ticket, 1);
+            countByEvent.merge(ticket.getEventId(), 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : countByEvent.entrySet()) {
+            publishTicketsPurchased(customerId, entry.getKey(), entry.getValue(), remaining);
+        }
+    }
+
+    /**
+     * Retrieves the shared descriptor for a combination of ticket details, creating it on first use.
+     * <p>
+     * Every release with the same vendor, event, price and category shares one instance, so the pool stores a
+     * reference per batch (or per slot) instead of a copy of the details per ticket.
+     * </p>
+     * @param vendorId  ID of the vendor releasing the tickets.
+     * @param eventId   ID of the event the tickets are associated with.
+     * @param eventName Name of the event.
+     * @param price     Price of the tickets.
+     * @param category  Category of the tickets.
+     * @return The shared descriptor.
+     */
+    protected TicketDescriptor describe(String vendorId, String eventId, String eventName, double price, String category) {
+        TicketDescriptor descriptor = new TicketDescriptor(vendorId, eventId, eventName, price, category);
+        TicketDescriptor shared = descriptors.putIfAbsent(descriptor, descriptor);
+        return shared == null ? descriptor : shared;
+    }
+
+    /**
+     * Captures the pool's tickets and counters for a {@link #handOver}.
+     * <p>
+     * Called once no add or remove call is in progress. Engines that cannot read their inventory without
+     * consuming it may empty the pool, since it is never used again. Tickets on hold are not part of the
+     * inventory and count as neither sold nor in the pool.
+     * </p>
+     * @return The current state of the pool.
+     */
+    protected abstract PoolState captureState();
+
+    /**
+     * Checks whether a freshly created pool can take over the given number of tickets.
+     * <p>
+     * The pool's capacity is a limit on releases, not on what it can store, so a pool reconfigured with less
+     * capacity than it holds simply accepts no releases until customers have bought enough.
+     * </p>
+     * @param tickets Number of tickets in the pool being replaced.
+     * @param onHold  Number of tickets on hold, which return to the new pool if their holds expire.
+     * @return true if {@link #restore} can store them all and take back the held ones; false otherwise.
+     */
+    protected boolean canHold(int tickets, int onHold) {
+        return true;
+    }
+
+    /**
+     * Hands this pool's tickets and counters over to a new pool while vendors and customers keep running.
+     * <p>
+     * From the start of the handover every add or remove call is turned away with a {@link PoolRetiredException}
+     * and callers waiting for room or tickets are woken, so the calls in progress end within a few milliseconds.
+     * Once none is left, the tickets and counters are moved into {@code next}, which also takes over this pool's
+     * metrics, log and holds. Turned-away callers then repeat their call on {@code next}, and the callbacks
+     * registered with {@link #onceNotEmpty} and {@link #onceNotFull} are run so that parked agents and buyers
+     * follow them. Holds that end later return their tickets to {@code next}.
+     * Every ticket therefore ends up either sold by this pool or held by the new one, exactly once. When
+     * {@code next} starts a new sale instead, the outstanding holds are cancelled along with this pool's tickets,
+     * so they can no longer be confirmed and their tickets never reach the new sale.
+     * </p>
+     * <p>
+     * {@code next} must have its listener and journal set and must not yet be shared with anyone.
+     * </p>
+     * @param next     The pool that takes over; must extend this class.
+     * @param transfer Whether to move the tickets, counters, metrics and log, or to let {@code next} start a new
+     *                 sale from scratch.
+     * @throws IllegalArgumentException If {@code next} cannot hold the tickets in this pool, in which case this
+     *                                  pool stays in service.
+     * @throws IllegalStateException    If this pool has already been handed over.
+     */
+    public void handOver(TicketPoolEngine next, boolean transfer) {
+        if (!(next instanceof AbstractTicketPool successorPool)) {
+            throw new IllegalArgumentException("A " + next.getClass().getSimpleName()
+                    + " cannot take over from an " + AbstractTicketPool.class.getSimpleName());
+        }
+        CompletableFuture<TicketPoolEngine> successor = new CompletableFuture<>();
+        if (!handover.compareAndSet(null, successor)) {
+            throw new IllegalStateException("The ticket pool has already been handed over");
+        }
+        wakeWaiters();
+        while (activeCalls.sum() != 0) {
+            LockSupport.parkNanos(HANDOVER_POLL_NANOS);
+        }
+
+        if (transfer) {
+            int remaining = getRemainingTickets();
+            int onHold = ticketsOnHold.get();
+            if (!successorPool.canHold(remaining, onHold)) {
+                handover.set(null);
+                successor.complete(this);
+                throw new IllegalArgumentException("The new pool cannot hold the " + remaining
+                        + " tickets currently in the pool and the " + onHold + " tickets on hold");
+            }
+            successorPool.restore(captureState());
+            successorPool.metrics = metrics;
+            successorPool.logs = logs;
+            successorPool.holds = holds;
+            successorPool.ticketsOnHold = ticketsOnHold;
+            successorPool.holdsTransferred(holds.values());
+        } else {
+            cancelHolds();
+        }
+        successor.complete(next);
+        signalNotEmptyWaiters();
+        signalNotFullWaiters();
+    }
+
+    /**
+     * Checks whether the engine offers an optional operation. Engines that lack one override this.
+     * @param capability The operation.
+     * @return true.
+     */
+    @Override
+    public boolean supports(PoolCapability capability) {
+        return true;
+    }
+
+    /**
+     * Checks whether this pool has been handed over to a new one.
+     * @return true once {@link #handOver} has started; false while the pool is in service.
+     */
+    public boolean isRetired() {
+        return handover.get() != null;
+    }
+
+    /**
+     * Starts a public call that changes the pool. Every such call must end with {@link #finishAdd},
+     * {@link #finishRemove} or {@link #endCall}.
+     * @return {@link System#nanoTime()} at the start of the call.
+     * @throws PoolRetiredException If the pool has been handed over to a new one.
+     */
+    protected long beginCall() {
+        activeCalls.increment();
+        CompletableFuture<TicketPoolEngine> successor = handover.get();
+        if (successor != null) {
+            activeCalls.decrement();
+            throw new PoolRetiredException(successor);
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a public call that neither journals nor records latency, such as placing or returning a hold.
+     */
+    protected void endCall() {
+        activeCalls.decrement();
+    }
+
+    /**
+     * Turns away a call that is about to wait, once the pool has been handed over.
+     * @throws PoolRetiredException If the pool has been handed over to a new one.
+     */
+    protected void checkRetired() {
+        CompletableFuture<TicketPoolEngine> successor = handover.get();
+        if (successor != null) {
+            throw new PoolRetiredException(successor);
+        }
+    }
+
+    /**
+     * Wakes every caller waiting for room or tickets, so it notices that the pool is being handed over.
+     */
+    protected abstract void wakeWaiters();
+
+    /**
+     * Retrieves the shared descriptor equal to one read back from the journal.
+     * @param ticket The descriptor to intern.
+     * @return The pool's shared instance.
+     */
+    protected TicketDescriptor intern(TicketDescriptor ticket) {
+        return describe(ticket.getVendorId(), ticket.getEventId(), ticket.getEventName(), ticket.getPrice(),
+                ticket.getCategory());
+    }
+
+    /**
+     * Retrieves an immutable snapshot of the pool's state for dashboards and status queries.
+     * <p>
+     * The snapshot is built from the lock-free counters and the per-event counts in the pool's metrics, and is
+     * shared by every reader until the pool changes. A changed pool gets a new snapshot with a higher version at
+     * most {@value #SNAPSHOT_MAX_AGE_MILLIS} ms after the previous one, so frequent polling costs a few volatile
+     * reads and the per-event counts are grouped at most ten times a second. Each counter is exact when read, but
+     * a sale in progress may be reflected in some counters and not yet in others.
+     * </p>
+     * @return The current snapshot, at most {@value #SNAPSHOT_MAX_AGE_MILLIS} ms behind the pool.
+     */
+    public PoolSnapshot getSnapshot() {
+        PoolSnapshot current = snapshot.get();
+        int released = getTicketsReleased();
+        int sold = getTicketsSold();
+        int inPool = getRemainingTickets();
+        int onHold = getTicketsOnHold();
+        long now = System.currentTimeMillis();
+        if (current != null && (current.matches(released, sold, inPool, onHold)
+                || now - current.getTakenAtMillis() < SNAPSHOT_MAX_AGE_MILLIS)) {
+            return current;
+        }
+        PoolSnapshot next = new PoolSnapshot(snapshotCounter.incrementAndGet(), now, getMode(), totalTickets,
+                maxTicketCapacity, released, sold, inPool, onHold, isSoldOut(), metrics.releasesByEvent(),
+                metrics.purchasesByEvent());
+        return snapshot.compareAndSet(current, next) ? next : snapshot.get();
+    }
+
+    /**
+     * Logs an activity message to the system logs and application logger.
+     * <p>
+     * The message is queued for the {@link AsyncEventLogger} and appears in {@link #getLogs()} once its
+     * background writer has processed it.
+     * </p>
+     * @param message Message to log.
+     */
+    public void addLog(String message) {
+        eventLogger.message(this, message);
+    }
+
+    /**
+     * Counts a release of tickets, appends it to the journal and logs it without building the message on the
+     * caller's thread.
+     * @param vendorId  ID of the vendor that released the tickets.
+     * @param ticket    Details of the released tickets.
+     * @param count     Number of tickets released.
+     * @param remaining Number of tickets in the pool after the release.
+     */
+    protected void recordRelease(String vendorId, TicketDescriptor ticket, int count, int remaining) {
+        if (count > 0) {
+            journal.released(ticket, count);
+        }
+        metrics.recordRelease(ticket, count);
+        eventLogger.ticketsAdded(this, vendorId, ticket, count, remaining);
+    }
+
+    /**
+     * Logs that a vendor tried to release tickets after the total ticket limit was reached.
+     */
+    protected void logLimitReached() {
+        eventLogger.limitReached(this);
+    }
+
+    /**
+     * Stores a message formatted by the {@link AsyncEventLogger} writer and publishes it to the listener.
+     * @param message The formatted message.
+     */
+    void logWritten(String message) {
+        long sequence = logs.append(message);
+        publish(PoolEvent.log(sequence, message));
+    }
+
+    /**
+     * Retrieves the retained logged messages for monitoring purposes.
+     * <p>
+     * Only the most recent {@link LogStore#DEFAULT_CAPACITY} messages are kept.
+     * </p>
+     * @return A list of logged messages, oldest first.
+     */
+    public List<String> getLogs() {
+        return logs.snapshot();
+    }
+
+    /**
+     * Retrieves the logged messages from a cursor onwards.
+     * @param since Sequence number of the first message wanted.
+     * @param limit Maximum number of messages to return.
+     * @return The page of messages and the cursor for the next read.
+     */
+    public LogPage getLogs(long since, int limit) {
+        return logs.read(since, limit);
+    }
+
+    /**
+     * Retrieves the total number of tickets allowed in the system.
+     * @return The total ticket limit.
+     */
+    public int getTotalTickets() {
+        return totalTickets;
+    }
+
+    /**
+     * Retrieves the maximum number of tickets that can be in the pool at a time.
+     * @return The pool capacity.
+     */
+    public int getMaxTicketCapacity() {
+        return maxTicketCapacity;
+    }
+
+    /**
+     * Sets the journal that releases and purchases are written to before they are acknowledged.
+     * @param journal The journal, or null to stop journaling.
+     */
+    public void setJournal(SalesJournal journal) {
+        this.journal = journal == null ? SalesJournal.DISABLED : journal;
+    }
+
+    /**
+     * Retrieves the journal this pool writes to.
+     * @return The journal; {@link SalesJournal#DISABLED} if none is set.
+     */
+    public SalesJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Retrieves the latency histograms, counters and gauges recorded for this pool.
+     * @return The pool's metrics.
+     */
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Ends an add call: waits until the releases it journaled are durable, then records the call's latency.
+     * Must be called with no pool lock held, so the wait for the disk never blocks other callers.
+     * @param startNanos {@link System#nanoTime()} taken when the call started.
+     */
+    protected void finishAdd(long startNanos) {
+        try {
+            journal.commit();
+            metrics.recordAdd(startNanos);
+        } finally {
+            activeCalls.decrement();
+        }
+    }
+
+    /**
+     * Ends a remove call: waits until the purchases it journaled are durable, then records the call's latency.
+     * Must be called with no pool lock held, so the wait for the disk never blocks other callers.
+     * @param startNanos {@link System#nanoTime()} taken when the call started.
+     */
+    protected void finishRemove(long startNanos) {
+        try {
+            journal.commit();
+            metrics.recordRemove(startNanos);
+        } finally {
+            activeCalls.decrement();
+        }
+    }
+
+    /**
+     * Acquires a lock, recording how long the caller had to wait for it.
+     * <p>
+     * An uncontended lock is taken with {@link Lock#tryLock()} and recorded as a zero wait without reading the clock.
+     * </p>
+     * @param lock The lock to acquire.
+     */
+    protected void lockTimed(Lock lock) {
+        if (lock.tryLock()) {
+            metrics.recordLockWait(0);
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        metrics.recordLockWait(System.nanoTime() - start);
+    }
+
+    /**
+     * Waits on a condition, recording how long the caller waited.
+     * <p>
+     * A caller waiting while the pool is handed over is turned away, so it can repeat its call on the new pool.
+     * </p>
+     * @param condition The condition to wait on; its lock must be held.
+     * @throws InterruptedException If the caller is interrupted while waiting.
+     * @throws PoolRetiredException If the pool has been handed over to a new one.
+     */
+    protected void awaitTimed(Condition condition) throws InterruptedException {
+        checkRetired();
+        long start = System.nanoTime();
+        try {
+            condition.await();
+        } finally {
+            metrics.recordConditionWait(System.nanoTime() - start);
+        }
+        checkRetired();
+    }
+
+    /**
+     * Waits on a condition for at most the given time, recording how long the caller waited.
+     * @param condition The condition to wait on; its lock must be held.
+     * @param time      Maximum time to wait.
+     * @param unit      Unit of {@code time}.
+     * @return false if the time elapsed before the condition was signalled; true otherwise.
+     * @throws InterruptedException If the caller is interrupted while waiting.
+     * @throws PoolRetiredException If the pool has been handed over to a new one.
+     */
+    protected boolean awaitTimed(Condition condition, long time, TimeUnit unit) throws InterruptedException {
+        checkRetired();
+        long start = System.nanoTime();
+        boolean signalled;
+        try {
+            signalled = condition.await(time, unit);
+        } finally {
+            metrics.recordConditionWait(System.nanoTime() - start);
+        }
+        checkRetired();
+        return signalled;
+    }
+
+    /**
+     * Sets the listener that receives this pool's activity events.
+     * @param eventListener The listener to notify, or null to stop publishing events.
+     */
+    public void setEventListener(PoolEventListener eventListener) {
+        this.eventListener = eventListener == null ? PoolEventListener.NONE : eventListener;
+    }
+
+    /**
+     * Publishes an activity event to the registered listener.
+     * @param event The event to publish.
+     */
+    public void publish(PoolEvent event) {
+        eventListener.onEvent(event);
+    }
+
+    /**
+     * Publishes a release of tickets by a vendor.
+     * @param vendorId  ID of the vendor that released the tickets.
+     * @param eventId   ID of the event the tickets belong to.
+     * @param count     Number of tickets released.
+     * @param remaining Number of tickets in the pool after the release.
+     */
+    protected void publishTicketsAdded(String vendorId, String eventId, int count, int remaining) {
+        publish(PoolEvent.ticketsAdded(vendorId, eventId, count, remaining));
+    }
+
+    /**
+     * Publishes a purchase by a customer.
+     * @param customerId ID of the customer that purchased the tickets.
+     * @param eventId    ID of the event the tickets belong to.
+     * @param count      Number of tickets purchased.
+     * @param remaining  Number of tickets in the pool after the purchase.
+     */
+    protected void publishTicketsPurchased(String customerId, String eventId, int count, int remaining) {
+        publish(PoolEvent.ticketPurchased(customerId, eventId, count, remaining));
+    }
+
+    /**
+     * Finishes a purchase: publishes a one-off sold-out event once the last ticket is gone and wakes the agents
+     * parked through {@link #onceNotFull}, and through {@link #onceNotEmpty} once the pool has sold out.
+     * <p>
+     * Engines call this after a purchase once they no longer hold any of their locks, so the sold-out listener
+     * and the parked agents' callbacks never run while releases and purchases are locked out.
+     * </p>
+     */
+    protected void purchaseCompleted() {
+        if (isSoldOut() && soldOutPublished.compareAndSet(false, true)) {
+            publish(PoolEvent.soldOut());
+            signalNotEmptyWaiters();
+        }
+        signalNotFullWaiters();
+    }
+
+    /**
+     * Registers a one-shot callback to run once the pool has tickets to sell, or immediately if it already has.
+     * <p>
+     * The callback also runs when the pool sells out, so a parked customer can notice that it is done. It runs
+     * on the thread that made tickets available, after it has let go of the pool's locks, and must still return
+     * quickly without blocking. A callback may occasionally run when the tickets have already been taken by
+     * someone else; callers simply retry. Once the pool has been handed over the callback runs as soon as
+     * possible, so the caller moves to the new pool.
+     * </p>
+     * @param callback The action to run.
+     */
+    public void onceNotEmpty(Runnable callback) {
+        notEmptyCallbacks.add(callback);
+        if (isRetired() || getRemainingTickets() > 0 || isSoldOut()) {
+            signalNotEmptyWaiters();
+        }
+    }
+
+    /**
+     * Registers a one-shot callback to run once the pool has room for more tickets, or immediately if it already has.
+     * <p>
+     * The same threading rules as {@link #onceNotEmpty} apply.
+     * </p>
+     * @param callback The action to run.
+     */
+    public void onceNotFull(Runnable callback) {
+        notFullCallbacks.add(callback);
+        if (isRetired() || hasRoom() || isSoldOut()) {
+            signalNotFullWaiters();
+        }
+    }
+
+    /**
+     * Checks whether a vendor registering with {@link #onceNotFull} can be resumed straight away.
+     * @return true if the pool currently has room for more tickets besides those in it and on hold.
+     */
+    protected boolean hasRoom() {
+        return getRemainingTickets() + getTicketsOnHold() < maxTicketCapacity;
+    }
+
+    /**
+     * Runs and clears the callbacks registered through {@link #onceNotEmpty}. Engines call this after adding tickets.
+     */
+    protected void signalNotEmptyWaiters() {
+        Runnable callback;
+        while ((callback = notEmptyCallbacks.poll()) != null) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Runs and clears the callbacks registered through {@link #onceNotFull}. Engines call this after removing tickets.
+     */
+    protected void signalNotFullWaiters() {
+        Runnable callback;
+        while ((callback = notFullCallbacks.poll()) != null) {
+            callback.run();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package lk.oop.cw.backend;
+
+/**
+ * Selects how each {@link Vendor} and {@link Customer} agent is run.
+ * <p>
+ * The mode is read from the {@code ticketing.agents.execution-mode} property.
+ * </p>
+ */
+public enum AgentExecutionMode {
+    /**
+     * One platform (operating system) thread per agent. Each thread reserves a full native stack, which
+     * limits a simulation to a few thousand agents.
+     */
+    PLATFORM,
+
+    /**
+     * One virtual thread per agent. Agents spend almost all their time sleeping or waiting on the pool,
+     * during which a virtual thread releases its carrier, so hundreds of thousands of agents fit in memory.
+     */
+    VIRTUAL,
+
+    /**
+     * No thread per agent. The {@link AgentScheduler} runs one release or purchase step per interval on a
+     * fixed pool of threads and parks agents that would block, so the thread count stays constant.
+     */
+    SCHEDULED
+}
@@ -0,0 +1,12 @@
+package lk.oop.cw.backend;
+
+/**
+ * A handle to a running vendor or customer agent, whatever it is running on.
+ */
+@FunctionalInterface
+public interface AgentHandle {
+    /**
+     * Asks the agent to stop. The agent logs its own shutdown once it has stopped.
+     */
+    void stop();
+}
@@ -0,0 +1,132 @@
+package lk.oop.cw.backend;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives any number of {@link SteppedAgent}s from a fixed pool of threads sized to the core count.
+ * <p>
+ * Each agent is a task that runs one step, then reschedules itself after the agent's interval. An agent
+ * that cannot make progress because the pool is full or empty is parked: it holds no thread and is only
+ * put back on the executor when the pool calls its resume action. The number of threads therefore stays
+ * constant however many vendors and customers are started.
+ * </p>
+ */
+@Component
+public class AgentScheduler {
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Creates the scheduler with one thread per available processor.
+     */
+    public AgentScheduler() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "agent-scheduler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Starts driving an agent.
+     * @param agent The agent to run.
+     * @return A handle that stops the agent.
+     */
+    public AgentHandle schedule(SteppedAgent agent) {
+        AgentTask task = new AgentTask(agent);
+        agent.start();
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Retrieves the number of threads driving agents.
+     * @return The thread pool size.
+     */
+    public int getThreadCount() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * Stops the scheduler threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The continuation of one agent: either scheduled to run, parked on the pool, or finished.
+     */
+    private final class AgentTask implements Runnable, AgentHandle {
+        private final SteppedAgent agent;
+        private final AtomicBoolean parked = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile boolean stopped;
+        private volatile ScheduledFuture<?> next;
+
+        private AgentTask(SteppedAgent agent) {
+            this.agent = agent;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                finish(true);
+                return;
+            }
+
+            AgentStep step;
+            try {
+                step = agent.step();
+            } catch (RuntimeException e) {
+                finish(true);
+                throw e;
+            }
+
+            switch (step) {
+                case CONTINUE -> next = executor.schedule(this, agent.getIntervalMillis(), TimeUnit.MILLISECONDS);
+                case PARKED -> {
+                    parked.set(true);
+                    agent.parkUntilReady(this::resume);
+                }
+                case DONE -> finish(false);
+            }
+        }
+
+        /**
+         * Puts a parked agent back on the executor. Extra calls for the same park are ignored.
+         */
+        private void resume() {
+            if (parked.compareAndSet(true, false)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+            ScheduledFuture<?> scheduled = next;
+            if (scheduled != null && scheduled.cancel(false)) {
+                finish(true);
+            }
+            if (parked.compareAndSet(true, false)) {
+                finish(true);
+            }
+        }
+
+        private void finish(boolean interrupted) {
+            if (finished.compareAndSet(false, true)) {
+                agent.finish(interrupted);
+            }
+        }
+    }
+}
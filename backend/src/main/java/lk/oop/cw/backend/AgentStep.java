@@ -0,0 +1,21 @@
+package lk.oop.cw.backend;
+
+/**
+ * The outcome of a single step of a {@link SteppedAgent}.
+ */
+public enum AgentStep {
+    /**
+     * The step completed; run the next one after the agent's interval.
+     */
+    CONTINUE,
+
+    /**
+     * The agent cannot make progress until the pool changes; park it until it is resumed.
+     */
+    PARKED,
+
+    /**
+     * The agent has finished its work and should not be stepped again.
+     */
+    DONE
+}
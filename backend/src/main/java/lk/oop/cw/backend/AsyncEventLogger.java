@@ -0,0 +1,418 @@
+package lk.oop.cw.backend;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Takes pool activity off the purchase path and writes it to the log from a background thread.
+ * <p>
+ * Callers hand over a structured record (type, agent ID, ticket details, count and remaining tickets)
+ * instead of a finished message. Records live in a preallocated ring; a caller claims a slot with one
+ * compare-and-set, fills in the fields and publishes it, so logging neither allocates nor takes a lock.
+ * If the ring is full the record is dropped and counted rather than making the caller wait.
+ * </p>
+ * <p>
+ * A single writer thread drains the ring in batches. For each record it builds the message, appends it to
+ * the owning pool's {@link LogStore} and event stream, and writes a structured line to the log file. The file
+ * is flushed once per batch rather than once per record.
+ * </p>
+ */
+public class AsyncEventLogger {
+    /**
+     * Number of records that can wait for the writer before new ones are dropped.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Record[] records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Logger console;
+    private BufferedWriter out;
+    private final Thread writer;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    /**
+     * Creates a logger with {@link #DEFAULT_CAPACITY} slots and starts its writer thread.
+     * @param file    The log file, truncated on startup; its directory is created if needed.
+     * @param console Logger that also receives every message, or null for none.
+     */
+    public AsyncEventLogger(Path file, Logger console) {
+        this(file, console, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a logger and starts its writer thread.
+     * @param file     The log file, truncated on startup; its directory is created if needed. Null disables the file.
+     * @param console  Logger that also receives every message, or null for none.
+     * @param capacity Number of slots in the ring; must be a power of two.
+     */
+    public AsyncEventLogger(Path file, Logger console, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.records = new Record[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new Record();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.console = console;
+        this.out = open(file);
+
+        this.writer = new Thread(this::run, "pool-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "pool-log-shutdown"));
+    }
+
+    /**
+     * Records a release of tickets.
+     * @param source    The pool the tickets were released into.
+     * @param vendorId  ID of the vendor releasing the tickets.
+     * @param ticket    Details of the released tickets.
+     * @param count     Number of tickets released.
+     * @param remaining Number of tickets in the pool after the release.
+     */
+    public void ticketsAdded(AbstractTicketPool source, String vendorId, TicketDescriptor ticket, int count,
+                             int remaining) {
+        enqueue(source, LogEventType.TICKETS_ADDED, vendorId, ticket, null, count, remaining, null);
+    }
+
+    /**
+     * Records the purchase of a single ticket.
+     * @param source     The pool the ticket was purchased from.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param ticket     Details of the purchased ticket.
+     * @param remaining  Number of tickets in the pool after the purchase.
+     */
+    public void ticketPurchased(AbstractTicketPool source, String customerId, TicketDescriptor ticket, int remaining) {
+        enqueue(source, LogEventType.TICKET_PURCHASED, customerId, ticket, null, 1, remaining, null);
+    }
+
+    /**
+     * Records the purchase of a basket of tickets.
+     * @param source     The pool the tickets were purchased from.
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param tickets    Details of each purchased ticket; the list must not be modified afterwards.
+     * @param remaining  Number of tickets in the pool after the purchase.
+     */
+    public void ticketsPurchased(AbstractTicketPool source, String customerId, List<TicketDescriptor> tickets,
+                                 int remaining) {
+        enqueue(source, LogEventType.TICKETS_PURCHASED, customerId, null, tickets, tickets.size(), remaining, null);
+    }
+
+    /**
+     * Records a release attempt after the total ticket limit was reached.
+     * @param source The pool that refused the release.
+     */
+    public void limitReached(AbstractTicketPool source) {
+        enqueue(source, LogEventType.LIMIT_REACHED, null, null, null, 0, 0, null);
+    }
+
+    /**
+     * Records a free-form message.
+     * @param source  The pool the message belongs to.
+     * @param message The message.
+     */
+    public void message(AbstractTicketPool source, String message) {
+        enqueue(source, LogEventType.MESSAGE, null, null, null, 0, 0, message);
+    }
+
+    /**
+     * Retrieves a snapshot of the queue depth and the written and dropped counters.
+     * @return The current statistics.
+     */
+    public LogStats getStats() {
+        return new LogStats(getQueueDepth(), records.length, written.sum(), dropped.sum());
+    }
+
+    /**
+     * Retrieves the number of records waiting for the writer.
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+        return (int) Math.max(0, Math.min(tail.get() - head, records.length));
+    }
+
+    /**
+     * Retrieves the number of records dropped because the queue was full.
+     * @return The dropped record count.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until every record enqueued so far has been written.
+     * @param timeout Maximum time to wait.
+     * @param unit    Unit of {@code timeout}.
+     * @return true if the queue was drained; false if the timeout elapsed first.
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (head < target) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    /**
+     * Stops the writer after it has written every pending record.
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(AbstractTicketPool source, LogEventType type, String agentId, TicketDescriptor ticket,
+                         List<TicketDescriptor> tickets, int count, int remaining, String message) {
+        long position = tail.get();
+        while (true) {
+            long difference = sequences.get((int) (position & mask)) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int index = (int) (position & mask);
+        Record record = records[index];
+        record.timestamp = System.currentTimeMillis();
+        record.source = source;
+        record.type = type;
+        record.agentId = agentId;
+        record.ticket = ticket;
+        record.tickets = tickets;
+        record.count = count;
+        record.remaining = remaining;
+        record.message = message;
+        sequences.set(index, position + 1);
+
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            if (drain() > 0) {
+                flush();
+                continue;
+            }
+            if (closed) {
+                break;
+            }
+            idle = true;
+            if (!hasPending()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+        flush();
+        closeFile();
+    }
+
+    private boolean hasPending() {
+        long position = head;
+        return sequences.get((int) (position & mask)) == position + 1;
+    }
+
+    /**
+     * Writes up to {@link #MAX_BATCH} published records.
+     * @return Number of records written.
+     */
+    private int drain() {
+        int count = 0;
+        long position = head;
+        while (count < MAX_BATCH) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            Record record = records[index];
+            try {
+                write(record);
+            } catch (RuntimeException e) {
+                System.out.println("Failed to write log record: " + e.getMessage());
+            }
+            record.clear();
+            sequences.set(index, position + records.length);
+            head = ++position;
+            count++;
+        }
+        written.add(count);
+        return count;
+    }
+
+    private void write(Record record) {
+        String message = format(record);
+        record.source.logWritten(message);
+        if (console != null && console.isLoggable(Level.INFO)) {
+            console.info(message);
+        }
+        if (out != null) {
+            try {
+                out.write(Instant.ofEpochMilli(record.timestamp).toString());
+                out.write(' ');
+                out.write(record.type.name());
+                if (record.agentId != null) {
+                    out.write(" agent=" + record.agentId);
+                }
+                if (record.ticket != null) {
+                    out.write(" event=" + record.ticket.getEventId());
+                }
+                if (record.type != LogEventType.MESSAGE && record.type != LogEventType.LIMIT_REACHED) {
+                    out.write(" count=" + record.count + " remaining=" + record.remaining);
+                }
+                out.write(" | ");
+                out.write(message);
+                out.newLine();
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+        }
+    }
+
+    /**
+     * Builds the human-readable message for a record, in the wording shown in the dashboard log.
+     */
+    private static String format(Record record) {
+        TicketDescriptor ticket = record.ticket;
+        return switch (record.type) {
+            case TICKETS_ADDED -> record.agentId + " added " + record.count + " tickets for " + ticket.getEventName() +
+                    ". Total in pool: " + record.remaining;
+            case TICKET_PURCHASED -> record.agentId + " purchased a ticket for event '" + ticket.getEventName() +
+                    "' (Vendor: " + ticket.getVendorId() + ", Price: $" + ticket.getPrice() +
+                    ", Category: " + ticket.getCategory() + "). Tickets remaining in pool: " + record.remaining;
+            case TICKETS_PURCHASED -> formatBasket(record);
+            case LIMIT_REACHED -> "Total ticket limit reached. No more tickets can be added.";
+            case MESSAGE -> record.message;
+        };
+    }
+
+    private static String formatBasket(Record record) {
+        Map<String, Integer> countByEvent = new LinkedHashMap<>();
+        Map<String, String> nameByEvent = new LinkedHashMap<>();
+        double total = 0;
+        for (TicketDescriptor ticket : record.tickets) {
+            countByEvent.merge(ticket.getEventId(), 1, Integer::sum);
+            nameByEvent.putIfAbsent(ticket.getEventId(), ticket.getEventName());
+            total += ticket.getPrice();
+        }
+
+        StringJoiner events = new StringJoiner(", ");
+        for (Map.Entry<String, Integer> entry : countByEvent.entrySet()) {
+            events.add(entry.getValue() + " for event '" + nameByEvent.get(entry.getKey()) + "'");
+        }
+        return record.agentId + " purchased " + record.count + " tickets: " + events + " (Total: $" + total + "). " +
+                "Tickets remaining in pool: " + record.remaining;
+    }
+
+    private static BufferedWriter open(Path file) {
+        if (file == null) {
+            return null;
+        }
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            return Files.newBufferedWriter(file);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    private void flush() {
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+        }
+    }
+
+    private void fileFailed(IOException e) {
+        System.out.println(e.getMessage());
+        closeFile();
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // the file is abandoned either way
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * One preallocated slot of the ring. Fields are written by the producer that claimed the slot and read by
+     * the writer after the slot's sequence has been published.
+     */
+    private static final class Record {
+        private long timestamp;
+        private AbstractTicketPool source;
+        private LogEventType type;
+        private String agentId;
+        private TicketDescriptor ticket;
+        private List<TicketDescriptor> tickets;
+        private int count;
+        private int remaining;
+        private String message;
+
+        private void clear() {
+            source = null;
+            agentId = null;
+            ticket = null;
+            tickets = null;
+            message = null;
+        }
+    }
+}
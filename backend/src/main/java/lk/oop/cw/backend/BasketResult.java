@@ -0,0 +1,23 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a deadline-bounded basket purchase, {@link TicketPoolEngine#tryRemoveTickets}: why the call returned
+ * and how many tickets it bought.
+ */
+@Getter
+public final class BasketResult {
+    private final PoolResult result;
+    private final int purchased;
+
+    /**
+     * Creates a result.
+     * @param result    {@link PoolResult#SUCCESS} if tickets were purchased, otherwise why none were.
+     * @param purchased The number of tickets purchased; zero unless {@code result} is {@link PoolResult#SUCCESS}.
+     */
+    BasketResult(PoolResult result, int purchased) {
+        this.result = result;
+        this.purchased = purchased;
+    }
+}
@@ -0,0 +1,181 @@
+package lk.oop.cw.backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies a stream of vendor releases, one JSON object per line (NDJSON), to the ticket pool.
+ * <p>
+ * The body is read one line at a time, so a bulk upload of any size holds at most one chunk of parsed records in
+ * memory. Records are applied in chunks through {@link TicketService#offerTicketBatch}, which takes the pool lock
+ * once per chunk instead of once per record. A chunk is applied when it reaches {@code chunkSize} records or when
+ * no more of the body has arrived yet, so a vendor that streams records slowly gets each result without waiting
+ * for a full chunk. The result of every record, including the ones that could not be parsed, is written back as
+ * one NDJSON line in input order, and the response is flushed after each chunk.
+ * </p>
+ * <p>
+ * Releases never wait for room: a record that finds the pool full is reported as {@link ReleaseStatus#FULL} and
+ * can be sent again, so one upload cannot hold the pool lock or a request thread while customers drain it.
+ * </p>
+ */
+@Component
+public class BulkReleaseIngestor {
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final TicketService ticketService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * Creates an ingestor.
+     * @param ticketService The service the releases are applied through.
+     * @param objectMapper  The mapper used to read records and write results.
+     * @param chunkSize     Most records applied to the pool in one batch.
+     */
+    public BulkReleaseIngestor(TicketService ticketService, ObjectMapper objectMapper,
+                               @Value("${ticketing.bulk-release.chunk-size:256}") int chunkSize) {
+        this.ticketService = ticketService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Reads releases from the body until it ends, applying them chunk by chunk and writing a result per record.
+     * @param body The NDJSON request body.
+     * @param out  The response body the NDJSON results are written to.
+     * @throws IOException If the body cannot be read or the results cannot be written.
+     */
+    public void ingest(InputStream body, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<PendingRecord> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                chunk.add(parse(lineNumber, line));
+            }
+            if (chunk.size() >= chunkSize || (!chunk.isEmpty() && !reader.ready())) {
+                apply(chunk, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            apply(chunk, out);
+        }
+    }
+
+    /**
+     * Parses one line into a release, or records why it cannot be applied.
+     */
+    private PendingRecord parse(long lineNumber, String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return PendingRecord.invalid(lineNumber, 0, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            return PendingRecord.invalid(lineNumber, 0, "Expected a JSON object");
+        }
+
+        JsonNode tickets = node.get("tickets");
+        int requested = tickets != null && tickets.canConvertToInt() ? tickets.asInt() : 0;
+        for (String field : new String[] {"vendorId", "eventId", "eventName", "category"}) {
+            JsonNode value = node.get(field);
+            if (value == null || !value.isTextual() || value.asText().isBlank()) {
+                return PendingRecord.invalid(lineNumber, requested, "Missing or empty field: " + field);
+            }
+        }
+        JsonNode price = node.get("price");
+        if (price == null || !price.isNumber() || price.asDouble() < 0) {
+            return PendingRecord.invalid(lineNumber, requested, "Field price must be a non-negative number");
+        }
+        if (tickets == null || !tickets.isIntegralNumber() || !tickets.canConvertToInt() || requested <= 0) {
+            return PendingRecord.invalid(lineNumber, requested, "Field tickets must be a positive integer");
+        }
+
+        return new PendingRecord(lineNumber, new TicketRelease(node.get("vendorId").asText(),
+                node.get("eventId").asText(), node.get("eventName").asText(), price.asDouble(), requested,
+                node.get("category").asText()), null);
+    }
+
+    /**
+     * Applies the valid records of a chunk in one batch and writes the result of every record.
+     */
+    private void apply(List<PendingRecord> chunk, OutputStream out) throws IOException {
+        List<TicketRelease> releases = new ArrayList<>(chunk.size());
+        for (PendingRecord record : chunk) {
+            if (record.release != null) {
+                releases.add(record.release);
+            }
+        }
+        int[] added = releases.isEmpty() ? new int[0] : ticketService.offerTicketBatch(releases);
+        boolean fullyReleased = ticketService.isFullyReleased();
+
+        int next = 0;
+        for (PendingRecord record : chunk) {
+            ReleaseResult result;
+            if (record.release == null) {
+                result = new ReleaseResult(record.line, record.requested, 0, ReleaseStatus.INVALID, record.error);
+            } else {
+                int count = added[next++];
+                result = new ReleaseResult(record.line, record.requested, count,
+                        statusOf(record.requested, count, fullyReleased), null);
+            }
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write(NEWLINE);
+        }
+        out.flush();
+    }
+
+    /**
+     * Derives the outcome of an applied record from how many of its tickets were added.
+     */
+    private static ReleaseStatus statusOf(int requested, int added, boolean fullyReleased) {
+        if (added >= requested) {
+            return ReleaseStatus.ADDED;
+        }
+        if (added > 0) {
+            return ReleaseStatus.PARTIAL;
+        }
+        return fullyReleased ? ReleaseStatus.SOLD_OUT : ReleaseStatus.FULL;
+    }
+
+    /**
+     * A parsed line waiting for its chunk to be applied: either a release or the reason it was rejected.
+     */
+    private static final class PendingRecord {
+        private final long line;
+        private final int requested;
+        private final TicketRelease release;
+        private final String error;
+
+        private PendingRecord(long line, TicketRelease release, String error) {
+            this(line, release == null ? 0 : release.getTickets(), release, error);
+        }
+
+        private PendingRecord(long line, int requested, TicketRelease release, String error) {
+            this.line = line;
+            this.requested = requested;
+            this.release = release;
+            this.error = error;
+        }
+
+        private static PendingRecord invalid(long line, int requested, String error) {
+            return new PendingRecord(line, requested, null, error);
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package lk.oop.cw.backend;
 
 /**
- * Represents a customer that simulates ticket purchasing by interacting with a {@link TicketPool}.
+ * Represents a customer that simulates ticket purchasing by interacting with a {@link TicketPoolEngine}.
  * <p>
  * This class implements {@link Runnable} to simulate customer behavior in a multithreaded environment,
- * attempting to purchase tickets at a regular interval until tickets are sold out.
+ * attempting to purchase tickets at a regular interval until tickets are sold out. It also implements
+ * {@link SteppedAgent} so the same customer can be driven by the {@link AgentScheduler} without a dedicated thread.
+ * When the pool is reconfigured while the customer runs, it moves to the new pool on its next purchase.
  * </p>
  */
-public class Customer implements Runnable {
-    private final TicketPool ticketPool;
+public class Customer implements Runnable, SteppedAgent {
+    private volatile TicketPoolEngine ticketPool;
     private final String customerId;
     private final int retrievalInterval;
     private final int ticketsPerPurchase;
@@ -17,11 +19,11 @@ public class Customer implements Runnable {
 
     /**
      * Constructs a new Customer instance.
-     * @param ticketPool         The shared {@link TicketPool} instance this customer will interact with.
+     * @param ticketPool         The shared {@link TicketPoolEngine} this customer will interact with.
      * @param retrievalInterval  The time (in milliseconds) the customer waits between attempts to retrieve tickets.
      * @param ticketsPerPurchase The number of tickets this customer attempts to purchase in each attempt.
      */
-    public Customer(TicketPool ticketPool, int retrievalInterval, int ticketsPerPurchase) {
+    public Customer(TicketPoolEngine ticketPool, int retrievalInterval, int ticketsPerPurchase) {
         this.ticketPool = ticketPool;
         this.retrievalInterval = retrievalInterval;
         this.ticketsPerPurchase = ticketsPerPurchase;
@@ -32,23 +34,93 @@ public class Customer implements Runnable {
      * Simulates the customer's ticket purchasing behavior.
      * <p>
      * The customer continuously attempts to remove tickets from the ticket pool until the tickets are sold out.
-     * After attempting to purchase the specified number of tickets, the customer waits for the configured interval
-     * before retrying. If interrupted during this simulation, it logs the interruption and exits the loop.
+     * Each attempt buys up to the specified number of tickets in a single {@link PurchaseMode#BEST_EFFORT}
+     * purchase, so a basket is never assembled one locked call at a time. The customer then waits for the
+     * configured interval before retrying. If interrupted during this simulation, it logs the interruption and
+     * exits the loop.
      * </p>
      */
     @Override
     public void run() {
+        start();
+        boolean interrupted = false;
         try {
             while (!ticketPool.isSoldOut()) {
-                for (int i = 0; i < ticketsPerPurchase; i++) {
-                    ticketPool.removeTicket(customerId);
-                    if (ticketPool.isSoldOut()) break;
+                try {
+                    ticketPool.removeTickets(customerId, ticketsPerPurchase, PurchaseMode.BEST_EFFORT);
+                } catch (PoolRetiredException e) {
+                    ticketPool = e.getSuccessor();
+                    continue;
                 }
                 Thread.sleep(retrievalInterval);
             }
         } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        finish(interrupted);
+    }
+
+    /**
+     * Announces that the customer has started.
+     */
+    @Override
+    public void start() {
+        ticketPool.getMetrics().customersChanged(1);
+        ticketPool.publish(PoolEvent.agentStarted(customerId));
+    }
+
+    /**
+     * Makes one purchase attempt without waiting.
+     * @return {@link AgentStep#PARKED} if the pool is empty, {@link AgentStep#DONE} once the pool is
+     *         sold out, otherwise {@link AgentStep#CONTINUE}.
+     */
+    @Override
+    public AgentStep step() {
+        if (ticketPool.isSoldOut()) {
+            return AgentStep.DONE;
+        }
+        int purchased;
+        try {
+            purchased = ticketPool.pollTickets(customerId, ticketsPerPurchase, PurchaseMode.BEST_EFFORT);
+        } catch (PoolRetiredException e) {
+            ticketPool = e.getSuccessor();
+            return AgentStep.CONTINUE;
+        }
+        if (purchased == 0) {
+            return AgentStep.PARKED;
+        }
+        return ticketPool.isSoldOut() ? AgentStep.DONE : AgentStep.CONTINUE;
+    }
+
+    /**
+     * Resumes the customer once the pool has tickets again.
+     * @param resume The action that reschedules this customer.
+     */
+    @Override
+    public void parkUntilReady(Runnable resume) {
+        ticketPool.onceNotEmpty(resume);
+    }
+
+    /**
+     * Retrieves the retrieval interval.
+     * @return The interval in milliseconds.
+     */
+    @Override
+    public long getIntervalMillis() {
+        return retrievalInterval;
+    }
+
+    /**
+     * Logs and announces that the customer has stopped.
+     * @param interrupted true if the customer was stopped before the pool sold out.
+     */
+    @Override
+    public void finish(boolean interrupted) {
+        if (interrupted) {
             ticketPool.addLog("Customer interrupted");
         }
         ticketPool.addLog(customerId + " stopped as all tickets are sold.");
+        ticketPool.getMetrics().customersChanged(-1);
+        ticketPool.publish(PoolEvent.agentStopped(customerId));
     }
 }
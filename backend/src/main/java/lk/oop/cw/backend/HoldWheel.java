@@ -0,0 +1,139 @@
+package lk.oop.cw.backend;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timing wheel that runs the expiry of {@link TicketHold}s.
+ * <p>
+ * Time is cut into ticks, and the wheel has one bucket per tick of a revolution. A hold is filed in the bucket
+ * of the tick in which it expires, together with the number of whole revolutions still to go. A single
+ * worker thread wakes once per tick and walks only that tick's bucket, expiring the entries whose revolutions
+ * have run out. The work per tick is therefore proportional to the holds due in it, not to the number of
+ * holds outstanding, and scheduling a hold is O(1) whatever the number of holds.
+ * </p>
+ * <p>
+ * Callers never touch the buckets: a new entry is queued and filed by the worker at its next tick, so the
+ * buckets need no locking. A hold that is confirmed or released early is not removed; its entry finds the
+ * hold already closed when it comes due and is simply dropped. Expiry is accurate to one tick.
+ * </p>
+ */
+final class HoldWheel {
+    private static final Logger logger = LoggingConfig.getLogger();
+
+    private final long tickNanos;
+    private final Entry[] buckets;
+    private final int mask;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final long startNanos = System.nanoTime();
+    private long tick;
+
+    /**
+     * Creates a wheel; its worker thread starts with the first scheduled entry.
+     * @param tick      Length of a tick.
+     * @param unit      Unit of {@code tick}.
+     * @param wheelSize Number of buckets, i.e. ticks per revolution; must be a power of two.
+     */
+    HoldWheel(long tick, TimeUnit unit, int wheelSize) {
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickNanos = unit.toNanos(tick);
+        this.buckets = new Entry[wheelSize];
+        this.mask = wheelSize - 1;
+    }
+
+    /**
+     * Schedules an action to run on the wheel's thread once the delay has passed.
+     * <p>
+     * The action runs on the single worker thread and must not block for long, since later expiries wait for it.
+     * </p>
+     * @param delay  Time until the action is due.
+     * @param unit   Unit of {@code delay}.
+     * @param action The action to run.
+     */
+    void schedule(long delay, TimeUnit unit, Runnable action) {
+        pending.add(new Entry(System.nanoTime() + unit.toNanos(delay), action));
+        if (!started.get() && started.compareAndSet(false, true)) {
+            Thread worker = new Thread(this::run, "ticket-hold-wheel");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            long due = startNanos + (tick + 1) * tickNanos;
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            file();
+            expire((int) (tick & mask));
+            tick++;
+        }
+    }
+
+    /**
+     * Moves newly scheduled entries into their buckets. A bucket is expired at the end of its tick, so an entry
+     * goes into the tick its deadline falls in; entries already overdue go into the current tick's bucket.
+     */
+    private void file() {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            long dueTick = Math.max(tick, (entry.deadlineNanos - startNanos) / tickNanos);
+            entry.rounds = (dueTick - tick) / buckets.length;
+            int index = (int) (dueTick & mask);
+            entry.next = buckets[index];
+            buckets[index] = entry;
+        }
+    }
+
+    /**
+     * Runs the entries of one bucket that are due in this revolution and counts down the others.
+     */
+    private void expire(int index) {
+        Entry previous = null;
+        Entry entry = buckets[index];
+        while (entry != null) {
+            Entry next = entry.next;
+            if (entry.rounds > 0) {
+                entry.rounds--;
+                previous = entry;
+            } else {
+                if (previous == null) {
+                    buckets[index] = next;
+                } else {
+                    previous.next = next;
+                }
+                try {
+                    entry.action.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Ticket hold expiry failed", e);
+                }
+            }
+            entry = next;
+        }
+    }
+
+    /**
+     * One scheduled action, linked into its bucket.
+     */
+    private static final class Entry {
+        private final long deadlineNanos;
+        private final Runnable action;
+        private long rounds;
+        private Entry next;
+
+        private Entry(long deadlineNanos, Runnable action) {
+            this.deadlineNanos = deadlineNanos;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package lk.oop.cw.backend;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Running totals of a {@link SalesJournal}: the configured pool, the released and sold counters, and the net
+ * number of tickets held per {@link TicketDescriptor}.
+ * <p>
+ * The journal writer applies every record to a ledger as it writes it, so the ledger always describes exactly
+ * the records written so far. A copy taken at a segment boundary is saved as a binary snapshot, and recovery
+ * starts from the latest snapshot instead of the first segment.
+ * </p>
+ * <p>
+ * Counts are kept per descriptor, so the result does not depend on the order in which concurrent releases and
+ * purchases reached the journal; a count may be briefly negative when a purchase was journaled before its
+ * release. This class is not thread-safe; it is owned by the journal writer or by recovery.
+ * </p>
+ */
+final class JournalLedger {
+    private static final int SNAPSHOT_MAGIC = 0x54504F4F;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private PoolState configuration;
+    private final Map<TicketDescriptor, Integer> inventory;
+    private int released;
+    private int sold;
+
+    JournalLedger() {
+        this.inventory = new HashMap<>();
+    }
+
+    private JournalLedger(JournalLedger other) {
+        this.configuration = other.configuration;
+        this.inventory = new HashMap<>(other.inventory);
+        this.released = other.released;
+        this.sold = other.sold;
+    }
+
+    /**
+     * Starts over for a newly configured pool.
+     */
+    void configure(int totalTickets, int maxTicketCapacity, PoolMode mode) {
+        configuration = PoolState.empty(totalTickets, maxTicketCapacity, mode);
+        inventory.clear();
+        released = 0;
+        sold = 0;
+    }
+
+    /**
+     * Replaces the configured limits of a pool that was reconfigured live, keeping its inventory and counters.
+     */
+    void reconfigure(int totalTickets, int maxTicketCapacity, PoolMode mode) {
+        configuration = PoolState.empty(totalTickets, maxTicketCapacity, mode);
+    }
+
+    void release(TicketDescriptor ticket, int count) {
+        released += count;
+        adjust(ticket, count);
+    }
+
+    void purchase(TicketDescriptor ticket, int count) {
+        sold += count;
+        adjust(ticket, -count);
+    }
+
+    private void adjust(TicketDescriptor ticket, int delta) {
+        if (inventory.merge(ticket, delta, Integer::sum) == 0) {
+            inventory.remove(ticket);
+        }
+    }
+
+    /**
+     * Copies the ledger, for writing a snapshot on another thread.
+     * @return An independent copy.
+     */
+    JournalLedger copy() {
+        return new JournalLedger(this);
+    }
+
+    /**
+     * Builds the pool state the ledger describes.
+     * <p>
+     * A purchase whose release record was lost in a crash still counts as released, which keeps the total
+     * ticket limit from being exceeded after recovery.
+     * </p>
+     * @return The state, or null if no pool has been configured.
+     */
+    PoolState toState() {
+        if (configuration == null) {
+            return null;
+        }
+        Map<TicketDescriptor, Integer> held = new LinkedHashMap<>();
+        int remaining = 0;
+        for (Map.Entry<TicketDescriptor, Integer> entry : inventory.entrySet()) {
+            if (entry.getValue() > 0) {
+                held.put(entry.getKey(), entry.getValue());
+                remaining += entry.getValue();
+            }
+        }
+        return new PoolState(configuration.getTotalTickets(), configuration.getMaxTicketCapacity(),
+                configuration.getMode(), Math.max(released, sold + remaining), sold, held);
+    }
+
+    /**
+     * Writes the ledger as a snapshot file, replacing the target only once the new file is fully on disk.
+     * <p>
+     * The file holds the limits, the counters and one entry per descriptor, followed by a CRC-32 of everything
+     * before it.
+     * </p>
+     * @param target The snapshot file.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    void writeSnapshot(Path target) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(estimateSize());
+        data.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION);
+        boolean configured = configuration != null;
+        data.put((byte) (configured ? 1 : 0));
+        if (configured) {
+            data.putInt(configuration.getTotalTickets()).putInt(configuration.getMaxTicketCapacity())
+                    .put((byte) configuration.getMode().ordinal());
+        }
+        data.putInt(released).putInt(sold).putInt(inventory.size());
+        for (Map.Entry<TicketDescriptor, Integer> entry : inventory.entrySet()) {
+            TicketDescriptor ticket = entry.getKey();
+            putString(data, ticket.getVendorId());
+            putString(data, ticket.getEventId());
+            putString(data, ticket.getEventName());
+            data.putDouble(ticket.getPrice());
+            putString(data, ticket.getCategory());
+            data.putInt(entry.getValue());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.position());
+        data.putInt((int) crc.getValue());
+        data.flip();
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                file.write(data);
+            }
+            file.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Replaces the ledger with a snapshot written by {@link #writeSnapshot}.
+     * @param source The snapshot file.
+     * @return false if the file is damaged, leaving the ledger unchanged; true otherwise.
+     * @throws IOException If the file cannot be read.
+     */
+    boolean readSnapshot(Path source) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(source));
+        if (data.remaining() < Integer.BYTES * 3) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.limit() - Integer.BYTES);
+        if (data.getInt(data.limit() - Integer.BYTES) != (int) crc.getValue()
+                || data.getInt() != SNAPSHOT_MAGIC || data.getInt() != SNAPSHOT_VERSION) {
+            return false;
+        }
+
+        configuration = data.get() == 1
+                ? PoolState.empty(data.getInt(), data.getInt(), PoolMode.values()[data.get()])
+                : null;
+        released = data.getInt();
+        sold = data.getInt();
+        inventory.clear();
+        int entries = data.getInt();
+        for (int i = 0; i < entries; i++) {
+            TicketDescriptor ticket = new TicketDescriptor(getString(data), getString(data), getString(data),
+                    data.getDouble(), getString(data));
+            inventory.put(ticket, data.getInt());
+        }
+        return true;
+    }
+
+    private int estimateSize() {
+        int size = 64;
+        for (TicketDescriptor ticket : inventory.keySet()) {
+            size += Double.BYTES + Integer.BYTES + 4 * Short.BYTES + utf8Length(ticket.getVendorId())
+                    + utf8Length(ticket.getEventId()) + utf8Length(ticket.getEventName())
+                    + utf8Length(ticket.getCategory());
+        }
+        return size;
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    static void putString(ByteBuffer data, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        data.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getShort() & 0xFFFF];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentiles of one latency histogram, in microseconds.
+ */
+@Getter
+public class LatencySummary {
+    private final long count;
+    private final double mean;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    private LatencySummary(Histogram histogram) {
+        this.count = histogram.getTotalCount();
+        this.mean = micros(histogram.getMean());
+        this.p50 = micros(histogram.getValueAtPercentile(50));
+        this.p90 = micros(histogram.getValueAtPercentile(90));
+        this.p99 = micros(histogram.getValueAtPercentile(99));
+        this.p999 = micros(histogram.getValueAtPercentile(99.9));
+        this.max = micros(histogram.getMaxValue());
+    }
+
+    /**
+     * Summarises a histogram of nanosecond values.
+     * @param histogram The histogram to read.
+     * @return The summary.
+     */
+    public static LatencySummary of(Histogram histogram) {
+        return new LatencySummary(histogram);
+    }
+
+    private static double micros(double nanos) {
+        return Math.round(nanos / 10.0) / 100.0;
+    }
+}
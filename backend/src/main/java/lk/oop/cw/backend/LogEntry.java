@@ -0,0 +1,22 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * A single message from the {@link LogStore} together with its sequence number.
+ */
+@Getter
+public class LogEntry {
+    private final long sequence;
+    private final String message;
+
+    /**
+     * Constructs a new LogEntry.
+     * @param sequence The sequence number assigned when the message was logged.
+     * @param message  The logged message.
+     */
+    public LogEntry(long sequence, String message) {
+        this.sequence = sequence;
+        this.message = message;
+    }
+}
@@ -0,0 +1,31 @@
+package lk.oop.cw.backend;
+
+/**
+ * The kinds of record a {@link AbstractTicketPool} hands to the {@link AsyncEventLogger}.
+ */
+public enum LogEventType {
+    /**
+     * A vendor released tickets into the pool.
+     */
+    TICKETS_ADDED,
+
+    /**
+     * A customer purchased a single ticket.
+     */
+    TICKET_PURCHASED,
+
+    /**
+     * A customer purchased a basket of tickets in one step.
+     */
+    TICKETS_PURCHASED,
+
+    /**
+     * A vendor tried to release tickets after the total ticket limit was reached.
+     */
+    LIMIT_REACHED,
+
+    /**
+     * A free-form message, such as an agent stopping.
+     */
+    MESSAGE
+}
@@ -0,0 +1,28 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of log entries returned by an incremental log read.
+ * <p>
+ * Clients pass {@link #getNextCursor()} back as {@code since} on their next request to receive only the
+ * entries logged after this page.
+ * </p>
+ */
+@Getter
+public class LogPage {
+    private final List<LogEntry> entries;
+    private final long nextCursor;
+
+    /**
+     * Constructs a new LogPage.
+     * @param entries    The entries in this page, oldest first.
+     * @param nextCursor The cursor to resume reading from.
+     */
+    public LogPage(List<LogEntry> entries, long nextCursor) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,28 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * A snapshot of the {@link AsyncEventLogger} counters.
+ */
+@Getter
+public class LogStats {
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long written;
+    private final long dropped;
+
+    /**
+     * Creates a snapshot.
+     * @param queueDepth    Number of records waiting for the background writer.
+     * @param queueCapacity Maximum number of records that can wait before new ones are dropped.
+     * @param written       Number of records written since startup.
+     * @param dropped       Number of records dropped because the queue was full.
+     */
+    public LogStats(int queueDepth, int queueCapacity, long written, long dropped) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.written = written;
+        this.dropped = dropped;
+    }
+}
@@ -0,0 +1,112 @@
+package lk.oop.cw.backend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed-capacity, in-memory log of activity messages.
+ * <p>
+ * Messages are kept in a ring buffer and stamped with a monotonically increasing sequence number. Once
+ * the ring is full the oldest message is overwritten, so memory use stays constant however long the
+ * simulation runs. Readers page through the log with a cursor and only receive messages they have not
+ * seen yet.
+ * </p>
+ */
+public class LogStore {
+    /**
+     * Number of messages retained when no capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /**
+     * Upper bound on the number of entries returned by a single {@link #read} call.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final String[] messages;
+    private long nextSequence = 0;
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Creates a log store holding {@link #DEFAULT_CAPACITY} messages.
+     */
+    public LogStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a log store holding up to {@code capacity} messages.
+     * @param capacity Number of most recent messages to retain.
+     */
+    public LogStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.messages = new String[capacity];
+    }
+
+    /**
+     * Appends a message, overwriting the oldest one if the store is full.
+     * @param message Message to append.
+     * @return The sequence number assigned to the message.
+     */
+    public long append(String message) {
+        lock.lock();
+        try {
+            long sequence = nextSequence++;
+            messages[(int) (sequence % messages.length)] = message;
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the messages with a sequence number of at least {@code since}.
+     * <p>
+     * A cursor older than the retained window resumes at the oldest retained message. A cursor ahead of
+     * the log (for example one issued before the pool was reconfigured) is treated as a fresh start.
+     * </p>
+     * @param since Sequence number of the first message wanted, usually the cursor returned by the previous read.
+     * @param limit Maximum number of messages to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @return The page of messages and the cursor to use for the next read.
+     */
+    public LogPage read(long since, int limit) {
+        int pageSize = Math.max(0, Math.min(limit, MAX_PAGE_SIZE));
+        lock.lock();
+        try {
+            long oldest = Math.max(0, nextSequence - messages.length);
+            long from = since > nextSequence ? oldest : Math.max(since, oldest);
+            long to = Math.min(nextSequence, from + pageSize);
+
+            List<LogEntry> entries = new ArrayList<>((int) (to - from));
+            for (long sequence = from; sequence < to; sequence++) {
+                entries.add(new LogEntry(sequence, messages[(int) (sequence % messages.length)]));
+            }
+            return new LogPage(entries, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies every retained message, oldest first.
+     * @return A list of retained messages.
+     */
+    public List<String> snapshot() {
+        lock.lock();
+        try {
+            long oldest = Math.max(0, nextSequence - messages.length);
+            List<String> copy = new ArrayList<>((int) (nextSequence - oldest));
+            for (long sequence = oldest; sequence < nextSequence; sequence++) {
+                copy.add(messages[(int) (sequence % messages.length)]);
+            }
+            return copy;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
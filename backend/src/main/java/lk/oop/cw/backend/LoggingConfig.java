@@ -2,9 +2,8 @@ package lk.oop.cw.backend;
 
 import lombok.Getter;
 
-import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.ConsoleHandler;
-import java.util.logging.FileHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
@@ -12,32 +11,29 @@ import java.util.logging.SimpleFormatter;
 /**
  * Configures logging for the application.
  * <p>
- * This class sets up a logger with both console and file handlers. Logs are saved to the file
- * `logs/app.log` and are also output to the console. It initializes the logger with a simple
- * formatter and sets the logging level to {@link Level #INFO}.
+ * Pool activity is written by an {@link AsyncEventLogger}, whose background thread saves it to the file
+ * `logs/app.log` and also passes every message to a console logger. The console logger uses a simple
+ * formatter and its level is set to {@link Level #INFO}; raising the level silences the console without
+ * affecting the file.
  * </p>
  */
 public class LoggingConfig {
     @Getter
     private static Logger logger;
 
-    static {
-        try {
-            FileHandler fileHandler = new FileHandler("logs/app.log", false);
-            fileHandler.setFormatter(new SimpleFormatter());
+    @Getter
+    private static AsyncEventLogger eventLogger;
 
-            ConsoleHandler consoleHandler = new ConsoleHandler();
-            consoleHandler.setFormatter(new SimpleFormatter());
+    static {
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        consoleHandler.setFormatter(new SimpleFormatter());
 
-            logger = Logger.getLogger(LoggingConfig.class.getName());
-            logger.addHandler(fileHandler);
-            logger.addHandler(consoleHandler);
+        logger = Logger.getLogger(LoggingConfig.class.getName());
+        logger.addHandler(consoleHandler);
 
-            logger.setLevel(Level.INFO);
+        logger.setLevel(Level.INFO);
 
-        } catch (IOException e) {
-            System.out.println(e.getMessage());
-        }
+        eventLogger = new AsyncEventLogger(Path.of("logs", "app.log"), logger);
     }
 
 }
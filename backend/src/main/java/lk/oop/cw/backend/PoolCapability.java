@@ -0,0 +1,29 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * An optional operation of a {@link TicketPoolEngine}, checked through {@link TicketPoolEngine#supports} before the
+ * operation is called.
+ */
+@Getter
+public enum PoolCapability {
+    /**
+     * Selling a ticket by event, category and price through {@link TicketPoolEngine#purchaseMatching}.
+     */
+    MATCHING_PURCHASE("sell tickets by event, category or price"),
+
+    /**
+     * Holding tickets during checkout through {@link TicketPoolEngine#holdTickets}.
+     */
+    HOLDS("hold tickets");
+
+    /**
+     * What an engine without this capability cannot do, phrased to follow "cannot", for error messages.
+     */
+    private final String description;
+
+    PoolCapability(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,91 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * An immutable record of a single piece of ticket pool activity.
+ * <p>
+ * Only the fields relevant to the {@link PoolEventType} are populated; the rest are left null or zero.
+ * Instances are created through the static factory methods.
+ * </p>
+ */
+@Getter
+public class PoolEvent {
+    private final PoolEventType type;
+    private final String agentId;
+    private final String eventId;
+    private final int count;
+    private final int remaining;
+    private final long sequence;
+    private final String message;
+
+    private PoolEvent(PoolEventType type, String agentId, String eventId, int count, int remaining, long sequence, String message) {
+        this.type = type;
+        this.agentId = agentId;
+        this.eventId = eventId;
+        this.count = count;
+        this.remaining = remaining;
+        this.sequence = sequence;
+        this.message = message;
+    }
+
+    /**
+     * Creates an event for tickets released by a vendor.
+     * @param vendorId  The vendor that released the tickets.
+     * @param eventId   The event the tickets belong to.
+     * @param count     The number of tickets released.
+     * @param remaining The number of tickets in the pool afterwards.
+     * @return The new event.
+     */
+    public static PoolEvent ticketsAdded(String vendorId, String eventId, int count, int remaining) {
+        return new PoolEvent(PoolEventType.TICKETS_ADDED, vendorId, eventId, count, remaining, 0, null);
+    }
+
+    /**
+     * Creates an event for tickets purchased by a customer.
+     * @param customerId The customer that purchased the tickets.
+     * @param eventId    The event the tickets belong to.
+     * @param count      The number of tickets purchased.
+     * @param remaining  The number of tickets in the pool afterwards.
+     * @return The new event.
+     */
+    public static PoolEvent ticketPurchased(String customerId, String eventId, int count, int remaining) {
+        return new PoolEvent(PoolEventType.TICKET_PURCHASED, customerId, eventId, count, remaining, 0, null);
+    }
+
+    /**
+     * Creates an event for an agent that started running.
+     * @param agentId The vendor or customer ID.
+     * @return The new event.
+     */
+    public static PoolEvent agentStarted(String agentId) {
+        return new PoolEvent(PoolEventType.AGENT_STARTED, agentId, null, 0, 0, 0, null);
+    }
+
+    /**
+     * Creates an event for an agent that stopped running.
+     * @param agentId The vendor or customer ID.
+     * @return The new event.
+     */
+    public static PoolEvent agentStopped(String agentId) {
+        return new PoolEvent(PoolEventType.AGENT_STOPPED, agentId, null, 0, 0, 0, null);
+    }
+
+    /**
+     * Creates an event for the pool selling its last ticket.
+     * @return The new event.
+     */
+    public static PoolEvent soldOut() {
+        return new PoolEvent(PoolEventType.SOLD_OUT, null, null, 0, 0, 0, null);
+    }
+
+    /**
+     * Creates an event for a message written to the pool log.
+     * @param sequence The sequence number assigned by the {@link LogStore}.
+     * @param message  The logged message.
+     * @return The new event.
+     */
+    public static PoolEvent log(long sequence, String message) {
+        return new PoolEvent(PoolEventType.LOG, null, null, 0, 0, sequence, message);
+    }
+}
@@ -0,0 +1,277 @@
+package lk.oop.cw.backend;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans ticket pool events out to Server-Sent Events subscribers.
+ * <p>
+ * Publishing never blocks: each event is appended to a lock-free per-subscriber queue and the call returns.
+ * A background task flushes every subscriber at a fixed interval. Ticket releases and purchases are
+ * coalesced into a single {@code status} update per flush, while agent and sold-out events are sent
+ * individually. A subscriber whose backlog of those grows beyond {@link #MAX_QUEUED_EVENTS} is considered too
+ * slow and is disconnected instead of slowing down the pool or the other subscribers; once the backlog reaches
+ * half of that, it is flushed straight away rather than at the next interval.
+ * </p>
+ * <p>
+ * Log events are sampled instead: a subscriber is sent at most {@link #MAX_LOGS_PER_FLUSH} of the newest log
+ * entries per flush, preceded by a {@code logsSkipped} event counting the older ones it missed and saying
+ * whether a fresh log was started among them. The skipped entries stay available from the logs endpoint. A
+ * busy sale logging thousands of lines a second therefore costs each subscriber a bounded amount per flush and
+ * never gets it disconnected.
+ * </p>
+ */
+@Component
+public class PoolEventHub implements PoolEventListener {
+    /**
+     * Maximum number of undelivered events a subscriber may accumulate before it is dropped.
+     */
+    public static final int MAX_QUEUED_EVENTS = 1024;
+
+    /**
+     * Maximum number of log entries sent to a subscriber per flush; older ones are counted as skipped.
+     */
+    public static final int MAX_LOGS_PER_FLUSH = 50;
+
+    private static final long FLUSH_INTERVAL_MILLIS = 200;
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(daemon("pool-event-flush"));
+    private final ExecutorService senders = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), daemon("pool-event-sender"));
+
+    /**
+     * Creates the hub and starts its flush task.
+     */
+    public PoolEventHub() {
+        flushScheduler.scheduleWithFixedDelay(this::flushAll, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues an event for every subscriber without blocking.
+     * @param event The published event.
+     */
+    @Override
+    public void onEvent(PoolEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+            if (subscriber.queued.get() >= MAX_QUEUED_EVENTS / 2) {
+                flush(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Registers a new Server-Sent Events subscriber.
+     * @param remaining The current number of tickets in the pool, sent as the first status update.
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe(int remaining) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(emitter, remaining);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Retrieves the number of connected subscribers.
+     * @return Number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Stops the background flush and send threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushScheduler.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private void flushAll() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.dropped.get()) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+            } else if (subscriber.hasPending()) {
+                flush(subscriber);
+            }
+        }
+    }
+
+    private void flush(Subscriber subscriber) {
+        if (subscriber.flushing.compareAndSet(false, true)) {
+            senders.execute(subscriber::flush);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One connected client together with its undelivered events, sampled log entries and coalesced status.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<PoolEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean dropped = new AtomicBoolean();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+
+        private final Queue<PoolEvent> logs = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger logsQueued = new AtomicInteger();
+        private final LongAdder logsSkipped = new LongAdder();
+        private final AtomicBoolean logRestartSkipped = new AtomicBoolean();
+
+        private final AtomicBoolean statusDirty = new AtomicBoolean(true);
+        private final LongAdder added = new LongAdder();
+        private final LongAdder purchased = new LongAdder();
+        private volatile int remaining;
+
+        private Subscriber(SseEmitter emitter, int remaining) {
+            this.emitter = emitter;
+            this.remaining = remaining;
+        }
+
+        private void offer(PoolEvent event) {
+            switch (event.getType()) {
+                case TICKETS_ADDED -> {
+                    added.add(event.getCount());
+                    remaining = event.getRemaining();
+                    statusDirty.set(true);
+                }
+                case TICKET_PURCHASED -> {
+                    purchased.add(event.getCount());
+                    remaining = event.getRemaining();
+                    statusDirty.set(true);
+                }
+                case LOG -> {
+                    logs.offer(event);
+                    if (logsQueued.incrementAndGet() > MAX_LOGS_PER_FLUSH) {
+                        skipOldestLog();
+                    }
+                }
+                default -> {
+                    if (queued.incrementAndGet() > MAX_QUEUED_EVENTS) {
+                        dropped.set(true);
+                    } else {
+                        queue.offer(event);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Discards the oldest undelivered log entry, remembering if it was the first entry of a fresh log so the
+         * client still learns that the log restarted.
+         */
+        private void skipOldestLog() {
+            PoolEvent skipped = logs.poll();
+            if (skipped != null) {
+                logsQueued.decrementAndGet();
+                logsSkipped.increment();
+                if (skipped.getSequence() == 0) {
+                    logRestartSkipped.set(true);
+                }
+            }
+        }
+
+        private boolean hasPending() {
+            return statusDirty.get() || queued.get() > 0 || logsQueued.get() > 0;
+        }
+
+        private void flush() {
+            try {
+                if (statusDirty.getAndSet(false)) {
+                    StatusUpdate status = new StatusUpdate(remaining, added.sumThenReset(), purchased.sumThenReset());
+                    emitter.send(SseEmitter.event().name("status").data(status, MediaType.APPLICATION_JSON));
+                }
+                PoolEvent event;
+                while ((event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(SseEmitter.event().name(eventName(event.getType())).data(event, MediaType.APPLICATION_JSON));
+                }
+                long skipped = logsSkipped.sumThenReset();
+                if (skipped > 0) {
+                    LogsSkipped marker = new LogsSkipped(skipped, logRestartSkipped.getAndSet(false));
+                    emitter.send(SseEmitter.event().name("logsSkipped").data(marker, MediaType.APPLICATION_JSON));
+                }
+                while ((event = logs.poll()) != null) {
+                    logsQueued.decrementAndGet();
+                    emitter.send(SseEmitter.event().name("log").data(event, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                dropped.set(true);
+            } finally {
+                flushing.set(false);
+            }
+        }
+
+        private static String eventName(PoolEventType type) {
+            return switch (type) {
+                case AGENT_STARTED, AGENT_STOPPED -> "agent";
+                case SOLD_OUT -> "soldOut";
+                default -> "status";
+            };
+        }
+    }
+
+    /**
+     * The coalesced pool status sent to a subscriber once per flush.
+     */
+    @Getter
+    public static final class StatusUpdate {
+        private final int remaining;
+        private final long added;
+        private final long purchased;
+
+        private StatusUpdate(int remaining, long added, long purchased) {
+            this.remaining = remaining;
+            this.added = added;
+            this.purchased = purchased;
+        }
+    }
+
+    /**
+     * Tells a subscriber how many log entries were left out of a flush because more were written than
+     * {@link #MAX_LOGS_PER_FLUSH}.
+     */
+    @Getter
+    public static final class LogsSkipped {
+        private final long count;
+        private final boolean restarted;
+
+        private LogsSkipped(long count, boolean restarted) {
+            this.count = count;
+            this.restarted = restarted;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package lk.oop.cw.backend;
+
+/**
+ * Receives activity events published by a {@link TicketPoolEngine}.
+ * <p>
+ * Events are delivered on the thread that caused them, often while the pool holds its lock, so
+ * implementations must return quickly and must never block.
+ * </p>
+ */
+@FunctionalInterface
+public interface PoolEventListener {
+    /**
+     * A listener that ignores every event.
+     */
+    PoolEventListener NONE = event -> { };
+
+    /**
+     * Called for each event published by the pool.
+     * @param event The published event.
+     */
+    void onEvent(PoolEvent event);
+}
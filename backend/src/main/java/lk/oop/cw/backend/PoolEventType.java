@@ -0,0 +1,36 @@
+package lk.oop.cw.backend;
+
+/**
+ * The kinds of activity a {@link TicketPoolEngine} reports to its {@link PoolEventListener}.
+ */
+public enum PoolEventType {
+    /**
+     * A vendor released tickets into the pool.
+     */
+    TICKETS_ADDED,
+
+    /**
+     * A customer purchased tickets from the pool.
+     */
+    TICKET_PURCHASED,
+
+    /**
+     * A vendor or customer agent started running.
+     */
+    AGENT_STARTED,
+
+    /**
+     * A vendor or customer agent stopped running.
+     */
+    AGENT_STOPPED,
+
+    /**
+     * The last ticket of the total budget was sold.
+     */
+    SOLD_OUT,
+
+    /**
+     * A message was written to the pool log.
+     */
+    LOG
+}
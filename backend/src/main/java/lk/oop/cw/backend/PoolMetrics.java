@@ -0,0 +1,204 @@
+package lk.oop.cw.backend;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Latency histograms, counters and gauges for one {@link TicketPoolEngine}.
+ * <p>
+ * Latencies go into HdrHistogram {@link Recorder}s, which record without locks or allocation. Release and
+ * purchase counts are kept per interned {@link TicketDescriptor} in {@link LongAdder}s, so the hot path does
+ * one map lookup and one add; they are only grouped by event, vendor and category when a snapshot is taken.
+ * Recording is cheap enough to stay on in production: the timed sections cost two {@link System#nanoTime()}
+ * calls each.
+ * </p>
+ * <p>
+ * {@link #snapshot} folds the interval histograms into running totals, so each scrape reports everything
+ * recorded since the pool was created, and the purchase rate over the time since the previous scrape.
+ * </p>
+ */
+public class PoolMetrics {
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder add = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder remove = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder lockWait = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder conditionWait = new Recorder(SIGNIFICANT_DIGITS);
+
+    private final Histogram addTotal = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram removeTotal = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram lockWaitTotal = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram conditionWaitTotal = new Histogram(SIGNIFICANT_DIGITS);
+
+    private final Map<TicketDescriptor, TicketCounters> counters = new ConcurrentHashMap<>();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder purchased = new LongAdder();
+    private final AtomicInteger activeVendors = new AtomicInteger();
+    private final AtomicInteger activeCustomers = new AtomicInteger();
+
+    private final long createdNanos = System.nanoTime();
+    private long lastSnapshotNanos = createdNanos;
+    private long lastPurchased;
+
+    /**
+     * Records the full duration of a release call, including any wait for room.
+     * @param startNanos {@link System#nanoTime()} taken when the call started.
+     */
+    public void recordAdd(long startNanos) {
+        add.recordValue(elapsedSince(startNanos));
+    }
+
+    /**
+     * Records the full duration of a purchase call, including any wait for tickets.
+     * @param startNanos {@link System#nanoTime()} taken when the call started.
+     */
+    public void recordRemove(long startNanos) {
+        remove.recordValue(elapsedSince(startNanos));
+    }
+
+    /**
+     * Records how long a caller waited to acquire a pool lock.
+     * @param nanos The wait in nanoseconds.
+     */
+    public void recordLockWait(long nanos) {
+        lockWait.recordValue(Math.max(0, nanos));
+    }
+
+    /**
+     * Records how long a caller waited for the pool to become non-full or non-empty.
+     * @param nanos The wait in nanoseconds.
+     */
+    public void recordConditionWait(long nanos) {
+        conditionWait.recordValue(Math.max(0, nanos));
+    }
+
+    /**
+     * Counts tickets released into the pool.
+     * @param ticket The details of the released tickets.
+     * @param count  Number of tickets released.
+     */
+    public void recordRelease(TicketDescriptor ticket, int count) {
+        if (count > 0) {
+            countersFor(ticket).released.add(count);
+            released.add(count);
+        }
+    }
+
+    /**
+     * Counts tickets purchased from the pool.
+     * @param ticket The details of the purchased tickets.
+     * @param count  Number of tickets purchased.
+     */
+    public void recordPurchase(TicketDescriptor ticket, int count) {
+        if (count > 0) {
+            countersFor(ticket).purchased.add(count);
+            purchased.add(count);
+        }
+    }
+
+    /**
+     * Tracks a vendor agent starting or stopping.
+     * @param delta +1 when a vendor starts, -1 when it stops.
+     */
+    public void vendorsChanged(int delta) {
+        activeVendors.addAndGet(delta);
+    }
+
+    /**
+     * Tracks a customer agent starting or stopping.
+     * @param delta +1 when a customer starts, -1 when it stops.
+     */
+    public void customersChanged(int delta) {
+        activeCustomers.addAndGet(delta);
+    }
+
+    /**
+     * Retrieves the number of vendor and customer agents currently running.
+     * @return Active vendors plus active customers.
+     */
+    public int getActiveAgents() {
+        return activeVendors.get() + activeCustomers.get();
+    }
+
+    /**
+     * Takes a snapshot of every metric.
+     * @param poolDepth Number of tickets currently in the pool.
+     * @return The snapshot.
+     */
+    public synchronized PoolMetricsSnapshot snapshot(int poolDepth) {
+        addTotal.add(add.getIntervalHistogram());
+        removeTotal.add(remove.getIntervalHistogram());
+        lockWaitTotal.add(lockWait.getIntervalHistogram());
+        conditionWaitTotal.add(conditionWait.getIntervalHistogram());
+
+        long now = System.nanoTime();
+        long purchasedNow = purchased.sum();
+        double seconds = Math.max(1, now - lastSnapshotNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        double purchasesPerSecond = (purchasedNow - lastPurchased) / seconds;
+        lastSnapshotNanos = now;
+        lastPurchased = purchasedNow;
+
+        return new PoolMetricsSnapshot(
+                TimeUnit.NANOSECONDS.toMillis(now - createdNanos),
+                LatencySummary.of(addTotal), LatencySummary.of(removeTotal),
+                LatencySummary.of(lockWaitTotal), LatencySummary.of(conditionWaitTotal),
+                released.sum(), purchasedNow, Math.round(purchasesPerSecond * 100) / 100.0,
+                group(TicketDescriptor::getEventId, true), group(TicketDescriptor::getVendorId, true),
+                group(TicketDescriptor::getCategory, true),
+                group(TicketDescriptor::getEventId, false), group(TicketDescriptor::getVendorId, false),
+                group(TicketDescriptor::getCategory, false),
+                poolDepth, activeVendors.get(), activeCustomers.get());
+    }
+
+    /**
+     * Sums the tickets released per event, without touching the latency histograms.
+     * @return Tickets released per event ID.
+     */
+    public Map<String, Long> releasesByEvent() {
+        return group(TicketDescriptor::getEventId, true);
+    }
+
+    /**
+     * Sums the tickets purchased per event, without touching the latency histograms.
+     * @return Tickets purchased per event ID.
+     */
+    public Map<String, Long> purchasesByEvent() {
+        return group(TicketDescriptor::getEventId, false);
+    }
+
+    private Map<String, Long> group(Function<TicketDescriptor, String> key, boolean releases) {
+        Map<String, Long> totals = new TreeMap<>();
+        counters.forEach((ticket, counts) -> {
+            long value = releases ? counts.released.sum() : counts.purchased.sum();
+            if (value > 0) {
+                totals.merge(String.valueOf(key.apply(ticket)), value, Long::sum);
+            }
+        });
+        return totals;
+    }
+
+    private TicketCounters countersFor(TicketDescriptor ticket) {
+        TicketCounters existing = counters.get(ticket);
+        return existing != null ? existing : counters.computeIfAbsent(ticket, t -> new TicketCounters());
+    }
+
+    private static long elapsedSince(long startNanos) {
+        return Math.max(0, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Release and purchase counts for one descriptor.
+     */
+    private static final class TicketCounters {
+        private final LongAdder released = new LongAdder();
+        private final LongAdder purchased = new LongAdder();
+    }
+}
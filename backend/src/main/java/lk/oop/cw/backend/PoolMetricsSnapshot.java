@@ -0,0 +1,63 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * The metrics of a {@link TicketPoolEngine} at one point in time, as served by {@code /api/tickets/metrics}.
+ * <p>
+ * Latencies are cumulative since the pool was configured and given in microseconds. The per-event,
+ * per-vendor and per-category maps count tickets.
+ * </p>
+ */
+@Getter
+public class PoolMetricsSnapshot {
+    private final long uptimeMillis;
+
+    private final LatencySummary addLatency;
+    private final LatencySummary removeLatency;
+    private final LatencySummary lockWait;
+    private final LatencySummary conditionWait;
+
+    private final long ticketsReleased;
+    private final long ticketsPurchased;
+    private final double purchasesPerSecond;
+
+    private final Map<String, Long> releasesByEvent;
+    private final Map<String, Long> releasesByVendor;
+    private final Map<String, Long> releasesByCategory;
+    private final Map<String, Long> purchasesByEvent;
+    private final Map<String, Long> purchasesByVendor;
+    private final Map<String, Long> purchasesByCategory;
+
+    private final int poolDepth;
+    private final int activeVendors;
+    private final int activeCustomers;
+
+    PoolMetricsSnapshot(long uptimeMillis, LatencySummary addLatency, LatencySummary removeLatency,
+                        LatencySummary lockWait, LatencySummary conditionWait,
+                        long ticketsReleased, long ticketsPurchased, double purchasesPerSecond,
+                        Map<String, Long> releasesByEvent, Map<String, Long> releasesByVendor,
+                        Map<String, Long> releasesByCategory, Map<String, Long> purchasesByEvent,
+                        Map<String, Long> purchasesByVendor, Map<String, Long> purchasesByCategory,
+                        int poolDepth, int activeVendors, int activeCustomers) {
+        this.uptimeMillis = uptimeMillis;
+        this.addLatency = addLatency;
+        this.removeLatency = removeLatency;
+        this.lockWait = lockWait;
+        this.conditionWait = conditionWait;
+        this.ticketsReleased = ticketsReleased;
+        this.ticketsPurchased = ticketsPurchased;
+        this.purchasesPerSecond = purchasesPerSecond;
+        this.releasesByEvent = releasesByEvent;
+        this.releasesByVendor = releasesByVendor;
+        this.releasesByCategory = releasesByCategory;
+        this.purchasesByEvent = purchasesByEvent;
+        this.purchasesByVendor = purchasesByVendor;
+        this.purchasesByCategory = purchasesByCategory;
+        this.poolDepth = poolDepth;
+        this.activeVendors = activeVendors;
+        this.activeCustomers = activeCustomers;
+    }
+}
@@ -0,0 +1,55 @@
+package lk.oop.cw.backend;
+
+/**
+ * Selects the inventory engine that backs the ticket pool.
+ * <p>
+ * The application starts with the mode named by the {@code ticketing.pool.engine} property (default
+ * {@link #STANDARD}), which {@link TicketPoolConfig} reads when it creates the pool. The {@code mode} parameter of
+ * {@code POST /api/tickets/configure} switches it at run time through {@link TicketService#initializeTicketPool},
+ * and defaults to the same property. After a restart the engine recorded in the sales journal is used.
+ * </p>
+ * <p>
+ * Every mode keeps the same capacity and total ticket limits; they differ only in how concurrent
+ * vendors and customers are coordinated, and in which optional operations they support (see
+ * {@link TicketPoolEngine#supports}). The journal stores modes by position, so new modes go at the end.
+ * </p>
+ */
+public enum PoolMode {
+    /**
+     * The original pool, see {@link TicketPool}: a {@link TicketInventory} of run-length batches, one per release,
+     * indexed by event, category and price and guarded by a single {@link java.util.concurrent.locks.ReentrantLock}.
+     */
+    STANDARD,
+
+    /**
+     * A bounded lock-free ring buffer, see {@link RingBufferTicketPool}.
+     */
+    RING_BUFFER,
+
+    /**
+     * One independently locked sub-pool per event with work stealing, see {@link ShardedTicketPool}.
+     */
+    SHARDED,
+
+    /**
+     * The standard pool with direct handoff: released tickets are granted to waiting customers in arrival order
+     * and only as many customers are woken as there are tickets, instead of waking every waiting customer on
+     * every release; waiting vendors are served the same way as room frees up. See {@link WaiterLine}.
+     */
+    HANDOFF;
+
+    /**
+     * Creates an empty pool backed by this engine.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets that can be in the pool at a time.
+     * @return The new pool.
+     */
+    public TicketPoolEngine create(int totalTickets, int maxTicketCapacity) {
+        return switch (this) {
+            case STANDARD -> new TicketPool(totalTickets, maxTicketCapacity);
+            case RING_BUFFER -> new RingBufferTicketPool(totalTickets, maxTicketCapacity);
+            case SHARDED -> new ShardedTicketPool(totalTickets, maxTicketCapacity);
+            case HANDOFF -> new TicketPool(totalTickets, maxTicketCapacity, true);
+        };
+    }
+}
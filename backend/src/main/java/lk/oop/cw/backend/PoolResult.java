@@ -0,0 +1,22 @@
+package lk.oop.cw.backend;
+
+/**
+ * Outcome of a deadline-bounded pool call such as {@link TicketPoolEngine#tryRemoveTicket} or {@link TicketPoolEngine#tryAddTickets}.
+ */
+public enum PoolResult {
+    /**
+     * The tickets were purchased or released.
+     */
+    SUCCESS,
+
+    /**
+     * The deadline passed, or the caller was interrupted, before the pool could serve the call.
+     */
+    TIMED_OUT,
+
+    /**
+     * Waiting cannot help: for a purchase every ticket has been sold, and for a release the total ticket limit
+     * has been reached.
+     */
+    SOLD_OUT
+}
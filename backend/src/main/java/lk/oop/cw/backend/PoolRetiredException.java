@@ -0,0 +1,48 @@
+package lk.oop.cw.backend;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Thrown by a pool engine that is handing its tickets over to a new pool during a live reconfiguration.
+ * <p>
+ * Nothing was added or purchased by the call that threw it, so the caller simply repeats the call on
+ * {@link #getSuccessor()}. The exception carries no stack trace, since it is part of normal operation.
+ * </p>
+ */
+public class PoolRetiredException extends RuntimeException {
+    private final transient CompletableFuture<TicketPoolEngine> handover;
+
+    /**
+     * Creates the exception for a pool whose handover is in progress.
+     * @param handover Completed with the pool that takes over once the handover is done.
+     */
+    PoolRetiredException(CompletableFuture<TicketPoolEngine> handover) {
+        super("The ticket pool has been reconfigured", null, false, false);
+        this.handover = handover;
+    }
+
+    /**
+     * Retrieves the pool that replaces the retired one, waiting for the handover to finish.
+     * <p>
+     * Must not be called while a pool call is still in progress on the calling thread, for example from a
+     * callback registered with {@link TicketPoolEngine#onceNotEmpty}, since the handover waits for that call to end.
+     * Use {@link #whenReplaced} there instead.
+     * </p>
+     * @return The new pool; the retired pool itself if the reconfiguration was rejected.
+     */
+    public TicketPoolEngine getSuccessor() {
+        return handover.join();
+    }
+
+    /**
+     * Runs an action with the pool that replaces the retired one, without waiting for the handover.
+     * <p>
+     * The action runs at once if the handover has finished, or otherwise on the thread that finishes it.
+     * </p>
+     * @param action The action to run.
+     */
+    public void whenReplaced(Consumer<TicketPoolEngine> action) {
+        handover.thenAccept(action);
+    }
+}
@@ -0,0 +1,69 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * An immutable view of a {@link TicketPoolEngine}'s state, as served by {@code /api/tickets/status/snapshot}.
+ * <p>
+ * The version grows with every new snapshot, so a client that sees the same version twice knows that nothing
+ * changed in between. The per-event maps count tickets since the backend started.
+ * </p>
+ */
+@Getter
+public class PoolSnapshot {
+    private final long version;
+    private final long takenAtMillis;
+    private final PoolMode mode;
+    private final int totalTickets;
+    private final int maxTicketCapacity;
+    private final int released;
+    private final int sold;
+    private final int remaining;
+    private final int onHold;
+    private final boolean soldOut;
+    private final Map<String, Long> releasedByEvent;
+    private final Map<String, Long> soldByEvent;
+
+    /**
+     * Creates a snapshot.
+     * @param version           Sequence number of the snapshot.
+     * @param takenAtMillis     Wall-clock time the snapshot was taken at.
+     * @param mode              The engine backing the pool.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets in the pool at a time.
+     * @param released          Tickets released so far.
+     * @param sold              Tickets sold so far.
+     * @param remaining         Tickets in the pool.
+     * @param onHold            Tickets on hold.
+     * @param soldOut           Whether every ticket has been sold.
+     * @param releasedByEvent   Tickets released per event.
+     * @param soldByEvent       Tickets sold per event.
+     */
+    PoolSnapshot(long version, long takenAtMillis, PoolMode mode, int totalTickets, int maxTicketCapacity,
+                 int released, int sold, int remaining, int onHold, boolean soldOut,
+                 Map<String, Long> releasedByEvent, Map<String, Long> soldByEvent) {
+        this.version = version;
+        this.takenAtMillis = takenAtMillis;
+        this.mode = mode;
+        this.totalTickets = totalTickets;
+        this.maxTicketCapacity = maxTicketCapacity;
+        this.released = released;
+        this.sold = sold;
+        this.remaining = remaining;
+        this.onHold = onHold;
+        this.soldOut = soldOut;
+        this.releasedByEvent = Map.copyOf(releasedByEvent);
+        this.soldByEvent = Map.copyOf(soldByEvent);
+    }
+
+    /**
+     * Checks whether the snapshot still describes a pool with the given counters.
+     * @return true if none of the counters has changed since the snapshot was taken.
+     */
+    boolean matches(int released, int sold, int remaining, int onHold) {
+        return this.released == released && this.sold == sold && this.remaining == remaining
+                && this.onHold == onHold;
+    }
+}
@@ -0,0 +1,66 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The durable state of a pool: its configured limits, its counters and the tickets it holds.
+ * <p>
+ * Recovery builds one from the {@link SalesJournal} and hands it to {@link TicketPoolEngine#restore}. The inventory
+ * keeps one entry per distinct {@link TicketDescriptor}; the order of tickets within the pool is not preserved.
+ * </p>
+ */
+@Getter
+public final class PoolState {
+    private final int totalTickets;
+    private final int maxTicketCapacity;
+    private final PoolMode mode;
+    private final int released;
+    private final int sold;
+    private final Map<TicketDescriptor, Integer> inventory;
+
+    /**
+     * Creates a state.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets that can be in the pool at a time.
+     * @param mode              The inventory engine backing the pool.
+     * @param released          Number of tickets released so far.
+     * @param sold              Number of tickets sold so far.
+     * @param inventory         Number of tickets in the pool per descriptor.
+     */
+    public PoolState(int totalTickets, int maxTicketCapacity, PoolMode mode, int released, int sold,
+                     Map<TicketDescriptor, Integer> inventory) {
+        this.totalTickets = totalTickets;
+        this.maxTicketCapacity = maxTicketCapacity;
+        this.mode = mode;
+        this.released = released;
+        this.sold = sold;
+        this.inventory = Collections.unmodifiableMap(new LinkedHashMap<>(inventory));
+    }
+
+    /**
+     * Creates the state of a freshly configured pool.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets that can be in the pool at a time.
+     * @param mode              The inventory engine backing the pool.
+     * @return A state with no tickets released or sold.
+     */
+    public static PoolState empty(int totalTickets, int maxTicketCapacity, PoolMode mode) {
+        return new PoolState(totalTickets, maxTicketCapacity, mode, 0, 0, Map.of());
+    }
+
+    /**
+     * Retrieves the number of tickets in the pool.
+     * @return The sum of the inventory counts.
+     */
+    public int getRemaining() {
+        int remaining = 0;
+        for (int count : inventory.values()) {
+            remaining += count;
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,25 @@
+package lk.oop.cw.backend;
+
+/**
+ * How a multi-ticket purchase through {@link TicketPoolEngine#removeTickets} treats a pool that cannot fill the whole basket.
+ */
+public enum PurchaseMode {
+    /**
+     * Buy every requested ticket in one step, or none of them.
+     */
+    ALL_OR_NOTHING,
+
+    /**
+     * Buy as many of the requested tickets as are available, as long as there is at least one.
+     */
+    BEST_EFFORT;
+
+    /**
+     * Retrieves the smallest number of tickets that satisfies a purchase in this mode.
+     * @param requested Number of tickets asked for.
+     * @return The whole basket for {@link #ALL_OR_NOTHING}; a single ticket for {@link #BEST_EFFORT}.
+     */
+    public int minimumOf(int requested) {
+        return this == ALL_OR_NOTHING ? requested : 1;
+    }
+}
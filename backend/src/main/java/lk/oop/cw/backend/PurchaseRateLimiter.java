@@ -0,0 +1,167 @@
+package lk.oop.cw.backend;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how fast each customer can call the purchase endpoints, before the call reaches the {@link TicketPoolEngine}.
+ * <p>
+ * Every customer has a token bucket that holds up to {@code burst} tokens and refills at {@code ratePerSecond}.
+ * A bucket is a single {@link AtomicLong} holding the time at which it will be full again: taking a token moves
+ * that time one refill interval later, and a call is turned away if that would put it more than a full bucket
+ * ahead of now. Refill is therefore computed lazily from the clock, taking a token is one compare-and-set, and
+ * customers never contend with each other beyond the {@link ConcurrentHashMap} lookup.
+ * </p>
+ * <p>
+ * A bucket that has been full for the idle timeout holds no information, so the caller that passes the next
+ * sweep time removes every such bucket. A customer whose bucket is swept while it is being used at most gets
+ * one extra token, and only when its bucket was already full.
+ * </p>
+ * <p>
+ * The customer ID is taken from the request path and is not an authenticated identity, so the limit only slows
+ * down clients that keep their ID; a client can reset its bucket by switching to a new ID. To keep such a client
+ * from growing the map without bound, at most {@code maxCustomers} buckets are tracked. A new customer that
+ * arrives when the map is full triggers an early sweep, at most once per refill of a full bucket, and is
+ * throttled if no idle bucket could be removed. Customers that already have a bucket are not affected. Concurrent
+ * new customers may overshoot the cap slightly.
+ * </p>
+ */
+@Component
+public class PurchaseRateLimiter {
+    private final double ratePerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long idleNanos;
+    private final int maxCustomers;
+    private final LongSupplier clock;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder rejectedCustomers = new LongAdder();
+
+    /**
+     * Creates a limiter.
+     * @param ratePerSecond Purchase calls each customer may make per second in the long run; 0 or less to disable.
+     * @param burst         Calls a customer may make at once after being idle.
+     * @param idleMillis    Time a bucket stays full before it is evicted, in milliseconds.
+     * @param maxCustomers  Most customers that have a bucket at a time.
+     */
+    @Autowired
+    public PurchaseRateLimiter(@Value("${ticketing.ratelimit.purchases-per-second:20}") double ratePerSecond,
+                               @Value("${ticketing.ratelimit.burst:40}") int burst,
+                               @Value("${ticketing.ratelimit.idle-ms:60000}") long idleMillis,
+                               @Value("${ticketing.ratelimit.max-customers:100000}") int maxCustomers) {
+        this(ratePerSecond, burst, idleMillis, maxCustomers, System::nanoTime);
+    }
+
+    /**
+     * Creates a limiter that reads the time from the given clock.
+     * @param ratePerSecond Purchase calls each customer may make per second in the long run; 0 or less to disable.
+     * @param burst         Calls a customer may make at once after being idle.
+     * @param idleMillis    Time a bucket stays full before it is evicted, in milliseconds.
+     * @param maxCustomers  Most customers that have a bucket at a time.
+     * @param clock         Source of the current time in nanoseconds, such as {@link System#nanoTime}.
+     */
+    PurchaseRateLimiter(double ratePerSecond, int burst, long idleMillis, int maxCustomers, LongSupplier clock) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.intervalNanos = ratePerSecond > 0
+                ? Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond))
+                : 0;
+        this.burstNanos = intervalNanos * this.burst;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.maxCustomers = Math.max(1, maxCustomers);
+        this.clock = clock;
+        this.nextSweep = new AtomicLong(clock.getAsLong() + idleNanos);
+    }
+
+    /**
+     * Takes a token from a customer's bucket.
+     * @param customerId ID of the customer making the call.
+     * @return 0 if the call may go ahead; otherwise the time until the bucket has a token, in nanoseconds.
+     */
+    public long tryAcquire(String customerId) {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        sweepIfDue(now, false);
+        AtomicLong fullAt = buckets.get(customerId);
+        if (fullAt == null) {
+            if (buckets.size() >= maxCustomers) {
+                sweepIfDue(now, true);
+                if (buckets.size() >= maxCustomers) {
+                    rejectedCustomers.increment();
+                    throttled.increment();
+                    return burstNanos;
+                }
+            }
+            fullAt = buckets.computeIfAbsent(customerId, id -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                throttled.increment();
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Lets a purchase call through, or turns it away if the customer is over its rate.
+     * @param customerId ID of the customer making the call.
+     * @throws PurchaseThrottledException If the customer's bucket is empty.
+     */
+    public void check(String customerId) {
+        long wait = tryAcquire(customerId);
+        if (wait > 0) {
+            throw new PurchaseThrottledException(customerId, TimeUnit.NANOSECONDS.toMillis(wait) + 1);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the limiter's configuration and counters.
+     * @return The limiter statistics.
+     */
+    public RateLimitStats getStats() {
+        return new RateLimitStats(intervalNanos != 0, ratePerSecond, burst, maxCustomers, buckets.size(),
+                allowed.sum(), throttled.sum(), evicted.sum(), rejectedCustomers.sum());
+    }
+
+    /**
+     * Removes the buckets that have been full for the idle timeout, if the caller is the first past the sweep time.
+     * When the map is full the sweep may run early, once a full bucket's refill time has passed since the last one.
+     */
+    private void sweepIfDue(long now, boolean full) {
+        long due = nextSweep.get();
+        long earliest = full ? due - idleNanos + burstNanos : due;
+        if (now - earliest < 0 || !nextSweep.compareAndSet(due, now + idleNanos)) {
+            return;
+        }
+        buckets.entrySet().removeIf(entry -> {
+            boolean idle = now - entry.getValue().get() >= idleNanos;
+            if (idle) {
+                evicted.increment();
+            }
+            return idle;
+        });
+    }
+}
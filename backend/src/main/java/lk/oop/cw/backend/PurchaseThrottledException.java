@@ -0,0 +1,26 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a customer calls the purchase endpoints faster than the {@link PurchaseRateLimiter} allows.
+ * <p>
+ * The call never reached the pool. The exception carries no stack trace, since it is part of normal operation.
+ * </p>
+ */
+@Getter
+public class PurchaseThrottledException extends RuntimeException {
+    private final String customerId;
+    private final long retryAfterMillis;
+
+    /**
+     * Creates the exception for a throttled call.
+     * @param customerId       ID of the customer that was throttled.
+     * @param retryAfterMillis Time until the customer's bucket has a token again, in milliseconds.
+     */
+    PurchaseThrottledException(String customerId, long retryAfterMillis) {
+        super(customerId + " is purchasing too fast; retry in " + retryAfterMillis + " ms", null, false, false);
+        this.customerId = customerId;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+}
@@ -0,0 +1,33 @@
+package lk.oop.cw.backend;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Turns a {@link PurchaseThrottledException} from any purchase endpoint into a 429 Too Many Requests response.
+ * <p>
+ * The {@code Retry-After} header gives the whole seconds until the customer's bucket has a token again, and the
+ * body gives the same wait in milliseconds.
+ * </p>
+ */
+@RestControllerAdvice(assignableTypes = {TicketController.class, ReactiveTicketController.class})
+public class PurchaseThrottledHandler {
+
+    /**
+     * Builds the response for a throttled purchase call.
+     * @param e The exception thrown by the {@link PurchaseRateLimiter}.
+     * @return 429 Too Many Requests with the time to wait before retrying.
+     */
+    @ExceptionHandler(PurchaseThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleThrottled(PurchaseThrottledException e) {
+        long retryAfterSeconds = (e.getRetryAfterMillis() + 999) / 1000;
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(Map.of("status", "THROTTLED", "retryAfterMillis", e.getRetryAfterMillis()));
+    }
+}
@@ -0,0 +1,31 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * A customer's place in the {@link WaitingRoom}.
+ */
+@Getter
+public class QueuePosition {
+    private final String customerId;
+    private final long queueNumber;
+    private final long position;
+    private final long etaMillis;
+    private final boolean admitted;
+
+    /**
+     * Creates a snapshot of a customer's place.
+     * @param customerId  ID of the customer.
+     * @param queueNumber Number the customer was given on entry; customers are admitted in this order.
+     * @param position    Number of customers to be admitted up to and including this one; 0 once admitted.
+     * @param etaMillis   Estimated time until admission, in milliseconds; 0 once admitted, -1 if not yet measured.
+     * @param admitted    Whether the customer has been let into the pool and is purchasing.
+     */
+    public QueuePosition(String customerId, long queueNumber, long position, long etaMillis, boolean admitted) {
+        this.customerId = customerId;
+        this.queueNumber = queueNumber;
+        this.position = position;
+        this.etaMillis = etaMillis;
+        this.admitted = admitted;
+    }
+}
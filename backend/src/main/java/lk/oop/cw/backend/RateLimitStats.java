@@ -0,0 +1,45 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * A snapshot of the {@link PurchaseRateLimiter} configuration and counters.
+ */
+@Getter
+public class RateLimitStats {
+    private final boolean enabled;
+    private final double purchasesPerSecond;
+    private final int burst;
+    private final int maxCustomers;
+    private final int trackedCustomers;
+    private final long allowed;
+    private final long throttled;
+    private final long evicted;
+    private final long rejectedCustomers;
+
+    /**
+     * Creates a snapshot.
+     * @param enabled            Whether purchase calls are limited at all.
+     * @param purchasesPerSecond Purchase calls each customer may make per second in the long run.
+     * @param burst              Calls a customer may make at once after being idle.
+     * @param maxCustomers       Most customers that may have a bucket at a time.
+     * @param trackedCustomers   Number of customers that currently have a bucket.
+     * @param allowed            Number of calls let through since startup.
+     * @param throttled          Number of calls turned away since startup.
+     * @param evicted            Number of idle buckets removed since startup.
+     * @param rejectedCustomers  Number of calls from new customers throttled because every bucket was in use;
+     *                           included in {@code throttled}.
+     */
+    public RateLimitStats(boolean enabled, double purchasesPerSecond, int burst, int maxCustomers,
+                          int trackedCustomers, long allowed, long throttled, long evicted, long rejectedCustomers) {
+        this.enabled = enabled;
+        this.purchasesPerSecond = purchasesPerSecond;
+        this.burst = burst;
+        this.maxCustomers = maxCustomers;
+        this.trackedCustomers = trackedCustomers;
+        this.allowed = allowed;
+        this.throttled = throttled;
+        this.evicted = evicted;
+        this.rejectedCustomers = rejectedCustomers;
+    }
+}
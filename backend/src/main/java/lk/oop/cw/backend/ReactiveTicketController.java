@@ -0,0 +1,135 @@
+package lk.oop.cw.backend;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking REST endpoints for purchasing and releasing tickets.
+ * <p>
+ * Unlike {@link TicketController}, these endpoints return a {@link Mono} and release the request thread at once.
+ * A buyer waiting for a ticket is held as pending demand in a {@link ReactiveTicketGateway} and completed by the
+ * vendor release that supplies its ticket, so the number of waiting buyers is not limited by the request threads.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/reactive/tickets")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReactiveTicketController {
+
+    private static final Duration STATUS_INTERVAL = Duration.ofSeconds(1);
+
+    private final TicketService ticketService;
+    private final WaitingRoom waitingRoom;
+
+    /**
+     * Constructs the controller with the provided {@link TicketService} and {@link WaitingRoom}.
+     * @param ticketService The service that owns the current pool.
+     * @param waitingRoom   The waiting room that admits flash-sale buyers to the pool in order.
+     */
+    public ReactiveTicketController(TicketService ticketService, WaitingRoom waitingRoom) {
+        this.ticketService = ticketService;
+        this.waitingRoom = waitingRoom;
+    }
+
+    /**
+     * Purchases a ticket for a customer, completing once a ticket is available.
+     * @param customerId The ID of the customer purchasing the ticket.
+     * @param timeoutMs  The longest time to wait for a ticket, in milliseconds; defaults to {@code ticketing.requests.timeout-ms}.
+     * @return Whether a ticket was purchased, the wait timed out, or the pool is sold out.
+     */
+    @PostMapping("/purchase/{customerId}")
+    public Mono<PoolResult> purchaseTicket(@PathVariable String customerId,
+                                           @RequestParam(defaultValue = "${ticketing.requests.timeout-ms:30000}") long timeoutMs) {
+        return ticketService.purchaseTicketAsync(customerId, timeoutMs);
+    }
+
+    /**
+     * Queues a customer in the waiting room and purchases a ticket once it is admitted.
+     * @param customerId The ID of the customer purchasing the ticket.
+     * @param timeoutMs  The longest time to wait for admission and a ticket, in milliseconds; defaults to
+     *                   {@code ticketing.requests.timeout-ms}.
+     * @return Whether a ticket was purchased, the wait timed out, or the pool is sold out; 409 Conflict if the
+     *         customer is already in the waiting room.
+     */
+    @PostMapping("/queue/{customerId}")
+    public Mono<ResponseEntity<PoolResult>> enterWaitingRoom(@PathVariable String customerId,
+                                                             @RequestParam(defaultValue = "${ticketing.requests.timeout-ms:30000}") long timeoutMs) {
+        Mono<PoolResult> purchase = waitingRoom.enter(customerId, Duration.ofMillis(timeoutMs));
+        if (purchase == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build());
+        }
+        return purchase.map(ResponseEntity::ok);
+    }
+
+    /**
+     * Retrieves a customer's position in the waiting room and its estimated wait.
+     * @param customerId The ID of the customer.
+     * @return The customer's position; 404 Not Found if the customer is not in the waiting room.
+     */
+    @GetMapping("/queue/{customerId}")
+    public ResponseEntity<QueuePosition> getQueuePosition(@PathVariable String customerId) {
+        QueuePosition position = waitingRoom.getPosition(customerId);
+        return position == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(position);
+    }
+
+    /**
+     * Retrieves the waiting room's queue length, admission batch target and measured rates.
+     * @return The waiting room statistics.
+     */
+    @GetMapping("/queue")
+    public WaitingRoomStats getWaitingRoomStats() {
+        return waitingRoom.getStats();
+    }
+
+    /**
+     * Releases a batch of tickets, completing once they fit in the pool.
+     * @param vendorId   The ID of the vendor providing the tickets.
+     * @param eventId    The ID of the event for which tickets are created.
+     * @param eventName  The name of the event.
+     * @param price      The price of the tickets.
+     * @param tickets    The number of tickets to add.
+     * @param category   The category of the tickets.
+     * @param timeoutMs  The longest time to wait for room, in milliseconds; defaults to {@code ticketing.requests.timeout-ms}.
+     * @return Whether the tickets were added, the wait timed out, or the total ticket limit has been reached.
+     */
+    @PostMapping("/release/{tickets}/{vendorId}/{eventId}/{eventName}/{price}/{category}")
+    public Mono<PoolResult> releaseTickets(@PathVariable String vendorId, @PathVariable String eventId,
+                                           @PathVariable String eventName, @PathVariable double price,
+                                           @PathVariable int tickets, @PathVariable String category,
+                                           @RequestParam(defaultValue = "${ticketing.requests.timeout-ms:30000}") long timeoutMs) {
+        return ticketService.addTicketsAsync(vendorId, eventId, eventName, price, tickets, category, timeoutMs);
+    }
+
+    /**
+     * Retrieves the current status of the ticket system.
+     * @return A string representing the ticket system's status.
+     */
+    @GetMapping("/status")
+    public Mono<String> getTicketStatus() {
+        return Mono.fromSupplier(ticketService::getTicketStatus);
+    }
+
+    /**
+     * Streams the status of the ticket system once per second.
+     * @return The status updates as Server-Sent Events.
+     */
+    @GetMapping(value = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> streamTicketStatus() {
+        return Flux.interval(Duration.ZERO, STATUS_INTERVAL).map(tick -> ticketService.getTicketStatus());
+    }
+
+    /**
+     * Retrieves the number of purchases waiting for a ticket on these endpoints.
+     * @return Number of pending purchases.
+     */
+    @GetMapping("/waiting")
+    public Mono<Integer> getWaitingCount() {
+        return Mono.fromSupplier(ticketService::getWaitingPurchaseCount);
+    }
+}
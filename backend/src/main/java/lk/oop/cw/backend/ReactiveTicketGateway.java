@@ -0,0 +1,285 @@
+package lk.oop.cw.backend;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exposes a {@link TicketPoolEngine} as non-blocking {@link Mono} operations.
+ * <p>
+ * A purchase that cannot be served straight away is not parked on a thread. It is appended to a queue of
+ * pending demand, and the pool's {@link TicketPoolEngine#onceNotEmpty} callback drains that queue on the thread
+ * that released the tickets, completing waiting buyers in arrival order. Only the queue entry and its sink are
+ * held per waiter, so tens of thousands of buyers can wait on a handful of request threads.
+ * </p>
+ * <p>
+ * A drain that finds the pool empty again re-registers its callback on a Reactor scheduler thread rather than
+ * on the releasing thread, so the pool's callback loop never runs the same callback twice in one pass.
+ * </p>
+ * <p>
+ * When the pool is reconfigured while buyers or vendors are waiting, the gateway moves to the new pool and
+ * they keep their place.
+ * </p>
+ */
+public class ReactiveTicketGateway {
+    private volatile TicketPoolEngine ticketPool;
+
+    private final Queue<PendingPurchase> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private final AtomicBoolean armed = new AtomicBoolean();
+
+    /**
+     * Creates a gateway in front of the given pool.
+     * @param ticketPool The pool that serves purchases and releases.
+     */
+    public ReactiveTicketGateway(TicketPoolEngine ticketPool) {
+        this.ticketPool = ticketPool;
+    }
+
+    /**
+     * Purchases a ticket, completing once one is available, the pool sells out or the timeout passes.
+     * <p>
+     * If no other buyer is waiting the pool is polled at once. Otherwise the buyer joins the back of the queue,
+     * so a newcomer never overtakes someone who has been waiting longer.
+     * </p>
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param timeout    Maximum time to wait for a ticket.
+     * @return {@link PoolResult#SUCCESS} if a ticket was purchased, {@link PoolResult#SOLD_OUT} if every ticket has
+     *         been sold, or {@link PoolResult#TIMED_OUT} if no ticket arrived before the deadline.
+     */
+    public Mono<PoolResult> purchase(String customerId, Duration timeout) {
+        return Mono.defer(() -> {
+            if (waiting.isEmpty()) {
+                if (poll(customerId)) {
+                    return Mono.just(PoolResult.SUCCESS);
+                }
+                if (ticketPool.isSoldOut()) {
+                    return Mono.just(PoolResult.SOLD_OUT);
+                }
+            }
+
+            PendingPurchase pending = new PendingPurchase(customerId);
+            waiting.add(pending);
+            waitingCount.incrementAndGet();
+            drain();
+            arm();
+            return pending.result.asMono()
+                    .timeout(timeout, Mono.defer(() -> {
+                        pending.cancel();
+                        return pending.result.asMono();
+                    }))
+                    .doOnCancel(pending::cancel);
+        });
+    }
+
+    /**
+     * Releases tickets, completing once they fit in the pool, the total ticket limit is reached or the timeout passes.
+     * <p>
+     * A vendor that finds the pool full registers with {@link TicketPoolEngine#onceNotFull} and retries on a Reactor
+     * scheduler thread once a purchase has made room.
+     * </p>
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     * @param timeout      Maximum time to wait for room.
+     * @return {@link PoolResult#SUCCESS} if tickets were added, {@link PoolResult#SOLD_OUT} if the total ticket
+     *         limit has been reached, or {@link PoolResult#TIMED_OUT} if the pool stayed full until the deadline.
+     */
+    public Mono<PoolResult> release(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                                    String category, Duration timeout) {
+        return Mono.<PoolResult>create(sink -> {
+            AtomicBoolean done = new AtomicBoolean();
+            sink.onDispose(() -> done.set(true));
+            Runnable attempt = new Runnable() {
+                @Override
+                public void run() {
+                    if (done.get()) {
+                        return;
+                    }
+                    int added;
+                    try {
+                        added = ticketPool.offerTickets(vendorId, eventId, eventName, price, ticketsToAdd, category);
+                    } catch (PoolRetiredException e) {
+                        e.whenReplaced(pool -> {
+                            ticketPool = pool;
+                            retryLater(this);
+                        });
+                        return;
+                    }
+                    if (added > 0) {
+                        sink.success(PoolResult.SUCCESS);
+                    } else if (ticketPool.isFullyReleased()) {
+                        sink.success(PoolResult.SOLD_OUT);
+                    } else {
+                        ticketPool.onceNotFull(() -> retryLater(this));
+                    }
+                }
+            };
+            attempt.run();
+        }).timeout(timeout, Mono.just(PoolResult.TIMED_OUT));
+    }
+
+    /**
+     * Retrieves the number of buyers waiting for a ticket.
+     * @return Number of pending purchases.
+     */
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    /**
+     * Hands waiting buyers the tickets currently in the pool, oldest first.
+     * <p>
+     * Only one thread drains at a time; a caller that arrives while another thread is draining makes that
+     * thread take one more pass instead of waiting for it. The purchases of one drain are journaled as a batch
+     * and the buyers are told of their tickets once the whole batch is durable.
+     * </p>
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        List<PendingPurchase> served = new ArrayList<>();
+        SalesJournal journal = ticketPool.getJournal();
+        journal.beginBatch();
+        try {
+            int missed = 1;
+            do {
+                PendingPurchase next;
+                while ((next = waiting.peek()) != null) {
+                    if (!next.claim()) {
+                        waiting.poll();
+                    } else if (poll(next.customerId)) {
+                        waiting.poll();
+                        served.add(next);
+                    } else if (ticketPool.isSoldOut()) {
+                        waiting.poll();
+                        complete(next, PoolResult.SOLD_OUT);
+                    } else if (!next.unclaim()) {
+                        waiting.poll();
+                        complete(next, PoolResult.TIMED_OUT);
+                    } else {
+                        break;
+                    }
+                }
+                missed = drainRequests.addAndGet(-missed);
+            } while (missed != 0);
+        } finally {
+            journal.endBatch();
+        }
+        for (PendingPurchase pending : served) {
+            complete(pending, PoolResult.SUCCESS);
+        }
+    }
+
+    /**
+     * Purchases a ticket from the pool without waiting.
+     * <p>
+     * If the pool has been reconfigured, the gateway moves to the new pool once the handover is done and drains
+     * again from there. This may run on a thread that is still inside a pool call, so it never waits for the
+     * handover itself.
+     * </p>
+     * @param customerId ID of the customer purchasing the ticket.
+     * @return true if a ticket was purchased; false if the pool was empty or has been replaced.
+     */
+    private boolean poll(String customerId) {
+        try {
+            return ticketPool.pollTicket(customerId);
+        } catch (PoolRetiredException e) {
+            e.whenReplaced(pool -> {
+                ticketPool = pool;
+                Schedulers.parallel().schedule(this::ticketsAvailable);
+            });
+            return false;
+        }
+    }
+
+    /**
+     * Registers the drain with the pool if buyers are waiting and it is not registered already.
+     */
+    private void arm() {
+        if (!waiting.isEmpty() && armed.compareAndSet(false, true)) {
+            ticketPool.onceNotEmpty(this::ticketsAvailable);
+        }
+    }
+
+    /**
+     * Runs on the releasing thread once the pool has tickets, or has sold out.
+     */
+    private void ticketsAvailable() {
+        armed.set(false);
+        drain();
+        if (!waiting.isEmpty()) {
+            Schedulers.parallel().schedule(this::arm);
+        }
+    }
+
+    private static void retryLater(Runnable attempt) {
+        Schedulers.parallel().schedule(attempt);
+    }
+
+    private void complete(PendingPurchase pending, PoolResult result) {
+        waitingCount.decrementAndGet();
+        pending.complete(result);
+    }
+
+    /**
+     * One buyer waiting in the queue.
+     * <p>
+     * The state guards against a timeout and a drain completing the same buyer. A drain claims the buyer before
+     * polling the pool; a timeout that arrives during the claim only marks it, and the drain then reports
+     * {@link PoolResult#TIMED_OUT} if it did not get a ticket.
+     * </p>
+     */
+    private final class PendingPurchase {
+        private static final int WAITING = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLING = 2;
+        private static final int DONE = 3;
+
+        private final String customerId;
+        private final Sinks.One<PoolResult> result = Sinks.one();
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private PendingPurchase(String customerId) {
+            this.customerId = customerId;
+        }
+
+        private boolean claim() {
+            return state.compareAndSet(WAITING, CLAIMED);
+        }
+
+        private boolean unclaim() {
+            return state.compareAndSet(CLAIMED, WAITING);
+        }
+
+        private void complete(PoolResult outcome) {
+            state.set(DONE);
+            result.tryEmitValue(outcome);
+        }
+
+        /**
+         * Gives up waiting. The buyer stays in the queue until a drain reaches it and discards it.
+         */
+        private void cancel() {
+            if (state.compareAndSet(WAITING, DONE)) {
+                waitingCount.decrementAndGet();
+                result.tryEmitValue(PoolResult.TIMED_OUT);
+            } else {
+                state.compareAndSet(CLAIMED, CANCELLING);
+            }
+        }
+    }
+}
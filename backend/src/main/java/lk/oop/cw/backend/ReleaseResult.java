@@ -0,0 +1,33 @@
+package lk.oop.cw.backend;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+/**
+ * The result of one record of a streamed bulk release, written back to the vendor as one NDJSON line.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class ReleaseResult {
+    private final long line;
+    private final int requested;
+    private final int added;
+    private final ReleaseStatus status;
+    private final String error;
+
+    /**
+     * Creates a result.
+     * @param line      The 1-based line of the record in the request body.
+     * @param requested The number of tickets the record asked to release.
+     * @param added     The number of tickets actually added.
+     * @param status    The outcome of the record.
+     * @param error     Why the record was rejected, or null if it was applied.
+     */
+    ReleaseResult(long line, int requested, int added, ReleaseStatus status, String error) {
+        this.line = line;
+        this.requested = requested;
+        this.added = added;
+        this.status = status;
+        this.error = error;
+    }
+}
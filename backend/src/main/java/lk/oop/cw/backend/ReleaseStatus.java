@@ -0,0 +1,31 @@
+package lk.oop.cw.backend;
+
+/**
+ * Outcome of one record of a streamed bulk release, see {@link ReleaseResult}.
+ */
+public enum ReleaseStatus {
+    /**
+     * Every requested ticket was added.
+     */
+    ADDED,
+
+    /**
+     * Some of the requested tickets were added; the pool filled up or the total ticket limit was reached.
+     */
+    PARTIAL,
+
+    /**
+     * Nothing was added because the pool was full; the record can be sent again once customers have bought.
+     */
+    FULL,
+
+    /**
+     * Nothing was added because the total ticket limit has been reached.
+     */
+    SOLD_OUT,
+
+    /**
+     * The record could not be parsed or was incomplete, and was not sent to the pool.
+     */
+    INVALID
+}
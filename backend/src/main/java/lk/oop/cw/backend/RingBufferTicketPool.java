@@ -0,0 +1,759 @@
+package lk.oop.cw.backend;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free ticket pool backed by a bounded multi-producer/multi-consumer ring buffer.
+ * <p>
+ * The ring has exactly {@code maxTicketCapacity} slots. Each slot carries a sequence number that tells
+ * producers and consumers whether it is free or holds a published ticket, so vendors and customers
+ * claim positions with a single compare-and-set on the tail or head counter instead of taking a shared
+ * lock. Releases are charged against {@code totalTickets} through an atomic counter, which keeps the
+ * overall ticket limit exact without serializing vendors.
+ * </p>
+ * <p>
+ * Both {@link #addTickets} and {@link #removeTicket} are O(1) per ticket. A slot holds a reference to the
+ * release's shared {@link TicketDescriptor}, so publishing a ticket does not allocate. Where the locked pool
+ * would block on a condition, this pool spins briefly and then parks with a bounded backoff.
+ * </p>
+ */
+public class RingBufferTicketPool extends AbstractTicketPool {
+    private static final int SPIN_TRIES = 64;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TicketDescriptor[] slots;
+    private final AtomicLongArray sequences;
+    private final int capacity;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicInteger totalTicketsReleased = new AtomicInteger();
+    private final AtomicInteger totalTicketsSold = new AtomicInteger();
+
+    /**
+     * Creates a ring buffer pool with the given limits.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The number of slots in the ring, i.e. the maximum number of tickets in the pool at a time.
+     */
+    public RingBufferTicketPool(int totalTickets, int maxTicketCapacity) {
+        super(totalTickets, maxTicketCapacity);
+        if (maxTicketCapacity <= 0) {
+            throw new IllegalArgumentException("maxTicketCapacity must be positive");
+        }
+        this.capacity = maxTicketCapacity;
+        this.slots = new TicketDescriptor[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds tickets to the ring from a specific vendor while respecting the limits of ticket availability.
+     * <p>
+     * The vendor waits while the ring is full, reserves up to {@code ticketsToAdd} tickets from the total
+     * budget and publishes them one slot at a time. Tickets that no longer fit because other vendors filled
+     * the ring in the meantime are handed back to the budget, mirroring how the locked pool caps a release
+     * at the free space.
+     * </p>
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     */
+    @Override
+    public void addTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
+        long start = beginCall();
+        try {
+            if (totalTicketsReleased.get() >= totalTickets) {
+                logLimitReached();
+                return;
+            }
+
+            int attempt = 0;
+            while (size() >= capacity) {
+                if (!backOff(attempt++)) {
+                    return;
+                }
+            }
+            recordBackOff(attempt, start);
+
+            int reserved = reserve(ticketsToAdd);
+            if (reserved == 0) {
+                logLimitReached();
+                return;
+            }
+            publish(vendorId, describe(vendorId, eventId, eventName, price, category), reserved);
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Adds tickets to the ring, waiting at most the given time for a free slot.
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     * @param timeout      Maximum time to wait for room.
+     * @param unit         Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} if tickets were added, {@link PoolResult#SOLD_OUT} if the total ticket
+     *         limit has been reached, or {@link PoolResult#TIMED_OUT} if the ring stayed full until the deadline.
+     */
+    @Override
+    public PoolResult tryAddTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                                    String category, long timeout, TimeUnit unit) {
+        long start = beginCall();
+        try {
+            long deadline = start + unit.toNanos(timeout);
+            int attempt = 0;
+            while (size() >= capacity && totalTicketsReleased.get() < totalTickets) {
+                if (System.nanoTime() - deadline >= 0 || !backOff(attempt++)) {
+                    recordBackOff(attempt, start);
+                    return PoolResult.TIMED_OUT;
+                }
+            }
+            recordBackOff(attempt, start);
+
+            int reserved = reserve(ticketsToAdd);
+            if (reserved == 0) {
+                logLimitReached();
+                return PoolResult.SOLD_OUT;
+            }
+            int added = publish(vendorId, describe(vendorId, eventId, eventName, price, category), reserved);
+            return added > 0 ? PoolResult.SUCCESS : PoolResult.TIMED_OUT;
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Publishes reserved tickets one slot at a time, handing back the ones that no longer fit.
+     * <p>
+     * If the ring filled up after the reservation, the vendor backs off until it can publish at least one
+     * ticket, and then stops at the first full slot.
+     * </p>
+     * @param vendorId ID of the vendor releasing tickets.
+     * @param ticket   Shared details of the tickets.
+     * @param reserved Number of tickets reserved from the total budget.
+     * @return Number of tickets published; zero only if the vendor was interrupted.
+     * @throws PoolRetiredException If the pool was handed over before any ticket could be published; the
+     *                              reservation has then been handed back.
+     */
+    private int publish(String vendorId, TicketDescriptor ticket, int reserved) {
+        int added = 0;
+        int attempt = 0;
+        try {
+            while (added < reserved) {
+                if (offer(ticket)) {
+                    added++;
+                } else if (added > 0 || !backOff(attempt++)) {
+                    break;
+                }
+            }
+        } finally {
+            if (added < reserved) {
+                totalTicketsReleased.addAndGet(added - reserved);
+            }
+        }
+
+        recordRelease(vendorId, ticket, added, size());
+        publishTicketsAdded(vendorId, ticket.getEventId(), added, size());
+        signalNotEmptyWaiters();
+        return added;
+    }
+
+    /**
+     * Publishes as many tickets as currently fit in the ring without waiting.
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     * @return Number of tickets actually added; zero if the ring is full or the total ticket limit is reached.
+     */
+    @Override
+    public int offerTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
+        long start = beginCall();
+        try {
+            if (totalTicketsReleased.get() >= totalTickets) {
+                logLimitReached();
+                return 0;
+            }
+            return offerOnce(vendorId, eventId, eventName, price, ticketsToAdd, category);
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Applies a batch of releases without waiting, within one call so that a handover cannot split the batch.
+     * <p>
+     * The ring takes no lock, so each release is published as {@link #offerTickets} would publish it, in order.
+     * </p>
+     * @param releases The releases to apply.
+     * @return The number of tickets added for each release, in the order given.
+     */
+    @Override
+    public int[] offerTicketBatch(List<TicketRelease> releases) {
+        long start = beginCall();
+        try {
+            int[] added = new int[releases.size()];
+            for (int i = 0; i < added.length; i++) {
+                if (totalTicketsReleased.get() >= totalTickets) {
+                    logLimitReached();
+                    break;
+                }
+                TicketRelease release = releases.get(i);
+                added[i] = offerOnce(release.getVendorId(), release.getEventId(), release.getEventName(),
+                        release.getPrice(), release.getTickets(), release.getCategory());
+            }
+            return added;
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Publishes as many tickets as currently fit in the ring, for a call that has already begun.
+     * @return Number of tickets actually added; zero if the ring is full or the budget is spent.
+     */
+    private int offerOnce(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                          String category) {
+        if (size() >= capacity) {
+            return 0;
+        }
+
+        int reserved = reserve(Math.min(ticketsToAdd, capacity - size()));
+        TicketDescriptor ticket = describe(vendorId, eventId, eventName, price, category);
+        int added = 0;
+        while (added < reserved && offer(ticket)) {
+            added++;
+        }
+        if (added < reserved) {
+            totalTicketsReleased.addAndGet(added - reserved);
+        }
+        if (added > 0) {
+            recordRelease(vendorId, ticket, added, size());
+            publishTicketsAdded(vendorId, eventId, added, size());
+            signalNotEmptyWaiters();
+        }
+        return added;
+    }
+
+    /**
+     * Allows a customer to remove (purchase) a ticket from the ring, waiting while it is empty.
+     * @param customerId ID of the customer purchasing the ticket.
+     */
+    @Override
+    public void removeTicket(String customerId) {
+        long start = beginCall();
+        try {
+            int attempt = 0;
+            TicketDescriptor ticket;
+            while ((ticket = poll()) == null) {
+                if (isSoldOut() || !backOff(attempt++)) {
+                    return;
+                }
+            }
+            recordBackOff(attempt, start);
+
+            sell(customerId, ticket);
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases a ticket from the ring, waiting at most the given time for one to arrive.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param timeout    Maximum time to wait for a ticket.
+     * @param unit       Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} if a ticket was purchased, {@link PoolResult#SOLD_OUT} if every ticket has
+     *         been sold, or {@link PoolResult#TIMED_OUT} if the ring stayed empty until the deadline.
+     */
+    @Override
+    public PoolResult tryRemoveTicket(String customerId, long timeout, TimeUnit unit) {
+        long start = beginCall();
+        try {
+            long deadline = start + unit.toNanos(timeout);
+            int attempt = 0;
+            TicketDescriptor ticket;
+            while ((ticket = poll()) == null) {
+                if (isSoldOut()) {
+                    return PoolResult.SOLD_OUT;
+                }
+                if (System.nanoTime() - deadline >= 0 || !backOff(attempt++)) {
+                    recordBackOff(attempt, start);
+                    return PoolResult.TIMED_OUT;
+                }
+            }
+            recordBackOff(attempt, start);
+
+            sell(customerId, ticket);
+            return PoolResult.SUCCESS;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases a ticket from the ring without waiting.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @return true if a ticket was purchased; false if the ring was empty.
+     */
+    @Override
+    public boolean pollTicket(String customerId) {
+        long start = beginCall();
+        try {
+            TicketDescriptor ticket = poll();
+            if (ticket == null) {
+                return false;
+            }
+            sell(customerId, ticket);
+            return true;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Allows a customer to purchase several tickets in one step, waiting while the ring cannot satisfy the basket.
+     * <p>
+     * The whole basket is claimed with a single compare-and-set on the head counter, so an all-or-nothing
+     * purchase never holds a partial basket. The call gives up once the tickets not yet sold can no longer
+     * fill the basket.
+     * </p>
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased; zero if the basket cannot be filled or the customer was interrupted.
+     */
+    @Override
+    public int removeTickets(String customerId, int count, PurchaseMode mode) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return 0;
+            }
+            int required = mode.minimumOf(count);
+            TicketDescriptor[] basket = new TicketDescriptor[count];
+            int attempt = 0;
+            int taken;
+            while ((taken = poll(basket, required)) == 0) {
+                if (required > capacity || totalTickets - totalTicketsSold.get() < required || !backOff(attempt++)) {
+                    return 0;
+                }
+            }
+            recordBackOff(attempt, start);
+
+            sell(customerId, Arrays.asList(basket).subList(0, taken));
+            return taken;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases several tickets in one step, waiting at most the given time while the ring cannot satisfy the
+     * basket.
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @param timeout    Maximum time to wait for the basket.
+     * @param unit       Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} and the number of tickets purchased, {@link PoolResult#SOLD_OUT} if the
+     *         basket can no longer be filled, or {@link PoolResult#TIMED_OUT} if the ring could not fill it before
+     *         the deadline.
+     */
+    @Override
+    public BasketResult tryRemoveTickets(String customerId, int count, PurchaseMode mode, long timeout,
+                                         TimeUnit unit) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return new BasketResult(PoolResult.SUCCESS, 0);
+            }
+            long deadline = start + unit.toNanos(timeout);
+            int required = mode.minimumOf(count);
+            TicketDescriptor[] basket = new TicketDescriptor[count];
+            int attempt = 0;
+            int taken;
+            while ((taken = poll(basket, required)) == 0) {
+                if (required > capacity || totalTickets - totalTicketsSold.get() < required) {
+                    return new BasketResult(PoolResult.SOLD_OUT, 0);
+                }
+                if (System.nanoTime() - deadline >= 0 || !backOff(attempt++)) {
+                    recordBackOff(attempt, start);
+                    return new BasketResult(PoolResult.TIMED_OUT, 0);
+                }
+            }
+            recordBackOff(attempt, start);
+
+            sell(customerId, Arrays.asList(basket).subList(0, taken));
+            return new BasketResult(PoolResult.SUCCESS, taken);
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases several tickets from the ring without waiting.
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased; zero if the ring could not satisfy the basket.
+     */
+    @Override
+    public int pollTickets(String customerId, int count, PurchaseMode mode) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return 0;
+            }
+            TicketDescriptor[] basket = new TicketDescriptor[count];
+            int taken = poll(basket, mode.minimumOf(count));
+            if (taken > 0) {
+                sell(customerId, Arrays.asList(basket).subList(0, taken));
+            }
+            return taken;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Not supported: the ring only gives up its oldest ticket, so it cannot sell one from the middle.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param criteria   The event, category and price ceiling wanted.
+     * @return Never returns normally.
+     * @throws UnsupportedPoolOperationException Always; use the {@link PoolMode#STANDARD} or {@link PoolMode#SHARDED}
+     *                                            engine.
+     */
+    @Override
+    public TicketDescriptor purchaseMatching(String customerId, TicketCriteria criteria) {
+        throw new UnsupportedPoolOperationException(getMode(), PoolCapability.MATCHING_PURCHASE);
+    }
+
+    /**
+     * Not supported: the ring cannot take tickets back, so held tickets could not be returned once their hold
+     * expires.
+     * @param customerId ID of the customer the tickets are held for.
+     * @param count      Number of tickets to hold.
+     * @param ttl        How long the hold lasts.
+     * @param unit       Unit of {@code ttl}.
+     * @return Never returns normally.
+     * @throws UnsupportedPoolOperationException Always; use the {@link PoolMode#STANDARD} or {@link PoolMode#SHARDED}
+     *                                            engine.
+     */
+    @Override
+    public TicketHold holdTickets(String customerId, int count, long ttl, TimeUnit unit) {
+        throw new UnsupportedPoolOperationException(getMode(), PoolCapability.HOLDS);
+    }
+
+    /**
+     * Records the sale of a ticket that has already been taken from the ring.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param ticket     The ticket taken from the ring.
+     */
+    private void sell(String customerId, TicketDescriptor ticket) {
+        totalTicketsSold.incrementAndGet();
+        recordPurchase(customerId, ticket, size());
+        purchaseCompleted();
+    }
+
+    /**
+     * Records the sale of tickets that have already been taken from the ring.
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param tickets    The tickets taken from the ring.
+     */
+    private void sell(String customerId, List<TicketDescriptor> tickets) {
+        totalTicketsSold.addAndGet(tickets.size());
+        recordPurchase(customerId, tickets, size());
+        purchaseCompleted();
+    }
+
+    /**
+     * Refills a freshly created ring with state recovered from the {@link SalesJournal} or handed over by
+     * another pool.
+     * @param state The state to restore; its tickets must fit in the ring, see {@link #canHold}.
+     * @throws IllegalStateException If the state has more tickets than the ring has free slots, in which case
+     *                               the tickets that did not fit would otherwise be lost.
+     */
+    @Override
+    public void restore(PoolState state) {
+        for (Map.Entry<TicketDescriptor, Integer> entry : state.getInventory().entrySet()) {
+            TicketDescriptor ticket = intern(entry.getKey());
+            for (int restored = 0; restored < entry.getValue(); restored++) {
+                if (!offer(ticket)) {
+                    throw new IllegalStateException("Cannot restore " + state.getRemaining() + " tickets into a ring of "
+                            + capacity + " slots");
+                }
+            }
+        }
+        totalTicketsReleased.set(state.getReleased());
+        totalTicketsSold.set(state.getSold());
+    }
+
+    /**
+     * Captures the ring for a handover by taking every published ticket out of it.
+     * @return The current state of the pool.
+     */
+    @Override
+    protected PoolState captureState() {
+        Map<TicketDescriptor, Integer> inventory = new LinkedHashMap<>();
+        TicketDescriptor ticket;
+        while ((ticket = poll()) != null) {
+            inventory.merge(ticket, 1, Integer::sum);
+        }
+        return new PoolState(totalTickets, maxTicketCapacity, getMode(), totalTicketsReleased.get(),
+                totalTicketsSold.get(), inventory);
+    }
+
+    /**
+     * Checks whether the ring has a slot for each ticket of the pool being replaced, and whether no ticket is
+     * on hold, since the ring could not take held tickets back.
+     * @param tickets Number of tickets in the pool being replaced.
+     * @param onHold  Number of tickets on hold.
+     * @return true if they fit in the ring and none is held; false otherwise.
+     */
+    @Override
+    protected boolean canHold(int tickets, int onHold) {
+        return onHold == 0 && tickets <= capacity;
+    }
+
+    /**
+     * Does nothing: callers waiting for a slot or a ticket back off in short parks and check for a handover
+     * each time, so none of them needs waking.
+     */
+    @Override
+    protected void wakeWaiters() {
+    }
+
+    /**
+     * Retrieves the inventory engine backing this pool.
+     * @return {@link PoolMode#RING_BUFFER}.
+     */
+    @Override
+    public PoolMode getMode() {
+        return PoolMode.RING_BUFFER;
+    }
+
+    /**
+     * Checks whether the engine offers an optional operation. The ring can only hand out its oldest ticket, so it
+     * can neither search its inventory nor take tickets back.
+     * @param capability The operation.
+     * @return false.
+     */
+    @Override
+    public boolean supports(PoolCapability capability) {
+        return false;
+    }
+
+    /**
+     * Checks if every ticket in the total budget has been sold.
+     * <p>
+     * Counting completed sales rather than inspecting the ring avoids reporting a false sell-out while a
+     * vendor holds a reservation it has not yet published.
+     * </p>
+     * @return true if the pool is sold out; false otherwise.
+     */
+    @Override
+    public boolean isSoldOut() {
+        return totalTicketsSold.get() >= totalTickets;
+    }
+
+    /**
+     * Checks if the whole ticket budget has been released.
+     * @return true if vendors cannot add any more tickets; false otherwise.
+     */
+    @Override
+    public boolean isFullyReleased() {
+        return totalTicketsReleased.get() >= totalTickets;
+    }
+
+    /**
+     * Retrieves the number of tickets released so far.
+     * @return Tickets released.
+     */
+    @Override
+    public int getTicketsReleased() {
+        return totalTicketsReleased.get();
+    }
+
+    /**
+     * Retrieves the number of tickets sold so far, including confirmed holds.
+     * @return Tickets sold.
+     */
+    @Override
+    public int getTicketsSold() {
+        return totalTicketsSold.get();
+    }
+
+    /**
+     * Retrieves the number of tickets currently in the ring.
+     * @return Number of remaining tickets.
+     */
+    @Override
+    public int getRemainingTickets() {
+        return size();
+    }
+
+    /**
+     * Reserves up to {@code requested} tickets from the total budget.
+     * @param requested Number of tickets the vendor would like to release.
+     * @return Number of tickets actually reserved, possibly zero.
+     */
+    private int reserve(int requested) {
+        while (true) {
+            int released = totalTicketsReleased.get();
+            int granted = Math.min(requested, totalTickets - released);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (totalTicketsReleased.compareAndSet(released, released + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Publishes a ticket into the next free slot.
+     * @param ticket Details of the ticket to publish; the shared descriptor is stored by reference.
+     * @return true if the ticket was published; false if the ring is full.
+     */
+    private boolean offer(TicketDescriptor ticket) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = ticket;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest published ticket.
+     * @return The ticket, or null if the ring is empty.
+     */
+    private TicketDescriptor poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    TicketDescriptor ticket = slots[index];
+                    slots[index] = null;
+                    sequences.set(index, position + capacity);
+                    return ticket;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Takes up to {@code basket.length} of the oldest published tickets with one claim on the head counter.
+     * <p>
+     * The published slots at the head are counted first. Published slots cannot be overwritten until a consumer
+     * frees them, so once the head is advanced past them they belong to this caller.
+     * </p>
+     * @param basket  Array to fill with the tickets taken, oldest first.
+     * @param minimum Fewest tickets worth taking; if fewer are published nothing is taken.
+     * @return Number of tickets taken, either zero or between {@code minimum} and {@code basket.length}.
+     */
+    private int poll(TicketDescriptor[] basket, int minimum) {
+        int wanted = Math.min(basket.length, capacity);
+        if (minimum > wanted) {
+            return 0;
+        }
+        while (true) {
+            long position = head.get();
+            int available = 0;
+            while (available < wanted && sequences.get((int) ((position + available) % capacity)) == position + available + 1) {
+                available++;
+            }
+            if (available < minimum) {
+                if (head.get() == position) {
+                    return 0;
+                }
+                continue;
+            }
+            if (head.compareAndSet(position, position + available)) {
+                for (int i = 0; i < available; i++) {
+                    int index = (int) ((position + i) % capacity);
+                    basket[i] = slots[index];
+                    slots[index] = null;
+                    sequences.set(index, position + i + capacity);
+                }
+                return available;
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of tickets in the ring from the head and tail counters.
+     * @return Number of claimed slots, clamped to the ring capacity.
+     */
+    private int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    /**
+     * Records the time a call spent backing off as a condition wait, if it had to back off at all.
+     * @param attempts   Number of back-off rounds the call went through.
+     * @param startNanos {@link System#nanoTime()} taken when the call started.
+     */
+    private void recordBackOff(int attempts, long startNanos) {
+        if (attempts > 0) {
+            metrics.recordConditionWait(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Waits a little before the caller retries, spinning first and then parking for an increasing interval.
+     * @param attempt Number of consecutive unsuccessful attempts so far.
+     * @return false if the calling thread was interrupted and should give up; true otherwise.
+     * @throws PoolRetiredException If the pool has been handed over to a new one.
+     */
+    private boolean backOff(int attempt) {
+        checkRetired();
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            int shift = Math.min(attempt - SPIN_TRIES, 7);
+            LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << shift, MAX_PARK_NANOS));
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+}
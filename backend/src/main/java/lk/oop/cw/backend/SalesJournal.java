@@ -0,0 +1,814 @@
+package lk.oop.cw.backend;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A durable, append-only journal of ticket releases and purchases, written ahead of acknowledging them.
+ * <p>
+ * Pools append a record for every release and purchase while they update their inventory. Appending only
+ * claims a slot in a preallocated ring, as in {@link AsyncEventLogger}, so it neither allocates nor blocks while
+ * the ring has room. A single writer thread drains every published record, writes them to the current segment
+ * through a {@link FileChannel} and calls {@link FileChannel#force} once for the whole batch. A pool operation
+ * waits in {@link #commit()} until its own records are durable, after it has released its locks; while the
+ * writer is forcing one batch, the next batch gathers the records of every operation that arrived meanwhile,
+ * so concurrent operations share a single fsync.
+ * </p>
+ * <p>
+ * Each record is framed by its length and a CRC-32, so a record torn by a crash is detected and cut off when
+ * the journal is opened. Recovery replays the segments into a {@link PoolState}. A new segment is started once
+ * the current one reaches {@link #SEGMENT_BYTES}; configuring a new pool starts a new journal, while
+ * reconfiguring the running pool only records its new limits.
+ * </p>
+ * <p>
+ * The writer keeps a {@link JournalLedger} of everything it has written. Every snapshot interval, or when a
+ * segment fills up, it starts a new segment and hands a copy of the ledger to a background thread, which saves
+ * it as a snapshot file and deletes the segments it covers. The copy is taken between two records, so it is
+ * consistent without holding up the pool, and recovery only replays the segments written after it.
+ * </p>
+ */
+@Component
+public class SalesJournal {
+    /**
+     * A journal that records nothing, for pools that are not backed by a file.
+     */
+    public static final SalesJournal DISABLED = new SalesJournal((Path) null);
+
+    /**
+     * Size at which the writer moves on to a new segment file.
+     */
+    public static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Number of records that can wait for the writer before appending callers have to wait for room.
+     */
+    public static final int RING_CAPACITY = 8192;
+
+    /**
+     * Default time between snapshots, in milliseconds.
+     */
+    public static final long DEFAULT_SNAPSHOT_INTERVAL_MS = 60_000;
+
+    private static final byte CONFIGURE = 0;
+    private static final byte DESCRIPTOR = 1;
+    private static final byte RELEASE = 2;
+    private static final byte PURCHASE = 3;
+    private static final byte RECONFIGURE = 4;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int FRAME_OVERHEAD = Integer.BYTES * 2;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final Logger logger = LoggingConfig.getLogger();
+
+    private final Path directory;
+
+    private final Entry[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private volatile long durable;
+
+    private final Lock durableLock = new ReentrantLock();
+    private final Condition durableChanged = durableLock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ThreadLocal<Commit> commits = ThreadLocal.withInitial(Commit::new);
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+    private final ByteBuffer body = ByteBuffer.allocate(64 * 1024);
+    private final CRC32 crc = new CRC32();
+    private final Map<TicketDescriptor, Integer> descriptorIds = new HashMap<>();
+    private FileChannel channel;
+    private long segmentIndex;
+
+    private final JournalLedger ledger = new JournalLedger();
+    private final long snapshotIntervalNanos;
+    private long lastSnapshotNanos;
+    private long recordsSinceSnapshot;
+    private final ExecutorService snapshotter;
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+    private volatile boolean snapshotting;
+
+    private long recoveryNanos;
+    private long recordsReplayed;
+    private long snapshotLoaded = -1;
+
+    private final PoolState recovered;
+    private final Thread writer;
+    private volatile boolean idle;
+    private volatile boolean closed;
+    private volatile boolean failed;
+
+    /**
+     * Opens the journal in the configured directory, recovering the pool it describes.
+     * @param directory              Directory holding the segment files; blank disables the journal.
+     * @param snapshotIntervalMillis Time between snapshots, in milliseconds.
+     */
+    @Autowired
+    public SalesJournal(@Value("${ticketing.journal.dir:}") String directory,
+                        @Value("${ticketing.journal.snapshot-interval-ms:60000}") long snapshotIntervalMillis) {
+        this(directory == null || directory.isBlank() ? null : Path.of(directory), snapshotIntervalMillis);
+    }
+
+    /**
+     * Opens the journal in a directory with the default snapshot interval.
+     * @param directory Directory holding the segment files, created if needed; null disables the journal.
+     */
+    public SalesJournal(Path directory) {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL_MS);
+    }
+
+    /**
+     * Opens the journal in a directory, recovering the pool it describes, and starts its writer thread.
+     * @param directory              Directory holding the segment files, created if needed; null disables the journal.
+     * @param snapshotIntervalMillis Time between snapshots, in milliseconds.
+     */
+    public SalesJournal(Path directory, long snapshotIntervalMillis) {
+        this.directory = directory;
+        this.snapshotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMillis);
+        this.entries = new Entry[directory == null ? 1 : RING_CAPACITY];
+        this.sequences = new AtomicLongArray(entries.length);
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        this.mask = entries.length - 1;
+
+        if (directory == null) {
+            this.recovered = null;
+            this.writer = null;
+            this.snapshotter = null;
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            this.recovered = recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open sales journal in " + directory, e);
+        }
+        this.lastSnapshotNanos = System.nanoTime();
+        this.snapshotter = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "sales-journal-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer = new Thread(this::run, "sales-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Checks whether records are written to disk.
+     * @return false for {@link #DISABLED} or a journal whose file has failed; true otherwise.
+     */
+    public boolean isEnabled() {
+        return writer != null && !failed;
+    }
+
+    /**
+     * Retrieves the pool state replayed from disk when the journal was opened.
+     * @return The recovered state, or null if there was no journal to replay.
+     */
+    public PoolState getRecoveredState() {
+        return recovered;
+    }
+
+    /**
+     * Retrieves how long recovery took when the journal was opened.
+     * @return Time spent loading the snapshot and replaying segments, in nanoseconds.
+     */
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    /**
+     * Retrieves the number of records replayed from segments when the journal was opened.
+     * @return Number of records read after the snapshot.
+     */
+    public long getRecordsReplayed() {
+        return recordsReplayed;
+    }
+
+    /**
+     * Retrieves the snapshot recovery started from.
+     * @return Index of the first segment after the snapshot, or -1 if no snapshot was loaded.
+     */
+    public long getSnapshotLoaded() {
+        return snapshotLoaded;
+    }
+
+    /**
+     * Retrieves the number of snapshots saved since the journal was opened.
+     * @return Number of snapshots written.
+     */
+    public long getSnapshotsWritten() {
+        return snapshotsWritten.get();
+    }
+
+    /**
+     * Starts a new journal for a freshly configured pool and waits until it is on disk.
+     * <p>
+     * Records appended before this call are written first; the earlier segments are then deleted, since they
+     * describe a pool that has been replaced.
+     * </p>
+     * @param totalTickets      The total number of tickets allowed in the new pool.
+     * @param maxTicketCapacity The maximum number of tickets in the new pool at a time.
+     * @param mode              The inventory engine backing the new pool.
+     */
+    public void start(int totalTickets, int maxTicketCapacity, PoolMode mode) {
+        append(CONFIGURE, null, totalTickets, maxTicketCapacity, mode);
+        commit();
+    }
+
+    /**
+     * Records new limits for a pool that was reconfigured without starting a new sale, and waits until they are
+     * on disk. The inventory and counters carry over.
+     * @param totalTickets      The total number of tickets allowed in the reconfigured pool.
+     * @param maxTicketCapacity The maximum number of tickets in the reconfigured pool at a time.
+     * @param mode              The inventory engine backing the reconfigured pool.
+     */
+    public void reconfigure(int totalTickets, int maxTicketCapacity, PoolMode mode) {
+        append(RECONFIGURE, null, totalTickets, maxTicketCapacity, mode);
+        commit();
+    }
+
+    /**
+     * Appends a release of tickets.
+     * @param ticket Details of the released tickets.
+     * @param count  Number of tickets released.
+     */
+    public void released(TicketDescriptor ticket, int count) {
+        append(RELEASE, ticket, count, 0, null);
+    }
+
+    /**
+     * Appends a purchase of tickets sharing one descriptor.
+     * @param ticket Details of the purchased tickets.
+     * @param count  Number of tickets purchased.
+     */
+    public void purchased(TicketDescriptor ticket, int count) {
+        append(PURCHASE, ticket, count, 0, null);
+    }
+
+    /**
+     * Appends a basket purchase, as one record per run of tickets sharing a descriptor.
+     * @param tickets Details of each purchased ticket.
+     */
+    public void purchased(List<TicketDescriptor> tickets) {
+        int start = 0;
+        for (int i = 1; i <= tickets.size(); i++) {
+            if (i == tickets.size() || tickets.get(i) != tickets.get(start)) {
+                purchased(tickets.get(start), i - start);
+                start = i;
+            }
+        }
+    }
+
+    /**
+     * Waits until every record appended by the calling thread is durable.
+     * <p>
+     * Inside a {@link #beginBatch()} scope the wait is postponed to the matching {@link #endBatch()}. If the
+     * journal file has failed the call returns at once; the failure has already been logged.
+     * </p>
+     */
+    public void commit() {
+        Commit commit = commits.get();
+        if (commit.depth > 0 || commit.target <= durable || !isEnabled()) {
+            return;
+        }
+        waiters.incrementAndGet();
+        durableLock.lock();
+        try {
+            while (durable < commit.target && !failed && !closed) {
+                durableChanged.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            durableLock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Postpones {@link #commit()} waits on the calling thread until the matching {@link #endBatch()}, so a caller
+     * making several pool operations in a row waits for one fsync instead of one per operation.
+     */
+    public void beginBatch() {
+        commits.get().depth++;
+    }
+
+    /**
+     * Ends a {@link #beginBatch()} scope and, at the outermost level, waits until the batch is durable.
+     */
+    public void endBatch() {
+        Commit commit = commits.get();
+        if (--commit.depth == 0) {
+            commit();
+        }
+    }
+
+    /**
+     * Stops the writer after it has written and forced every pending record.
+     */
+    @PreDestroy
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            snapshotter.shutdown();
+            snapshotter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(byte type, TicketDescriptor ticket, int count, int capacity, PoolMode mode) {
+        if (!isEnabled() || closed) {
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            long difference = sequences.get((int) (position & mask)) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int index = (int) (position & mask);
+        Entry entry = entries[index];
+        entry.type = type;
+        entry.ticket = ticket;
+        entry.count = count;
+        entry.capacity = capacity;
+        entry.mode = mode;
+        sequences.set(index, position + 1);
+        commits.get().target = position + 1;
+
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            int written;
+            try {
+                written = writeBatch();
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                return;
+            }
+            if (written > 0) {
+                continue;
+            }
+            if (closed) {
+                break;
+            }
+            try {
+                if (snapshotDue()) {
+                    snapshot();
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                return;
+            }
+            idle = true;
+            if (!hasPending()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+        try {
+            writeBatch();
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+        signalDurable();
+    }
+
+    private boolean hasPending() {
+        long position = head;
+        return sequences.get((int) (position & mask)) == position + 1;
+    }
+
+    /**
+     * Writes every published record and forces them to disk together.
+     * @return Number of records written.
+     * @throws IOException If the segment cannot be written.
+     */
+    private int writeBatch() throws IOException {
+        int count = 0;
+        long position = head;
+        while (count < entries.length) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            Entry entry = entries[index];
+            if (entry.type == CONFIGURE) {
+                drainBuffer();
+                startJournal(entry.count, entry.capacity, entry.mode);
+            } else if (entry.type == RECONFIGURE) {
+                body.clear();
+                body.put(RECONFIGURE).putInt(entry.count).putInt(entry.capacity).put((byte) entry.mode.ordinal());
+                frame();
+                ledger.reconfigure(entry.count, entry.capacity, entry.mode);
+                recordsSinceSnapshot++;
+            } else {
+                encode(entry);
+                if (entry.type == RELEASE) {
+                    ledger.release(entry.ticket, entry.count);
+                } else {
+                    ledger.purchase(entry.ticket, entry.count);
+                }
+                recordsSinceSnapshot++;
+            }
+            entry.clear();
+            sequences.set(index, position + entries.length);
+            head = ++position;
+            count++;
+        }
+        if (count > 0) {
+            drainBuffer();
+            channel.force(false);
+            durable = position;
+            signalDurable();
+            if (snapshotDue() || channel.position() >= SEGMENT_BYTES) {
+                if (snapshotting) {
+                    nextSegment();
+                } else {
+                    snapshot();
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean snapshotDue() {
+        return recordsSinceSnapshot > 0 && !snapshotting
+                && System.nanoTime() - lastSnapshotNanos >= snapshotIntervalNanos;
+    }
+
+    /**
+     * Starts a new segment and saves the ledger as it stands at the end of the previous one in the background.
+     * Only one snapshot is saved at a time; a segment that fills up meanwhile is covered by the next one.
+     */
+    private void snapshot() throws IOException {
+        nextSegment();
+        JournalLedger copy = ledger.copy();
+        long index = segmentIndex;
+        recordsSinceSnapshot = 0;
+        lastSnapshotNanos = System.nanoTime();
+        snapshotting = true;
+        snapshotter.execute(() -> writeSnapshot(copy, index));
+    }
+
+    /**
+     * Saves a snapshot covering every segment below {@code index}, then deletes those segments and older snapshots.
+     * A failure only leaves the segments in place, so it is logged rather than failing the journal.
+     */
+    private void writeSnapshot(JournalLedger copy, long index) {
+        try {
+            copy.writeSnapshot(snapshotPath(index));
+            for (Path segment : listSegments()) {
+                if (indexOf(segment, SEGMENT_PREFIX, SEGMENT_SUFFIX) < index) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+            for (Path snapshot : listSnapshots()) {
+                if (indexOf(snapshot, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < index) {
+                    Files.deleteIfExists(snapshot);
+                }
+            }
+            snapshotsWritten.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Sales journal: could not save a snapshot; segments are kept", e);
+        } finally {
+            snapshotting = false;
+        }
+    }
+
+    private void encode(Entry entry) throws IOException {
+        Integer id = descriptorIds.get(entry.ticket);
+        if (id == null) {
+            id = descriptorIds.size();
+            descriptorIds.put(entry.ticket, id);
+            body.clear();
+            body.put(DESCRIPTOR).putInt(id);
+            putString(entry.ticket.getVendorId());
+            putString(entry.ticket.getEventId());
+            putString(entry.ticket.getEventName());
+            body.putDouble(entry.ticket.getPrice());
+            putString(entry.ticket.getCategory());
+            frame();
+        }
+        body.clear();
+        body.put(entry.type).putInt(id).putInt(entry.count);
+        frame();
+    }
+
+    private void putString(String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        body.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Moves the record in {@link #body} into the write buffer, framed by its length and checksum.
+     */
+    private void frame() throws IOException {
+        body.flip();
+        crc.reset();
+        crc.update(body.array(), 0, body.limit());
+        if (buffer.remaining() < body.limit() + FRAME_OVERHEAD) {
+            drainBuffer();
+        }
+        buffer.putInt(body.limit()).put(body).putInt((int) crc.getValue());
+    }
+
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Replaces every segment and snapshot with a new journal that begins with the given configuration.
+     * <p>
+     * Segment indexes keep increasing across journals, so a snapshot of the previous pool that is still being
+     * saved sorts before the new configuration record and is overridden by it on recovery.
+     * </p>
+     */
+    private void startJournal(int totalTickets, int maxTicketCapacity, PoolMode mode) throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+        for (Path segment : listSegments()) {
+            Files.deleteIfExists(segment);
+        }
+        for (Path snapshot : listSnapshots()) {
+            Files.deleteIfExists(snapshot);
+        }
+        segmentIndex++;
+        openSegment();
+        body.clear();
+        body.put(CONFIGURE).putInt(totalTickets).putInt(maxTicketCapacity).put((byte) mode.ordinal());
+        frame();
+        ledger.configure(totalTickets, maxTicketCapacity, mode);
+        recordsSinceSnapshot = 0;
+        lastSnapshotNanos = System.nanoTime();
+    }
+
+    private void nextSegment() throws IOException {
+        channel.close();
+        segmentIndex++;
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(segmentPath(segmentIndex), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        descriptorIds.clear();
+    }
+
+    private void signalDurable() {
+        if (waiters.get() > 0) {
+            durableLock.lock();
+            try {
+                durableChanged.signalAll();
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+
+    private void fail(Exception e) {
+        failed = true;
+        logger.log(Level.SEVERE, "Sales journal failed; sales are no longer durable", e);
+        signalDurable();
+    }
+
+    /**
+     * Loads the latest snapshot and replays the segments written after it, cutting off a torn record at the end,
+     * then reopens the last segment for appending.
+     * @return The recovered pool state, or null if no journal was found.
+     */
+    private PoolState recover() throws IOException {
+        long started = System.nanoTime();
+        for (Path unfinished : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX + ".tmp")) {
+            Files.delete(unfinished);
+        }
+        List<Path> snapshots = listSnapshots();
+        long firstSegment = 0;
+        if (!snapshots.isEmpty()) {
+            Path latest = snapshots.get(snapshots.size() - 1);
+            if (!ledger.readSnapshot(latest)) {
+                throw new IOException("Sales journal snapshot " + latest.getFileName() + " is damaged");
+            }
+            firstSegment = indexOf(latest, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            snapshotLoaded = firstSegment;
+            for (Path older : snapshots.subList(0, snapshots.size() - 1)) {
+                Files.delete(older);
+            }
+        }
+
+        List<Path> segments = new ArrayList<>();
+        for (Path segment : listSegments()) {
+            if (indexOf(segment, SEGMENT_PREFIX, SEGMENT_SUFFIX) < firstSegment) {
+                Files.delete(segment);
+            } else {
+                segments.add(segment);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            long valid = readSegment(segment);
+            if (valid < Files.size(segment)) {
+                logger.warning("Sales journal: discarding a torn record at the end of " + segment.getFileName());
+                try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    file.truncate(valid);
+                }
+                for (Path later : segments.subList(i + 1, segments.size())) {
+                    Files.delete(later);
+                }
+                segments = segments.subList(0, i + 1);
+                break;
+            }
+        }
+
+        if (!segments.isEmpty()) {
+            segmentIndex = indexOf(segments.get(segments.size() - 1), SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            channel = FileChannel.open(segmentPath(segmentIndex), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        } else if (snapshotLoaded >= 0) {
+            segmentIndex = snapshotLoaded;
+            openSegment();
+        }
+        recoveryNanos = System.nanoTime() - started;
+        return ledger.toState();
+    }
+
+    /**
+     * Applies every intact record in a segment to the ledger.
+     * @return Offset just past the last intact record.
+     */
+    private long readSegment(Path segment) throws IOException {
+        Map<Integer, TicketDescriptor> descriptors = new HashMap<>();
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer data = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            CRC32 check = new CRC32();
+            while (data.remaining() >= FRAME_OVERHEAD) {
+                int start = data.position();
+                int length = data.getInt();
+                if (length <= 0 || length > data.remaining() - Integer.BYTES) {
+                    return start;
+                }
+                ByteBuffer record = data.slice(data.position(), length);
+                data.position(data.position() + length);
+                check.reset();
+                check.update(record.duplicate());
+                if (data.getInt() != (int) check.getValue()) {
+                    return start;
+                }
+                apply(record, descriptors);
+                recordsReplayed++;
+            }
+            return data.position();
+        }
+    }
+
+    private void apply(ByteBuffer record, Map<Integer, TicketDescriptor> descriptors) {
+        byte type = record.get();
+        switch (type) {
+            case CONFIGURE -> ledger.configure(record.getInt(), record.getInt(), PoolMode.values()[record.get()]);
+            case RECONFIGURE -> ledger.reconfigure(record.getInt(), record.getInt(), PoolMode.values()[record.get()]);
+            case DESCRIPTOR -> {
+                int id = record.getInt();
+                descriptors.put(id, new TicketDescriptor(JournalLedger.getString(record),
+                        JournalLedger.getString(record), JournalLedger.getString(record), record.getDouble(),
+                        JournalLedger.getString(record)));
+            }
+            case RELEASE, PURCHASE -> {
+                TicketDescriptor ticket = descriptors.get(record.getInt());
+                int count = record.getInt();
+                if (ticket == null) {
+                    throw new IllegalStateException("Journal record refers to an unknown ticket descriptor");
+                }
+                if (type == RELEASE) {
+                    ledger.release(ticket, count);
+                } else {
+                    ledger.purchase(ticket, count);
+                }
+            }
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        return list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        return list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().toList();
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long index) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, index, SNAPSHOT_SUFFIX));
+    }
+
+    private static long indexOf(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    /**
+     * The calling thread's most recent record and its {@link #beginBatch()} nesting depth.
+     */
+    private static final class Commit {
+        private long target;
+        private int depth;
+    }
+
+    /**
+     * One preallocated slot of the ring. For a configuration record {@code count} holds the total ticket limit.
+     */
+    private static final class Entry {
+        private byte type;
+        private TicketDescriptor ticket;
+        private int count;
+        private int capacity;
+        private PoolMode mode;
+
+        private void clear() {
+            ticket = null;
+            mode = null;
+        }
+    }
+}
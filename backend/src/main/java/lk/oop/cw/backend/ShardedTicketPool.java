@@ -0,0 +1,968 @@
+package lk.oop.cw.backend;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A ticket pool split into independently locked shards, one per event.
+ * <p>
+ * Vendors release into the shard that owns their event, so a busy event only contends with itself.
+ * Each shard has its own share of {@code maxTicketCapacity} and its own conditions, while the
+ * {@code totalTickets} budget is still enforced globally through an atomic counter.
+ * </p>
+ * <p>
+ * Every customer has a home shard derived from its ID. When the home shard is empty the customer steals
+ * from the sibling shards in turn, and only waits (on its home shard, with a short timeout before it
+ * scans again) when every shard is empty.
+ * </p>
+ */
+public class ShardedTicketPool extends AbstractTicketPool {
+    /**
+     * Default number of shards, matching the events {@link TicketService#startVendorThreads} spreads vendors over.
+     */
+    public static final int DEFAULT_SHARD_COUNT = 5;
+
+    private static final long STEAL_RESCAN_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final Shard[] shards;
+    private final AtomicInteger totalTicketsReleased = new AtomicInteger();
+    private final AtomicInteger totalTicketsSold = new AtomicInteger();
+
+    /**
+     * Creates a sharded pool with {@link #DEFAULT_SHARD_COUNT} shards.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets across all shards at a time.
+     */
+    public ShardedTicketPool(int totalTickets, int maxTicketCapacity) {
+        this(totalTickets, maxTicketCapacity, DEFAULT_SHARD_COUNT);
+    }
+
+    /**
+     * Creates a sharded pool.
+     * <p>
+     * The capacity is divided as evenly as possible between the shards. There are never more shards than
+     * capacity, so every shard can hold at least one ticket.
+     * </p>
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets across all shards at a time.
+     * @param shardCount        The requested number of shards.
+     */
+    public ShardedTicketPool(int totalTickets, int maxTicketCapacity, int shardCount) {
+        super(totalTickets, maxTicketCapacity);
+        if (maxTicketCapacity <= 0 || shardCount <= 0) {
+            throw new IllegalArgumentException("maxTicketCapacity and shardCount must be positive");
+        }
+        int count = Math.min(shardCount, maxTicketCapacity);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            int capacity = maxTicketCapacity / count + (i < maxTicketCapacity % count ? 1 : 0);
+            shards[i] = new Shard(capacity);
+        }
+    }
+
+    /**
+     * Adds tickets to the shard owning the event, waiting while that shard is full.
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with; selects the shard.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     */
+    @Override
+    public void addTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
+        long start = beginCall();
+        try {
+            Shard shard = shardFor(eventId);
+            TicketDescriptor ticket = describe(vendorId, eventId, eventName, price, category);
+            int added;
+            lockTimed(shard.lock);
+            try {
+                if (totalTicketsReleased.get() >= totalTickets) {
+                    logLimitReached();
+                    return;
+                }
+
+                while (shard.room() <= 0) {
+                    awaitTimed(shard.notFull);
+                }
+
+                added = releaseLocked(shard, ticket, ticketsToAdd);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                shard.lock.unlock();
+            }
+
+            released(vendorId, ticket, added);
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Adds tickets to the shard owning the event, waiting at most the given time for that shard to have room.
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with; selects the shard.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     * @param timeout      Maximum time to wait for room.
+     * @param unit         Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} if tickets were added, {@link PoolResult#SOLD_OUT} if the total ticket
+     *         limit has been reached, or {@link PoolResult#TIMED_OUT} if the shard stayed full until the deadline.
+     */
+    @Override
+    public PoolResult tryAddTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                                    String category, long timeout, TimeUnit unit) {
+        long start = beginCall();
+        try {
+            long deadline = start + unit.toNanos(timeout);
+            Shard shard = shardFor(eventId);
+            TicketDescriptor ticket = describe(vendorId, eventId, eventName, price, category);
+            int added;
+            lockTimed(shard.lock);
+            try {
+                while (totalTicketsReleased.get() < totalTickets && shard.room() <= 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return PoolResult.TIMED_OUT;
+                    }
+                    awaitTimed(shard.notFull, remaining, TimeUnit.NANOSECONDS);
+                }
+                added = releaseLocked(shard, ticket, ticketsToAdd);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return PoolResult.TIMED_OUT;
+            } finally {
+                shard.lock.unlock();
+            }
+
+            if (added == 0) {
+                logLimitReached();
+                return PoolResult.SOLD_OUT;
+            }
+            released(vendorId, ticket, added);
+            return PoolResult.SUCCESS;
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Adds as many tickets as currently fit in the event's shard without waiting.
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with; selects the shard.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     * @return Number of tickets actually added; zero if the shard is full or the total ticket limit is reached.
+     */
+    @Override
+    public int offerTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
+        long start = beginCall();
+        try {
+            Shard shard = shardFor(eventId);
+            TicketDescriptor ticket = describe(vendorId, eventId, eventName, price, category);
+            int added;
+            lockTimed(shard.lock);
+            try {
+                if (totalTicketsReleased.get() >= totalTickets) {
+                    logLimitReached();
+                    return 0;
+                }
+                added = releaseLocked(shard, ticket, ticketsToAdd);
+            } finally {
+                shard.lock.unlock();
+            }
+
+            if (added > 0) {
+                released(vendorId, ticket, added);
+            }
+            return added;
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Applies a batch of releases without waiting, taking each shard's lock once for the releases of the events
+     * it holds.
+     * <p>
+     * Releases of one shard are applied in the order given; releases of different shards are independent, since
+     * each only fits into its own shard.
+     * </p>
+     * @param releases The releases to apply.
+     * @return The number of tickets added for each release, in the order given.
+     */
+    @Override
+    public int[] offerTicketBatch(List<TicketRelease> releases) {
+        long start = beginCall();
+        try {
+            int[] added = new int[releases.size()];
+            int[] shardOf = new int[added.length];
+            TicketDescriptor[] descriptors = new TicketDescriptor[added.length];
+            boolean[] involved = new boolean[shards.length];
+            for (int i = 0; i < added.length; i++) {
+                TicketRelease release = releases.get(i);
+                shardOf[i] = indexFor(release.getEventId());
+                descriptors[i] = describe(release.getVendorId(), release.getEventId(), release.getEventName(),
+                        release.getPrice(), release.getCategory());
+                involved[shardOf[i]] = true;
+            }
+
+            boolean refused = false;
+            for (int s = 0; s < shards.length && !refused; s++) {
+                if (!involved[s]) {
+                    continue;
+                }
+                Shard shard = shards[s];
+                lockTimed(shard.lock);
+                try {
+                    for (int i = 0; i < added.length; i++) {
+                        if (shardOf[i] != s) {
+                            continue;
+                        }
+                        if (totalTicketsReleased.get() >= totalTickets) {
+                            refused = true;
+                            break;
+                        }
+                        added[i] = releaseLocked(shard, descriptors[i], releases.get(i).getTickets());
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+
+            if (refused) {
+                logLimitReached();
+            }
+            for (int i = 0; i < added.length; i++) {
+                if (added[i] > 0) {
+                    released(releases.get(i).getVendorId(), descriptors[i], added[i]);
+                }
+            }
+            return added;
+        } finally {
+            finishAdd(start);
+        }
+    }
+
+    /**
+     * Reports no free room to {@link #onceNotFull}, so parked vendors are only woken by purchases.
+     * <p>
+     * A vendor can only release into its own event's shard, and spare room in another shard does not help it.
+     * Waking it for that would make it retry in a tight loop, so it waits for the next purchase instead. Since
+     * customers steal from any shard, a full shard is always drained by the next purchases.
+     * </p>
+     * @return Always false.
+     */
+    @Override
+    protected boolean hasRoom() {
+        return false;
+    }
+
+    /**
+     * Adds tickets to a shard up to its free space and the global budget. Must be called with the shard's lock held.
+     * @return Number of tickets added.
+     */
+    private int releaseLocked(Shard shard, TicketDescriptor ticket, int ticketsToAdd) {
+        int added = reserve(Math.min(ticketsToAdd, shard.room()));
+        shard.tickets.add(ticket, added);
+        shard.size = shard.tickets.size();
+        if (added > 0) {
+            shard.notEmpty.signalAll();
+        }
+        return added;
+    }
+
+    /**
+     * Logs and publishes a completed release and wakes parked customers.
+     */
+    private void released(String vendorId, TicketDescriptor ticket, int added) {
+        recordRelease(vendorId, ticket, added, getRemainingTickets());
+        publishTicketsAdded(vendorId, ticket.getEventId(), added, getRemainingTickets());
+        signalNotEmptyWaiters();
+    }
+
+    /**
+     * Allows a customer to remove (purchase) a ticket, stealing from sibling shards when its home shard is empty.
+     * @param customerId ID of the customer purchasing the ticket; selects the home shard.
+     */
+    @Override
+    public void removeTicket(String customerId) {
+        long start = beginCall();
+        try {
+            int home = indexFor(customerId);
+            try {
+                while (true) {
+                    for (int i = 0; i < shards.length; i++) {
+                        Shard shard = shards[(home + i) % shards.length];
+                        if (shard.size > 0 && takeFrom(shard, customerId)) {
+                            return;
+                        }
+                    }
+                    if (isSoldOut()) {
+                        return;
+                    }
+                    awaitTickets(shards[home], Long.MAX_VALUE);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases a ticket, stealing from sibling shards when the home shard is empty, and waiting at most the
+     * given time for one to arrive.
+     * @param customerId ID of the customer purchasing the ticket; selects the home shard.
+     * @param timeout    Maximum time to wait for a ticket.
+     * @param unit       Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} if a ticket was purchased, {@link PoolResult#SOLD_OUT} if every ticket has
+     *         been sold, or {@link PoolResult#TIMED_OUT} if every shard stayed empty until the deadline.
+     */
+    @Override
+    public PoolResult tryRemoveTicket(String customerId, long timeout, TimeUnit unit) {
+        long start = beginCall();
+        try {
+            long deadline = start + unit.toNanos(timeout);
+            int home = indexFor(customerId);
+            while (true) {
+                for (int i = 0; i < shards.length; i++) {
+                    Shard shard = shards[(home + i) % shards.length];
+                    if (shard.size > 0 && takeFrom(shard, customerId)) {
+                        return PoolResult.SUCCESS;
+                    }
+                }
+                if (isSoldOut()) {
+                    return PoolResult.SOLD_OUT;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return PoolResult.TIMED_OUT;
+                }
+                awaitTickets(shards[home], remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PoolResult.TIMED_OUT;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases a ticket from the first non-empty shard, starting at the customer's home shard, without waiting.
+     * @param customerId ID of the customer purchasing the ticket; selects the home shard.
+     * @return true if a ticket was purchased; false if every shard was empty.
+     */
+    @Override
+    public boolean pollTicket(String customerId) {
+        long start = beginCall();
+        try {
+            int home = indexFor(customerId);
+            for (int i = 0; i < shards.length; i++) {
+                Shard shard = shards[(home + i) % shards.length];
+                if (shard.size > 0 && takeFrom(shard, customerId)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Allows a customer to purchase several tickets in one step, waiting while the shards cannot satisfy the basket.
+     * <p>
+     * When the customer's home shard can fill the basket only its lock is taken. Otherwise every shard is locked
+     * in index order, so concurrent basket purchases cannot deadlock, and the basket is assembled across
+     * shards. The call gives up once the tickets not yet sold can no longer fill the basket.
+     * </p>
+     * @param customerId ID of the customer purchasing the tickets; selects the home shard.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased; zero if the basket cannot be filled or the customer was interrupted.
+     */
+    @Override
+    public int removeTickets(String customerId, int count, PurchaseMode mode) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return 0;
+            }
+            int required = mode.minimumOf(count);
+            int home = indexFor(customerId);
+            try {
+                while (true) {
+                    int purchased = takeBasket(home, customerId, count, required);
+                    if (purchased > 0) {
+                        return purchased;
+                    }
+                    if (required > maxTicketCapacity || totalTickets - totalTicketsSold.get() < required) {
+                        return 0;
+                    }
+                    awaitTickets(shards[home], Long.MAX_VALUE);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases several tickets in one step, waiting at most the given time while the shards cannot satisfy the
+     * basket. The basket is assembled as in {@link #removeTickets}.
+     * @param customerId ID of the customer purchasing the tickets; selects the home shard.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @param timeout    Maximum time to wait for the basket.
+     * @param unit       Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} and the number of tickets purchased, {@link PoolResult#SOLD_OUT} if the
+     *         basket can no longer be filled, or {@link PoolResult#TIMED_OUT} if the shards could not fill it before
+     *         the deadline.
+     */
+    @Override
+    public BasketResult tryRemoveTickets(String customerId, int count, PurchaseMode mode, long timeout,
+                                         TimeUnit unit) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return new BasketResult(PoolResult.SUCCESS, 0);
+            }
+            long deadline = start + unit.toNanos(timeout);
+            int required = mode.minimumOf(count);
+            int home = indexFor(customerId);
+            while (true) {
+                int purchased = takeBasket(home, customerId, count, required);
+                if (purchased > 0) {
+                    return new BasketResult(PoolResult.SUCCESS, purchased);
+                }
+                if (required > maxTicketCapacity || totalTickets - totalTicketsSold.get() < required) {
+                    return new BasketResult(PoolResult.SOLD_OUT, 0);
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return new BasketResult(PoolResult.TIMED_OUT, 0);
+                }
+                awaitTickets(shards[home], remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new BasketResult(PoolResult.TIMED_OUT, 0);
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases several tickets without waiting, starting at the customer's home shard.
+     * @param customerId ID of the customer purchasing the tickets; selects the home shard.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased; zero if the shards could not satisfy the basket.
+     */
+    @Override
+    public int pollTickets(String customerId, int count, PurchaseMode mode) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return 0;
+            }
+            return takeBasket(indexFor(customerId), customerId, count, mode.minimumOf(count));
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases the cheapest ticket matching a customer's criteria, without waiting.
+     * <p>
+     * Tickets for one event all live in that event's shard, so a purchase naming an event only locks that shard.
+     * Otherwise every shard is locked in index order, as for a basket purchase, and the cheapest match across
+     * the shards is taken.
+     * </p>
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param criteria   The event, category and price ceiling wanted.
+     * @return The details of the ticket purchased, or null if no ticket in the pool matches.
+     */
+    @Override
+    public TicketDescriptor purchaseMatching(String customerId, TicketCriteria criteria) {
+        long start = beginCall();
+        try {
+            TicketDescriptor ticket;
+            if (criteria.getEventId() != null) {
+                Shard shard = shardFor(criteria.getEventId());
+                lockTimed(shard.lock);
+                try {
+                    ticket = takeMatchingLocked(shard, criteria);
+                } finally {
+                    shard.lock.unlock();
+                }
+            } else {
+                for (Shard shard : shards) {
+                    lockTimed(shard.lock);
+                }
+                try {
+                    Shard cheapest = null;
+                    double lowest = Double.NaN;
+                    for (Shard shard : shards) {
+                        double price = shard.tickets.cheapestPrice(criteria);
+                        if (!Double.isNaN(price) && (cheapest == null || price < lowest)) {
+                            cheapest = shard;
+                            lowest = price;
+                        }
+                    }
+                    ticket = cheapest == null ? null : takeMatchingLocked(cheapest, criteria);
+                } finally {
+                    for (int i = shards.length - 1; i >= 0; i--) {
+                        shards[i].lock.unlock();
+                    }
+                }
+            }
+
+            if (ticket == null) {
+                return null;
+            }
+            recordPurchase(customerId, ticket, getRemainingTickets());
+            purchaseCompleted();
+            return ticket;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Takes the cheapest matching ticket from a shard. Must be called with the shard's lock held.
+     * @return The ticket, or null if none in the shard matches.
+     */
+    private TicketDescriptor takeMatchingLocked(Shard shard, TicketCriteria criteria) {
+        TicketDescriptor ticket = shard.tickets.pollMatching(criteria);
+        if (ticket != null) {
+            shard.size = shard.tickets.size();
+            totalTicketsSold.incrementAndGet();
+            shard.notFull.signalAll();
+        }
+        return ticket;
+    }
+
+    /**
+     * Holds tickets for a customer during checkout, without waiting.
+     * <p>
+     * Every shard is locked in index order, as for a basket purchase, and the oldest tickets are taken starting
+     * from the customer's home shard. They stay counted as unsold until the hold is confirmed, and each keeps its
+     * room in the shard it came from, which is the shard it returns to.
+     * </p>
+     * @param customerId ID of the customer the tickets are held for.
+     * @param count      Number of tickets to hold.
+     * @param ttl        How long the hold lasts unless confirmed or released.
+     * @param unit       Unit of {@code ttl}.
+     * @return The hold, or null if the pool has fewer than {@code count} tickets.
+     */
+    @Override
+    public TicketHold holdTickets(String customerId, int count, long ttl, TimeUnit unit) {
+        beginCall();
+        try {
+            if (count <= 0) {
+                return null;
+            }
+            List<TicketDescriptor> held = new ArrayList<>(count);
+            int home = indexFor(customerId);
+            for (Shard shard : shards) {
+                lockTimed(shard.lock);
+            }
+            try {
+                if (getRemainingTickets() < count) {
+                    return null;
+                }
+                for (int i = 0; i < shards.length && held.size() < count; i++) {
+                    Shard shard = shards[(home + i) % shards.length];
+                    shard.held += shard.tickets.drainTo(held, count);
+                    shard.size = shard.tickets.size();
+                }
+                holdsChanged(count);
+            } finally {
+                for (int i = shards.length - 1; i >= 0; i--) {
+                    shards[i].lock.unlock();
+                }
+            }
+            return placeHold(customerId, held, ttl, unit);
+        } finally {
+            endCall();
+        }
+    }
+
+    /**
+     * Puts the tickets of an expired or released hold back into the shards that own their events and wakes the
+     * customers waiting on them.
+     * @param held The tickets of the hold.
+     */
+    @Override
+    protected void returnHeldTickets(List<TicketDescriptor> held) {
+        for (TicketDescriptor ticket : held) {
+            Shard shard = shardFor(ticket.getEventId());
+            shard.lock.lock();
+            try {
+                shard.tickets.add(ticket, 1);
+                shard.size = shard.tickets.size();
+                shard.held--;
+                holdsChanged(-1);
+                shard.notEmpty.signalAll();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Records the sale of the tickets of a confirmed hold, freeing their room in the shards they came from.
+     * @param customerId ID of the customer that held the tickets.
+     * @param held       The tickets of the hold.
+     */
+    @Override
+    protected void sellHeldTickets(String customerId, List<TicketDescriptor> held) {
+        for (TicketDescriptor ticket : held) {
+            Shard shard = shardFor(ticket.getEventId());
+            shard.lock.lock();
+            try {
+                shard.held--;
+                holdsChanged(-1);
+                shard.notFull.signalAll();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        totalTicketsSold.addAndGet(held.size());
+        recordPurchase(customerId, held, getRemainingTickets());
+    }
+
+    /**
+     * Charges the tickets of holds taken over from another pool to the shards they return to.
+     * @param held The holds taken over.
+     */
+    @Override
+    protected void holdsTransferred(Collection<TicketHold> held) {
+        for (TicketHold hold : held) {
+            for (TicketDescriptor ticket : hold.getTickets()) {
+                Shard shard = shardFor(ticket.getEventId());
+                shard.lock.lock();
+                try {
+                    shard.held++;
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Refills freshly created shards with state recovered from the {@link SalesJournal} or handed over by
+     * another pool, each ticket going to the shard that owns its event.
+     * <p>
+     * No ticket is dropped: a shard given more than its share of the capacity, for example after the pool was
+     * reconfigured with fewer shards or less room, accepts no releases until purchases bring it back under.
+     * </p>
+     * @param state The state to restore.
+     */
+    @Override
+    public void restore(PoolState state) {
+        for (Map.Entry<TicketDescriptor, Integer> entry : state.getInventory().entrySet()) {
+            TicketDescriptor ticket = intern(entry.getKey());
+            Shard shard = shardFor(ticket.getEventId());
+            shard.lock.lock();
+            try {
+                shard.tickets.add(ticket, entry.getValue());
+                shard.size = shard.tickets.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        totalTicketsReleased.set(state.getReleased());
+        totalTicketsSold.set(state.getSold());
+    }
+
+    /**
+     * Captures every shard for a handover.
+     * @return The current state of the pool.
+     */
+    @Override
+    protected PoolState captureState() {
+        Map<TicketDescriptor, Integer> inventory = new LinkedHashMap<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                shard.tickets.countInto(inventory);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return new PoolState(totalTickets, maxTicketCapacity, getMode(), totalTicketsReleased.get(),
+                totalTicketsSold.get(), inventory);
+    }
+
+    /**
+     * Wakes the vendors and customers waiting on any shard, so they notice that the pool is being handed over.
+     */
+    @Override
+    protected void wakeWaiters() {
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                shard.notFull.signalAll();
+                shard.notEmpty.signalAll();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the inventory engine backing this pool.
+     * @return {@link PoolMode#SHARDED}.
+     */
+    @Override
+    public PoolMode getMode() {
+        return PoolMode.SHARDED;
+    }
+
+    /**
+     * Checks if every ticket in the total budget has been sold.
+     * @return true if the pool is sold out; false otherwise.
+     */
+    @Override
+    public boolean isSoldOut() {
+        return totalTicketsSold.get() >= totalTickets;
+    }
+
+    /**
+     * Checks if the whole ticket budget has been released.
+     * @return true if vendors cannot add any more tickets; false otherwise.
+     */
+    @Override
+    public boolean isFullyReleased() {
+        return totalTicketsReleased.get() >= totalTickets;
+    }
+
+    /**
+     * Retrieves the number of tickets released so far.
+     * @return Tickets released.
+     */
+    @Override
+    public int getTicketsReleased() {
+        return totalTicketsReleased.get();
+    }
+
+    /**
+     * Retrieves the number of tickets sold so far, including confirmed holds.
+     * @return Tickets sold.
+     */
+    @Override
+    public int getTicketsSold() {
+        return totalTicketsSold.get();
+    }
+
+    /**
+     * Retrieves the number of tickets currently held across all shards.
+     * @return Number of remaining tickets.
+     */
+    @Override
+    public int getRemainingTickets() {
+        int remaining = 0;
+        for (Shard shard : shards) {
+            remaining += shard.size;
+        }
+        return remaining;
+    }
+
+    /**
+     * Takes a ticket from the given shard if it still has one once its lock is held.
+     * @param shard      Shard to purchase from.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @return true if a ticket was purchased; false if the shard was emptied in the meantime.
+     */
+    private boolean takeFrom(Shard shard, String customerId) {
+        TicketDescriptor ticket;
+        lockTimed(shard.lock);
+        try {
+            ticket = shard.tickets.poll();
+            if (ticket == null) {
+                return false;
+            }
+            shard.size = shard.tickets.size();
+            totalTicketsSold.incrementAndGet();
+            shard.notFull.signalAll();
+        } finally {
+            shard.lock.unlock();
+        }
+
+        recordPurchase(customerId, ticket, getRemainingTickets());
+        purchaseCompleted();
+        return true;
+    }
+
+    /**
+     * Takes between {@code required} and {@code count} tickets, or none.
+     * @param home       Index of the customer's home shard.
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param required   Fewest tickets that satisfy the purchase.
+     * @return Number of tickets purchased.
+     */
+    private int takeBasket(int home, String customerId, int count, int required) {
+        List<TicketDescriptor> basket = new ArrayList<>(count);
+        Shard homeShard = shards[home];
+        lockTimed(homeShard.lock);
+        try {
+            if (homeShard.tickets.size() >= count) {
+                drainLocked(homeShard, basket, count);
+            }
+        } finally {
+            homeShard.lock.unlock();
+        }
+
+        if (basket.isEmpty()) {
+            for (Shard shard : shards) {
+                lockTimed(shard.lock);
+            }
+            try {
+                int available = 0;
+                for (Shard shard : shards) {
+                    available += shard.tickets.size();
+                }
+                if (available >= required) {
+                    for (int i = 0; i < shards.length && basket.size() < count; i++) {
+                        drainLocked(shards[(home + i) % shards.length], basket, count);
+                    }
+                }
+            } finally {
+                for (int i = shards.length - 1; i >= 0; i--) {
+                    shards[i].lock.unlock();
+                }
+            }
+        }
+
+        if (basket.isEmpty()) {
+            return 0;
+        }
+        recordPurchase(customerId, basket, getRemainingTickets());
+        purchaseCompleted();
+        return basket.size();
+    }
+
+    /**
+     * Moves tickets from a shard into a basket until the basket holds {@code count} or the shard is empty.
+     * Must be called with the shard's lock held.
+     */
+    private void drainLocked(Shard shard, List<TicketDescriptor> basket, int count) {
+        totalTicketsSold.addAndGet(takeLocked(shard, basket, count));
+    }
+
+    /**
+     * Moves tickets from a shard into a basket like {@link #drainLocked}, without counting them as sold.
+     * Must be called with the shard's lock held.
+     * @return Number of tickets taken.
+     */
+    private int takeLocked(Shard shard, List<TicketDescriptor> basket, int count) {
+        int taken = shard.tickets.drainTo(basket, count);
+        if (taken > 0) {
+            shard.size = shard.tickets.size();
+            shard.notFull.signalAll();
+        }
+        return taken;
+    }
+
+    /**
+     * Parks the customer on its home shard until a ticket arrives there or the rescan interval passes,
+     * so releases into sibling shards are picked up without a global condition.
+     * @param home     The customer's home shard.
+     * @param maxNanos Upper bound on the wait, for callers with a deadline closer than the rescan interval.
+     * @throws InterruptedException If the customer is interrupted while waiting.
+     */
+    private void awaitTickets(Shard home, long maxNanos) throws InterruptedException {
+        home.lock.lock();
+        try {
+            if (home.tickets.isEmpty()) {
+                awaitTimed(home.notEmpty, Math.min(maxNanos, STEAL_RESCAN_NANOS), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            home.lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves up to {@code requested} tickets from the global budget.
+     * @param requested Number of tickets the vendor would like to release.
+     * @return Number of tickets actually reserved, possibly zero.
+     */
+    private int reserve(int requested) {
+        while (true) {
+            int released = totalTicketsReleased.get();
+            int granted = Math.min(requested, totalTickets - released);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (totalTicketsReleased.compareAndSet(released, released + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    private Shard shardFor(String key) {
+        return shards[indexFor(key)];
+    }
+
+    private int indexFor(String key) {
+        return Math.floorMod(key.hashCode(), shards.length);
+    }
+
+    /**
+     * One independently locked slice of the pool.
+     */
+    private static final class Shard {
+        private final Lock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final Condition notEmpty = lock.newCondition();
+        private final TicketInventory tickets = new TicketInventory();
+        private final int capacity;
+
+        /**
+         * Number of tickets in the shard, published for lock-free probing by stealing customers.
+         */
+        private volatile int size;
+
+        /**
+         * Number of tickets on hold that return to this shard, which keep their room in it. Guarded by {@link #lock}.
+         */
+        private int held;
+
+        private Shard(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Counts the room vendors may fill. Must be called with {@link #lock} held.
+         * @return Capacity not taken by tickets in the shard or on hold; negative if the shard is over capacity.
+         */
+        private int room() {
+            return capacity - tickets.size() - held;
+        }
+    }
+}
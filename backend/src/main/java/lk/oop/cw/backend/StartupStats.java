@@ -0,0 +1,32 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * How long the application took to become ready, and how much of that was spent recovering the {@link SalesJournal}.
+ */
+@Getter
+public class StartupStats {
+    private final long timeToReadyMillis;
+    private final double recoveryMillis;
+    private final long snapshotLoaded;
+    private final long recordsReplayed;
+    private final long snapshotsWritten;
+
+    /**
+     * Creates a snapshot.
+     * @param timeToReadyMillis Time from JVM start until the application was ready, in milliseconds; -1 while starting.
+     * @param recoveryMillis    Time spent loading the journal snapshot and replaying segments, in milliseconds.
+     * @param snapshotLoaded    Index of the journal snapshot recovery started from, or -1 if none was loaded.
+     * @param recordsReplayed   Number of journal records replayed after the snapshot.
+     * @param snapshotsWritten  Number of journal snapshots saved since startup.
+     */
+    public StartupStats(long timeToReadyMillis, double recoveryMillis, long snapshotLoaded, long recordsReplayed,
+                        long snapshotsWritten) {
+        this.timeToReadyMillis = timeToReadyMillis;
+        this.recoveryMillis = recoveryMillis;
+        this.snapshotLoaded = snapshotLoaded;
+        this.recordsReplayed = recordsReplayed;
+        this.snapshotsWritten = snapshotsWritten;
+    }
+}
@@ -0,0 +1,40 @@
+package lk.oop.cw.backend;
+
+/**
+ * An agent that can be driven one step at a time by the {@link AgentScheduler} instead of owning a thread.
+ * <p>
+ * A step performs one release or purchase round without blocking. If the pool is full or empty the step
+ * returns {@link AgentStep#PARKED}, and the scheduler calls {@link #parkUntilReady} so the agent is resumed
+ * once the pool changes.
+ * </p>
+ */
+public interface SteppedAgent {
+    /**
+     * Called once before the first step.
+     */
+    void start();
+
+    /**
+     * Performs one non-blocking release or purchase round.
+     * @return What the scheduler should do next.
+     */
+    AgentStep step();
+
+    /**
+     * Registers the resume action with the pool condition this agent is waiting for.
+     * @param resume The action that reschedules this agent.
+     */
+    void parkUntilReady(Runnable resume);
+
+    /**
+     * Retrieves the delay between two completed steps.
+     * @return The interval in milliseconds.
+     */
+    long getIntervalMillis();
+
+    /**
+     * Called once after the agent has stopped, whether it finished or was stopped.
+     * @param interrupted true if the agent was stopped before it finished its work.
+     */
+    void finish(boolean interrupted);
+}
@@ -1,8 +1,15 @@
 package lk.oop.cw.backend;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
 
 /**
  * REST controller for managing ticket-related operations.
@@ -18,47 +25,161 @@ import org.springframework.web.bind.annotation.*;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final BulkReleaseIngestor bulkReleaseIngestor;
 
     /**
      * Constructs the TicketController with the provided {@link TicketService}.
-     * @param ticketService The service responsible for handling business logic related to tickets.
+     * @param ticketService       The service responsible for handling business logic related to tickets.
+     * @param bulkReleaseIngestor The ingestor that applies streamed bulk releases.
      */
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, BulkReleaseIngestor bulkReleaseIngestor) {
         this.ticketService = ticketService;
+        this.bulkReleaseIngestor = bulkReleaseIngestor;
     }
 
     /**
      * Adds a batch of tickets to the system.
+     * <p>
+     * The request waits at most {@code timeoutMs} for room in the pool, so a full pool cannot hold a request
+     * thread indefinitely.
+     * </p>
      * @param vendorId   The ID of the vendor providing the tickets.
      * @param eventId    The ID of the event for which tickets are created.
      * @param eventName  The name of the event.
      * @param price      The price of the tickets.
      * @param tickets    The number of tickets to add.
      * @param category   The category of the tickets.
+     * @param timeoutMs  The longest time to wait for room, in milliseconds; defaults to {@code ticketing.requests.timeout-ms}.
+     * @return Whether the tickets were added, the wait timed out, or the total ticket limit has been reached.
      */
     @PostMapping("/add/{tickets}/{vendorId}/{eventId}/{eventName}/{price}/{category}")
-    public void addTickets(@PathVariable String vendorId, @PathVariable String eventId, @PathVariable String eventName,
-                           @PathVariable double price, @PathVariable int tickets, @PathVariable String category) {
-        ticketService.addTickets(vendorId, eventId, eventName, price, tickets, category);
+    public PoolResult addTickets(@PathVariable String vendorId, @PathVariable String eventId, @PathVariable String eventName,
+                                 @PathVariable double price, @PathVariable int tickets, @PathVariable String category,
+                                 @RequestParam(defaultValue = "${ticketing.requests.timeout-ms:30000}") long timeoutMs) {
+        return ticketService.tryAddTickets(vendorId, eventId, eventName, price, tickets, category, timeoutMs);
+    }
+
+    /**
+     * Adds tickets from a stream of releases, one JSON object per line.
+     * <p>
+     * The body is parsed as it arrives and applied to the pool in chunks, and the result of each record is
+     * streamed back as one JSON object per line, in input order. Releases never wait for room; a record that
+     * finds the pool full is reported as {@code FULL}.
+     * </p>
+     * @param request  The request, whose body holds the releases.
+     * @param response The response the per-record results are streamed to.
+     * @throws IOException If the body cannot be read or the results cannot be written.
+     */
+    @PostMapping(value = "/add/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void addTicketStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bulkReleaseIngestor.ingest(request.getInputStream(), response.getOutputStream());
     }
 
     /**
      * Removes a specific ticket associated with a customer ID.
+     * <p>
+     * The request waits at most {@code timeoutMs} for a ticket, and returns at once when the pool is sold out.
+     * </p>
      * @param customerId The ID of the customer whose ticket should be removed.
+     * @param timeoutMs  The longest time to wait for a ticket, in milliseconds; defaults to {@code ticketing.requests.timeout-ms}.
+     * @return Whether a ticket was purchased, the wait timed out, or the pool is sold out.
      */
     @PostMapping("/remove/{customerId}")
-    public void removeTicket(@PathVariable String customerId) {
-        ticketService.removeTicket(customerId);
+    public PoolResult removeTicket(@PathVariable String customerId,
+                                   @RequestParam(defaultValue = "${ticketing.requests.timeout-ms:30000}") long timeoutMs) {
+        return ticketService.tryRemoveTicket(customerId, timeoutMs);
+    }
+
+    /**
+     * Purchases several tickets for a customer in one step.
+     * <p>
+     * The request waits at most {@code timeoutMs} for the basket, and returns at once when the basket can no longer
+     * be filled.
+     * </p>
+     * @param customerId The ID of the customer purchasing the tickets.
+     * @param count      The number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable; defaults to {@link PurchaseMode#ALL_OR_NOTHING}.
+     * @param timeoutMs  The longest time to wait for the basket, in milliseconds; defaults to {@code ticketing.requests.timeout-ms}.
+     * @return Whether the basket was purchased, the wait timed out, or the basket can no longer be filled, and the
+     *         number of tickets purchased.
+     */
+    @PostMapping("/remove/{customerId}/{count}")
+    public BasketResult removeTickets(@PathVariable String customerId, @PathVariable int count,
+                                      @RequestParam(defaultValue = "ALL_OR_NOTHING") PurchaseMode mode,
+                                      @RequestParam(defaultValue = "${ticketing.requests.timeout-ms:30000}") long timeoutMs) {
+        return ticketService.tryRemoveTickets(customerId, count, mode, timeoutMs);
+    }
+
+    /**
+     * Purchases the cheapest ticket matching a customer's criteria, without waiting.
+     * @param customerId The ID of the customer purchasing the ticket.
+     * @param eventId    The event wanted; any event if omitted.
+     * @param category   The category wanted; any category if omitted.
+     * @param maxPrice   The highest acceptable price; no limit if omitted.
+     * @return The details of the ticket purchased; 404 Not Found if no ticket matches, or 501 Not Implemented if
+     *         the pool's engine cannot sell by criteria.
+     */
+    @PostMapping("/remove/{customerId}/matching")
+    public ResponseEntity<TicketDescriptor> purchaseMatching(@PathVariable String customerId,
+                                                             @RequestParam(required = false) String eventId,
+                                                             @RequestParam(required = false) String category,
+                                                             @RequestParam(required = false) Double maxPrice) {
+        TicketCriteria criteria = new TicketCriteria(eventId, category,
+                maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice);
+        TicketDescriptor ticket = ticketService.purchaseMatching(customerId, criteria);
+        return ticket == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(ticket);
+    }
+
+    /**
+     * Holds tickets for a customer during checkout. The tickets leave the pool until the hold is confirmed,
+     * released or expires.
+     * @param customerId The ID of the customer the tickets are held for.
+     * @param count      The number of tickets to hold.
+     * @param ttlMs      How long the hold lasts, in milliseconds; defaults to {@code ticketing.holds.ttl-ms}.
+     * @return The hold; 409 Conflict if the pool has fewer tickets, or 501 Not Implemented if the pool's engine
+     *         cannot hold tickets.
+     */
+    @PostMapping("/hold/{customerId}/{count}")
+    public ResponseEntity<TicketHold> holdTickets(@PathVariable String customerId, @PathVariable int count,
+                                                  @RequestParam(defaultValue = "${ticketing.holds.ttl-ms:300000}") long ttlMs) {
+        TicketHold hold = ticketService.holdTickets(customerId, count, ttlMs);
+        return hold == null ? ResponseEntity.status(HttpStatus.CONFLICT).build() : ResponseEntity.ok(hold);
+    }
+
+    /**
+     * Confirms a hold, purchasing its tickets.
+     * @param holdId The ID of the hold.
+     * @return The details of the tickets purchased; 404 Not Found if the hold does not exist or has ended.
+     */
+    @PostMapping("/hold/{holdId}/confirm")
+    public ResponseEntity<List<TicketDescriptor>> confirmHold(@PathVariable String holdId) {
+        List<TicketDescriptor> tickets = ticketService.confirmHold(holdId);
+        return tickets == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(tickets);
+    }
+
+    /**
+     * Releases a hold early, returning its tickets to the pool.
+     * @param holdId The ID of the hold.
+     * @return 204 No Content; 404 Not Found if the hold does not exist or has ended.
+     */
+    @DeleteMapping("/hold/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        return ticketService.releaseHold(holdId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
     /**
      * Configures the initial state of the ticket pool with a total number of tickets and maximum ticket capacity.
+     * While vendors or customers are running, the pool is reconfigured live and keeps its tickets.
      * @param totalTickets      The total number of tickets to initialize the pool with.
      * @param maxTicketCapacity The maximum capacity allowed in the ticket pool.
+     * @param mode              The inventory engine backing the pool; defaults to the {@code ticketing.pool.engine}
+     *                          property.
      */
     @PostMapping("/configure")
-    public void initializeTicketPool(@RequestParam int totalTickets, @RequestParam int maxTicketCapacity) {
-        ticketService.initializeTicketPool(totalTickets, maxTicketCapacity);
+    public void initializeTicketPool(@RequestParam int totalTickets, @RequestParam int maxTicketCapacity,
+                                     @RequestParam(defaultValue = "${ticketing.pool.engine:STANDARD}") PoolMode mode) {
+        ticketService.initializeTicketPool(totalTickets, maxTicketCapacity, mode);
     }
 
     /**
@@ -144,6 +265,15 @@ public class TicketController {
         return ticketService.getTicketStatus();
     }
 
+    /**
+     * Retrieves a versioned snapshot of the ticket pool's state.
+     * @return The counters, sold-out flag and per-event counts of the pool.
+     */
+    @GetMapping("/status/snapshot")
+    public PoolSnapshot getSnapshot() {
+        return ticketService.getSnapshot();
+    }
+
     /**
      * Retrieves the application logs.
      * @return The logs as plain text.
@@ -155,4 +285,69 @@ public class TicketController {
                 .contentType(MediaType.TEXT_PLAIN)
                 .body(logs);
     }
+
+    /**
+     * Retrieves only the log entries recorded since the given cursor.
+     * @param since The cursor returned by the previous call, or 0 to start from the oldest retained entry.
+     * @param limit The maximum number of entries to return.
+     * @return The new entries together with the cursor for the next call.
+     */
+    @GetMapping(value = "/logs", params = "since")
+    public LogPage getLogs(@RequestParam long since, @RequestParam(defaultValue = "200") int limit) {
+        return ticketService.getLogs(since, limit);
+    }
+
+    /**
+     * Retrieves the health of the asynchronous event logger.
+     * @return The number of records waiting to be written, and how many were written or dropped so far.
+     */
+    @GetMapping("/logs/stats")
+    public LogStats getLogStats() {
+        return ticketService.getLogStats();
+    }
+
+    /**
+     * Retrieves operational metrics for the current pool.
+     * <p>
+     * Latencies are reported in microseconds and cover every add and remove call since the pool was created,
+     * including the time spent waiting for locks and conditions.
+     * </p>
+     * @return Latency percentiles, ticket counters broken down by event, vendor and category, and the pool depth.
+     */
+    @GetMapping("/metrics")
+    public PoolMetricsSnapshot getMetrics() {
+        return ticketService.getMetrics();
+    }
+
+    /**
+     * Retrieves startup metrics.
+     * @return Time from JVM start until the application was ready, and the time and work spent recovering the
+     *         sales journal from its latest snapshot.
+     */
+    @GetMapping("/metrics/startup")
+    public StartupStats getStartupStats() {
+        return ticketService.getStartupStats();
+    }
+
+    /**
+     * Retrieves the per-customer purchase rate limit and how many purchase calls it has let through or throttled.
+     * @return The rate limiter configuration and counters.
+     */
+    @GetMapping("/metrics/ratelimit")
+    public RateLimitStats getRateLimitStats() {
+        return ticketService.getRateLimitStats();
+    }
+
+    /**
+     * Streams pool activity to the caller as Server-Sent Events.
+     * <p>
+     * Ticket releases and purchases are coalesced into periodic {@code status} events; agent, sold-out and
+     * log activity arrives as {@code agent}, {@code soldOut} and {@code log} events.
+     * </p>
+     * @return The event stream.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return ticketService.subscribeToEvents();
+    }
 }
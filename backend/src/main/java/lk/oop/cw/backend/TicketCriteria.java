@@ -0,0 +1,37 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * What a customer asks for in a selective purchase through {@link TicketPoolEngine#purchaseMatching}: an event, a
+ * category and a price ceiling, each of which may be left open.
+ */
+@Getter
+public final class TicketCriteria {
+    private final String eventId;
+    private final String category;
+    private final double maxPrice;
+
+    /**
+     * Creates criteria.
+     * @param eventId  The event wanted, or null for any event.
+     * @param category The category wanted, or null for any category.
+     * @param maxPrice The highest acceptable price; {@link Double#POSITIVE_INFINITY} for no limit.
+     */
+    public TicketCriteria(String eventId, String category, double maxPrice) {
+        this.eventId = eventId;
+        this.category = category;
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * Checks whether a ticket satisfies these criteria.
+     * @param ticket The details of the ticket.
+     * @return true if the event, category and price all match; false otherwise.
+     */
+    public boolean matches(TicketDescriptor ticket) {
+        return (eventId == null || eventId.equals(ticket.getEventId()))
+                && (category == null || category.equals(ticket.getCategory()))
+                && ticket.getPrice() <= maxPrice;
+    }
+}
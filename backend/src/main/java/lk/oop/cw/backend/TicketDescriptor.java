@@ -0,0 +1,60 @@
+package lk.oop.cw.backend;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * The immutable details shared by every ticket of one release: vendor, event, price and category.
+ * <p>
+ * The pool keeps one descriptor per distinct combination of details (see {@link AbstractTicketPool#describe}) and
+ * stores references to it instead of a {@link Ticket} object per seat, so releasing or selling a ticket does
+ * not allocate.
+ * </p>
+ */
+@Getter
+public final class TicketDescriptor {
+    private final String vendorId;
+    private final String eventId;
+    private final String eventName;
+    private final double price;
+    private final String category;
+    @Getter(AccessLevel.NONE)
+    private final int hash;
+
+    /**
+     * Constructs a descriptor. Pools obtain shared instances through {@link AbstractTicketPool#describe} instead.
+     * @param vendorId  The identifier of the vendor releasing the tickets.
+     * @param eventId   The identifier of the event the tickets are issued for.
+     * @param eventName The name of the event.
+     * @param price     The price of each ticket.
+     * @param category  The category of the tickets.
+     */
+    public TicketDescriptor(String vendorId, String eventId, String eventName, double price, String category) {
+        this.vendorId = vendorId;
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.price = price;
+        this.category = category;
+        this.hash = Objects.hash(vendorId, eventId, eventName, price, category);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TicketDescriptor other) || hash != other.hash) {
+            return false;
+        }
+        return Double.compare(price, other.price) == 0 && Objects.equals(vendorId, other.vendorId)
+                && Objects.equals(eventId, other.eventId) && Objects.equals(eventName, other.eventName)
+                && Objects.equals(category, other.category);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,54 @@
+package lk.oop.cw.backend;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tickets reserved for a customer during checkout, created by {@link TicketPoolEngine#holdTickets}.
+ * <p>
+ * Held tickets are out of the sellable pool but not yet sold. A hold ends exactly once: it is confirmed and
+ * the tickets are sold, it is released early, or it expires and the tickets go back to the pool.
+ * </p>
+ */
+@Getter
+public final class TicketHold {
+    private final String holdId;
+    private final String customerId;
+    private final List<TicketDescriptor> tickets;
+    private final long expiresAtMillis;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Creates a hold.
+     * @param holdId          The identifier used to confirm or release the hold.
+     * @param customerId      The ID of the customer the tickets are held for.
+     * @param tickets         The details of each held ticket.
+     * @param expiresAtMillis Wall-clock time at which the hold expires, in epoch milliseconds.
+     */
+    TicketHold(String holdId, String customerId, List<TicketDescriptor> tickets, long expiresAtMillis) {
+        this.holdId = holdId;
+        this.customerId = customerId;
+        this.tickets = List.copyOf(tickets);
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    /**
+     * Retrieves the number of held tickets.
+     * @return The size of the hold.
+     */
+    public int getCount() {
+        return tickets.size();
+    }
+
+    /**
+     * Ends the hold, for whichever of confirmation, release and expiry comes first.
+     * @return true for the caller that ended it; false if it had already ended.
+     */
+    boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,261 @@
+package lk.oop.cw.backend;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A first-in, first-out queue of tickets stored as run-length batches, indexed by event, category and price.
+ * <p>
+ * Each release becomes one {@link TicketBatch} holding a shared {@link TicketDescriptor} and a remaining
+ * count, and consecutive releases with the same descriptor are merged into the batch at the tail. Selling a
+ * ticket decrements the count of the oldest batch, which is dropped once it reaches zero. Memory therefore
+ * grows with the number of releases in the pool rather than with the number of seats.
+ * </p>
+ * <p>
+ * Every batch is also filed in a {@link PriceLevel} under eventId, category and price, so a selective purchase
+ * finds the cheapest matching ticket with one sorted-map lookup per event and category it considers, without
+ * scanning the pool. Equally priced tickets in different events or categories are told apart by the order their
+ * batches were added, so the oldest of them is sold. A batch emptied that way stays in the queue until it reaches the head and is skipped there.
+ * Both views are updated together by every operation.
+ * </p>
+ * <p>
+ * This class is not thread-safe; the owning pool or shard guards it with its lock.
+ * </p>
+ */
+final class TicketInventory {
+    private final Deque<TicketBatch> batches = new ArrayDeque<>();
+    private final Map<String, Map<String, NavigableMap<Double, PriceLevel>>> index = new HashMap<>();
+    private int size;
+    private long batchesAdded;
+
+    /**
+     * Retrieves the number of tickets held.
+     * @return Number of tickets across all batches.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the inventory holds no tickets.
+     * @return true if it is empty; false otherwise.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Appends tickets sharing one descriptor.
+     * @param descriptor The details of the tickets.
+     * @param count      Number of tickets to append; nothing is stored if it is not positive.
+     */
+    void add(TicketDescriptor descriptor, int count) {
+        if (count <= 0) {
+            return;
+        }
+        TicketBatch last = batches.peekLast();
+        if (last != null && last.descriptor == descriptor && last.remaining > 0) {
+            last.remaining += count;
+            last.level.count += count;
+        } else {
+            PriceLevel level = levelFor(descriptor);
+            TicketBatch batch = new TicketBatch(descriptor, count, level, batchesAdded++);
+            batches.addLast(batch);
+            level.batches.addLast(batch);
+            level.count += count;
+        }
+        size += count;
+    }
+
+    /**
+     * Takes the oldest ticket.
+     * @return The ticket's descriptor, or null if the inventory is empty.
+     */
+    TicketDescriptor poll() {
+        TicketBatch first = head();
+        if (first == null) {
+            return null;
+        }
+        take(first, 1);
+        return first.descriptor;
+    }
+
+    /**
+     * Moves the oldest tickets into a basket until it holds {@code limit} tickets or the inventory is empty.
+     * @param basket Receives one descriptor reference per ticket taken.
+     * @param limit  Size the basket should reach.
+     * @return Number of tickets taken.
+     */
+    int drainTo(List<TicketDescriptor> basket, int limit) {
+        int taken = 0;
+        while (basket.size() < limit) {
+            TicketBatch first = head();
+            if (first == null) {
+                break;
+            }
+            int count = Math.min(first.remaining, limit - basket.size());
+            for (int i = 0; i < count; i++) {
+                basket.add(first.descriptor);
+            }
+            take(first, count);
+            taken += count;
+        }
+        return taken;
+    }
+
+    /**
+     * Retrieves the price of the cheapest ticket matching the criteria, without taking it.
+     * @param criteria What the customer asks for.
+     * @return The lowest matching price, or {@link Double#NaN} if no ticket matches.
+     */
+    double cheapestPrice(TicketCriteria criteria) {
+        PriceLevel level = cheapest(criteria);
+        return level == null ? Double.NaN : level.price;
+    }
+
+    /**
+     * Takes the cheapest ticket matching the criteria; among equally priced tickets, the oldest.
+     * @param criteria What the customer asks for.
+     * @return The ticket's descriptor, or null if no ticket matches.
+     */
+    TicketDescriptor pollMatching(TicketCriteria criteria) {
+        PriceLevel level = cheapest(criteria);
+        if (level == null) {
+            return null;
+        }
+        TicketBatch batch = level.batches.peekFirst();
+        take(batch, 1);
+        return batch.descriptor;
+    }
+
+    /**
+     * Adds the number of tickets held per descriptor to a map, without taking them.
+     * @param counts Receives the counts; existing entries are added to.
+     */
+    void countInto(Map<TicketDescriptor, Integer> counts) {
+        for (TicketBatch batch : batches) {
+            if (batch.remaining > 0) {
+                counts.merge(batch.descriptor, batch.remaining, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the oldest batch that still holds tickets, dropping emptied batches in front of it.
+     */
+    private TicketBatch head() {
+        TicketBatch first;
+        while ((first = batches.peekFirst()) != null && first.remaining == 0) {
+            batches.pollFirst();
+        }
+        return first;
+    }
+
+    /**
+     * Takes tickets from a batch that is the oldest of its price level, keeping both views in step.
+     */
+    private void take(TicketBatch batch, int count) {
+        batch.remaining -= count;
+        size -= count;
+        PriceLevel level = batch.level;
+        level.count -= count;
+        if (batch.remaining == 0) {
+            level.batches.pollFirst();
+            if (batches.peekFirst() == batch) {
+                batches.pollFirst();
+            }
+        }
+        if (level.count == 0) {
+            unlink(level);
+        }
+    }
+
+    private PriceLevel cheapest(TicketCriteria criteria) {
+        PriceLevel best = null;
+        for (Map<String, NavigableMap<Double, PriceLevel>> categories : select(index, criteria.getEventId())) {
+            for (NavigableMap<Double, PriceLevel> prices : select(categories, criteria.getCategory())) {
+                Map.Entry<Double, PriceLevel> lowest = prices.firstEntry();
+                if (lowest != null && lowest.getKey() <= criteria.getMaxPrice()
+                        && (best == null || isCheaperOrOlder(lowest.getValue(), best))) {
+                    best = lowest.getValue();
+                }
+            }
+        }
+        return best;
+    }
+
+    private static boolean isCheaperOrOlder(PriceLevel level, PriceLevel than) {
+        return level.price < than.price
+                || level.price == than.price && level.batches.peekFirst().sequence < than.batches.peekFirst().sequence;
+    }
+
+    /**
+     * Retrieves the entry for a key, or every entry when the key is left open.
+     */
+    private static <V> Collection<V> select(Map<String, V> map, String key) {
+        if (key == null) {
+            return map.values();
+        }
+        V value = map.get(key);
+        return value == null ? List.of() : List.of(value);
+    }
+
+    private PriceLevel levelFor(TicketDescriptor descriptor) {
+        return index.computeIfAbsent(descriptor.getEventId(), event -> new HashMap<>())
+                .computeIfAbsent(descriptor.getCategory(), category -> new TreeMap<>())
+                .computeIfAbsent(descriptor.getPrice(), price -> new PriceLevel(descriptor));
+    }
+
+    private void unlink(PriceLevel level) {
+        Map<String, NavigableMap<Double, PriceLevel>> categories = index.get(level.eventId);
+        NavigableMap<Double, PriceLevel> prices = categories.get(level.category);
+        prices.remove(level.price);
+        if (prices.isEmpty()) {
+            categories.remove(level.category);
+            if (categories.isEmpty()) {
+                index.remove(level.eventId);
+            }
+        }
+    }
+
+    /**
+     * One release: a shared descriptor, the number of its tickets still in the pool, its price level, and its
+     * position among the batches ever added.
+     */
+    private static final class TicketBatch {
+        private final TicketDescriptor descriptor;
+        private final PriceLevel level;
+        private final long sequence;
+        private int remaining;
+
+        private TicketBatch(TicketDescriptor descriptor, int remaining, PriceLevel level, long sequence) {
+            this.descriptor = descriptor;
+            this.remaining = remaining;
+            this.level = level;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * The batches that share an event, category and price, oldest first, and their total number of tickets.
+     */
+    private static final class PriceLevel {
+        private final String eventId;
+        private final String category;
+        private final double price;
+        private final Deque<TicketBatch> batches = new ArrayDeque<>();
+        private int count;
+
+        private PriceLevel(TicketDescriptor descriptor) {
+            this.eventId = descriptor.getEventId();
+            this.category = descriptor.getCategory();
+            this.price = descriptor.getPrice();
+        }
+    }
+}
@@ -1,15 +1,13 @@
 package lk.oop.cw.backend;
 
-import org.springframework.context.annotation.Configuration;
-import org.springframework.stereotype.Component;
-
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.Condition;
-import java.util.logging.Logger;
 
 /**
  * Manages the shared ticket pool, handling ticket operations and concurrency with proper locking mechanisms.
@@ -18,32 +16,39 @@ import java.util.logging.Logger;
  * adding tickets by vendors, allowing customers to remove tickets (purchase), and logging activities for monitoring purposes.
  * It implements synchronization to ensure safe concurrent access.
  * </p>
+ * <p>
+ * This is the baseline {@link TicketPoolEngine}: a single lock guarding an indexed inventory, with the journal,
+ * log, events, holds and handover inherited from {@link AbstractTicketPool}. The pool the application starts
+ * with is created by {@link TicketPoolConfig} from the {@code ticketing.pool.*} properties.
+ * </p>
  */
-@Configuration
-@Component
-public class TicketPool {
-    private final List<Ticket> tickets;
-    private final int maxTicketCapacity;
-    private int totalTicketsReleased = 0;
-    private final int totalTickets;
+public class TicketPool extends AbstractTicketPool {
+    /**
+     * Tickets currently in the pool, guarded by {@link #lock}. The lock is a {@link ReentrantLock} rather than a
+     * monitor so that agents running on virtual threads unmount instead of pinning their carrier while they wait.
+     */
+    private final TicketInventory tickets;
 
-    private final List<String> logs;
+    /**
+     * Counters written with {@link #lock} held and read without it, so that status queries never contend with
+     * releases and purchases. {@link #remaining} mirrors the inventory size and is published after every change.
+     */
+    private volatile int totalTicketsReleased = 0;
+    private volatile int totalTicketsSold = 0;
+    private volatile int remaining = 0;
 
     private final Lock lock = new ReentrantLock();
     private final Condition notFull = lock.newCondition();
     private final Condition notEmpty = lock.newCondition();
 
-    private static final Logger logger = LoggingConfig.getLogger();
-
     /**
-     * Default constructor to initialize the ticket pool with default values.
+     * In handoff mode, the customers waiting for tickets and the vendors waiting for room, each on a condition of
+     * their own; see {@link WaiterLine}. Outside handoff mode the lines stay empty and waiters share
+     * {@link #notEmpty} and {@link #notFull}.
      */
-    public TicketPool() {
-        this.tickets = Collections.synchronizedList(new ArrayList<>());
-        this.logs = Collections.synchronizedList(new ArrayList<>());
-        this.maxTicketCapacity = 50;
-        this.totalTickets = 500;
-    }
+    private final boolean handoff;
+    private final WaiterLine customerLine = new WaiterLine(lock);
+    private final WaiterLine vendorLine = new WaiterLine(lock);
 
     /**
      * Parameterized constructor for initializing the ticket pool with custom limits.
@@ -51,31 +56,38 @@ public class TicketPool {
      * @param maxTicketCapacity The maximum number of tickets that can be in the pool at a time.
      */
     public TicketPool(int totalTickets, int maxTicketCapacity) {
-        this.tickets = Collections.synchronizedList(new ArrayList<>());
-        this.logs = Collections.synchronizedList(new ArrayList<>());
-        this.totalTickets = totalTickets;
-        this.maxTicketCapacity = maxTicketCapacity;
+        this(totalTickets, maxTicketCapacity, false);
     }
 
     /**
-     * Waits if the ticket pool is either full or empty depending on the operation being performed.
-     * @param isAdding Indicates whether the method is trying to add tickets or remove tickets.
+     * Creates a pool, optionally in handoff mode.
+     * <p>
+     * In handoff mode released tickets are handed to the customers parked on the pool in arrival order, and only
+     * as many customers are woken as there are tickets for; room freed by a sale is handed to parked vendors the
+     * same way. See {@link PoolMode#HANDOFF}.
+     * </p>
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets that can be in the pool at a time.
+     * @param handoff           Whether waiters are served in arrival order by direct handoff.
      */
-    private void waitIfNeeded(boolean isAdding) {
-        lock.lock();
-        try {
-            while ((isAdding && tickets.size() >= maxTicketCapacity) || (!isAdding && tickets.isEmpty())) {
-                if (isAdding) {
-                    notFull.await();
-                } else {
-                    notEmpty.await();
-                }
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } finally {
-            lock.unlock();
+    TicketPool(int totalTickets, int maxTicketCapacity, boolean handoff) {
+        super(totalTickets, maxTicketCapacity);
+        this.tickets = new TicketInventory();
+        this.handoff = handoff;
+    }
+
+    /**
+     * Waits while the ticket pool is full. Must be called with {@link #lock} held.
+     * @param waiter The vendor's place in the vendor line, or null if it has not joined it yet.
+     * @param wanted Number of tickets the vendor is releasing.
+     * @return The vendor's place in the line, or null outside handoff mode; the caller must leave it.
+     */
+    private WaiterLine.Waiter awaitRoom(WaiterLine.Waiter waiter, int wanted) throws InterruptedException {
+        while (roomFor(waiter) <= 0) {
+            waiter = joinVendorLine(waiter, wanted);
+            awaitTimed(waitingOn(waiter, notFull));
         }
+        return waiter;
     }
 
     /**
@@ -88,92 +100,799 @@ public class TicketPool {
      * @param category  Category of the tickets being added.
      */
     public void addTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
-        lock.lock();
+        long start = beginCall();
         try {
-            if (totalTicketsReleased >= totalTickets) {
-                addLog("Total ticket limit reached. No more tickets can be added.");
-                return;
-            }
+            WaiterLine.Waiter waiter = null;
+            lockTimed(lock);
+            try {
+                if (totalTicketsReleased >= totalTickets) {
+                    logLimitReached();
+                    return;
+                }
 
-            waitIfNeeded(true);
+                try {
+                    waiter = awaitRoom(null, ticketsToAdd);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                releaseLocked(vendorId, eventId, eventName, price, ticketsToAdd, category, roomFor(waiter));
+            } finally {
+                leaveVendorLine(waiter);
+                lock.unlock();
+            }
+            signalNotEmptyWaiters();
+        } finally {
+            finishAdd(start);
+        }
+    }
 
-            int ticketsRemaining = totalTickets - totalTicketsReleased;
-            int ticketsToActuallyAdd = Math.min(ticketsToAdd, Math.min(ticketsRemaining, maxTicketCapacity - tickets.size()));
+    /**
+     * Adds tickets to the pool without waiting.
+     * <p>
+     * This is the non-blocking counterpart of {@link #addTickets}: if the pool is full nothing is added and the
+     * caller can register with {@link #onceNotFull} to be told when there is room again.
+     * </p>
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     * @return Number of tickets actually added; zero if the pool is full or the total ticket limit is reached.
+     */
+    public int offerTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
+        long start = beginCall();
+        try {
+            int added = 0;
+            lockTimed(lock);
+            try {
+                if (totalTicketsReleased >= totalTickets) {
+                    logLimitReached();
+                } else if (roomFor(null) > 0) {
+                    added = releaseLocked(vendorId, eventId, eventName, price, ticketsToAdd, category, roomFor(null));
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (added > 0) {
+                signalNotEmptyWaiters();
+            }
+            return added;
+        } finally {
+            finishAdd(start);
+        }
+    }
 
-            for (int i = 0; i < ticketsToActuallyAdd; i++) {
-                Ticket ticket = new Ticket(vendorId, eventId, eventName, price, category);
-                tickets.add(ticket);
+    /**
+     * Applies a batch of releases without waiting, taking the pool lock once for the whole batch.
+     * <p>
+     * Each release is applied as {@link #offerTickets} would apply it, in order, so a release that finds the pool
+     * full adds nothing and the ones after it may still fit once their event or shard has room. Waiting customers
+     * are woken once, after the batch. The batch is applied to one pool: if the pool is handed over, either the
+     * whole batch lands before the handover or none of it does.
+     * </p>
+     * @param releases The releases to apply.
+     * @return The number of tickets added for each release, in the order given.
+     */
+    public int[] offerTicketBatch(List<TicketRelease> releases) {
+        long start = beginCall();
+        try {
+            int[] added = new int[releases.size()];
+            boolean refused = false;
+            boolean anyAdded = false;
+            lockTimed(lock);
+            try {
+                for (int i = 0; i < added.length; i++) {
+                    if (totalTicketsReleased >= totalTickets) {
+                        refused = true;
+                        break;
+                    }
+                    int room = roomFor(null);
+                    if (room > 0) {
+                        TicketRelease release = releases.get(i);
+                        added[i] = releaseLocked(release.getVendorId(), release.getEventId(), release.getEventName(),
+                                release.getPrice(), release.getTickets(), release.getCategory(), room);
+                        anyAdded |= added[i] > 0;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (refused) {
+                logLimitReached();
             }
+            if (anyAdded) {
+                signalNotEmptyWaiters();
+            }
+            return added;
+        } finally {
+            finishAdd(start);
+        }
+    }
 
-            totalTicketsReleased += ticketsToActuallyAdd;
-            addLog(vendorId + " added " + ticketsToActuallyAdd + " tickets for " + eventName + ". Total in pool: " + tickets.size());
-            notEmpty.signalAll();
+    /**
+     * Adds tickets to the pool, waiting at most the given time for room.
+     * <p>
+     * This is the deadline-bounded counterpart of {@link #addTickets}. The vendor never waits past the deadline
+     * and learns why nothing was added, so a request thread is not held by a pool that no customer drains.
+     * </p>
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     * @param timeout      Maximum time to wait for room.
+     * @param unit         Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} if tickets were added, {@link PoolResult#SOLD_OUT} if the total ticket
+     *         limit has been reached, or {@link PoolResult#TIMED_OUT} if the pool stayed full until the deadline.
+     */
+    public PoolResult tryAddTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                                    String category, long timeout, TimeUnit unit) {
+        long start = beginCall();
+        try {
+            long deadline = start + unit.toNanos(timeout);
+            WaiterLine.Waiter waiter = null;
+            lockTimed(lock);
+            try {
+                while (true) {
+                    if (totalTicketsReleased >= totalTickets) {
+                        logLimitReached();
+                        return PoolResult.SOLD_OUT;
+                    }
+                    if (roomFor(waiter) > 0) {
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return PoolResult.TIMED_OUT;
+                    }
+                    waiter = joinVendorLine(waiter, ticketsToAdd);
+                    awaitTimed(waitingOn(waiter, notFull), remaining, TimeUnit.NANOSECONDS);
+                }
+                releaseLocked(vendorId, eventId, eventName, price, ticketsToAdd, category, roomFor(waiter));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return PoolResult.TIMED_OUT;
+            } finally {
+                leaveVendorLine(waiter);
+                lock.unlock();
+            }
+            signalNotEmptyWaiters();
+            return PoolResult.SUCCESS;
         } finally {
-            lock.unlock();
+            finishAdd(start);
         }
     }
 
     /**
      * Allows a customer to remove (purchase) a ticket from the pool.
+     * <p>
+     * The customer waits while the pool is empty, but returns without a ticket once every ticket has been
+     * released and sold, since the pool will never refill.
+     * </p>
      * @param customerId ID of the customer purchasing the ticket.
      */
     public void removeTicket(String customerId) {
+        long start = beginCall();
+        try {
+            WaiterLine.Waiter waiter = null;
+            lockTimed(lock);
+            try {
+                while (ticketsFor(waiter) == 0 && canSupplyLocked(1)) {
+                    waiter = joinCustomerLine(waiter, 1, 1);
+                    awaitTimed(waitingOn(waiter, notEmpty));
+                }
+
+                if (ticketsFor(waiter) > 0) {
+                    purchaseLocked(customerId, 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                leaveCustomerLine(waiter);
+                lock.unlock();
+            }
+            purchaseCompleted();
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases a ticket without waiting.
+     * <p>
+     * This is the non-blocking counterpart of {@link #removeTicket}: if the pool is empty nothing is purchased
+     * and the caller can register with {@link #onceNotEmpty} to be told when tickets arrive.
+     * </p>
+     * @param customerId ID of the customer purchasing the ticket.
+     * @return true if a ticket was purchased; false if the pool was empty.
+     */
+    public boolean pollTicket(String customerId) {
+        long start = beginCall();
+        try {
+            lockTimed(lock);
+            try {
+                if (ticketsFor(null) == 0) {
+                    return false;
+                }
+                purchaseLocked(customerId, 1);
+            } finally {
+                lock.unlock();
+            }
+            purchaseCompleted();
+            return true;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases a ticket, waiting at most the given time for one to arrive.
+     * <p>
+     * This is the deadline-bounded counterpart of {@link #removeTicket}. The customer never waits past the
+     * deadline and stops waiting at once when the pool is sold out.
+     * </p>
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param timeout    Maximum time to wait for a ticket.
+     * @param unit       Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} if a ticket was purchased, {@link PoolResult#SOLD_OUT} if every ticket has
+     *         been sold, or {@link PoolResult#TIMED_OUT} if the pool stayed empty until the deadline.
+     */
+    public PoolResult tryRemoveTicket(String customerId, long timeout, TimeUnit unit) {
+        long start = beginCall();
+        try {
+            long deadline = start + unit.toNanos(timeout);
+            WaiterLine.Waiter waiter = null;
+            lockTimed(lock);
+            try {
+                while (ticketsFor(waiter) == 0) {
+                    if (!canSupplyLocked(1)) {
+                        return PoolResult.SOLD_OUT;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return PoolResult.TIMED_OUT;
+                    }
+                    waiter = joinCustomerLine(waiter, 1, 1);
+                    awaitTimed(waitingOn(waiter, notEmpty), remaining, TimeUnit.NANOSECONDS);
+                }
+                purchaseLocked(customerId, 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return PoolResult.TIMED_OUT;
+            } finally {
+                leaveCustomerLine(waiter);
+                lock.unlock();
+            }
+            purchaseCompleted();
+            return PoolResult.SUCCESS;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Allows a customer to purchase several tickets in one step.
+     * <p>
+     * The lock is taken once for the whole basket, one aggregated log record is written and waiting vendors are
+     * woken once. In {@link PurchaseMode#ALL_OR_NOTHING} mode the customer waits until the whole basket is in the
+     * pool; in {@link PurchaseMode#BEST_EFFORT} mode it waits for at least one ticket and takes up to
+     * {@code count}. The call returns without buying anything once the basket can no longer be filled, for
+     * example because the pool has sold out.
+     * </p>
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased; zero if the basket cannot be filled or the customer was interrupted.
+     */
+    public int removeTickets(String customerId, int count, PurchaseMode mode) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return 0;
+            }
+            int required = mode.minimumOf(count);
+
+            int purchased;
+            WaiterLine.Waiter waiter = null;
+            lockTimed(lock);
+            try {
+                while (ticketsFor(waiter) < required) {
+                    if (!canSupplyLocked(required)) {
+                        return 0;
+                    }
+                    waiter = joinCustomerLine(waiter, required, count);
+                    awaitTimed(waitingOn(waiter, notEmpty));
+                }
+                purchased = purchaseLocked(customerId, Math.min(count, ticketsFor(waiter)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            } finally {
+                leaveCustomerLine(waiter);
+                lock.unlock();
+            }
+            purchaseCompleted();
+            return purchased;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases several tickets in one step, waiting at most the given time until the basket can be filled.
+     * <p>
+     * This is the deadline-bounded counterpart of {@link #removeTickets}. The customer never waits past the
+     * deadline, so an {@link PurchaseMode#ALL_OR_NOTHING} basket larger than the pool's stock does not hold a
+     * request thread until a vendor happens to release, and it stops waiting at once when the basket can no longer
+     * be filled.
+     * </p>
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @param timeout    Maximum time to wait for the basket.
+     * @param unit       Unit of {@code timeout}.
+     * @return {@link PoolResult#SUCCESS} and the number of tickets purchased, {@link PoolResult#SOLD_OUT} if the
+     *         basket can no longer be filled, or {@link PoolResult#TIMED_OUT} if the pool could not fill it before
+     *         the deadline.
+     */
+    public BasketResult tryRemoveTickets(String customerId, int count, PurchaseMode mode, long timeout,
+                                         TimeUnit unit) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return new BasketResult(PoolResult.SUCCESS, 0);
+            }
+            long deadline = start + unit.toNanos(timeout);
+            int required = mode.minimumOf(count);
+
+            int purchased;
+            WaiterLine.Waiter waiter = null;
+            lockTimed(lock);
+            try {
+                while (ticketsFor(waiter) < required) {
+                    if (!canSupplyLocked(required)) {
+                        return new BasketResult(PoolResult.SOLD_OUT, 0);
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return new BasketResult(PoolResult.TIMED_OUT, 0);
+                    }
+                    waiter = joinCustomerLine(waiter, required, count);
+                    awaitTimed(waitingOn(waiter, notEmpty), remaining, TimeUnit.NANOSECONDS);
+                }
+                purchased = purchaseLocked(customerId, Math.min(count, ticketsFor(waiter)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new BasketResult(PoolResult.TIMED_OUT, 0);
+            } finally {
+                leaveCustomerLine(waiter);
+                lock.unlock();
+            }
+            purchaseCompleted();
+            return new BasketResult(PoolResult.SUCCESS, purchased);
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases several tickets without waiting.
+     * <p>
+     * This is the non-blocking counterpart of {@link #removeTickets}: if the pool cannot satisfy the basket
+     * nothing is purchased and the caller can register with {@link #onceNotEmpty} to be told when tickets arrive.
+     * </p>
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased; zero if the pool could not satisfy the basket.
+     */
+    public int pollTickets(String customerId, int count, PurchaseMode mode) {
+        long start = beginCall();
+        try {
+            if (count <= 0) {
+                return 0;
+            }
+            int required = mode.minimumOf(count);
+
+            int purchased;
+            lockTimed(lock);
+            try {
+                if (ticketsFor(null) < required) {
+                    return 0;
+                }
+                purchased = purchaseLocked(customerId, Math.min(count, ticketsFor(null)));
+            } finally {
+                lock.unlock();
+            }
+            purchaseCompleted();
+            return purchased;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Purchases the cheapest ticket matching a customer's criteria, without waiting.
+     * <p>
+     * The pool's inventory is indexed by event, category and price, so the ticket is found with a sorted-map
+     * lookup per event and category considered instead of a scan of the pool. Among equally priced tickets the
+     * oldest is sold.
+     * </p>
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param criteria   The event, category and price ceiling wanted.
+     * @return The details of the ticket purchased, or null if no ticket in the pool matches.
+     */
+    public TicketDescriptor purchaseMatching(String customerId, TicketCriteria criteria) {
+        long start = beginCall();
+        try {
+            TicketDescriptor ticket;
+            lockTimed(lock);
+            try {
+                ticket = ticketsFor(null) > 0 ? tickets.pollMatching(criteria) : null;
+                if (ticket == null) {
+                    return null;
+                }
+                remaining = tickets.size();
+                recordPurchase(customerId, ticket, tickets.size());
+                soldLocked(1);
+            } finally {
+                lock.unlock();
+            }
+            purchaseCompleted();
+            return ticket;
+        } finally {
+            finishRemove(start);
+        }
+    }
+
+    /**
+     * Holds tickets for a customer during checkout, without waiting.
+     * <p>
+     * The oldest {@code count} tickets leave the sellable pool but keep their room in it, so vendors cannot refill
+     * it with tickets that would no longer fit once the hold ends. They are not sold: {@link #confirmHold} sells
+     * them, freeing their room, and {@link #releaseHold} returns them. A hold that is neither
+     * confirmed nor released within its time to live expires and its tickets return to the pool, waking waiting
+     * customers as a release would. Nothing is journaled until the hold is confirmed, so a restart returns
+     * held tickets to the pool.
+     * </p>
+     * @param customerId ID of the customer the tickets are held for.
+     * @param count      Number of tickets to hold.
+     * @param ttl        How long the hold lasts unless confirmed or released.
+     * @param unit       Unit of {@code ttl}.
+     * @return The hold, or null if the pool has fewer than {@code count} tickets.
+     */
+    public TicketHold holdTickets(String customerId, int count, long ttl, TimeUnit unit) {
+        beginCall();
+        try {
+            if (count <= 0) {
+                return null;
+            }
+            List<TicketDescriptor> held = new ArrayList<>(count);
+            lockTimed(lock);
+            try {
+                if (ticketsFor(null) < count) {
+                    return null;
+                }
+                tickets.drainTo(held, count);
+                holdsChanged(count);
+                remaining = tickets.size();
+            } finally {
+                lock.unlock();
+            }
+            return placeHold(customerId, held, ttl, unit);
+        } finally {
+            endCall();
+        }
+    }
+
+    /**
+     * Puts the tickets of an expired or released hold back into the inventory and wakes waiting customers.
+     * @param held The tickets of the hold.
+     */
+    @Override
+    protected void returnHeldTickets(List<TicketDescriptor> held) {
+        lock.lock();
+        try {
+            for (TicketDescriptor ticket : held) {
+                tickets.add(ticket, 1);
+            }
+            remaining = tickets.size();
+            holdsChanged(-held.size());
+            ticketsArrivedLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the sale of the tickets of a confirmed hold, freeing their room.
+     * @param customerId ID of the customer that held the tickets.
+     * @param held       The tickets of the hold.
+     */
+    @Override
+    protected void sellHeldTickets(String customerId, List<TicketDescriptor> held) {
         lock.lock();
         try {
-            waitIfNeeded(false);
+            holdsChanged(-held.size());
+            recordPurchase(customerId, held, tickets.size());
+            soldLocked(held.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a basket of the given size can still be filled, counting tickets that are in the pool, on
+     * hold, and yet to be released by vendors. Must be called with {@link #lock} held.
+     * @param required Number of tickets the basket needs.
+     * @return true if waiting may eventually satisfy the basket; false otherwise.
+     */
+    private boolean canSupplyLocked(int required) {
+        return required <= maxTicketCapacity
+                && tickets.size() + getTicketsOnHold() + (totalTickets - totalTicketsReleased) >= required;
+    }
 
-            if (!tickets.isEmpty()) {
-                Ticket ticket = tickets.remove(0);
-                addLog(customerId + " purchased a ticket for event '" + ticket.getEventName() + "' (Vendor: " + ticket.getVendorId() +
-                        ", Price: $" + ticket.getPrice() + ", Category: " + ticket.getCategory() + "). " +
-                        "Tickets remaining in pool: " + tickets.size());
-                notFull.signalAll();
+    /**
+     * Adds as many of the requested tickets as the limits allow. Must be called with {@link #lock} held.
+     * @param room Room in the pool the vendor may fill, see {@link #roomFor}.
+     * @return Number of tickets added.
+     */
+    private int releaseLocked(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                              String category, int room) {
+        int ticketsRemaining = totalTickets - totalTicketsReleased;
+        int ticketsToActuallyAdd = Math.max(0, Math.min(ticketsToAdd, Math.min(ticketsRemaining, room)));
+
+        TicketDescriptor descriptor = describe(vendorId, eventId, eventName, price, category);
+        tickets.add(descriptor, ticketsToActuallyAdd);
+        remaining = tickets.size();
+
+        totalTicketsReleased += ticketsToActuallyAdd;
+        recordRelease(vendorId, descriptor, ticketsToActuallyAdd, tickets.size());
+        ticketsArrivedLocked();
+        publishTicketsAdded(vendorId, eventId, ticketsToActuallyAdd, tickets.size());
+        return ticketsToActuallyAdd;
+    }
+
+    /**
+     * Removes the oldest tickets for a customer. Must be called with {@link #lock} held and at least
+     * {@code count} tickets in the pool.
+     * @return Number of tickets purchased.
+     */
+    private int purchaseLocked(String customerId, int count) {
+        if (count == 1) {
+            TicketDescriptor ticket = tickets.poll();
+            remaining = tickets.size();
+            recordPurchase(customerId, ticket, tickets.size());
+        } else {
+            List<TicketDescriptor> purchased = new ArrayList<>(count);
+            tickets.drainTo(purchased, count);
+            remaining = tickets.size();
+            recordPurchase(customerId, purchased, tickets.size());
+        }
+        soldLocked(count);
+        return count;
+    }
+
+    /**
+     * Counts a sale and wakes the vendors waiting for room. Must be called with {@link #lock} held.
+     * <p>
+     * Once every ticket has been released, customers waiting for a larger basket are woken as well, so they can
+     * notice that it can no longer be filled.
+     * </p>
+     * @param count Number of tickets sold.
+     */
+    private void soldLocked(int count) {
+        totalTicketsSold += count;
+        roomFreedLocked();
+        if (totalTicketsReleased >= totalTickets) {
+            notEmpty.signalAll();
+            customerLine.wakeAll();
+        }
+    }
+
+    /**
+     * Wakes the customers waiting for tickets after tickets entered the pool: in handoff mode only those the new
+     * tickets are granted to, otherwise all of them. Must be called with {@link #lock} held.
+     * <p>
+     * Once every ticket has been released, every customer in the line is woken as well, so one still collecting
+     * tickets for a larger basket can notice that it can no longer be filled.
+     * </p>
+     */
+    private void ticketsArrivedLocked() {
+        if (handoff) {
+            customerLine.grant(ticketsFor(null));
+            if (totalTicketsReleased >= totalTickets) {
+                customerLine.wakeAll();
             }
+        } else {
+            notEmpty.signalAll();
+        }
+    }
+
+    /**
+     * Wakes the vendors waiting for room after tickets left the pool: in handoff mode only those the freed room
+     * is granted to, otherwise all of them. Must be called with {@link #lock} held.
+     */
+    private void roomFreedLocked() {
+        if (handoff) {
+            vendorLine.grant(roomFor(null));
+        } else {
+            notFull.signalAll();
+        }
+    }
+
+    /**
+     * Counts the tickets a customer may take: those in the pool that are not granted to a waiting customer, plus
+     * the customer's own grant. Must be called with {@link #lock} held.
+     * @param waiter The customer's place in the customer line, or null if it is not in it.
+     * @return Tickets available to the customer.
+     */
+    private int ticketsFor(WaiterLine.Waiter waiter) {
+        return tickets.size() - customerLine.getGranted() + (waiter == null ? 0 : waiter.getGranted());
+    }
+
+    /**
+     * Counts the room a vendor may fill: the room neither taken by tickets in the pool or on hold nor granted to a
+     * waiting vendor, plus the vendor's own grant. Must be called with {@link #lock} held.
+     * @param waiter The vendor's place in the vendor line, or null if it is not in it.
+     * @return Room available to the vendor.
+     */
+    private int roomFor(WaiterLine.Waiter waiter) {
+        return maxTicketCapacity - tickets.size() - getTicketsOnHold() - vendorLine.getGranted()
+                + (waiter == null ? 0 : waiter.getGranted());
+    }
+
+    /**
+     * Puts a customer about to wait at the back of the customer line, in handoff mode and if it is not in it yet.
+     * @return The customer's place in the line, or null outside handoff mode.
+     */
+    private WaiterLine.Waiter joinCustomerLine(WaiterLine.Waiter waiter, int required, int wanted) {
+        return waiter != null || !handoff ? waiter : customerLine.join(required, wanted);
+    }
+
+    /**
+     * Puts a vendor about to wait at the back of the vendor line, in handoff mode and if it is not in it yet.
+     * @return The vendor's place in the line, or null outside handoff mode.
+     */
+    private WaiterLine.Waiter joinVendorLine(WaiterLine.Waiter waiter, int wanted) {
+        return waiter != null || !handoff ? waiter : vendorLine.join(1, wanted);
+    }
+
+    /**
+     * Takes a customer that is done waiting out of the line and passes on any tickets it was granted and did
+     * not take. Must be called with {@link #lock} held.
+     */
+    private void leaveCustomerLine(WaiterLine.Waiter waiter) {
+        if (waiter != null) {
+            customerLine.leave(waiter);
+            customerLine.grant(ticketsFor(null));
+        }
+    }
+
+    /**
+     * Takes a vendor that is done waiting out of the line and passes on any room it was granted and did not
+     * fill. Must be called with {@link #lock} held.
+     */
+    private void leaveVendorLine(WaiterLine.Waiter waiter) {
+        if (waiter != null) {
+            vendorLine.leave(waiter);
+            vendorLine.grant(roomFor(null));
+        }
+    }
+
+    /**
+     * Chooses the condition to wait on: the waiter's own in handoff mode, the shared one otherwise.
+     */
+    private static Condition waitingOn(WaiterLine.Waiter waiter, Condition shared) {
+        return waiter == null ? shared : waiter.getCondition();
+    }
+
+    /**
+     * Refills a freshly created pool with state recovered from the {@link SalesJournal} or handed over by
+     * another pool.
+     * <p>
+     * Must be called before the pool is shared with vendors or customers. Nothing is journaled or logged.
+     * </p>
+     * @param state The state to restore; only its counters and inventory are used.
+     */
+    public void restore(PoolState state) {
+        lock.lock();
+        try {
+            for (Map.Entry<TicketDescriptor, Integer> entry : state.getInventory().entrySet()) {
+                tickets.add(intern(entry.getKey()), entry.getValue());
+            }
+            remaining = tickets.size();
+            totalTicketsReleased = state.getReleased();
+            totalTicketsSold = state.getSold();
         } finally {
             lock.unlock();
         }
     }
 
     /**
-     * Checks if the ticket pool has run out of tickets.
-     * @return true if the pool is sold out; false otherwise.
+     * Captures the pool's tickets and counters for a {@link #handOver}.
+     * @return The current state of the pool.
      */
-    public boolean isSoldOut() {
+    @Override
+    protected PoolState captureState() {
         lock.lock();
         try {
-            return totalTicketsReleased >= totalTickets && tickets.isEmpty();
+            Map<TicketDescriptor, Integer> inventory = new LinkedHashMap<>();
+            tickets.countInto(inventory);
+            return new PoolState(totalTickets, maxTicketCapacity, getMode(), totalTicketsReleased,
+                    totalTicketsReleased - tickets.size() - getTicketsOnHold(), inventory);
         } finally {
             lock.unlock();
         }
     }
 
     /**
-     * Retrieves the number of remaining tickets currently in the pool.
-     * @return Number of remaining tickets.
+     * Wakes every caller waiting for room or tickets, so it notices that the pool is being handed over.
      */
-    public int getRemainingTickets() {
+    @Override
+    protected void wakeWaiters() {
         lock.lock();
         try {
-            return tickets.size();
+            notFull.signalAll();
+            notEmpty.signalAll();
+            customerLine.wakeAll();
+            vendorLine.wakeAll();
         } finally {
             lock.unlock();
         }
     }
 
     /**
-     * Logs an activity message to the system logs and application logger.
-     * @param message Message to log.
+     * Checks if the ticket pool has run out of tickets.
+     * <p>
+     * Like the other status queries this reads a volatile counter instead of taking the pool lock, so the
+     * agents that check it on every iteration never delay a release or purchase.
+     * </p>
+     * @return true if the pool is sold out; false otherwise.
+     */
+    public boolean isSoldOut() {
+        return totalTicketsSold >= totalTickets;
+    }
+
+    /**
+     * Checks if the whole ticket budget has been released into the pool.
+     * @return true if vendors cannot add any more tickets; false otherwise.
+     */
+    public boolean isFullyReleased() {
+        return totalTicketsReleased >= totalTickets;
+    }
+
+    /**
+     * Retrieves the number of remaining tickets currently in the pool.
+     * @return Number of remaining tickets.
+     */
+    public int getRemainingTickets() {
+        return remaining;
+    }
+
+    /**
+     * Retrieves the number of tickets released into the pool so far.
+     * @return Tickets released.
+     */
+    public int getTicketsReleased() {
+        return totalTicketsReleased;
+    }
+
+    /**
+     * Retrieves the number of tickets sold so far, including confirmed holds.
+     * @return Tickets sold.
      */
-    public void addLog(String message) {
-        logs.add(message);
-        logger.info(message);
+    public int getTicketsSold() {
+        return totalTicketsSold;
     }
 
     /**
-     * Retrieves the list of logged messages for monitoring purposes.
-     * @return A list of logged messages.
+     * Retrieves the inventory engine backing this pool.
+     * @return The pool's mode.
      */
-    public List<String> getLogs() {
-        return new ArrayList<>(logs);
+    public PoolMode getMode() {
+        return handoff ? PoolMode.HANDOFF : PoolMode.STANDARD;
     }
 }
@@ -0,0 +1,32 @@
+package lk.oop.cw.backend;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the ticket pool the application starts with.
+ * <p>
+ * The engine and limits come from {@code application.properties}, so a deployment can switch engines without a
+ * code change. A pool recovered from the journal on startup keeps the engine and limits it was journaled with.
+ * </p>
+ */
+@Configuration
+public class TicketPoolConfig {
+
+    /**
+     * Defines the initial ticket pool bean.
+     * @param engine            The engine backing the pool, from {@code ticketing.pool.engine}.
+     * @param totalTickets      The total number of tickets allowed in the system, from
+     *                          {@code ticketing.pool.total-tickets}.
+     * @param maxTicketCapacity The maximum number of tickets in the pool at a time, from
+     *                          {@code ticketing.pool.max-capacity}.
+     * @return An empty pool backed by the configured engine.
+     */
+    @Bean
+    public TicketPoolEngine ticketPool(@Value("${ticketing.pool.engine:STANDARD}") PoolMode engine,
+                                 @Value("${ticketing.pool.total-tickets:500}") int totalTickets,
+                                 @Value("${ticketing.pool.max-capacity:50}") int maxTicketCapacity) {
+        return engine.create(totalTickets, maxTicketCapacity);
+    }
+}
@@ -0,0 +1,282 @@
+package lk.oop.cw.backend;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The operations every ticket pool engine offers to vendors, customers and the service layer.
+ * <p>
+ * {@link TicketPool} is the baseline implementation: a single {@link java.util.concurrent.locks.ReentrantLock}
+ * guarding the inventory. Every engine extends {@link AbstractTicketPool}, which provides the journal, log,
+ * metrics, live handover, holds and event publishing, and implements the release and purchase paths over its own
+ * inventory. Callers hold engines through this interface only. An engine is made selectable by adding a constant
+ * for it to {@link PoolMode}; the {@code ticketing.pool.engine} property then picks the engine the application
+ * starts with, and the {@code mode} parameter of {@code /configure} switches engines at run time.
+ * </p>
+ * <p>
+ * Every implementation must pass {@code TicketPoolConformanceTests}, which runs against every {@link PoolMode},
+ * and is measured by the benchmarks module.
+ * </p>
+ */
+public interface TicketPoolEngine {
+
+    /**
+     * Releases tickets into the pool, waiting while it is full.
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets being added.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets being added.
+     */
+    void addTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category);
+
+    /**
+     * Releases tickets into the pool without waiting.
+     * @return Number of tickets actually added; zero if the pool is full or the total ticket limit is reached.
+     */
+    int offerTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category);
+
+    /**
+     * Releases a batch of tickets without waiting, applying each release as {@link #offerTickets} would while
+     * paying the engine's synchronisation cost once per batch instead of once per release.
+     * @param releases The releases to apply.
+     * @return The number of tickets added for each release, in the order given.
+     */
+    int[] offerTicketBatch(List<TicketRelease> releases);
+
+    /**
+     * Releases tickets into the pool, waiting at most the given time for room.
+     * @return {@link PoolResult#SUCCESS}, {@link PoolResult#SOLD_OUT} or {@link PoolResult#TIMED_OUT}.
+     */
+    PoolResult tryAddTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                             String category, long timeout, TimeUnit unit);
+
+    /**
+     * Purchases a ticket, waiting while the pool is empty and returning without one once it is sold out.
+     * @param customerId ID of the customer purchasing the ticket.
+     */
+    void removeTicket(String customerId);
+
+    /**
+     * Purchases a ticket without waiting.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @return true if a ticket was purchased; false if the pool was empty.
+     */
+    boolean pollTicket(String customerId);
+
+    /**
+     * Purchases a ticket, waiting at most the given time for one to arrive.
+     * @return {@link PoolResult#SUCCESS}, {@link PoolResult#SOLD_OUT} or {@link PoolResult#TIMED_OUT}.
+     */
+    PoolResult tryRemoveTicket(String customerId, long timeout, TimeUnit unit);
+
+    /**
+     * Purchases several tickets in one step, waiting until the basket can be filled or never can be.
+     * @return Number of tickets purchased.
+     */
+    int removeTickets(String customerId, int count, PurchaseMode mode);
+
+    /**
+     * Purchases several tickets in one step, waiting at most the given time until the basket can be filled.
+     * @return {@link PoolResult#SUCCESS} and the number of tickets purchased, {@link PoolResult#SOLD_OUT} if the
+     *         basket can no longer be filled, or {@link PoolResult#TIMED_OUT} if it could not be filled before the
+     *         deadline.
+     */
+    BasketResult tryRemoveTickets(String customerId, int count, PurchaseMode mode, long timeout, TimeUnit unit);
+
+    /**
+     * Purchases several tickets without waiting.
+     * @return Number of tickets purchased; zero if the pool could not satisfy the basket.
+     */
+    int pollTickets(String customerId, int count, PurchaseMode mode);
+
+    /**
+     * Purchases the cheapest ticket matching a customer's criteria, without waiting.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param criteria   The event, category and price ceiling wanted.
+     * @return The details of the ticket purchased, or null if no ticket in the pool matches.
+     * @throws UnsupportedPoolOperationException If the engine does not support
+     *                                            {@link PoolCapability#MATCHING_PURCHASE}.
+     */
+    TicketDescriptor purchaseMatching(String customerId, TicketCriteria criteria);
+
+    /**
+     * Holds tickets for a customer during checkout, without waiting.
+     * @param customerId ID of the customer the tickets are held for.
+     * @param count      Number of tickets to hold.
+     * @param ttl        How long the hold lasts unless confirmed or released.
+     * @param unit       Unit of {@code ttl}.
+     * @return The hold, or null if the pool has fewer than {@code count} tickets.
+     * @throws UnsupportedPoolOperationException If the engine does not support {@link PoolCapability#HOLDS}.
+     */
+    TicketHold holdTickets(String customerId, int count, long ttl, TimeUnit unit);
+
+    /**
+     * Sells the tickets of a hold.
+     * @param holdId ID of the hold.
+     * @return The details of the tickets sold, or null if the hold does not exist or has already ended.
+     */
+    List<TicketDescriptor> confirmHold(String holdId);
+
+    /**
+     * Ends a hold early and returns its tickets to the pool.
+     * @param holdId ID of the hold.
+     * @return true if the tickets were returned; false if the hold does not exist or has already ended.
+     */
+    boolean releaseHold(String holdId);
+
+    /**
+     * Retrieves the number of tickets currently on hold.
+     * @return Tickets held and neither confirmed nor returned yet.
+     */
+    int getTicketsOnHold();
+
+    /**
+     * Checks whether every ticket has been released and sold.
+     * @return true if the sale is over; false otherwise.
+     */
+    boolean isSoldOut();
+
+    /**
+     * Checks whether the whole ticket budget has been released into the pool.
+     * @return true if vendors cannot add any more tickets; false otherwise.
+     */
+    boolean isFullyReleased();
+
+    /**
+     * Registers a one-shot callback for when tickets arrive, for agents that park instead of blocking.
+     * @param callback Action to run once.
+     */
+    void onceNotEmpty(Runnable callback);
+
+    /**
+     * Registers a one-shot callback for when there is room again, for agents that park instead of blocking.
+     * @param callback Action to run once.
+     */
+    void onceNotFull(Runnable callback);
+
+    /**
+     * Retrieves the number of tickets currently in the pool.
+     * @return Number of remaining tickets.
+     */
+    int getRemainingTickets();
+
+    /**
+     * Retrieves the number of tickets released so far.
+     * @return Tickets released.
+     */
+    int getTicketsReleased();
+
+    /**
+     * Retrieves the number of tickets sold so far.
+     * @return Tickets sold.
+     */
+    int getTicketsSold();
+
+    /**
+     * Retrieves an immutable snapshot of the pool's state, without taking any lock that releases or purchases
+     * take.
+     * @return A snapshot at most a fraction of a second behind the pool.
+     */
+    PoolSnapshot getSnapshot();
+
+    /**
+     * Retrieves the total number of tickets the sale may release.
+     * @return The total ticket limit.
+     */
+    int getTotalTickets();
+
+    /**
+     * Retrieves the maximum number of tickets the pool holds at a time.
+     * @return The capacity.
+     */
+    int getMaxTicketCapacity();
+
+    /**
+     * Retrieves the mode that selects this engine.
+     * @return The engine's mode.
+     */
+    PoolMode getMode();
+
+    /**
+     * Checks whether the engine offers an optional operation.
+     * @param capability The operation.
+     * @return true if the operation can be called; false if it throws {@link UnsupportedPoolOperationException}.
+     */
+    boolean supports(PoolCapability capability);
+
+    /**
+     * Retrieves the latency histograms and counters of the pool.
+     * @return The pool metrics.
+     */
+    PoolMetrics getMetrics();
+
+    /**
+     * Writes a message to the pool log.
+     * @param message Message to log.
+     */
+    void addLog(String message);
+
+    /**
+     * Retrieves the pool log.
+     * @return The logged messages, oldest first.
+     */
+    List<String> getLogs();
+
+    /**
+     * Retrieves the logged messages from a cursor onwards.
+     * @param since Sequence number of the first message wanted.
+     * @param limit Maximum number of messages to return.
+     * @return The page of messages and the cursor for the next read.
+     */
+    LogPage getLogs(long since, int limit);
+
+    /**
+     * Publishes an event to the pool's listener.
+     * @param event The event.
+     */
+    void publish(PoolEvent event);
+
+    /**
+     * Sets the listener that receives the pool's activity events.
+     * @param eventListener The listener to notify, or null to stop publishing events.
+     */
+    void setEventListener(PoolEventListener eventListener);
+
+    /**
+     * Sets the journal that releases and purchases are written to before they are acknowledged.
+     * @param journal The journal, or null to stop journaling.
+     */
+    void setJournal(SalesJournal journal);
+
+    /**
+     * Retrieves the journal the pool writes to.
+     * @return The journal; {@link SalesJournal#DISABLED} if none is set.
+     */
+    SalesJournal getJournal();
+
+    /**
+     * Refills a freshly created pool with state recovered from the {@link SalesJournal} or handed over by
+     * another pool. Must be called before the pool is shared with vendors or customers.
+     * @param state The state to restore.
+     */
+    void restore(PoolState state);
+
+    /**
+     * Hands the pool's tickets and counters over to a new pool while vendors and customers keep running; calls
+     * made on this pool afterwards throw {@link PoolRetiredException}.
+     * @param next     The pool that takes over, not yet shared with anyone.
+     * @param transfer Whether to move the tickets, counters, metrics, log and holds, or to let {@code next} start
+     *                 a new sale from scratch.
+     * @throws IllegalArgumentException If {@code next} cannot take over, in which case this pool stays in service.
+     * @throws IllegalStateException    If this pool has already been handed over.
+     */
+    void handOver(TicketPoolEngine next, boolean transfer);
+
+    /**
+     * Checks whether the pool has been handed over to a new one.
+     * @return true once {@link #handOver} has started; false while the pool is in service.
+     */
+    boolean isRetired();
+}
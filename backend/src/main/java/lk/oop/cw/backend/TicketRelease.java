@@ -0,0 +1,35 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * One vendor release in a bulk ingestion, applied together with the rest of its chunk by
+ * {@link TicketPoolEngine#offerTicketBatch}.
+ */
+@Getter
+public final class TicketRelease {
+    private final String vendorId;
+    private final String eventId;
+    private final String eventName;
+    private final double price;
+    private final int tickets;
+    private final String category;
+
+    /**
+     * Creates a release.
+     * @param vendorId  The ID of the vendor releasing tickets.
+     * @param eventId   The ID of the event the tickets are associated with.
+     * @param eventName The name of the event.
+     * @param price     The price of the tickets.
+     * @param tickets   The number of tickets to release.
+     * @param category  The category of the tickets.
+     */
+    public TicketRelease(String vendorId, String eventId, String eventName, double price, int tickets, String category) {
+        this.vendorId = vendorId;
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.price = price;
+        this.tickets = tickets;
+        this.category = category;
+    }
+}
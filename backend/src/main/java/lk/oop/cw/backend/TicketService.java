@@ -1,35 +1,88 @@
 package lk.oop.cw.backend;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 /**
  * Service layer for managing ticket-related operations and simulating ticket pool interactions.
  * <p>
  * This service is responsible for initializing the ticket pool, managing vendor and customer threads,
  * adding/removing tickets, and retrieving system status or logs. It interacts with the underlying
- * {@link TicketPool} instance to perform core operations.
+ * {@link TicketPoolEngine} to perform core operations.
  * </p>
  */
 @Service
 public class TicketService {
-    private TicketPool ticketPool;
+    private volatile TicketPoolEngine ticketPool;
+    private final ReactiveTicketGateway reactiveGateway;
+    private final PoolEventHub eventHub;
+    private final AgentExecutionMode executionMode;
+    private final AgentScheduler agentScheduler;
+    private final SalesJournal journal;
+    private final PurchaseRateLimiter rateLimiter;
+    private volatile long timeToReadyMillis = -1;
+    private final Lock configurationLock = new ReentrantLock();
 
-    private final List<Thread> vendorThreads = new ArrayList<>();
-    private final List<Thread> customerThreads = new ArrayList<>();
+    private final List<AgentHandle> vendorThreads = new ArrayList<>();
+    private final List<AgentHandle> customerThreads = new ArrayList<>();
 
     /**
-     * Constructs the service with a given TicketPool instance.
+     * Constructs the service with a given ticket pool.
+     * <p>
+     * If the journal holds a pool from an earlier run, that pool is recovered and replaces the given one, so a
+     * restart neither loses sales nor releases more than the total ticket limit.
+     * </p>
      * @param ticketPool The ticket pool to be managed by this service.
+     * @param eventHub      The hub that streams pool events to connected dashboards.
+     * @param executionMode  The kind of thread used to run vendor and customer agents.
+     * @param agentScheduler The shared scheduler that drives agents in {@link AgentExecutionMode#SCHEDULED} mode.
+     * @param journal        The journal that makes releases and purchases durable.
+     * @param rateLimiter    The limiter applied to customers' purchase calls before they reach the pool.
      */
-    public TicketService(TicketPool ticketPool) {
+    public TicketService(TicketPoolEngine ticketPool, PoolEventHub eventHub,
+                         @Value("${ticketing.agents.execution-mode:PLATFORM}") AgentExecutionMode executionMode,
+                         AgentScheduler agentScheduler, SalesJournal journal, PurchaseRateLimiter rateLimiter) {
+        this.eventHub = eventHub;
+        this.executionMode = executionMode;
+        this.agentScheduler = agentScheduler;
+        if (executionMode == AgentExecutionMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            LoggingConfig.getLogger().warning("Virtual threads need Java 21 or later; running VIRTUAL agents on "
+                    + "platform threads on Java " + Runtime.version().feature());
+        }
+        this.journal = journal;
+        this.rateLimiter = rateLimiter;
+
+        PoolState recovered = journal.getRecoveredState();
+        if (recovered != null) {
+            ticketPool = recovered.getMode().create(recovered.getTotalTickets(), recovered.getMaxTicketCapacity());
+            ticketPool.restore(recovered);
+            ticketPool.addLog("Recovered pool from journal: " + recovered.getReleased() + " released, " +
+                    recovered.getSold() + " sold, " + recovered.getRemaining() + " in pool, " +
+                    journal.getRecordsReplayed() + " records replayed in " +
+                    TimeUnit.NANOSECONDS.toMillis(journal.getRecoveryNanos()) + " ms.");
+        } else {
+            journal.start(ticketPool.getTotalTickets(), ticketPool.getMaxTicketCapacity(), ticketPool.getMode());
+        }
+        connect(ticketPool);
         this.ticketPool = ticketPool;
+        this.reactiveGateway = new ReactiveTicketGateway(ticketPool);
     }
 
     /**
-     * Adds tickets to the system by delegating to the {@link TicketPool}.
+     * Adds tickets to the system by delegating to the {@link TicketPoolEngine}.
      * @param vendorId   The vendor's identifier.
      * @param eventId    The event's identifier.
      * @param eventName  The name of the event.
@@ -38,15 +91,214 @@ public class TicketService {
      * @param category   The ticket category.
      */
     public void addTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
-        ticketPool.addTickets(vendorId, eventId, eventName, price, ticketsToAdd, category);
+        withPool(pool -> {
+            pool.addTickets(vendorId, eventId, eventName, price, ticketsToAdd, category);
+            return null;
+        });
+    }
+
+    /**
+     * Adds tickets to the system, waiting at most the given time for room in the pool.
+     * @param vendorId      The vendor's identifier.
+     * @param eventId       The event's identifier.
+     * @param eventName     The name of the event.
+     * @param price         The price of the tickets.
+     * @param ticketsToAdd  The number of tickets to add.
+     * @param category      The ticket category.
+     * @param timeoutMillis The longest time to wait for room, in milliseconds.
+     * @return Whether the tickets were added, the wait timed out, or the total ticket limit has been reached.
+     */
+    public PoolResult tryAddTickets(String vendorId, String eventId, String eventName, double price, int ticketsToAdd,
+                                    String category, long timeoutMillis) {
+        return withPool(pool -> pool.tryAddTickets(vendorId, eventId, eventName, price, ticketsToAdd, category,
+                timeoutMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Applies a chunk of releases to the pool in one batch, without waiting for room.
+     * @param releases The releases, in the order they were received.
+     * @return The number of tickets added for each release, in the same order.
+     */
+    public int[] offerTicketBatch(List<TicketRelease> releases) {
+        return withPool(pool -> pool.offerTicketBatch(releases));
+    }
+
+    /**
+     * Checks whether the whole ticket budget of the current pool has been released.
+     * @return true if vendors cannot add any more tickets; false otherwise.
+     */
+    public boolean isFullyReleased() {
+        return ticketPool.isFullyReleased();
     }
 
     /**
      * Removes a ticket from the pool associated with a specific customer.
      * @param customerId The customer ID to remove the ticket for.
+     * @throws PurchaseThrottledException If the customer is purchasing faster than its rate limit.
      */
     public void removeTicket(String customerId) {
-        ticketPool.removeTicket(customerId);
+        rateLimiter.check(customerId);
+        withPool(pool -> {
+            pool.removeTicket(customerId);
+            return null;
+        });
+    }
+
+    /**
+     * Purchases a ticket for a customer, waiting at most the given time for one to arrive.
+     * @param customerId    The customer ID to remove the ticket for.
+     * @param timeoutMillis The longest time to wait for a ticket, in milliseconds.
+     * @return Whether a ticket was purchased, the wait timed out, or the pool is sold out.
+     * @throws PurchaseThrottledException If the customer is purchasing faster than its rate limit.
+     */
+    public PoolResult tryRemoveTicket(String customerId, long timeoutMillis) {
+        rateLimiter.check(customerId);
+        return withPool(pool -> pool.tryRemoveTicket(customerId, timeoutMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Purchases a ticket for a customer without holding a thread while the pool is empty.
+     * @param customerId    The customer ID to purchase the ticket for.
+     * @param timeoutMillis The longest time to wait for a ticket, in milliseconds.
+     * @return A {@link Mono} completing with whether a ticket was purchased, the wait timed out, or the pool is sold out;
+     *         failing with {@link PurchaseThrottledException} if the customer is purchasing faster than its rate limit.
+     */
+    public Mono<PoolResult> purchaseTicketAsync(String customerId, long timeoutMillis) {
+        try {
+            rateLimiter.check(customerId);
+        } catch (PurchaseThrottledException e) {
+            return Mono.error(e);
+        }
+        return reactiveGateway.purchase(customerId, Duration.ofMillis(timeoutMillis));
+    }
+
+    /**
+     * Adds tickets to the system without holding a thread while the pool is full.
+     * @param vendorId      The vendor's identifier.
+     * @param eventId       The event's identifier.
+     * @param eventName     The name of the event.
+     * @param price         The price of the tickets.
+     * @param ticketsToAdd  The number of tickets to add.
+     * @param category      The ticket category.
+     * @param timeoutMillis The longest time to wait for room, in milliseconds.
+     * @return A {@link Mono} completing with whether the tickets were added, the wait timed out, or the total
+     *         ticket limit has been reached.
+     */
+    public Mono<PoolResult> addTicketsAsync(String vendorId, String eventId, String eventName, double price,
+                                            int ticketsToAdd, String category, long timeoutMillis) {
+        return reactiveGateway.release(vendorId, eventId, eventName, price, ticketsToAdd, category,
+                Duration.ofMillis(timeoutMillis));
+    }
+
+    /**
+     * Retrieves the number of asynchronous purchases waiting for a ticket.
+     * @return Number of pending purchases.
+     */
+    public int getWaitingPurchaseCount() {
+        return reactiveGateway.getWaitingCount();
+    }
+
+    /**
+     * Purchases several tickets for a customer in one step.
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased.
+     * @throws PurchaseThrottledException If the customer is purchasing faster than its rate limit.
+     */
+    public int removeTickets(String customerId, int count, PurchaseMode mode) {
+        rateLimiter.check(customerId);
+        return withPool(pool -> pool.removeTickets(customerId, count, mode));
+    }
+
+    /**
+     * Purchases several tickets for a customer in one step, waiting at most the given time for the basket.
+     * @param customerId    ID of the customer purchasing the tickets.
+     * @param count         Number of tickets wanted.
+     * @param mode          Whether a partial basket is acceptable.
+     * @param timeoutMillis The longest time to wait for the basket, in milliseconds.
+     * @return Whether the basket was purchased, the wait timed out, or the basket can no longer be filled, and the
+     *         number of tickets purchased.
+     * @throws PurchaseThrottledException If the customer is purchasing faster than its rate limit.
+     */
+    public BasketResult tryRemoveTickets(String customerId, int count, PurchaseMode mode, long timeoutMillis) {
+        rateLimiter.check(customerId);
+        return withPool(pool -> pool.tryRemoveTickets(customerId, count, mode, timeoutMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Purchases the cheapest ticket matching a customer's criteria, without waiting.
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param criteria   The event, category and price ceiling wanted.
+     * @return The details of the ticket purchased, or null if no ticket in the pool matches.
+     * @throws UnsupportedPoolOperationException If the current engine does not support
+     *                                            {@link PoolCapability#MATCHING_PURCHASE}.
+     * @throws PurchaseThrottledException If the customer is purchasing faster than its rate limit.
+     */
+    public TicketDescriptor purchaseMatching(String customerId, TicketCriteria criteria) {
+        requireCapability(PoolCapability.MATCHING_PURCHASE);
+        rateLimiter.check(customerId);
+        return withPool(pool -> pool.purchaseMatching(customerId, criteria));
+    }
+
+    /**
+     * Holds tickets for a customer during checkout, without waiting.
+     * @param customerId ID of the customer the tickets are held for.
+     * @param count      Number of tickets to hold.
+     * @param ttlMillis  How long the hold lasts unless confirmed or released, in milliseconds.
+     * @return The hold, or null if the pool has fewer than {@code count} tickets.
+     * @throws UnsupportedPoolOperationException If the current engine does not support {@link PoolCapability#HOLDS}.
+     * @throws PurchaseThrottledException If the customer is purchasing faster than its rate limit.
+     */
+    public TicketHold holdTickets(String customerId, int count, long ttlMillis) {
+        requireCapability(PoolCapability.HOLDS);
+        rateLimiter.check(customerId);
+        return withPool(pool -> pool.holdTickets(customerId, count, ttlMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Sells the tickets of a hold.
+     * @param holdId ID of the hold.
+     * @return The details of the tickets sold, or null if the hold does not exist or has already ended.
+     */
+    public List<TicketDescriptor> confirmHold(String holdId) {
+        return withPool(pool -> pool.confirmHold(holdId));
+    }
+
+    /**
+     * Ends a hold early and returns its tickets to the pool.
+     * @param holdId ID of the hold.
+     * @return true if the tickets were returned; false if the hold does not exist or has already ended.
+     */
+    public boolean releaseHold(String holdId) {
+        return withPool(pool -> pool.releaseHold(holdId));
+    }
+
+    /**
+     * Rejects an optional operation the current engine does not offer, before it uses up a rate limit token.
+     * The engine itself throws the same exception if it is switched before the call reaches it.
+     */
+    private void requireCapability(PoolCapability capability) {
+        TicketPoolEngine pool = ticketPool;
+        if (!pool.supports(capability)) {
+            throw new UnsupportedPoolOperationException(pool.getMode(), capability);
+        }
+    }
+
+    /**
+     * Runs a pool call, repeating it on the new pool if the pool is reconfigured while the call is in progress.
+     * @param call The call to run.
+     * @return The call's result.
+     */
+    private <T> T withPool(Function<TicketPoolEngine, T> call) {
+        TicketPoolEngine pool = ticketPool;
+        while (true) {
+            try {
+                return call.apply(pool);
+            } catch (PoolRetiredException e) {
+                pool = e.getSuccessor();
+            }
+        }
     }
 
     /**
@@ -55,7 +307,53 @@ public class TicketService {
      * @param maxTicketCapacity The maximum ticket capacity allowed.
      */
     public void initializeTicketPool(int totalTickets, int maxTicketCapacity) {
-        this.ticketPool = new TicketPool(totalTickets, maxTicketCapacity);
+        initializeTicketPool(totalTickets, maxTicketCapacity, PoolMode.STANDARD);
+    }
+
+    /**
+     * Initializes the ticket pool with the given limits, backed by the selected inventory engine.
+     * <p>
+     * While vendors or customers are running, the pool is reconfigured live: the current pool hands its tickets
+     * and counters over to the new one with {@link TicketPoolEngine#handOver}, running agents and waiting requests
+     * move to the new pool on their next call, and the journal records the new limits without starting over.
+     * Otherwise a new sale starts: the journal is restarted for the new pool and the previous pool stops
+     * journaling.
+     * </p>
+     * @param totalTickets      The total number of tickets.
+     * @param maxTicketCapacity The maximum ticket capacity allowed.
+     * @param mode              The inventory engine to use.
+     * @throws IllegalArgumentException If a live reconfiguration would leave the tickets currently in the pool
+     *                                  without room; the current pool then stays in service.
+     */
+    public void initializeTicketPool(int totalTickets, int maxTicketCapacity, PoolMode mode) {
+        configurationLock.lock();
+        try {
+            TicketPoolEngine current = ticketPool;
+            TicketPoolEngine next = mode.create(totalTickets, maxTicketCapacity);
+            connect(next);
+            if (current.getMetrics().getActiveAgents() > 0) {
+                current.handOver(next, true);
+                journal.reconfigure(totalTickets, maxTicketCapacity, mode);
+                next.addLog("Pool reconfigured live: " + totalTickets + " total tickets, capacity " +
+                        maxTicketCapacity + ", " + mode + " engine, " + next.getRemainingTickets() + " in pool.");
+            } else {
+                current.setJournal(null);
+                journal.start(totalTickets, maxTicketCapacity, mode);
+                current.handOver(next, false);
+            }
+            ticketPool = next;
+        } finally {
+            configurationLock.unlock();
+        }
+    }
+
+    /**
+     * Connects a pool to the event hub and the journal.
+     * @param pool The pool that is about to serve requests.
+     */
+    private void connect(TicketPoolEngine pool) {
+        pool.setEventListener(eventHub);
+        pool.setJournal(journal);
     }
 
     /**
@@ -76,9 +374,7 @@ public class TicketService {
             double price = prices[i % prices.length];
 
             Vendor vendor = new Vendor(ticketPool, ticketReleaseRate, ticketsPerRelease, eventId, eventName, price, category);
-            Thread vendorThread = new Thread(vendor, "Vendor-" + (vendorThreads.size() + 1));
-            vendorThreads.add(vendorThread);
-            vendorThread.start();
+            vendorThreads.add(launch(vendor, "Vendor-" + (vendorThreads.size() + 1)));
         }
     }
 
@@ -91,18 +387,35 @@ public class TicketService {
     public void startCustomerThreads(int customerCount, int customerRetrievalRate, int ticketsPerPurchase) {
         for (int i = 0; i < customerCount; i++) {
             Customer customer = new Customer(ticketPool, customerRetrievalRate, ticketsPerPurchase);
-            Thread customerThread = new Thread(customer, "Customer-" + (customerThreads.size() + 1));
-            customerThreads.add(customerThread);
-            customerThread.start();
+            customerThreads.add(launch(customer, "Customer-" + (customerThreads.size() + 1)));
         }
     }
 
+    /**
+     * Starts an agent according to the configured {@link AgentExecutionMode}.
+     * @param agent The vendor or customer to run.
+     * @param name  The thread name, used when the agent gets its own thread.
+     * @return A handle that stops the agent.
+     */
+    private <A extends Runnable & SteppedAgent> AgentHandle launch(A agent, String name) {
+        return switch (executionMode) {
+            case PLATFORM -> startThread(new Thread(agent, name));
+            case VIRTUAL -> startThread(VirtualThreads.unstarted(name, agent));
+            case SCHEDULED -> agentScheduler.schedule(agent);
+        };
+    }
+
+    private static AgentHandle startThread(Thread thread) {
+        thread.start();
+        return thread::interrupt;
+    }
+
     /**
      * Stops all currently active vendor threads.
      */
     public void stopVendorThreads() {
-        for (Thread vendorThread : vendorThreads) {
-            vendorThread.interrupt();
+        for (AgentHandle vendorThread : vendorThreads) {
+            vendorThread.stop();
         }
         vendorThreads.clear();
     }
@@ -111,8 +424,8 @@ public class TicketService {
      * Stops all currently active customer threads.
      */
     public void stopCustomerThreads() {
-        for (Thread customerThread : customerThreads) {
-            customerThread.interrupt();
+        for (AgentHandle customerThread : customerThreads) {
+            customerThread.stop();
         }
         customerThreads.clear();
     }
@@ -136,8 +449,8 @@ public class TicketService {
      */
     public void removeVendor() {
         if (!vendorThreads.isEmpty()) {
-            Thread vendorThread = vendorThreads.remove(vendorThreads.size() - 1);
-            vendorThread.interrupt();
+            AgentHandle vendorThread = vendorThreads.remove(vendorThreads.size() - 1);
+            vendorThread.stop();
         }
     }
 
@@ -148,9 +461,7 @@ public class TicketService {
      */
     public void addCustomer(int retrievalInterval, int ticketsPerPurchase) {
         Customer customer = new Customer(ticketPool, retrievalInterval, ticketsPerPurchase);
-        Thread customerThread = new Thread(customer, "Customer-" + (customerThreads.size() + 1));
-        customerThreads.add(customerThread);
-        customerThread.start();
+        customerThreads.add(launch(customer, "Customer-" + (customerThreads.size() + 1)));
     }
 
     /**
@@ -158,8 +469,8 @@ public class TicketService {
      */
     public void removeCustomer() {
         if (!customerThreads.isEmpty()) {
-            Thread customerThread = customerThreads.remove(customerThreads.size() - 1);
-            customerThread.interrupt();
+            AgentHandle customerThread = customerThreads.remove(customerThreads.size() - 1);
+            customerThread.stop();
         }
     }
 
@@ -172,6 +483,14 @@ public class TicketService {
         return String.format("Tickets Remaining: %d", remainingTickets);
     }
 
+    /**
+     * Retrieves an immutable snapshot of the pool's counters and per-event counts, read without the pool lock.
+     * @return The snapshot, at most a fraction of a second old.
+     */
+    public PoolSnapshot getSnapshot() {
+        return ticketPool.getSnapshot();
+    }
+
     /**
      * Retrieves application logs related to ticket activities.
      * @return The logs as a single concatenated string.
@@ -179,4 +498,63 @@ public class TicketService {
     public String getLogs() {
         return String.join("\n", ticketPool.getLogs());
     }
+
+    /**
+     * Retrieves the log entries recorded after a cursor.
+     * @param since Sequence number of the first entry wanted.
+     * @param limit Maximum number of entries to return.
+     * @return The new entries and the cursor to resume from.
+     */
+    public LogPage getLogs(long since, int limit) {
+        return ticketPool.getLogs(since, limit);
+    }
+
+    /**
+     * Retrieves the queue depth and the written and dropped counters of the asynchronous event logger.
+     * @return The logger statistics.
+     */
+    public LogStats getLogStats() {
+        return LoggingConfig.getEventLogger().getStats();
+    }
+
+    /**
+     * Retrieves the configuration and counters of the purchase rate limiter.
+     * @return The rate limiter statistics.
+     */
+    public RateLimitStats getRateLimitStats() {
+        return rateLimiter.getStats();
+    }
+
+    /**
+     * Takes a snapshot of the pool's operational metrics.
+     * @return Latency percentiles, throughput counters and the current pool depth.
+     */
+    public PoolMetricsSnapshot getMetrics() {
+        return ticketPool.getMetrics().snapshot(ticketPool.getRemainingTickets());
+    }
+
+    /**
+     * Records how long the application took to become ready to serve requests.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        timeToReadyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * Retrieves the startup metrics.
+     * @return Time to ready, and the time and work spent recovering the journal.
+     */
+    public StartupStats getStartupStats() {
+        return new StartupStats(timeToReadyMillis, journal.getRecoveryNanos() / 1_000_000.0,
+                journal.getSnapshotLoaded(), journal.getRecordsReplayed(), journal.getSnapshotsWritten());
+    }
+
+    /**
+     * Opens a live stream of pool events for a dashboard.
+     * @return The Server-Sent Events emitter for the new subscriber.
+     */
+    public SseEmitter subscribeToEvents() {
+        return eventHub.subscribe(ticketPool.getRemainingTickets());
+    }
 }
@@ -0,0 +1,27 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an operation is called on a {@link TicketPoolEngine} that lacks the {@link PoolCapability} it needs.
+ * <p>
+ * Nothing was added or purchased by the call. Callers can avoid it by checking
+ * {@link TicketPoolEngine#supports} first.
+ * </p>
+ */
+@Getter
+public class UnsupportedPoolOperationException extends UnsupportedOperationException {
+    private final PoolMode mode;
+    private final PoolCapability capability;
+
+    /**
+     * Creates the exception for an engine without a capability.
+     * @param mode       Mode of the engine the operation was called on.
+     * @param capability The capability the operation needs.
+     */
+    UnsupportedPoolOperationException(PoolMode mode, PoolCapability capability) {
+        super("The " + mode + " engine cannot " + capability.getDescription());
+        this.mode = mode;
+        this.capability = capability;
+    }
+}
@@ -0,0 +1,31 @@
+package lk.oop.cw.backend;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Turns an {@link UnsupportedPoolOperationException} from any endpoint into a 501 Not Implemented response.
+ * <p>
+ * The body names the current engine and the capability it lacks, so the caller knows to reconfigure the pool
+ * with another {@link PoolMode} rather than retry.
+ * </p>
+ */
+@RestControllerAdvice(assignableTypes = TicketController.class)
+public class UnsupportedPoolOperationHandler {
+
+    /**
+     * Builds the response for an operation the current engine does not support.
+     * @param e The exception thrown by the service layer.
+     * @return 501 Not Implemented with the engine, the missing capability and a message.
+     */
+    @ExceptionHandler(UnsupportedPoolOperationException.class)
+    public ResponseEntity<Map<String, Object>> handleUnsupported(UnsupportedPoolOperationException e) {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                .body(Map.of("status", "UNSUPPORTED", "mode", e.getMode(), "capability", e.getCapability(),
+                        "message", e.getMessage()));
+    }
+}
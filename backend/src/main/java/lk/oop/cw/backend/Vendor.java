@@ -5,11 +5,13 @@ package lk.oop.cw.backend;
  * <p>
  * This class implements {@link Runnable} to simulate a vendor's behavior in a multithreaded
  * environment. Vendors release tickets at a fixed interval until the ticket pool is sold out
- * or the thread is interrupted.
+ * or the thread is interrupted. It also implements {@link SteppedAgent} so the same vendor can be
+ * driven by the {@link AgentScheduler} without a dedicated thread. When the pool is reconfigured while the
+ * vendor runs, it moves to the new pool on its next release.
  * </p>
  */
-public class Vendor implements Runnable {
-    private final TicketPool ticketPool;
+public class Vendor implements Runnable, SteppedAgent {
+    private volatile TicketPoolEngine ticketPool;
     private final int releaseInterval;
     private final int ticketsPerRelease;
     private final String vendorId;
@@ -30,7 +32,7 @@ public class Vendor implements Runnable {
      * @param price            The price of the tickets this vendor releases.
      * @param category        The category of tickets being released by this vendor.
      */
-    public Vendor(TicketPool ticketPool, int releaseInterval, int ticketsPerRelease, String eventId, String eventName, double price, String category) {
+    public Vendor(TicketPoolEngine ticketPool, int releaseInterval, int ticketsPerRelease, String eventId, String eventName, double price, String category) {
         this.ticketPool = ticketPool;
         this.releaseInterval = releaseInterval;
         this.ticketsPerRelease = ticketsPerRelease;
@@ -47,14 +49,85 @@ public class Vendor implements Runnable {
      */
     @Override
     public void run() {
+        start();
+        boolean interrupted = false;
         try {
             while (!ticketPool.isSoldOut()) {
-                ticketPool.addTickets(vendorId, eventId, eventName, price, ticketsPerRelease, category);
+                try {
+                    ticketPool.addTickets(vendorId, eventId, eventName, price, ticketsPerRelease, category);
+                } catch (PoolRetiredException e) {
+                    ticketPool = e.getSuccessor();
+                    continue;
+                }
                 Thread.sleep(releaseInterval);
             }
         } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        finish(interrupted);
+    }
+
+    /**
+     * Announces that the vendor has started.
+     */
+    @Override
+    public void start() {
+        ticketPool.getMetrics().vendorsChanged(1);
+        ticketPool.publish(PoolEvent.agentStarted(vendorId));
+    }
+
+    /**
+     * Releases one batch of tickets without waiting.
+     * @return {@link AgentStep#PARKED} if the pool is full, {@link AgentStep#DONE} once the pool is sold out,
+     *         otherwise {@link AgentStep#CONTINUE}.
+     */
+    @Override
+    public AgentStep step() {
+        if (ticketPool.isSoldOut()) {
+            return AgentStep.DONE;
+        }
+        int added;
+        try {
+            added = ticketPool.offerTickets(vendorId, eventId, eventName, price, ticketsPerRelease, category);
+        } catch (PoolRetiredException e) {
+            ticketPool = e.getSuccessor();
+            return AgentStep.CONTINUE;
+        }
+        if (added == 0 && !ticketPool.isFullyReleased()) {
+            return AgentStep.PARKED;
+        }
+        return AgentStep.CONTINUE;
+    }
+
+    /**
+     * Resumes the vendor once the pool has room again.
+     * @param resume The action that reschedules this vendor.
+     */
+    @Override
+    public void parkUntilReady(Runnable resume) {
+        ticketPool.onceNotFull(resume);
+    }
+
+    /**
+     * Retrieves the release interval.
+     * @return The interval in milliseconds.
+     */
+    @Override
+    public long getIntervalMillis() {
+        return releaseInterval;
+    }
+
+    /**
+     * Logs and announces that the vendor has stopped.
+     * @param interrupted true if the vendor was stopped before the pool sold out.
+     */
+    @Override
+    public void finish(boolean interrupted) {
+        if (interrupted) {
             ticketPool.addLog("Vendor interrupted");
         }
         ticketPool.addLog(vendorId + " stopped as all tickets are released.");
+        ticketPool.getMetrics().vendorsChanged(-1);
+        ticketPool.publish(PoolEvent.agentStopped(vendorId));
     }
 }
@@ -0,0 +1,68 @@
+package lk.oop.cw.backend;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Creates virtual threads where the running JDK has them, while the backend still builds and runs on Java 17.
+ * <p>
+ * {@code Thread.ofVirtual()} only exists from Java 21 (as a preview in 19 and 20), so it is looked up once by
+ * reflection instead of being called directly. On an older JDK, or one where the API is present but disabled,
+ * {@link #isSupported()} is false and {@link #unstarted(String, Runnable)} falls back to a platform thread, so the
+ * {@link AgentExecutionMode#VIRTUAL} mode still runs, with the footprint of {@link AgentExecutionMode#PLATFORM}.
+ * </p>
+ */
+final class VirtualThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Checks whether the running JDK can create virtual threads.
+     * @return true on Java 21 or later; false otherwise.
+     */
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an unstarted virtual thread, or a platform thread if the running JDK has no virtual threads.
+     * @param name The thread name.
+     * @param task The task the thread runs.
+     * @return The thread.
+     */
+    static Thread unstarted(String name, Runnable task) {
+        if (!isSupported()) {
+            return new Thread(task, name);
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name);
+            return (Thread) UNSTARTED.invoke(builder, task);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package lk.oop.cw.backend;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * The callers parked on one side of a {@link TicketPool} in handoff mode, in arrival order.
+ * <p>
+ * Instead of sharing one condition that is signalled to everyone whenever the pool changes, every waiter sleeps
+ * on a condition of its own. When tickets (or room) become available, {@link #grant} walks the line from the
+ * front and hands them out: each waiter is granted up to what it wants, and only waiters whose minimum is met are
+ * signalled. A release of three tickets therefore wakes at most three customers, the ones that have waited
+ * longest, instead of every customer parked on the pool.
+ * </p>
+ * <p>
+ * A grant is a reservation, not a transfer: the tickets stay in the pool until the woken waiter takes them, and
+ * the pool subtracts the total granted from what it offers to anyone else. A waiter that leaves without using
+ * its grant, because it timed out or was interrupted, gives it back and the pool grants it again. Every method
+ * must be called with the pool's lock held.
+ * </p>
+ */
+final class WaiterLine {
+    private final Lock lock;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int granted;
+
+    /**
+     * Creates an empty line.
+     * @param lock The pool lock the waiters' conditions belong to.
+     */
+    WaiterLine(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * Puts a caller at the back of the line.
+     * @param required Fewest units the caller can use.
+     * @param wanted   Most units the caller can use.
+     * @return The caller's place in the line, to wait on and to leave with.
+     */
+    Waiter join(int required, int wanted) {
+        Waiter waiter = new Waiter(lock.newCondition(), required, Math.max(required, wanted));
+        waiters.addLast(waiter);
+        return waiter;
+    }
+
+    /**
+     * Takes a caller out of the line and cancels whatever it was granted. The caller has either used its grant
+     * by now or given up, so the pool should grant again afterwards.
+     * @param waiter The caller's place in the line.
+     */
+    void leave(Waiter waiter) {
+        waiters.remove(waiter);
+        granted -= waiter.granted;
+        waiter.granted = 0;
+    }
+
+    /**
+     * Hands available units to the waiters in arrival order and signals each waiter whose minimum is met. The line
+     * is served strictly in order: a waiter whose minimum cannot be met yet keeps what it was granted and collects
+     * the units that follow, so a large basket is not overtaken by the smaller ones behind it.
+     * @param available Units not yet granted to anyone.
+     */
+    void grant(int available) {
+        for (Waiter waiter : waiters) {
+            if (available <= 0) {
+                return;
+            }
+            if (waiter.granted >= waiter.required) {
+                continue;
+            }
+            int units = Math.min(waiter.wanted - waiter.granted, available);
+            waiter.granted += units;
+            granted += units;
+            available -= units;
+            if (waiter.granted >= waiter.required) {
+                waiter.condition.signal();
+            }
+        }
+    }
+
+    /**
+     * Wakes every waiter, so each rechecks the pool itself; used when the pool is sold out or handed over.
+     */
+    void wakeAll() {
+        for (Waiter waiter : waiters) {
+            waiter.condition.signal();
+        }
+    }
+
+    /**
+     * Retrieves the units granted to waiters and not yet taken.
+     * @return The units reserved for the line.
+     */
+    int getGranted() {
+        return granted;
+    }
+
+    /**
+     * One caller parked in the line.
+     */
+    static final class Waiter {
+        private final Condition condition;
+        private final int required;
+        private final int wanted;
+        private int granted;
+
+        private Waiter(Condition condition, int required, int wanted) {
+            this.condition = condition;
+            this.required = required;
+            this.wanted = wanted;
+        }
+
+        /**
+         * Retrieves the condition the caller waits on.
+         * @return The caller's own condition.
+         */
+        Condition getCondition() {
+            return condition;
+        }
+
+        /**
+         * Retrieves the units granted to the caller and not yet taken.
+         * @return The caller's grant.
+         */
+        int getGranted() {
+            return granted;
+        }
+    }
+}
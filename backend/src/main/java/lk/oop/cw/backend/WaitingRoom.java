@@ -0,0 +1,262 @@
+package lk.oop.cw.backend;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A virtual waiting room in front of the purchase path of {@link TicketService}.
+ * <p>
+ * During a flash sale, buyers calling the pool directly all fight for its lock, and since the lock is not fair
+ * some buyers get in repeatedly while others wait for seconds. Buyers entering the waiting room instead are given
+ * a queue number in arrival order and are admitted to the pool strictly in that order. While queued, a buyer is
+ * only an entry and a sink: no request thread is held, and the buyer's response completes once it has been
+ * admitted and its purchase has finished.
+ * </p>
+ * <p>
+ * An admitter thread wakes every admission interval and lets in a batch sized to what the pool has been able to
+ * serve. It counts the admitted purchases that completed during the last interval and keeps a moving average of
+ * that count; the target number of admitted buyers in flight is twice that average, but at least the minimum
+ * batch and at most the in-flight limit. Each interval admits as many buyers as it takes to reach the target.
+ * A pool that sells quickly therefore gets larger batches, and a pool that is starved of tickets stops
+ * admitting once the target is reached instead of piling buyers onto its lock.
+ * </p>
+ * <p>
+ * A buyer's position is its queue number minus the highest number admitted so far, and its estimated wait is
+ * that position divided by the measured admission rate. Both are O(1) to compute. Buyers that gave up still
+ * count towards the positions behind them until the admitter passes them, so a position is an upper bound.
+ * </p>
+ */
+@Component
+public class WaitingRoom {
+    private static final double SMOOTHING = 0.3;
+
+    private final TicketService ticketService;
+    private final long admitIntervalMillis;
+    private final int minBatch;
+    private final int maxInFlight;
+    private final ScheduledExecutorService admitter;
+
+    private final Queue<Visitor> queue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<String, Visitor> visitors = new ConcurrentHashMap<>();
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong admittedUpTo = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completedThisInterval = new LongAdder();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    private volatile double completionsPerInterval;
+    private volatile double admissionsPerSecond;
+    private volatile int target;
+
+    /**
+     * Creates the waiting room and starts its admitter thread.
+     * @param ticketService       The service that serves admitted buyers.
+     * @param admitIntervalMillis Time between two admission batches, in milliseconds.
+     * @param minBatch            Fewest buyers kept in flight, so that the room keeps admitting while the pool's
+     *                            throughput is still being measured.
+     * @param maxInFlight         Most buyers admitted and not yet served at any time.
+     */
+    public WaitingRoom(TicketService ticketService,
+                       @Value("${ticketing.waiting-room.admit-interval-ms:100}") long admitIntervalMillis,
+                       @Value("${ticketing.waiting-room.min-batch:10}") int minBatch,
+                       @Value("${ticketing.waiting-room.max-in-flight:500}") int maxInFlight) {
+        this.ticketService = ticketService;
+        this.admitIntervalMillis = admitIntervalMillis;
+        this.minBatch = Math.max(1, minBatch);
+        this.maxInFlight = Math.max(this.minBatch, maxInFlight);
+        this.target = this.minBatch;
+        this.admitter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "waiting-room-admitter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.admitter.scheduleAtFixedRate(this::admitBatch, admitIntervalMillis, admitIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a buyer for one ticket.
+     * <p>
+     * A buyer arriving while nobody is queued and the pool has room for more buyers in flight is admitted at
+     * once. The timeout covers the time in the queue and the purchase itself.
+     * </p>
+     * @param customerId ID of the customer purchasing the ticket.
+     * @param timeout    Maximum time to wait for admission and a ticket.
+     * @return A {@link Mono} completing with the outcome of the purchase, or null if the customer is already in
+     *         the waiting room.
+     */
+    public Mono<PoolResult> enter(String customerId, Duration timeout) {
+        Visitor visitor = new Visitor(customerId, issued.incrementAndGet(), System.nanoTime() + timeout.toNanos());
+        if (visitors.putIfAbsent(customerId, visitor) != null) {
+            return null;
+        }
+        if (queue.isEmpty() && inFlight.get() < target) {
+            admit(visitor);
+        } else {
+            queued.incrementAndGet();
+            queue.add(visitor);
+        }
+        return visitor.result.asMono()
+                .timeout(timeout, Mono.defer(() -> {
+                    visitor.cancel();
+                    return visitor.result.asMono();
+                }))
+                .doOnCancel(visitor::cancel);
+    }
+
+    /**
+     * Retrieves a queued or admitted customer's place in the waiting room.
+     * @param customerId ID of the customer.
+     * @return The customer's position and estimated wait, or null if the customer is not in the waiting room.
+     */
+    public QueuePosition getPosition(String customerId) {
+        Visitor visitor = visitors.get(customerId);
+        if (visitor == null) {
+            return null;
+        }
+        if (visitor.state.get() != Visitor.WAITING) {
+            return new QueuePosition(customerId, visitor.number, 0, 0, true);
+        }
+        long position = Math.max(1, visitor.number - admittedUpTo.get());
+        double rate = admissionsPerSecond;
+        long etaMillis = rate > 0 ? (long) (position * 1000 / rate) : -1;
+        return new QueuePosition(customerId, visitor.number, position, etaMillis, false);
+    }
+
+    /**
+     * Takes a snapshot of the waiting room's counters.
+     * @return The queue length, the buyers in flight, the current batch target and the measured rates.
+     */
+    public WaitingRoomStats getStats() {
+        return new WaitingRoomStats(queued.get(), inFlight.get(), target, admissionsPerSecond,
+                completionsPerInterval * 1000 / admitIntervalMillis, admitted.sum(), completed.sum(), timedOut.sum());
+    }
+
+    /**
+     * Stops the admitter thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        admitter.shutdownNow();
+    }
+
+    /**
+     * Runs on the admitter thread once per interval: updates the measured throughput and admits the next batch.
+     */
+    private void admitBatch() {
+        completionsPerInterval = SMOOTHING * completedThisInterval.sumThenReset()
+                + (1 - SMOOTHING) * completionsPerInterval;
+        int nextTarget = (int) Math.ceil(2 * completionsPerInterval);
+        target = Math.min(maxInFlight, Math.max(minBatch, nextTarget));
+
+        int batch = 0;
+        Visitor visitor;
+        while (inFlight.get() < target && (visitor = queue.poll()) != null) {
+            if (visitor.state.get() == Visitor.WAITING) {
+                queued.decrementAndGet();
+                if (admit(visitor)) {
+                    batch++;
+                }
+            } else {
+                admittedUpTo.accumulateAndGet(visitor.number, Math::max);
+            }
+        }
+        admissionsPerSecond = SMOOTHING * batch * 1000 / admitIntervalMillis + (1 - SMOOTHING) * admissionsPerSecond;
+    }
+
+    /**
+     * Lets a buyer into the pool. The purchase runs on a Reactor worker, since it may wait for the journal.
+     * @return true if the buyer was admitted; false if it gave up first.
+     */
+    private boolean admit(Visitor visitor) {
+        if (!visitor.state.compareAndSet(Visitor.WAITING, Visitor.ADMITTED)) {
+            return false;
+        }
+        admittedUpTo.accumulateAndGet(visitor.number, Math::max);
+        admitted.increment();
+        long remaining = visitor.deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            leave(visitor);
+            timedOut.increment();
+            visitor.result.tryEmitValue(PoolResult.TIMED_OUT);
+            return true;
+        }
+        inFlight.incrementAndGet();
+        Mono.defer(() -> ticketService.purchaseTicketAsync(visitor.customerId,
+                        Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(result -> {
+                    served(visitor);
+                    visitor.result.tryEmitValue(result);
+                }, error -> {
+                    served(visitor);
+                    visitor.result.tryEmitError(error);
+                });
+        return true;
+    }
+
+    private void served(Visitor visitor) {
+        inFlight.decrementAndGet();
+        completedThisInterval.increment();
+        completed.increment();
+        leave(visitor);
+    }
+
+    private void leave(Visitor visitor) {
+        visitors.remove(visitor.customerId, visitor);
+    }
+
+    /**
+     * One buyer in the waiting room.
+     * <p>
+     * The state guards against the admitter and a timeout both acting on the same buyer: a buyer that gives up
+     * before it is admitted stays in the queue until the admitter reaches it and discards it, and a buyer that
+     * times out after it was admitted keeps waiting for its purchase, which has its own deadline.
+     * </p>
+     */
+    private final class Visitor {
+        private static final int WAITING = 0;
+        private static final int ADMITTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final String customerId;
+        private final long number;
+        private final long deadlineNanos;
+        private final Sinks.One<PoolResult> result = Sinks.one();
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Visitor(String customerId, long number, long deadlineNanos) {
+            this.customerId = customerId;
+            this.number = number;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                queued.decrementAndGet();
+                timedOut.increment();
+                leave(this);
+                result.tryEmitValue(PoolResult.TIMED_OUT);
+            }
+        }
+    }
+}
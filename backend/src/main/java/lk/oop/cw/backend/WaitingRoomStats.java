@@ -0,0 +1,41 @@
+package lk.oop.cw.backend;
+
+import lombok.Getter;
+
+/**
+ * A snapshot of the {@link WaitingRoom} counters.
+ */
+@Getter
+public class WaitingRoomStats {
+    private final int queued;
+    private final int inFlight;
+    private final int targetInFlight;
+    private final double admissionsPerSecond;
+    private final double completionsPerSecond;
+    private final long admitted;
+    private final long completed;
+    private final long timedOut;
+
+    /**
+     * Creates a snapshot.
+     * @param queued               Number of customers waiting to be admitted.
+     * @param inFlight             Number of admitted customers whose purchase has not finished.
+     * @param targetInFlight       Number of customers the room currently keeps in flight.
+     * @param admissionsPerSecond  Moving average of the customers admitted from the queue per second.
+     * @param completionsPerSecond Moving average of the admitted purchases finished per second.
+     * @param admitted             Number of customers admitted since startup.
+     * @param completed            Number of admitted purchases finished since startup.
+     * @param timedOut             Number of customers that gave up before they were admitted.
+     */
+    public WaitingRoomStats(int queued, int inFlight, int targetInFlight, double admissionsPerSecond,
+                            double completionsPerSecond, long admitted, long completed, long timedOut) {
+        this.queued = queued;
+        this.inFlight = inFlight;
+        this.targetInFlight = targetInFlight;
+        this.admissionsPerSecond = admissionsPerSecond;
+        this.completionsPerSecond = completionsPerSecond;
+        this.admitted = admitted;
+        this.completed = completed;
+        this.timedOut = timedOut;
+    }
+}
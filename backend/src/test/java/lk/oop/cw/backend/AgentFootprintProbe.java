@@ -0,0 +1,88 @@
+package lk.oop.cw.backend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how many waiting customer agents each {@link AgentExecutionMode} can hold and what each one costs.
+ * <p>
+ * This is a manual probe, not a unit test. It starts agents against an empty {@link TicketPool} so that
+ * every agent parks in {@code removeTicket}, then reports the growth in resident set size and heap.
+ * Run it in a fresh JVM per mode:
+ * </p>
+ * <pre>
+ * java -cp target/classes:target/test-classes lk.oop.cw.backend.AgentFootprintProbe VIRTUAL 100000
+ * </pre>
+ * The resident set size is read from {@code /proc/self/status}, so the memory figures are Linux only.
+ */
+public class AgentFootprintProbe {
+
+    /**
+     * Starts the requested number of agents and prints the per-agent footprint.
+     * @param args The execution mode and the number of agents to start.
+     * @throws InterruptedException If the probe is interrupted while waiting for agents to park.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        AgentExecutionMode mode = AgentExecutionMode.valueOf(args[0]);
+        int agents = Integer.parseInt(args[1]);
+
+        TicketPool pool = new TicketPool(1, 1);
+        List<Thread> threads = new ArrayList<>(agents);
+
+        System.gc();
+        long rssBefore = residentSetKb();
+        long heapBefore = usedHeapKb();
+        long start = System.nanoTime();
+
+        int started = 0;
+        try {
+            for (; started < agents; started++) {
+                Runnable agent = () -> pool.removeTicket("probe");
+                Thread thread = mode == AgentExecutionMode.VIRTUAL
+                        ? VirtualThreads.unstarted("probe-" + started, agent)
+                        : new Thread(agent, "probe-" + started);
+                thread.start();
+                threads.add(thread);
+            }
+        } catch (OutOfMemoryError e) {
+            System.out.println("Thread creation failed after " + started + " agents: " + e.getMessage());
+        }
+
+        Thread.sleep(2000);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long rssAfter = residentSetKb();
+        long heapAfter = usedHeapKb();
+
+        System.out.printf("mode=%s agents=%d startMs=%d rssDeltaKb=%d heapDeltaKb=%d rssPerAgentBytes=%d heapPerAgentBytes=%d%n",
+                mode, started, elapsedMillis, rssAfter - rssBefore, heapAfter - heapBefore,
+                started == 0 ? 0 : (rssAfter - rssBefore) * 1024 / started,
+                started == 0 ? 0 : (heapAfter - heapBefore) * 1024 / started);
+
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        System.exit(0);
+    }
+
+    private static long usedHeapKb() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+    }
+
+    private static long residentSetKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,135 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that an {@link AsyncEventLogger} writes each producer's records in the order they were logged, and that
+ * it drops and counts records rather than blocking when its ring is full.
+ */
+class AsyncEventLoggerTests {
+    private final TicketPool pool = new TicketPool(100, 50);
+
+    @Test
+    void writesEachProducersRecordsInTheOrderTheyWereLogged() throws IOException, InterruptedException {
+        int producers = 4;
+        int perProducer = 1000;
+        Path file = Files.createTempFile("pool-log", ".log");
+        List<String> published = new ArrayList<>();
+        pool.setEventListener(event -> published.add(event.getMessage()));
+        AsyncEventLogger logger = new AsyncEventLogger(file, null, 8192);
+        TicketDescriptor ticket = new TicketDescriptor("Vendor-1", "Event-1", "Event", 10.0, "Regular");
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String vendorId = "Vendor-" + p;
+            threads.add(new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    logger.ticketsAdded(pool, vendorId, ticket, 1, i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(logger.awaitDrained(5, TimeUnit.SECONDS));
+        logger.close();
+
+        assertEquals(producers * perProducer, logger.getStats().getWritten());
+        assertEquals(0, logger.getDropped());
+        assertInOrder(published, producers, perProducer);
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.stream().allMatch(line -> line.contains(" TICKETS_ADDED agent=Vendor-")), lines.get(0));
+        assertInOrder(lines.stream().map(line -> line.substring(line.indexOf(" | ") + 3)).toList(), producers,
+                perProducer);
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void dropsAndCountsRecordsWhileTheRingIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        pool.setEventListener(event -> {
+            writing.countDown();
+            awaitQuietly(resume);
+        });
+        AsyncEventLogger logger = new AsyncEventLogger(null, null, 4);
+
+        logger.message(pool, "Message-0");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 7; i++) {
+            logger.message(pool, "Message-" + i);
+        }
+        LogStats full = logger.getStats();
+        assertEquals(4, full.getQueueDepth());
+        assertEquals(4, full.getQueueCapacity());
+        assertEquals(3, full.getDropped());
+
+        resume.countDown();
+        assertTrue(logger.awaitDrained(5, TimeUnit.SECONDS));
+        logger.close();
+        assertEquals(List.of("Message-0", "Message-1", "Message-2", "Message-3"), pool.getLogs());
+        assertEquals(4, logger.getStats().getWritten());
+        assertEquals(0, logger.getQueueDepth());
+    }
+
+    @Test
+    void acceptsRecordsAgainOnceTheWriterHasCaughtUp() throws InterruptedException {
+        CountDownLatch resume = new CountDownLatch(1);
+        pool.setEventListener(event -> awaitQuietly(resume));
+        AsyncEventLogger logger = new AsyncEventLogger(null, null, 2);
+        for (int i = 0; i < 5; i++) {
+            logger.message(pool, "Message-" + i);
+        }
+        resume.countDown();
+        assertTrue(logger.awaitDrained(5, TimeUnit.SECONDS));
+        long dropped = logger.getDropped();
+        assertTrue(dropped > 0);
+
+        logger.message(pool, "Message-5");
+        logger.message(pool, "Message-6");
+        assertTrue(logger.awaitDrained(5, TimeUnit.SECONDS));
+        logger.close();
+        assertEquals(dropped, logger.getDropped());
+        assertEquals(7 - dropped, logger.getStats().getWritten());
+        List<String> logs = pool.getLogs();
+        assertEquals(List.of("Message-5", "Message-6"), logs.subList(logs.size() - 2, logs.size()));
+    }
+
+    /**
+     * Checks that every producer's messages arrived exactly once and in ascending order of remaining tickets.
+     */
+    private static void assertInOrder(List<String> messages, int producers, int perProducer) {
+        Map<String, Integer> lastByVendor = new HashMap<>();
+        for (String message : messages) {
+            String vendorId = message.substring(0, message.indexOf(' '));
+            int remaining = Integer.parseInt(message.substring(message.lastIndexOf(' ') + 1));
+            int last = lastByVendor.getOrDefault(vendorId, 0);
+            assertEquals(last + 1, remaining, vendorId + " out of order");
+            lastByVendor.put(vendorId, remaining);
+        }
+        assertEquals(producers, lastByVendor.size());
+        lastByVendor.values().forEach(last -> assertEquals(perProducer, (int) last));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
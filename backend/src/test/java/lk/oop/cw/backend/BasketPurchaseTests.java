@@ -0,0 +1,78 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a {@link PurchaseMode#ALL_OR_NOTHING} basket is bought whole or not at all, run against every
+ * {@link PoolMode}.
+ */
+class BasketPurchaseTests {
+    private static final int BASKET = 3;
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void neverSellsPartOfABasketWhileCustomersCompeteForSingleReleases(PoolMode mode) throws InterruptedException {
+        int totalTickets = 3000;
+        TicketPoolEngine pool = mode.create(totalTickets, 64);
+        Queue<Integer> partial = new ConcurrentLinkedQueue<>();
+        AtomicInteger purchased = new AtomicInteger();
+        List<Thread> agents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String vendorId = "Vendor-" + i;
+            agents.add(new Thread(() -> {
+                while (!pool.isFullyReleased()) {
+                    pool.addTickets(vendorId, "Event-1", "Event", 10.0, 1, "Regular");
+                }
+            }));
+        }
+        for (int i = 0; i < 8; i++) {
+            String customerId = "Customer-" + i;
+            agents.add(new Thread(() -> {
+                while (!pool.isSoldOut()) {
+                    int bought = pool.removeTickets(customerId, BASKET, PurchaseMode.ALL_OR_NOTHING);
+                    if (bought != 0 && bought != BASKET) {
+                        partial.add(bought);
+                    }
+                    purchased.addAndGet(bought);
+                }
+            }));
+        }
+        agents.forEach(Thread::start);
+        for (Thread agent : agents) {
+            agent.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(agent.isAlive(), agent.getName() + " did not finish");
+        }
+
+        assertTrue(partial.isEmpty(), "Partial baskets sold: " + partial);
+        assertEquals(totalTickets, purchased.get());
+        assertEquals(totalTickets, pool.getTicketsSold());
+        assertEquals(0, pool.getRemainingTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void leavesThePoolUntouchedWhenTheBasketCanNeverBeFilled(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(5, 50);
+        assertEquals(5, pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular"));
+
+        assertEquals(0, pool.removeTickets("Customer-1", 6, PurchaseMode.ALL_OR_NOTHING));
+        assertEquals(0, pool.pollTickets("Customer-1", 6, PurchaseMode.ALL_OR_NOTHING));
+        assertEquals(5, pool.getRemainingTickets());
+        assertEquals(0, pool.getTicketsSold());
+
+        assertEquals(5, pool.removeTickets("Customer-1", 6, PurchaseMode.BEST_EFFORT));
+        assertTrue(pool.isSoldOut());
+    }
+}
@@ -0,0 +1,104 @@
+package lk.oop.cw.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streams NDJSON releases through a {@link BulkReleaseIngestor} backed by a real {@link TicketService}, in chunks of
+ * two records, and checks the result written for every record.
+ */
+class BulkReleaseIngestorTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void reportsWhatHappenedToEveryRecordInInputOrder() throws IOException {
+        List<JsonNode> results = ingest(12, 10,
+                release("Vendor-1", "Event-1", 4),
+                "{not json",
+                "{\"eventId\":\"Event-1\",\"eventName\":\"Event\",\"price\":10.0,\"tickets\":1,\"category\":\"Regular\"}",
+                "{\"vendorId\":\"Vendor-1\",\"eventId\":\"Event-1\",\"eventName\":\"Event\",\"price\":-1,"
+                        + "\"tickets\":1,\"category\":\"Regular\"}",
+                release("Vendor-1", "Event-1", -3),
+                "",
+                "[1, 2]",
+                release("Vendor-2", "Event-2", 5),
+                release("Vendor-2", "Event-2", 4),
+                release("Vendor-3", "Event-3", 2));
+
+        assertEquals(9, results.size());
+        assertResult(results.get(0), 1, 4, 4, ReleaseStatus.ADDED);
+        assertInvalid(results.get(1), 2, "Malformed JSON");
+        assertInvalid(results.get(2), 3, "Missing or empty field: vendorId");
+        assertInvalid(results.get(3), 4, "Field price must be a non-negative number");
+        assertInvalid(results.get(4), 5, "Field tickets must be a positive integer");
+        assertEquals(-3, results.get(4).get("requested").asInt());
+        assertInvalid(results.get(5), 7, "Expected a JSON object");
+        assertResult(results.get(6), 8, 5, 5, ReleaseStatus.ADDED);
+        assertResult(results.get(7), 9, 4, 1, ReleaseStatus.PARTIAL);
+        assertResult(results.get(8), 10, 2, 0, ReleaseStatus.FULL);
+    }
+
+    @Test
+    void reportsSoldOutOnceTheWholeBudgetIsReleased() throws IOException {
+        List<JsonNode> results = ingest(5, 50,
+                release("Vendor-1", "Event-1", 3),
+                release("Vendor-1", "Event-1", 3),
+                release("Vendor-2", "Event-2", 1));
+
+        assertResult(results.get(0), 1, 3, 3, ReleaseStatus.ADDED);
+        assertResult(results.get(1), 2, 3, 2, ReleaseStatus.PARTIAL);
+        assertResult(results.get(2), 3, 1, 0, ReleaseStatus.SOLD_OUT);
+    }
+
+    /**
+     * Ingests the lines into a fresh pool with the given limits.
+     * @return One parsed result per non-blank line, in the order they were written.
+     */
+    private List<JsonNode> ingest(int totalTickets, int maxTicketCapacity, String... lines) throws IOException {
+        TicketService ticketService = new TicketService(PoolMode.STANDARD.create(totalTickets, maxTicketCapacity),
+                new PoolEventHub(), AgentExecutionMode.PLATFORM, new AgentScheduler(), SalesJournal.DISABLED,
+                new PurchaseRateLimiter(0, 1, 0, 1));
+        BulkReleaseIngestor ingestor = new BulkReleaseIngestor(ticketService, objectMapper, 2);
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ingestor.ingest(new ByteArrayInputStream(body), out);
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private static String release(String vendorId, String eventId, int tickets) {
+        return "{\"vendorId\":\"" + vendorId + "\",\"eventId\":\"" + eventId + "\",\"eventName\":\"Event\","
+                + "\"price\":10.0,\"tickets\":" + tickets + ",\"category\":\"Regular\"}";
+    }
+
+    private static void assertResult(JsonNode result, long line, int requested, int added, ReleaseStatus status) {
+        assertEquals(line, result.get("line").asLong());
+        assertEquals(requested, result.get("requested").asInt());
+        assertEquals(added, result.get("added").asInt());
+        assertEquals(status.name(), result.get("status").asText());
+        assertFalse(result.has("error"));
+    }
+
+    private static void assertInvalid(JsonNode result, long line, String error) {
+        assertEquals(line, result.get("line").asLong());
+        assertEquals(0, result.get("added").asInt());
+        assertEquals(ReleaseStatus.INVALID.name(), result.get("status").asText());
+        assertTrue(result.get("error").asText().startsWith(error), result.get("error").asText());
+    }
+}
@@ -0,0 +1,99 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the running totals of a {@link JournalLedger} and their round trip through a snapshot file.
+ */
+class JournalLedgerTests {
+    private static final TicketDescriptor CONCERT = new TicketDescriptor("Vendor-1", "Event-1", "Concert", 50.0, "VIP");
+    private static final TicketDescriptor PLAY = new TicketDescriptor("Vendor-2", "Event-2", "Play", 20.0, "Regular");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void describesNoPoolUntilOneIsConfigured() {
+        assertNull(new JournalLedger().toState());
+    }
+
+    @Test
+    void countsAPurchaseJournaledBeforeItsReleaseAsReleased() {
+        JournalLedger ledger = new JournalLedger();
+        ledger.configure(100, 10, PoolMode.STANDARD);
+        ledger.purchase(CONCERT, 2);
+
+        PoolState state = ledger.toState();
+        assertEquals(2, state.getReleased());
+        assertEquals(2, state.getSold());
+        assertEquals(0, state.getRemaining());
+
+        ledger.release(CONCERT, 2);
+        assertEquals(2, ledger.toState().getReleased());
+        assertTrue(ledger.toState().getInventory().isEmpty());
+    }
+
+    @Test
+    void readsBackTheSnapshotItWrote() throws IOException {
+        JournalLedger ledger = new JournalLedger();
+        ledger.configure(100, 10, PoolMode.STANDARD);
+        ledger.release(CONCERT, 5);
+        ledger.release(PLAY, 3);
+        ledger.purchase(CONCERT, 1);
+        ledger.reconfigure(200, 20, PoolMode.HANDOFF);
+        Path snapshot = directory.resolve("snapshot.snap");
+        ledger.writeSnapshot(snapshot);
+
+        JournalLedger restored = new JournalLedger();
+        assertTrue(restored.readSnapshot(snapshot));
+        PoolState state = restored.toState();
+        assertEquals(200, state.getTotalTickets());
+        assertEquals(20, state.getMaxTicketCapacity());
+        assertEquals(PoolMode.HANDOFF, state.getMode());
+        assertEquals(8, state.getReleased());
+        assertEquals(1, state.getSold());
+        assertEquals(4, (int) state.getInventory().get(CONCERT));
+        assertEquals(3, (int) state.getInventory().get(PLAY));
+        assertFalse(Files.exists(directory.resolve("snapshot.snap.tmp")));
+    }
+
+    @Test
+    void rejectsADamagedSnapshotAndKeepsItsState() throws IOException {
+        JournalLedger ledger = new JournalLedger();
+        ledger.configure(100, 10, PoolMode.STANDARD);
+        ledger.release(CONCERT, 5);
+        Path snapshot = directory.resolve("snapshot.snap");
+        ledger.writeSnapshot(snapshot);
+        byte[] data = Files.readAllBytes(snapshot);
+        data[data.length / 2] ^= 0x5A;
+        Files.write(snapshot, data);
+
+        JournalLedger restored = new JournalLedger();
+        restored.configure(50, 5, PoolMode.SHARDED);
+        assertFalse(restored.readSnapshot(snapshot));
+        assertEquals(50, restored.toState().getTotalTickets());
+        assertEquals(0, restored.toState().getReleased());
+    }
+
+    @Test
+    void leavesTheCopyUnchangedByLaterRecords() {
+        JournalLedger ledger = new JournalLedger();
+        ledger.configure(100, 10, PoolMode.STANDARD);
+        ledger.release(CONCERT, 5);
+        JournalLedger copy = ledger.copy();
+        ledger.purchase(CONCERT, 5);
+
+        assertEquals(0, copy.toState().getSold());
+        assertEquals(5, (int) copy.toState().getInventory().get(CONCERT));
+    }
+}
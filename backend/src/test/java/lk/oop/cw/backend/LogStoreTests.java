@@ -0,0 +1,82 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the cursor paging of {@link LogStore} once its ring has wrapped, and across a new store replacing it.
+ */
+class LogStoreTests {
+
+    @Test
+    void pagesThroughTheRetainedWindowOnceTheRingHasWrapped() {
+        LogStore logs = new LogStore();
+        for (int i = 0; i < 2500; i++) {
+            assertEquals(i, logs.append("Message-" + i));
+        }
+
+        LogPage first = logs.read(0, LogStore.DEFAULT_CAPACITY);
+        assertEquals(LogStore.MAX_PAGE_SIZE, first.getEntries().size());
+        assertEntries(first.getEntries(), 1500, 2000);
+        assertEquals(2000, first.getNextCursor());
+
+        LogPage second = logs.read(first.getNextCursor(), LogStore.DEFAULT_CAPACITY);
+        assertEntries(second.getEntries(), 2000, 2500);
+        assertEquals(2500, second.getNextCursor());
+
+        LogPage caughtUp = logs.read(second.getNextCursor(), 10);
+        assertTrue(caughtUp.getEntries().isEmpty());
+        assertEquals(2500, caughtUp.getNextCursor());
+    }
+
+    @Test
+    void resumesAtTheOldestRetainedEntryWhenTheCursorHasFallenBehind() {
+        LogStore logs = new LogStore();
+        for (int i = 0; i < 1200; i++) {
+            logs.append("Message-" + i);
+        }
+        LogPage page = logs.read(150, 10);
+        assertEntries(page.getEntries(), 200, 210);
+        assertEquals(210, page.getNextCursor());
+
+        assertEquals(LogStore.DEFAULT_CAPACITY, logs.snapshot().size());
+        assertEquals("Message-200", logs.snapshot().get(0));
+    }
+
+    @Test
+    void restartsAtSequenceZeroWhenANewStoreReplacesTheOldOne() {
+        LogStore old = new LogStore();
+        for (int i = 0; i < 1500; i++) {
+            old.append("Message-" + i);
+        }
+        long cursor = 0;
+        for (int page = 0; page < 2; page++) {
+            cursor = old.read(cursor, LogStore.MAX_PAGE_SIZE).getNextCursor();
+        }
+        assertEquals(1500, cursor);
+
+        LogStore replacement = new LogStore();
+        assertEquals(0, replacement.append("Message-0"));
+        replacement.append("Message-1");
+
+        LogPage page = replacement.read(cursor, 10);
+        assertEntries(page.getEntries(), 0, 2);
+        assertEquals(2, page.getNextCursor());
+    }
+
+    /**
+     * Asserts that the entries have consecutive sequence numbers from {@code from} up to {@code to}, exclusive, and
+     * carry the messages appended with them.
+     */
+    private static void assertEntries(List<LogEntry> entries, long from, long to) {
+        assertEquals(to - from, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(from + i, entries.get(i).getSequence());
+            assertEquals("Message-" + (from + i), entries.get(i).getMessage());
+        }
+    }
+}
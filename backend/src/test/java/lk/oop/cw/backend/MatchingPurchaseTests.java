@@ -0,0 +1,89 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link TicketPoolEngine#purchaseMatching} on every {@link PoolMode} whose engine supports it, including
+ * after the pool's inventory has been changed by first-in, first-out purchases, holds and a live handover.
+ */
+class MatchingPurchaseTests {
+    private static final TicketCriteria ANYTHING = new TicketCriteria(null, null, Double.POSITIVE_INFINITY);
+
+    @ParameterizedTest
+    @EnumSource(value = PoolMode.class, names = "RING_BUFFER", mode = EnumSource.Mode.EXCLUDE)
+    void sellsTheCheapestTicketThatMatchesTheCriteria(PoolMode mode) {
+        TicketPoolEngine pool = release(mode.create(100, 50));
+
+        TicketDescriptor ticket = pool.purchaseMatching("Customer-1", new TicketCriteria("Event-1", "Regular", 100.0));
+        assertEquals("Vendor-3", ticket.getVendorId());
+        assertEquals(25.0, ticket.getPrice());
+        assertEquals(20.0, pool.purchaseMatching("Customer-1", ANYTHING).getPrice());
+        assertEquals("VIP", pool.purchaseMatching("Customer-1", new TicketCriteria(null, "VIP", 80.0)).getCategory());
+        assertEquals(7, pool.getRemainingTickets());
+        assertEquals(3, pool.getTicketsSold());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PoolMode.class, names = "RING_BUFFER", mode = EnumSource.Mode.EXCLUDE)
+    void sellsNothingWhenNoTicketMatches(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 50);
+        assertNull(pool.purchaseMatching("Customer-1", ANYTHING));
+
+        release(pool);
+        assertNull(pool.purchaseMatching("Customer-1", new TicketCriteria("Event-3", null, Double.POSITIVE_INFINITY)));
+        assertNull(pool.purchaseMatching("Customer-1", new TicketCriteria("Event-2", "VIP", Double.POSITIVE_INFINITY)));
+        assertNull(pool.purchaseMatching("Customer-1", new TicketCriteria("Event-1", null, 24.99)));
+        assertEquals(10, pool.getRemainingTickets());
+        assertEquals(0, pool.getTicketsSold());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PoolMode.class, names = "RING_BUFFER", mode = EnumSource.Mode.EXCLUDE)
+    void keepsMatchingEveryTicketLeftAfterQueuePurchasesHoldsAndAHandover(PoolMode mode) {
+        TicketPoolEngine pool = release(mode.create(100, 50));
+        assertEquals(25.0, pool.purchaseMatching("Customer-1", new TicketCriteria("Event-1", "Regular", 100.0))
+                .getPrice());
+        assertEquals(3, pool.pollTickets("Customer-2", 3, PurchaseMode.ALL_OR_NOTHING));
+        TicketHold hold = pool.holdTickets("Customer-3", 2, 1, TimeUnit.MINUTES);
+
+        TicketPoolEngine next = mode.create(100, 50);
+        pool.handOver(next, true);
+        assertEquals(4, next.getRemainingTickets());
+
+        double lastPrice = 0;
+        for (int i = 0; i < 4; i++) {
+            TicketDescriptor ticket = next.purchaseMatching("Customer-4", ANYTHING);
+            assertTrue(ticket.getPrice() >= lastPrice);
+            lastPrice = ticket.getPrice();
+        }
+        assertNull(next.purchaseMatching("Customer-4", ANYTHING));
+        assertEquals(0, next.getRemainingTickets());
+
+        assertTrue(next.releaseHold(hold.getHoldId()));
+        for (TicketDescriptor held : hold.getTickets()) {
+            TicketCriteria exactly = new TicketCriteria(held.getEventId(), held.getCategory(), held.getPrice());
+            assertEquals(held, next.purchaseMatching("Customer-4", exactly));
+        }
+        assertNull(next.purchaseMatching("Customer-4", ANYTHING));
+        assertEquals(10, next.getTicketsSold());
+        assertEquals(next.getTicketsReleased(), next.getTicketsSold());
+    }
+
+    /**
+     * Releases ten tickets over two events, two categories and four prices, the cheapest Event-1 ticket last.
+     */
+    private static TicketPoolEngine release(TicketPoolEngine pool) {
+        pool.offerTickets("Vendor-1", "Event-1", "Event", 30.0, 3, "Regular");
+        pool.offerTickets("Vendor-1", "Event-1", "Event", 80.0, 2, "VIP");
+        pool.offerTickets("Vendor-2", "Event-2", "Event", 20.0, 3, "Regular");
+        pool.offerTickets("Vendor-3", "Event-1", "Event", 25.0, 2, "Regular");
+        return pool;
+    }
+}
@@ -0,0 +1,101 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link TicketPoolEngine#getSnapshot()} is shared while the pool is idle and is never served more
+ * than {@link AbstractTicketPool#SNAPSHOT_MAX_AGE_MILLIS} ms behind it, run against every {@link PoolMode}.
+ */
+class PoolSnapshotTests {
+    private static final long MAX_AGE = AbstractTicketPool.SNAPSHOT_MAX_AGE_MILLIS;
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void sharesOneSnapshotWhileThePoolIsIdle(PoolMode mode) throws InterruptedException {
+        TicketPoolEngine pool = mode.create(100, 50);
+        pool.addTickets("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular");
+
+        PoolSnapshot first = pool.getSnapshot();
+        Thread.sleep(2 * MAX_AGE);
+        assertSame(first, pool.getSnapshot());
+        assertEquals(5, first.getReleased());
+        assertEquals(5, first.getRemaining());
+        assertEquals(5, (long) first.getReleasedByEvent().get("Event-1"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void catchesUpWithAChangeWithinItsBound(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 50);
+        PoolSnapshot before = pool.getSnapshot();
+        pool.addTickets("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular");
+        pool.removeTicket("Customer-1");
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        PoolSnapshot current;
+        do {
+            long calledAt = System.currentTimeMillis();
+            current = pool.getSnapshot();
+            if (current.getSold() == 0) {
+                assertSame(before, current);
+                assertTrue(calledAt - current.getTakenAtMillis() < MAX_AGE, "Stale snapshot served too long");
+            }
+        } while (current.getSold() == 0 && System.currentTimeMillis() < deadline);
+
+        assertTrue(current.getVersion() > before.getVersion());
+        assertEquals(5, current.getReleased());
+        assertEquals(1, current.getSold());
+        assertEquals(4, current.getRemaining());
+        assertEquals(1, (long) current.getSoldByEvent().get("Event-1"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void staysWithinItsBoundWhileAgentsTrade(PoolMode mode) throws InterruptedException {
+        TicketPoolEngine pool = mode.create(Integer.MAX_VALUE, 50);
+        AtomicBoolean trading = new AtomicBoolean(true);
+        List<Thread> agents = new ArrayList<>();
+        agents.add(new Thread(() -> {
+            while (trading.get()) {
+                pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular");
+            }
+        }));
+        agents.add(new Thread(() -> {
+            while (trading.get()) {
+                pool.pollTicket("Customer-1");
+            }
+        }));
+        agents.forEach(Thread::start);
+
+        long first = pool.getSnapshot().getVersion();
+        long version = first;
+        long end = System.currentTimeMillis() + 3 * MAX_AGE;
+        while (System.currentTimeMillis() < end) {
+            long calledAt = System.currentTimeMillis();
+            int released = pool.getTicketsReleased();
+            int sold = pool.getTicketsSold();
+            PoolSnapshot snapshot = pool.getSnapshot();
+            boolean current = snapshot.getReleased() >= released && snapshot.getSold() >= sold;
+            assertTrue(current || calledAt - snapshot.getTakenAtMillis() < MAX_AGE,
+                    "Snapshot " + snapshot.getVersion() + " served " + (calledAt - snapshot.getTakenAtMillis())
+                            + " ms after it was taken");
+            assertTrue(snapshot.getVersion() >= version);
+            version = snapshot.getVersion();
+        }
+        trading.set(false);
+        for (Thread agent : agents) {
+            agent.join();
+        }
+        assertTrue(version > first, "The snapshot never changed under load");
+    }
+}
@@ -0,0 +1,119 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the token buckets of {@link PurchaseRateLimiter} against a clock the test moves by hand.
+ * <p>
+ * Every limiter here allows 10 calls per second, so a token refills every 100 ms, with bursts of 3 calls.
+ * </p>
+ */
+class PurchaseRateLimiterTests {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+
+    @Test
+    void letsABurstThroughThenThrottlesUntilATokenRefills() {
+        PurchaseRateLimiter limiter = new PurchaseRateLimiter(10, 3, 60_000, 100, now::get);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("Customer-1"));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire("Customer-1"));
+
+        advance(INTERVAL / 2);
+        assertEquals(INTERVAL / 2, limiter.tryAcquire("Customer-1"));
+        advance(INTERVAL / 2);
+        assertEquals(0, limiter.tryAcquire("Customer-1"));
+        assertEquals(INTERVAL, limiter.tryAcquire("Customer-1"));
+
+        advance(3 * INTERVAL);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("Customer-1"));
+        }
+        assertTrue(limiter.tryAcquire("Customer-1") > 0);
+
+        RateLimitStats stats = limiter.getStats();
+        assertEquals(7, stats.getAllowed());
+        assertEquals(4, stats.getThrottled());
+    }
+
+    @Test
+    void neverSavesUpMoreThanABurst() {
+        PurchaseRateLimiter limiter = new PurchaseRateLimiter(10, 3, 60_000, 100, now::get);
+        limiter.tryAcquire("Customer-1");
+        advance(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("Customer-1"));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire("Customer-1"));
+    }
+
+    @Test
+    void keepsEachCustomersBucketSeparate() {
+        PurchaseRateLimiter limiter = new PurchaseRateLimiter(10, 1, 60_000, 100, now::get);
+        assertEquals(0, limiter.tryAcquire("Customer-1"));
+        assertEquals(0, limiter.tryAcquire("Customer-2"));
+        PurchaseThrottledException e = assertThrows(PurchaseThrottledException.class,
+                () -> limiter.check("Customer-1"));
+        assertEquals("Customer-1", e.getCustomerId());
+        assertEquals(101, e.getRetryAfterMillis());
+    }
+
+    @Test
+    void evictsBucketsThatHaveBeenFullForTheIdleTimeout() {
+        PurchaseRateLimiter limiter = new PurchaseRateLimiter(10, 3, 1000, 100, now::get);
+        limiter.tryAcquire("Customer-1");
+        advance(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.tryAcquire("Customer-2");
+        assertEquals(2, limiter.getStats().getTrackedCustomers());
+
+        advance(TimeUnit.MILLISECONDS.toNanos(600));
+        limiter.tryAcquire("Customer-3");
+        RateLimitStats stats = limiter.getStats();
+        assertEquals(1, stats.getEvicted());
+        assertEquals(2, stats.getTrackedCustomers());
+    }
+
+    @Test
+    void throttlesNewCustomersOnceEveryBucketIsInUse() {
+        PurchaseRateLimiter limiter = new PurchaseRateLimiter(10, 3, 1000, 2, now::get);
+        assertEquals(0, limiter.tryAcquire("Customer-1"));
+        assertEquals(0, limiter.tryAcquire("Customer-2"));
+        assertEquals(3 * INTERVAL, limiter.tryAcquire("Customer-3"));
+        assertEquals(0, limiter.tryAcquire("Customer-1"));
+
+        advance(3 * INTERVAL);
+        assertTrue(limiter.tryAcquire("Customer-3") > 0);
+
+        advance(TimeUnit.MILLISECONDS.toNanos(900));
+        assertEquals(0, limiter.tryAcquire("Customer-3"));
+        RateLimitStats stats = limiter.getStats();
+        assertEquals(2, stats.getMaxCustomers());
+        assertEquals(2, stats.getRejectedCustomers());
+        assertEquals(2, stats.getEvicted());
+        assertEquals(1, stats.getTrackedCustomers());
+    }
+
+    @Test
+    void letsEveryCallThroughWhenDisabled() {
+        PurchaseRateLimiter limiter = new PurchaseRateLimiter(0, 1, 1000, 1, now::get);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("Customer-" + i));
+        }
+        assertFalse(limiter.getStats().isEnabled());
+        assertEquals(0, limiter.getStats().getTrackedCustomers());
+    }
+
+    private void advance(long nanos) {
+        now.addAndGet(nanos);
+    }
+}
@@ -0,0 +1,82 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that a {@link ReactiveTicketGateway} serves waiting buyers in arrival order and that a buyer who stops
+ * waiting never gets a ticket, run against every {@link PoolMode}.
+ */
+class ReactiveTicketGatewayTests {
+    private static final Duration LONG_WAIT = Duration.ofSeconds(10);
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void servesWaitingBuyersInArrivalOrder(PoolMode mode) throws Exception {
+        TicketPoolEngine pool = mode.create(100, 50);
+        ReactiveTicketGateway gateway = new ReactiveTicketGateway(pool);
+        List<CompletableFuture<PoolResult>> buyers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            buyers.add(gateway.purchase("Customer-" + i, LONG_WAIT).toFuture());
+        }
+        assertEquals(5, gateway.getWaitingCount());
+
+        for (int i = 0; i < buyers.size(); i++) {
+            release(pool, 1);
+            assertEquals(PoolResult.SUCCESS, buyers.get(i).get(5, TimeUnit.SECONDS));
+            for (int later = i + 1; later < buyers.size(); later++) {
+                assertFalse(buyers.get(later).isDone(), "Customer-" + later + " overtook Customer-" + i);
+            }
+        }
+        assertEquals(0, gateway.getWaitingCount());
+        assertEquals(5, pool.getTicketsSold());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void givesUpOnABuyerWhoseTimeoutPassesWithoutSellingItATicket(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 50);
+        ReactiveTicketGateway gateway = new ReactiveTicketGateway(pool);
+
+        assertEquals(PoolResult.TIMED_OUT, gateway.purchase("Customer-1", Duration.ofMillis(50)).block(LONG_WAIT));
+        assertEquals(0, gateway.getWaitingCount());
+
+        release(pool, 1);
+        assertEquals(1, pool.getRemainingTickets());
+        assertEquals(0, pool.getTicketsSold());
+        assertEquals(PoolResult.SUCCESS, gateway.purchase("Customer-2", LONG_WAIT).block(LONG_WAIT));
+        assertEquals(1, pool.getTicketsSold());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void dropsABuyerThatCancelsItsSubscription(PoolMode mode) throws Exception {
+        TicketPoolEngine pool = mode.create(100, 50);
+        ReactiveTicketGateway gateway = new ReactiveTicketGateway(pool);
+        Disposable cancelled = gateway.purchase("Customer-1", LONG_WAIT).subscribe();
+        CompletableFuture<PoolResult> next = gateway.purchase("Customer-2", LONG_WAIT).toFuture();
+        assertEquals(2, gateway.getWaitingCount());
+
+        cancelled.dispose();
+        assertEquals(1, gateway.getWaitingCount());
+        release(pool, 2);
+        assertEquals(PoolResult.SUCCESS, next.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.getTicketsSold());
+        assertEquals(1, pool.getRemainingTickets());
+        assertEquals(0, gateway.getWaitingCount());
+    }
+
+    private static void release(TicketPoolEngine pool, int count) {
+        pool.addTickets("Vendor-1", "Event-1", "Event", 10.0, count, "Regular");
+    }
+}
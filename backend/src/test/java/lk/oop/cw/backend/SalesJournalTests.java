@@ -0,0 +1,198 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes a {@link SalesJournal}, closes it and opens it again, checking the pool state it recovers.
+ */
+class SalesJournalTests {
+    private static final TicketDescriptor CONCERT = new TicketDescriptor("Vendor-1", "Event-1", "Concert", 50.0, "VIP");
+    private static final TicketDescriptor PLAY = new TicketDescriptor("Vendor-2", "Event-2", "Play", 20.0, "Regular");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversNothingFromAnEmptyDirectory() {
+        SalesJournal journal = new SalesJournal(directory);
+        try {
+            assertNull(journal.getRecoveredState());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void recoversTheCountersAndInventoryItWrote() {
+        writeSale();
+
+        SalesJournal journal = new SalesJournal(directory);
+        try {
+            assertSaleRecovered(journal.getRecoveredState());
+            assertEquals(7, journal.getRecordsReplayed());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void keepsTheLimitsOfALiveReconfigurationAndTheInventoryBeforeIt() {
+        SalesJournal journal = new SalesJournal(directory);
+        journal.start(100, 10, PoolMode.STANDARD);
+        journal.released(CONCERT, 4);
+        journal.reconfigure(200, 20, PoolMode.SHARDED);
+        journal.purchased(CONCERT, 1);
+        journal.commit();
+        journal.close();
+
+        journal = new SalesJournal(directory);
+        try {
+            PoolState state = journal.getRecoveredState();
+            assertEquals(200, state.getTotalTickets());
+            assertEquals(20, state.getMaxTicketCapacity());
+            assertEquals(PoolMode.SHARDED, state.getMode());
+            assertEquals(4, state.getReleased());
+            assertEquals(1, state.getSold());
+            assertEquals(3, state.getRemaining());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void cutsOffATornRecordAndKeepsAppendingAfterTheLastIntactOne() throws IOException {
+        writeSale();
+        Path segment = onlySegment();
+        long intact = Files.size(segment);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer torn = ByteBuffer.allocate(7).putInt(64).put((byte) 3).put((byte) 0).put((byte) 0);
+            file.write(torn.flip());
+        }
+
+        SalesJournal journal = new SalesJournal(directory);
+        assertSaleRecovered(journal.getRecoveredState());
+        assertEquals(intact, Files.size(segment));
+        journal.released(PLAY, 2);
+        journal.commit();
+        journal.close();
+
+        journal = new SalesJournal(directory);
+        try {
+            PoolState state = journal.getRecoveredState();
+            assertEquals(10, state.getReleased());
+            assertEquals(4, (int) state.getInventory().get(PLAY));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void stopsReplayingAtARecordWhoseChecksumDoesNotMatch() throws IOException {
+        writeSale();
+        Path segment = onlySegment();
+        byte[] data = Files.readAllBytes(segment);
+        data[data.length - 1] ^= 0x5A;
+        Files.write(segment, data);
+
+        SalesJournal journal = new SalesJournal(directory);
+        try {
+            PoolState state = journal.getRecoveredState();
+            assertEquals(8, state.getReleased());
+            assertEquals(1, state.getSold());
+            assertEquals(3, (int) state.getInventory().get(PLAY));
+            assertEquals(6, journal.getRecordsReplayed());
+            assertTrue(Files.size(segment) < data.length);
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void startsFromTheLatestSnapshotAndReplaysOnlyTheRecordsAfterIt() throws InterruptedException {
+        SalesJournal journal = new SalesJournal(directory, 0);
+        journal.start(100, 10, PoolMode.STANDARD);
+        journal.released(CONCERT, 5);
+        journal.released(PLAY, 3);
+        journal.commit();
+        awaitSnapshots(journal, 1);
+        journal.purchased(List.of(CONCERT, PLAY));
+        journal.commit();
+        awaitSnapshots(journal, 2);
+        journal.released(CONCERT, 1);
+        journal.commit();
+        journal.close();
+
+        journal = new SalesJournal(directory, SalesJournal.DEFAULT_SNAPSHOT_INTERVAL_MS);
+        try {
+            assertTrue(journal.getSnapshotLoaded() >= 0);
+            assertTrue(journal.getRecordsReplayed() <= 2);
+            PoolState state = journal.getRecoveredState();
+            assertEquals(9, state.getReleased());
+            assertEquals(2, state.getSold());
+            assertEquals(5, (int) state.getInventory().get(CONCERT));
+            assertEquals(2, (int) state.getInventory().get(PLAY));
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Journals a sale of eight tickets for two events, two of which are sold, and closes the journal.
+     * The last record is the purchase of the second {@link #PLAY} ticket.
+     */
+    private void writeSale() {
+        SalesJournal journal = new SalesJournal(directory);
+        journal.start(100, 10, PoolMode.STANDARD);
+        journal.released(CONCERT, 5);
+        journal.released(PLAY, 3);
+        journal.purchased(List.of(CONCERT, PLAY));
+        journal.commit();
+        journal.close();
+    }
+
+    private static void assertSaleRecovered(PoolState state) {
+        assertEquals(100, state.getTotalTickets());
+        assertEquals(10, state.getMaxTicketCapacity());
+        assertEquals(PoolMode.STANDARD, state.getMode());
+        assertEquals(8, state.getReleased());
+        assertEquals(2, state.getSold());
+        assertEquals(6, state.getRemaining());
+        assertEquals(4, (int) state.getInventory().get(CONCERT));
+        assertEquals(2, (int) state.getInventory().get(PLAY));
+    }
+
+    /**
+     * Waits until the journal has saved at least {@code count} snapshots. A batch split by the writer may save
+     * more than one.
+     */
+    private static void awaitSnapshots(SalesJournal journal, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (journal.getSnapshotsWritten() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(journal.getSnapshotsWritten() >= count);
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.getFileName().toString().endsWith(".wal")).toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that customers of a {@link ShardedTicketPool} steal from sibling shards when their home shard is empty.
+ * <p>
+ * Shards are chosen the way the pool chooses them, by the hash of the event or customer ID, so each test picks
+ * IDs that land in the shards it needs.
+ * </p>
+ */
+class ShardedTicketPoolTests {
+    private static final int SHARDS = ShardedTicketPool.DEFAULT_SHARD_COUNT;
+
+    private final ShardedTicketPool pool = new ShardedTicketPool(100, 50);
+    private final String customerId = idIn("Customer-", 0);
+
+    @Test
+    void stealsEachKindOfPurchaseFromASiblingShard() {
+        pool.offerTickets("Vendor-1", idIn("Event-", 3), "Event", 10.0, 4, "Regular");
+
+        assertTrue(pool.pollTicket(customerId));
+        pool.removeTicket(customerId);
+        assertEquals(PoolResult.SUCCESS, pool.tryRemoveTicket(customerId, 0, TimeUnit.MILLISECONDS));
+        assertEquals(1, pool.pollTickets(customerId, 1, PurchaseMode.ALL_OR_NOTHING));
+        assertEquals(4, pool.getTicketsSold());
+        assertEquals(0, pool.getRemainingTickets());
+    }
+
+    @Test
+    void assemblesABasketFromSeveralShards() {
+        for (int shard = 1; shard < SHARDS; shard++) {
+            pool.offerTickets("Vendor-1", idIn("Event-", shard), "Event", 10.0, 2, "Regular");
+        }
+
+        assertEquals(0, pool.pollTickets(customerId, 9, PurchaseMode.ALL_OR_NOTHING));
+        assertEquals(7, pool.removeTickets(customerId, 7, PurchaseMode.ALL_OR_NOTHING));
+        assertEquals(1, pool.getRemainingTickets());
+        assertEquals(1, pool.pollTickets(customerId, 2, PurchaseMode.BEST_EFFORT));
+    }
+
+    @Test
+    void wakesACustomerWaitingOnItsHomeShardWhenAnotherShardIsRefilled() throws InterruptedException {
+        Thread customer = new Thread(() -> pool.removeTicket(customerId));
+        customer.start();
+        Thread.sleep(50);
+        assertTrue(customer.isAlive());
+
+        pool.offerTickets("Vendor-1", idIn("Event-", 2), "Event", 10.0, 1, "Regular");
+        customer.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(customer.isAlive());
+        assertEquals(1, pool.getTicketsSold());
+    }
+
+    @Test
+    void keepsEventsInTheirOwnShardsCapacity() {
+        String event = idIn("Event-", 1);
+        assertEquals(10, pool.offerTickets("Vendor-1", event, "Event", 10.0, 15, "Regular"));
+        assertEquals(0, pool.offerTickets("Vendor-1", event, "Event", 10.0, 1, "Regular"));
+        assertEquals(5, pool.offerTickets("Vendor-1", idIn("Event-", 2), "Event", 10.0, 5, "Regular"));
+        assertEquals(15, pool.getRemainingTickets());
+    }
+
+    /**
+     * Finds an ID with the given prefix whose hash lands in the given shard.
+     */
+    private static String idIn(String prefix, int shard) {
+        for (int i = 0; ; i++) {
+            String id = prefix + i;
+            if (Math.floorMod(id.hashCode(), SHARDS) == shard) {
+                return id;
+            }
+        }
+    }
+}
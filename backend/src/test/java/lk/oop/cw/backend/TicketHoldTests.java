@@ -0,0 +1,102 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that tickets on hold keep their room in the pool, run against every {@link PoolMode} whose engine
+ * can hold tickets.
+ */
+class TicketHoldTests {
+
+    @ParameterizedTest
+    @EnumSource(value = PoolMode.class, names = "RING_BUFFER", mode = EnumSource.Mode.EXCLUDE)
+    void neverExceedsItsCapacityWhenAHoldExpiresAfterARefill(PoolMode mode) throws InterruptedException {
+        TicketPoolEngine pool = mode.create(100, 10);
+        assertEquals(10, fill(pool));
+
+        assertNotNull(pool.holdTickets("Customer-1", 4, 100, TimeUnit.MILLISECONDS));
+        assertEquals(0, fill(pool));
+
+        assertEquals(6, pool.pollTickets("Customer-2", 6, PurchaseMode.ALL_OR_NOTHING));
+        assertEquals(6, fill(pool));
+
+        awaitNoHolds(pool);
+        assertTrue(pool.getRemainingTickets() <= pool.getMaxTicketCapacity());
+        assertEquals(10, pool.getRemainingTickets());
+        assertEquals(pool.getTicketsReleased(), pool.getTicketsSold() + pool.getRemainingTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PoolMode.class, names = "RING_BUFFER", mode = EnumSource.Mode.EXCLUDE)
+    void freesTheRoomOfAHoldOnceItIsConfirmed(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 10);
+        fill(pool);
+        TicketHold hold = pool.holdTickets("Customer-1", 3, 1, TimeUnit.MINUTES);
+        assertEquals(0, fill(pool));
+
+        assertEquals(3, pool.confirmHold(hold.getHoldId()).size());
+        assertEquals(0, pool.getTicketsOnHold());
+        assertEquals(3, fill(pool));
+        assertEquals(3, pool.getTicketsSold());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PoolMode.class, names = "RING_BUFFER", mode = EnumSource.Mode.EXCLUDE)
+    void returnsAnExpiredHoldToThePoolItWasHandedOverTo(PoolMode mode) throws InterruptedException {
+        TicketPoolEngine pool = mode.create(100, 10);
+        fill(pool);
+        assertNotNull(pool.holdTickets("Customer-1", 4, 100, TimeUnit.MILLISECONDS));
+        TicketPoolEngine next = mode.create(100, 10);
+        pool.handOver(next, true);
+
+        assertEquals(6, next.getRemainingTickets());
+        assertEquals(0, fill(next));
+        awaitNoHolds(next);
+        assertEquals(10, next.getRemainingTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PoolMode.class, names = "RING_BUFFER", mode = EnumSource.Mode.EXCLUDE)
+    void cancelsHoldsWhenANewSaleStarts(PoolMode mode) throws InterruptedException {
+        TicketPoolEngine pool = mode.create(100, 10);
+        fill(pool);
+        TicketHold hold = pool.holdTickets("Customer-1", 4, 100, TimeUnit.MILLISECONDS);
+        TicketPoolEngine next = mode.create(50, 10);
+        pool.handOver(next, false);
+
+        assertEquals(0, next.getTicketsOnHold());
+        assertNull(next.confirmHold(hold.getHoldId()));
+        Thread.sleep(400);
+        assertEquals(0, next.getRemainingTickets());
+        assertEquals(0, next.getTicketsReleased());
+        assertEquals(10, fill(next));
+    }
+
+    /**
+     * Releases tickets for several events, so that every shard of a sharded pool is filled.
+     * @return Number of tickets added.
+     */
+    private static int fill(TicketPoolEngine pool) {
+        int added = 0;
+        for (int i = 0; i < 32; i++) {
+            added += pool.offerTickets("Vendor-1", "Event-" + i, "Event", 10.0, 10, "Regular");
+        }
+        return added;
+    }
+
+    private static void awaitNoHolds(TicketPoolEngine pool) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getTicketsOnHold() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, pool.getTicketsOnHold());
+    }
+}
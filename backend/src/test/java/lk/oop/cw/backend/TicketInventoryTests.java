@@ -0,0 +1,194 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the price and category index of {@link TicketInventory} against what a customer asks for, and that the
+ * index and the first-in, first-out queue stay in step however tickets leave the inventory.
+ */
+class TicketInventoryTests {
+    private static final double ANY_PRICE = Double.POSITIVE_INFINITY;
+
+    private final TicketDescriptor regular30 = ticket("Vendor-1", "Event-1", "Regular", 30.0);
+    private final TicketDescriptor vip80 = ticket("Vendor-1", "Event-1", "VIP", 80.0);
+    private final TicketDescriptor regular20 = ticket("Vendor-2", "Event-2", "Regular", 20.0);
+    private final TicketDescriptor regular25 = ticket("Vendor-3", "Event-1", "Regular", 25.0);
+
+    @Test
+    void sellsTheCheapestMatchingTicketFirst() {
+        TicketInventory inventory = new TicketInventory();
+        inventory.add(regular30, 1);
+        inventory.add(vip80, 1);
+        inventory.add(regular20, 1);
+        inventory.add(regular25, 1);
+
+        TicketCriteria anything = new TicketCriteria(null, null, ANY_PRICE);
+        assertEquals(20.0, inventory.cheapestPrice(anything));
+        assertSame(regular20, inventory.pollMatching(anything));
+        assertSame(regular25, inventory.pollMatching(anything));
+        assertSame(regular30, inventory.pollMatching(anything));
+        assertSame(vip80, inventory.pollMatching(anything));
+        assertEquals(0, inventory.size());
+    }
+
+    @Test
+    void sellsTheOldestOfEquallyPricedTickets() {
+        TicketDescriptor first = ticket("Vendor-1", "Event-1", "Regular", 30.0);
+        TicketDescriptor second = ticket("Vendor-2", "Event-1", "Regular", 30.0);
+        TicketInventory inventory = new TicketInventory();
+        inventory.add(first, 1);
+        inventory.add(second, 1);
+        inventory.add(first, 1);
+
+        TicketCriteria regular = new TicketCriteria("Event-1", "Regular", ANY_PRICE);
+        assertSame(first, inventory.pollMatching(regular));
+        assertSame(second, inventory.pollMatching(regular));
+        assertSame(first, inventory.pollMatching(regular));
+    }
+
+    @Test
+    void honoursTheEventCategoryAndPriceCeiling() {
+        TicketInventory inventory = new TicketInventory();
+        inventory.add(regular30, 2);
+        inventory.add(vip80, 2);
+        inventory.add(regular20, 2);
+        inventory.add(regular25, 2);
+
+        TicketCriteria cheapRegular = new TicketCriteria("Event-1", "Regular", 29.0);
+        assertSame(regular25, inventory.pollMatching(cheapRegular));
+        assertSame(regular25, inventory.pollMatching(cheapRegular));
+        assertNull(inventory.pollMatching(cheapRegular));
+        assertSame(regular30, inventory.pollMatching(new TicketCriteria("Event-1", "Regular", 30.0)));
+        assertSame(vip80, inventory.pollMatching(new TicketCriteria("Event-1", "VIP", ANY_PRICE)));
+        assertSame(regular20, inventory.pollMatching(new TicketCriteria(null, "Regular", ANY_PRICE)));
+        assertEquals(3, inventory.size());
+    }
+
+    @Test
+    void returnsNullWhenNothingMatches() {
+        TicketInventory inventory = new TicketInventory();
+        assertNull(inventory.pollMatching(new TicketCriteria(null, null, ANY_PRICE)));
+
+        inventory.add(regular30, 1);
+        inventory.add(vip80, 1);
+        assertNull(inventory.pollMatching(new TicketCriteria("Event-3", null, ANY_PRICE)));
+        assertNull(inventory.pollMatching(new TicketCriteria("Event-1", "Balcony", ANY_PRICE)));
+        assertNull(inventory.pollMatching(new TicketCriteria("Event-1", "VIP", 79.99)));
+        assertNull(inventory.pollMatching(new TicketCriteria(null, null, 10.0)));
+        assertTrue(Double.isNaN(inventory.cheapestPrice(new TicketCriteria(null, null, 10.0))));
+        assertEquals(2, inventory.size());
+    }
+
+    @Test
+    void stopsMatchingATicketOnceTheQueueHasSoldIt() {
+        TicketInventory inventory = new TicketInventory();
+        inventory.add(regular30, 2);
+        inventory.add(regular20, 1);
+
+        List<TicketDescriptor> basket = new ArrayList<>();
+        assertEquals(2, inventory.drainTo(basket, 2));
+        assertEquals(List.of(regular30, regular30), basket);
+        assertSame(regular20, inventory.poll());
+        assertNull(inventory.pollMatching(new TicketCriteria(null, null, ANY_PRICE)));
+        assertTrue(Double.isNaN(inventory.cheapestPrice(new TicketCriteria("Event-1", "Regular", ANY_PRICE))));
+    }
+
+    @Test
+    void skipsABatchThatAMatchingPurchaseEmptied() {
+        TicketInventory inventory = new TicketInventory();
+        inventory.add(regular30, 1);
+        inventory.add(regular20, 1);
+        inventory.add(regular25, 1);
+
+        assertSame(regular20, inventory.pollMatching(new TicketCriteria(null, null, ANY_PRICE)));
+        assertSame(regular30, inventory.poll());
+        assertSame(regular25, inventory.poll());
+        assertNull(inventory.poll());
+        assertEquals(0, inventory.size());
+    }
+
+    @Test
+    void keepsTheQueueAndTheIndexInStepAcrossMixedPurchases() {
+        List<TicketDescriptor> descriptors = List.of(regular30, vip80, regular20, regular25,
+                ticket("Vendor-4", "Event-2", "VIP", 20.0), ticket("Vendor-4", "Event-3", "Regular", 5.0));
+        List<TicketCriteria> criteria = List.of(
+                new TicketCriteria(null, null, ANY_PRICE),
+                new TicketCriteria("Event-1", null, ANY_PRICE),
+                new TicketCriteria("Event-1", "Regular", 28.0),
+                new TicketCriteria("Event-2", "VIP", ANY_PRICE),
+                new TicketCriteria(null, "Regular", 25.0),
+                new TicketCriteria("Event-3", "VIP", ANY_PRICE));
+        TicketInventory inventory = new TicketInventory();
+        LinkedList<TicketDescriptor> expected = new LinkedList<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 5000; step++) {
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    TicketDescriptor descriptor = descriptors.get(random.nextInt(descriptors.size()));
+                    int count = 1 + random.nextInt(4);
+                    inventory.add(descriptor, count);
+                    for (int i = 0; i < count; i++) {
+                        expected.addLast(descriptor);
+                    }
+                }
+                case 1 -> assertSame(expected.pollFirst(), inventory.poll());
+                case 2 -> {
+                    int limit = 1 + random.nextInt(5);
+                    List<TicketDescriptor> basket = new ArrayList<>();
+                    inventory.drainTo(basket, limit);
+                    List<TicketDescriptor> wanted = new ArrayList<>();
+                    while (wanted.size() < limit && !expected.isEmpty()) {
+                        wanted.add(expected.pollFirst());
+                    }
+                    assertEquals(wanted, basket);
+                }
+                default -> {
+                    TicketCriteria wanted = criteria.get(random.nextInt(criteria.size()));
+                    TicketDescriptor cheapest = cheapestOldest(expected, wanted);
+                    assertEquals(cheapest == null ? Double.NaN : cheapest.getPrice(), inventory.cheapestPrice(wanted));
+                    assertSame(cheapest, inventory.pollMatching(wanted));
+                    expected.remove(cheapest);
+                }
+            }
+            assertEquals(expected.size(), inventory.size());
+        }
+
+        Map<TicketDescriptor, Integer> counts = new HashMap<>();
+        inventory.countInto(counts);
+        Map<TicketDescriptor, Integer> expectedCounts = new HashMap<>();
+        for (TicketDescriptor descriptor : expected) {
+            expectedCounts.merge(descriptor, 1, Integer::sum);
+        }
+        assertEquals(expectedCounts, counts);
+    }
+
+    /**
+     * Finds the ticket a matching purchase should sell by scanning the tickets in queue order.
+     */
+    private static TicketDescriptor cheapestOldest(List<TicketDescriptor> tickets, TicketCriteria criteria) {
+        TicketDescriptor cheapest = null;
+        for (TicketDescriptor ticket : tickets) {
+            if (criteria.matches(ticket) && (cheapest == null || ticket.getPrice() < cheapest.getPrice())) {
+                cheapest = ticket;
+            }
+        }
+        return cheapest;
+    }
+
+    private static TicketDescriptor ticket(String vendorId, String eventId, String category, double price) {
+        return new TicketDescriptor(vendorId, eventId, "Event", price, category);
+    }
+}
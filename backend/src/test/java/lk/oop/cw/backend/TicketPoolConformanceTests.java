@@ -0,0 +1,191 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The contract every {@link TicketPoolEngine} must honour, run against every {@link PoolMode}.
+ * <p>
+ * Engines may differ in ordering and in how they coordinate waiters, so these tests only check what callers
+ * rely on: the capacity and total ticket limits, the results of the non-blocking and deadline-bounded calls,
+ * and that a sale driven by concurrent vendors and customers ends sold out with every ticket accounted for.
+ * </p>
+ */
+class TicketPoolConformanceTests {
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void createsTheEngineItsModeNames(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 10);
+        assertEquals(mode, pool.getMode());
+        assertEquals(100, pool.getTotalTickets());
+        assertEquals(10, pool.getMaxTicketCapacity());
+        assertEquals(0, pool.getRemainingTickets());
+        assertFalse(pool.isSoldOut());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void neverHoldsMoreThanItsCapacity(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 10);
+        for (int i = 0; i < 20; i++) {
+            pool.offerTickets("Vendor-1", "Event-" + i % 5, "Event", 10.0, 3, "Regular");
+        }
+        assertTrue(pool.getRemainingTickets() <= 10);
+        assertTrue(pool.getRemainingTickets() > 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void neverReleasesMoreThanTheTotal(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(7, 50);
+        assertEquals(5, pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular"));
+        assertEquals(2, pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular"));
+        assertTrue(pool.isFullyReleased());
+        assertEquals(0, pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular"));
+        assertEquals(PoolResult.SOLD_OUT,
+                pool.tryAddTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular", 10, TimeUnit.MILLISECONDS));
+        assertEquals(7, pool.getRemainingTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void appliesABatchOfReleasesInOrderWithinTheLimits(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(12, 50);
+        int[] added = pool.offerTicketBatch(List.of(
+                new TicketRelease("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular"),
+                new TicketRelease("Vendor-2", "Event-2", "Event", 10.0, 5, "Regular"),
+                new TicketRelease("Vendor-1", "Event-1", "Event", 10.0, 5, "Regular"),
+                new TicketRelease("Vendor-2", "Event-2", "Event", 10.0, 5, "Regular")));
+        assertEquals(12, added[0] + added[1] + added[2] + added[3]);
+        assertEquals(5, added[0]);
+        assertEquals(0, added[3]);
+        assertTrue(pool.isFullyReleased());
+        assertEquals(12, pool.getRemainingTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void purchasesWithoutWaitingOnlyWhatIsInThePool(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 50);
+        assertFalse(pool.pollTicket("Customer-1"));
+        assertEquals(0, pool.pollTickets("Customer-1", 2, PurchaseMode.BEST_EFFORT));
+
+        pool.addTickets("Vendor-1", "Event-1", "Event", 10.0, 3, "Regular");
+        assertEquals(0, pool.pollTickets("Customer-1", 4, PurchaseMode.ALL_OR_NOTHING));
+        assertEquals(3, pool.pollTickets("Customer-1", 4, PurchaseMode.BEST_EFFORT));
+        assertEquals(0, pool.getRemainingTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void reportsWhyADeadlineBoundedCallFailed(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(2, 1);
+        assertEquals(PoolResult.TIMED_OUT, pool.tryRemoveTicket("Customer-1", 20, TimeUnit.MILLISECONDS));
+        assertBasket(PoolResult.TIMED_OUT, 0,
+                pool.tryRemoveTickets("Customer-1", 1, PurchaseMode.ALL_OR_NOTHING, 20, TimeUnit.MILLISECONDS));
+
+        assertEquals(PoolResult.SUCCESS,
+                pool.tryAddTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular", 20, TimeUnit.MILLISECONDS));
+        assertEquals(PoolResult.TIMED_OUT,
+                pool.tryAddTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular", 20, TimeUnit.MILLISECONDS));
+        assertEquals(PoolResult.SUCCESS, pool.tryRemoveTicket("Customer-1", 20, TimeUnit.MILLISECONDS));
+
+        pool.addTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular");
+        assertBasket(PoolResult.SOLD_OUT, 0,
+                pool.tryRemoveTickets("Customer-1", 2, PurchaseMode.ALL_OR_NOTHING, 20, TimeUnit.MILLISECONDS));
+        assertBasket(PoolResult.SUCCESS, 1,
+                pool.tryRemoveTickets("Customer-1", 2, PurchaseMode.BEST_EFFORT, 20, TimeUnit.MILLISECONDS));
+        assertTrue(pool.isSoldOut());
+        assertEquals(PoolResult.SOLD_OUT, pool.tryRemoveTicket("Customer-1", 20, TimeUnit.MILLISECONDS));
+        assertBasket(PoolResult.SOLD_OUT, 0,
+                pool.tryRemoveTickets("Customer-1", 1, PurchaseMode.BEST_EFFORT, 20, TimeUnit.MILLISECONDS));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void returnsFromAWaitingPurchaseOnceSoldOut(PoolMode mode) throws InterruptedException {
+        TicketPoolEngine pool = mode.create(1, 1);
+        pool.addTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular");
+        pool.removeTicket("Customer-1");
+
+        Thread late = new Thread(() -> pool.removeTicket("Customer-2"));
+        late.start();
+        late.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(late.isAlive());
+        assertEquals(0, pool.removeTickets("Customer-2", 1, PurchaseMode.BEST_EFFORT));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void rejectsOnlyTheOperationsItReportsAsUnsupported(PoolMode mode) {
+        TicketPoolEngine pool = mode.create(100, 100);
+        pool.addTickets("Vendor-1", "Event-1", "Event", 10.0, 4, "Regular");
+
+        TicketCriteria criteria = new TicketCriteria("Event-1", null, Double.POSITIVE_INFINITY);
+        if (pool.supports(PoolCapability.MATCHING_PURCHASE)) {
+            assertEquals("Event-1", pool.purchaseMatching("Customer-1", criteria).getEventId());
+        } else {
+            UnsupportedPoolOperationException e = assertThrows(UnsupportedPoolOperationException.class,
+                    () -> pool.purchaseMatching("Customer-1", criteria));
+            assertEquals(PoolCapability.MATCHING_PURCHASE, e.getCapability());
+        }
+        if (pool.supports(PoolCapability.HOLDS)) {
+            assertEquals(2, pool.holdTickets("Customer-1", 2, 1, TimeUnit.MINUTES).getCount());
+        } else {
+            UnsupportedPoolOperationException e = assertThrows(UnsupportedPoolOperationException.class,
+                    () -> pool.holdTickets("Customer-1", 2, 1, TimeUnit.MINUTES));
+            assertEquals(mode, e.getMode());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void sellsEveryTicketToConcurrentCustomers(PoolMode mode) throws InterruptedException {
+        int totalTickets = 5000;
+        TicketPoolEngine pool = mode.create(totalTickets, 25);
+        AtomicInteger purchased = new AtomicInteger();
+        List<Thread> agents = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String vendorId = "Vendor-" + i;
+            String eventId = "Event-" + i;
+            agents.add(new Thread(() -> {
+                while (!pool.isFullyReleased()) {
+                    pool.addTickets(vendorId, eventId, "Event", 10.0, 3, "Regular");
+                }
+            }));
+        }
+        for (int i = 0; i < 8; i++) {
+            String customerId = "Customer-" + i;
+            agents.add(new Thread(() -> {
+                while (!pool.isSoldOut()) {
+                    purchased.addAndGet(pool.removeTickets(customerId, 2, PurchaseMode.BEST_EFFORT));
+                }
+            }));
+        }
+        agents.forEach(Thread::start);
+        for (Thread agent : agents) {
+            agent.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(agent.isAlive(), agent.getName() + " did not finish");
+        }
+
+        assertTrue(pool.isSoldOut());
+        assertEquals(totalTickets, purchased.get());
+        assertEquals(0, pool.getRemainingTickets());
+    }
+
+    private static void assertBasket(PoolResult result, int purchased, BasketResult basket) {
+        assertEquals(result, basket.getResult());
+        assertEquals(purchased, basket.getPurchased());
+    }
+}
@@ -0,0 +1,182 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reconfigures a pool while vendors and customers are using it, and checks that every ticket is accounted for
+ * exactly once across the retired pool and the one that replaced it, run against every {@link PoolMode}.
+ * <p>
+ * Agents follow the handover the way {@link TicketService} does: a call that finds its pool retired is repeated
+ * on the successor. Each agent counts what it released or bought per pool, and the pools' counters must match
+ * those counts and balance: released = sold + remaining + on hold.
+ * </p>
+ */
+class TicketPoolHandoverTests {
+    private static final int HELD = 5;
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void carriesEveryTicketOverWhenTheSaleContinues(PoolMode mode) throws InterruptedException {
+        Sale sale = new Sale(mode);
+        sale.start();
+        TicketPoolEngine next = sale.handOver(true);
+        sale.stop();
+
+        TicketPoolEngine old = sale.first;
+        assertTrue(sale.sold(next) > 0);
+        assertEquals(sale.released(old) + sale.released(next), next.getTicketsReleased());
+        assertEquals(sale.sold(old) + sale.sold(next), next.getTicketsSold());
+        assertEquals(sale.held, next.getTicketsOnHold());
+        assertBalanced(next, 0);
+        assertTrue(next.getRemainingTickets() <= next.getMaxTicketCapacity());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolMode.class)
+    void keepsTheRetiredSaleBalancedWhenANewSaleStarts(PoolMode mode) throws InterruptedException {
+        Sale sale = new Sale(mode);
+        sale.start();
+        TicketPoolEngine next = sale.handOver(false);
+        sale.stop();
+
+        TicketPoolEngine old = sale.first;
+        assertEquals(sale.released(old), old.getTicketsReleased());
+        assertEquals(sale.sold(old), old.getTicketsSold());
+        assertEquals(0, old.getTicketsOnHold());
+        assertBalanced(old, sale.held);
+
+        assertEquals(sale.released(next), next.getTicketsReleased());
+        assertEquals(sale.sold(next), next.getTicketsSold());
+        assertEquals(0, next.getTicketsOnHold());
+        assertBalanced(next, 0);
+    }
+
+    /**
+     * Asserts that every ticket the pool released is sold, in the pool, on hold or one of {@code cancelled} held
+     * tickets dropped by the handover.
+     */
+    private static void assertBalanced(TicketPoolEngine pool, int cancelled) {
+        assertEquals(pool.getTicketsReleased(),
+                pool.getTicketsSold() + pool.getRemainingTickets() + pool.getTicketsOnHold() + cancelled);
+    }
+
+    /**
+     * A sale driven by vendors and customers that release and buy without waiting, counting their tickets per
+     * pool. Engines that can hold tickets start with a hold that outlasts the test.
+     */
+    private static final class Sale {
+        private final PoolMode mode;
+        private final TicketPoolEngine first;
+        private volatile TicketPoolEngine current;
+        private final Map<TicketPoolEngine, AtomicInteger> released = new IdentityHashMap<>();
+        private final Map<TicketPoolEngine, AtomicInteger> sold = new IdentityHashMap<>();
+        private final List<Thread> agents = new ArrayList<>();
+        private volatile boolean running = true;
+        private int held;
+
+        private Sale(PoolMode mode) {
+            this.mode = mode;
+            this.first = mode.create(100_000, 64);
+            this.current = first;
+            register(first);
+        }
+
+        private void start() throws InterruptedException {
+            for (int i = 0; i < 32; i++) {
+                count(released, first, first.offerTickets("Vendor-0", "Event-" + i, "Event", 10.0, 2, "Regular"));
+            }
+            if (first.supports(PoolCapability.HOLDS)) {
+                assertNotNull(first.holdTickets("Customer-0", HELD, 1, TimeUnit.MINUTES));
+                held = HELD;
+            }
+            for (int i = 0; i < 4; i++) {
+                String vendorId = "Vendor-" + i;
+                String eventId = "Event-" + i;
+                agents.add(new Thread(() -> run(released,
+                        pool -> pool.offerTickets(vendorId, eventId, "Event", 10.0, 3, "Regular"))));
+            }
+            for (int i = 0; i < 6; i++) {
+                String customerId = "Customer-" + (i + 1);
+                agents.add(new Thread(() -> run(sold,
+                        pool -> pool.pollTickets(customerId, 2, PurchaseMode.BEST_EFFORT))));
+            }
+            agents.forEach(Thread::start);
+            Thread.sleep(50);
+        }
+
+        /**
+         * Replaces the pool while the agents run, and lets them run on the new pool for a while.
+         */
+        private TicketPoolEngine handOver(boolean transfer) throws InterruptedException {
+            TicketPoolEngine next = mode.create(100_000, 64);
+            register(next);
+            first.handOver(next, transfer);
+            current = next;
+            Thread.sleep(50);
+            return next;
+        }
+
+        private void stop() throws InterruptedException {
+            running = false;
+            for (Thread agent : agents) {
+                agent.join(TimeUnit.SECONDS.toMillis(10));
+                assertFalse(agent.isAlive(), agent.getName() + " did not finish");
+            }
+        }
+
+        private void register(TicketPoolEngine pool) {
+            synchronized (this) {
+                released.put(pool, new AtomicInteger());
+                sold.put(pool, new AtomicInteger());
+            }
+        }
+
+        /**
+         * Repeats a call until the agent is stopped, following the pool to its successor when it is retired.
+         */
+        private void run(Map<TicketPoolEngine, AtomicInteger> tally, ToIntFunction<TicketPoolEngine> call) {
+            TicketPoolEngine pool = current;
+            while (running) {
+                try {
+                    count(tally, pool, call.applyAsInt(pool));
+                } catch (PoolRetiredException e) {
+                    pool = e.getSuccessor();
+                }
+            }
+        }
+
+        private void count(Map<TicketPoolEngine, AtomicInteger> tally, TicketPoolEngine pool, int tickets) {
+            AtomicInteger counter;
+            synchronized (this) {
+                counter = tally.get(pool);
+            }
+            counter.addAndGet(tickets);
+        }
+
+        private int released(TicketPoolEngine pool) {
+            synchronized (this) {
+                return released.get(pool).get();
+            }
+        }
+
+        private int sold(TicketPoolEngine pool) {
+            synchronized (this) {
+                return sold.get(pool).get();
+            }
+        }
+    }
+}
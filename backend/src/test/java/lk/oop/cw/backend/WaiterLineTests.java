@@ -0,0 +1,149 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a {@link WaiterLine} serves its waiters in arrival order, both on its own and behind a
+ * {@link PoolMode#HANDOFF} pool whose customers are parked one after another.
+ */
+class WaiterLineTests {
+
+    @Test
+    void grantsUnitsToTheLongestWaitingCallersFirst() {
+        ReentrantLock lock = new ReentrantLock();
+        lock.lock();
+        try {
+            WaiterLine line = new WaiterLine(lock);
+            WaiterLine.Waiter first = line.join(1, 1);
+            WaiterLine.Waiter second = line.join(1, 2);
+            WaiterLine.Waiter third = line.join(1, 1);
+
+            line.grant(2);
+            assertEquals(1, first.getGranted());
+            assertEquals(1, second.getGranted());
+            assertEquals(0, third.getGranted());
+            assertEquals(2, line.getGranted());
+
+            line.leave(first);
+            line.grant(1);
+            assertEquals(1, second.getGranted());
+            assertEquals(1, third.getGranted());
+            assertEquals(2, line.getGranted());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Test
+    void letsALargeBasketCollectUnitsInsteadOfBeingOvertaken() {
+        ReentrantLock lock = new ReentrantLock();
+        lock.lock();
+        try {
+            WaiterLine line = new WaiterLine(lock);
+            WaiterLine.Waiter basket = line.join(3, 3);
+            WaiterLine.Waiter single = line.join(1, 1);
+
+            line.grant(1);
+            line.grant(1);
+            assertEquals(2, basket.getGranted());
+            assertEquals(0, single.getGranted());
+
+            line.grant(2);
+            assertEquals(3, basket.getGranted());
+            assertEquals(1, single.getGranted());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Test
+    void returnsTheGrantOfACallerThatLeavesWithoutUsingIt() {
+        ReentrantLock lock = new ReentrantLock();
+        lock.lock();
+        try {
+            WaiterLine line = new WaiterLine(lock);
+            WaiterLine.Waiter leaving = line.join(2, 2);
+            WaiterLine.Waiter staying = line.join(1, 1);
+
+            line.grant(1);
+            line.leave(leaving);
+            assertEquals(0, line.getGranted());
+            line.grant(1);
+            assertEquals(1, staying.getGranted());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Test
+    void servesParkedCustomersInTheOrderTheyArrived() throws InterruptedException {
+        TicketPoolEngine pool = PoolMode.HANDOFF.create(100, 10);
+        Queue<String> served = new ConcurrentLinkedQueue<>();
+        List<Thread> customers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String customerId = "Customer-" + i;
+            Thread customer = new Thread(() -> {
+                pool.removeTicket(customerId);
+                served.add(customerId);
+            }, customerId);
+            customer.start();
+            awaitParked(customer);
+            customers.add(customer);
+        }
+
+        for (int i = 0; i < customers.size(); i++) {
+            assertEquals(1, pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular"));
+            customers.get(i).join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(customers.get(i).isAlive(), "Customer-" + i + " was not served");
+            assertEquals(i + 1, served.size());
+        }
+        assertEquals(List.of("Customer-0", "Customer-1", "Customer-2", "Customer-3", "Customer-4", "Customer-5"),
+                new ArrayList<>(served));
+    }
+
+    @Test
+    void servesParkedVendorsInTheOrderTheyArrived() throws InterruptedException {
+        TicketPoolEngine pool = PoolMode.HANDOFF.create(100, 1);
+        pool.addTickets("Vendor-0", "Event-0", "Event", 10.0, 1, "Regular");
+        List<Thread> vendors = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            String vendorId = "Vendor-" + i;
+            Thread vendor = new Thread(() -> pool.addTickets(vendorId, vendorId, "Event", 10.0, 1, "Regular"),
+                    vendorId);
+            vendor.start();
+            awaitParked(vendor);
+            vendors.add(vendor);
+        }
+
+        for (int i = 0; i < vendors.size(); i++) {
+            assertTrue(pool.pollTicket("Customer-1"));
+            vendors.get(i).join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(vendors.get(i).isAlive(), "Vendor-" + (i + 1) + " was not served");
+            for (Thread later : vendors.subList(i + 1, vendors.size())) {
+                assertTrue(later.isAlive());
+            }
+        }
+    }
+
+    /**
+     * Waits until a thread is parked, so that the next thread started joins the line behind it.
+     */
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
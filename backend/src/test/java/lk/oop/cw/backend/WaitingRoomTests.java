@@ -0,0 +1,111 @@
+package lk.oop.cw.backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Queues buyers in a {@link WaitingRoom} that admits one buyer at a time in front of an empty pool, then releases
+ * tickets one at a time and checks that the buyers are served in the order they entered.
+ */
+class WaitingRoomTests {
+    private static final Duration PATIENT = Duration.ofSeconds(10);
+
+    private TicketPoolEngine pool;
+    private WaitingRoom waitingRoom;
+    private final Queue<String> served = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void openWaitingRoom() {
+        pool = PoolMode.STANDARD.create(100, 10);
+        TicketService ticketService = new TicketService(pool, new PoolEventHub(), AgentExecutionMode.PLATFORM,
+                new AgentScheduler(), SalesJournal.DISABLED, new PurchaseRateLimiter(0, 1, 0, 1));
+        waitingRoom = new WaitingRoom(ticketService, 20, 1, 1);
+    }
+
+    @AfterEach
+    void closeWaitingRoom() {
+        waitingRoom.shutdown();
+    }
+
+    @Test
+    void admitsBuyersOneAtATimeInTheOrderTheyEntered() throws InterruptedException {
+        List<String> customers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            customers.add("Customer-" + i);
+            enter("Customer-" + i, PATIENT);
+        }
+
+        QueuePosition first = waitingRoom.getPosition("Customer-0");
+        assertTrue(first.isAdmitted());
+        QueuePosition third = waitingRoom.getPosition("Customer-2");
+        assertFalse(third.isAdmitted());
+        assertEquals(3, third.getQueueNumber());
+        assertEquals(2, third.getPosition());
+        assertEquals(4, waitingRoom.getStats().getQueued());
+
+        for (int i = 0; i < customers.size(); i++) {
+            assertEquals(1, pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular"));
+            awaitServed(i + 1);
+        }
+        assertEquals(customers, new ArrayList<>(served));
+        assertEquals(0, waitingRoom.getStats().getQueued());
+        assertEquals(5, waitingRoom.getStats().getCompleted());
+        assertNull(waitingRoom.getPosition("Customer-4"));
+    }
+
+    @Test
+    void skipsABuyerThatGaveUpWhileQueued() throws InterruptedException {
+        enter("Customer-0", PATIENT);
+        enter("Customer-1", Duration.ofMillis(50));
+        enter("Customer-2", PATIENT);
+        awaitServed(1);
+        assertEquals("Customer-1", served.poll());
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(1, pool.offerTickets("Vendor-1", "Event-1", "Event", 10.0, 1, "Regular"));
+            awaitServed(i + 1);
+        }
+        assertEquals(List.of("Customer-0", "Customer-2"), new ArrayList<>(served));
+        assertEquals(1, waitingRoom.getStats().getTimedOut());
+        assertEquals(2, waitingRoom.getStats().getCompleted());
+    }
+
+    @Test
+    void refusesACustomerThatIsAlreadyInTheRoom() {
+        assertNotNull(waitingRoom.enter("Customer-0", PATIENT));
+        assertNull(waitingRoom.enter("Customer-0", PATIENT));
+    }
+
+    /**
+     * Puts a customer in the waiting room and records its ID once its purchase completes; a buyer that gave up is
+     * recorded as well, so the tests can tell it left.
+     */
+    private void enter(String customerId, Duration timeout) {
+        Mono<PoolResult> result = waitingRoom.enter(customerId, timeout);
+        assertNotNull(result);
+        result.subscribe(outcome -> served.add(customerId));
+    }
+
+    private void awaitServed(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (served.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, served.size());
+    }
+}
@@ -0,0 +1,93 @@
+package lk.oop.cw.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Runs the full ticket pool benchmark sweep and writes one JSON result file per configuration.
+ * <p>
+ * The single-threaded {@link TicketPoolBenchmark} runs once. {@link ContendedTicketPoolBenchmark} runs for every
+ * total thread count and vendor:customer ratio, since JMH fixes the thread split of a group per run. Every run
+ * has the GC profiler enabled, which adds allocation rate ({@code gc.alloc.rate.norm}, bytes per operation)
+ * and GC counts to the results. The files are named after the configuration so that two runs can be diffed
+ * file by file.
+ * </p>
+ * <pre>
+ * java -cp target/benchmarks.jar lk.oop.cw.benchmarks.BenchmarkRunner [outputDir]
+ * </pre>
+ * The thread counts can be narrowed with {@code -Dbench.threads=1,8} and the iterations shortened with
+ * {@code -Dbench.quick=true}.
+ */
+public class BenchmarkRunner {
+    private static final int[] DEFAULT_THREADS = {2, 4, 8, 16, 32, 64};
+
+    /**
+     * Vendor:customer ratios swept for the contended benchmark.
+     */
+    private static final int[][] RATIOS = {{1, 1}, {1, 4}, {4, 1}};
+
+    /**
+     * Runs the sweep.
+     * @param args Optional output directory, {@code benchmark-results} by default.
+     * @throws RunnerException If JMH fails to run a benchmark.
+     * @throws IOException     If the output directory cannot be created.
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path outputDir = Path.of(args.length > 0 ? args[0] : "benchmark-results");
+        Files.createDirectories(outputDir);
+
+        run(options(TicketPoolBenchmark.class.getName(), outputDir.resolve("single-threaded.json")));
+
+        for (int threads : threadCounts()) {
+            for (int[] ratio : RATIOS) {
+                int vendors = Math.max(1, Math.round((float) threads * ratio[0] / (ratio[0] + ratio[1])));
+                int customers = Math.max(1, threads - vendors);
+                String name = "contended-t" + (vendors + customers) + "-v" + ratio[0] + "c" + ratio[1] + ".json";
+                // group methods are ordered by name: customer, vendor
+                run(options(ContendedTicketPoolBenchmark.class.getName() + ".pool", outputDir.resolve(name))
+                        .threadGroups(customers, vendors));
+            }
+
+            // customer, isSoldOut reader, remaining reader, vendor
+            int share = Math.max(1, threads / 4);
+            run(options(ContendedTicketPoolBenchmark.class.getName() + ".reads", outputDir.resolve("reads-t" + share * 4 + ".json"))
+                    .threadGroups(share, share, share, share));
+        }
+    }
+
+    private static ChainedOptionsBuilder options(String include, Path result) {
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include("^" + include.replace(".", "\\.") + "(\\.|$)")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .shouldDoGC(true);
+        if (Boolean.getBoolean("bench.quick")) {
+            builder.warmupIterations(1).warmupTime(TimeValue.milliseconds(200))
+                    .measurementIterations(1).measurementTime(TimeValue.milliseconds(200));
+        }
+        return builder;
+    }
+
+    private static void run(ChainedOptionsBuilder options) throws RunnerException {
+        new Runner(options.build()).run();
+    }
+
+    private static int[] threadCounts() {
+        String threads = System.getProperty("bench.threads");
+        if (threads == null || threads.isBlank()) {
+            return DEFAULT_THREADS;
+        }
+        return Arrays.stream(threads.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,165 @@
+package lk.oop.cw.benchmarks;
+
+import lk.oop.cw.backend.PoolMode;
+import lk.oop.cw.backend.TicketPoolEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a {@link TicketPoolEngine} shared by concurrent vendors and customers.
+ * <p>
+ * Vendors and customers run as one JMH group against the same pool. The default split is one vendor to one
+ * customer; {@link BenchmarkRunner} overrides it with {@code threadGroups} to sweep thread counts and
+ * vendor:customer ratios. The reader threads measure {@code isSoldOut} and {@code getRemainingTickets}
+ * while the pool is being mutated.
+ * </p>
+ * <p>
+ * Vendors and customers use the non-blocking {@code offerTickets} and {@code pollTicket}. The blocking
+ * {@code addTickets} and {@code removeTicket} would leave threads waiting forever once the other side stops
+ * at the end of an iteration; a failed offer or poll is the contended equivalent of their wait and is
+ * counted in the same operation.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContendedTicketPoolBenchmark {
+
+    /**
+     * The pool shared by every thread of one group.
+     */
+    @State(Scope.Group)
+    public static class SharedPool {
+        @Param({"STANDARD", "RING_BUFFER", "SHARDED", "HANDOFF"})
+        public PoolMode engine;
+
+        @Param({"16", "1024"})
+        public int maxTicketCapacity;
+
+        TicketPoolEngine pool;
+
+        /**
+         * Creates a fresh, empty pool for each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void setUp() {
+            PoolBenchmarkSupport.quietLogging();
+            pool = engine.create(PoolBenchmarkSupport.UNLIMITED_TICKETS, maxTicketCapacity);
+        }
+    }
+
+    /**
+     * The identity of one benchmark thread, so vendors spread over events and customers over home shards.
+     */
+    @State(Scope.Thread)
+    public static class Agent {
+        String vendorId;
+        String eventId;
+        String customerId;
+
+        /**
+         * Derives stable IDs from the JMH thread index.
+         * @param threadParams The current thread's parameters.
+         */
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            int index = threadParams.getThreadIndex();
+            vendorId = "vendor-" + index;
+            eventId = "event-" + index;
+            customerId = "customer-" + index;
+        }
+    }
+
+    /**
+     * A vendor releasing one ticket at a time.
+     * @param shared The shared pool.
+     * @param agent  The calling thread's identity.
+     * @return The number of tickets actually released.
+     */
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(1)
+    public int vendor(SharedPool shared, Agent agent) {
+        return shared.pool.offerTickets(agent.vendorId, agent.eventId, "Benchmark Event", 10.0, 1, "General");
+    }
+
+    /**
+     * A customer purchasing one ticket at a time.
+     * @param shared The shared pool.
+     * @param agent  The calling thread's identity.
+     * @return true if a ticket was purchased.
+     */
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(1)
+    public boolean customer(SharedPool shared, Agent agent) {
+        return shared.pool.pollTicket(agent.customerId);
+    }
+
+    /**
+     * A vendor releasing while a dashboard polls the sold-out flag.
+     * @param shared The shared pool.
+     * @param agent  The calling thread's identity.
+     * @return The number of tickets actually released.
+     */
+    @Benchmark
+    @Group("reads")
+    @GroupThreads(1)
+    public int readsVendor(SharedPool shared, Agent agent) {
+        return shared.pool.offerTickets(agent.vendorId, agent.eventId, "Benchmark Event", 10.0, 1, "General");
+    }
+
+    /**
+     * A customer purchasing while a dashboard polls the pool.
+     * @param shared The shared pool.
+     * @param agent  The calling thread's identity.
+     * @return true if a ticket was purchased.
+     */
+    @Benchmark
+    @Group("reads")
+    @GroupThreads(1)
+    public boolean readsCustomer(SharedPool shared, Agent agent) {
+        return shared.pool.pollTicket(agent.customerId);
+    }
+
+    /**
+     * A reader checking the sold-out flag under write contention.
+     * @param shared The shared pool.
+     * @return The check result.
+     */
+    @Benchmark
+    @Group("reads")
+    @GroupThreads(1)
+    public boolean readsIsSoldOut(SharedPool shared) {
+        return shared.pool.isSoldOut();
+    }
+
+    /**
+     * A reader counting the remaining tickets under write contention.
+     * @param shared The shared pool.
+     * @return The number of remaining tickets.
+     */
+    @Benchmark
+    @Group("reads")
+    @GroupThreads(1)
+    public int readsRemaining(SharedPool shared) {
+        return shared.pool.getRemainingTickets();
+    }
+}
@@ -0,0 +1,43 @@
+package lk.oop.cw.benchmarks;
+
+import lk.oop.cw.backend.LoggingConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared setup for the ticket pool benchmarks.
+ */
+final class PoolBenchmarkSupport {
+    /**
+     * Total ticket budget given to every benchmarked pool, large enough that no iteration exhausts it.
+     */
+    static final int UNLIMITED_TICKETS = Integer.MAX_VALUE;
+
+    private PoolBenchmarkSupport() {
+    }
+
+    /**
+     * Prepares the application logger for a benchmark fork.
+     * <p>
+     * {@link LoggingConfig} opens {@code logs/app.log} when it is first loaded, so the directory must exist
+     * before any pool is created. The logger is then raised to {@link Level#WARNING} so that the console and
+     * file handlers do not dominate the measurement; the in-memory pool log is still written on every operation.
+     * </p>
+     */
+    static void quietLogging() {
+        try {
+            Files.createDirectories(Path.of("logs"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Logger logger = LoggingConfig.getLogger();
+        if (logger != null) {
+            logger.setLevel(Level.WARNING);
+        }
+    }
+}
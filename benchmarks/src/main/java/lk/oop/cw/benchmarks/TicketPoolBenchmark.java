@@ -0,0 +1,84 @@
+package lk.oop.cw.benchmarks;
+
+import lk.oop.cw.backend.PoolMode;
+import lk.oop.cw.backend.TicketPoolEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of the {@link TicketPoolEngine} hot paths for every {@link PoolMode}.
+ * <p>
+ * Each operation starts and ends with an empty pool, so {@code addTickets} never waits for room (not even in
+ * a small shard of the sharded engine) and {@code removeTicket} never waits for a ticket. Each release and
+ * purchase includes the work the application really does on that path: building the log message, appending
+ * it to the pool log and publishing the pool event.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class TicketPoolBenchmark {
+
+    @Param({"STANDARD", "RING_BUFFER", "SHARDED", "HANDOFF"})
+    public PoolMode engine;
+
+    @Param({"16", "1024"})
+    public int maxTicketCapacity;
+
+    private TicketPoolEngine pool;
+
+    /**
+     * Creates a fresh, empty pool for each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        PoolBenchmarkSupport.quietLogging();
+        pool = engine.create(PoolBenchmarkSupport.UNLIMITED_TICKETS, maxTicketCapacity);
+    }
+
+    /**
+     * Releases one ticket and purchases it, leaving the pool empty again.
+     * @return The number of tickets left, so the calls cannot be eliminated.
+     */
+    @Benchmark
+    public int addThenRemove() {
+        pool.addTickets("vendor-1", "event-1", "Benchmark Event", 10.0, 1, "General");
+        pool.removeTicket("customer-1");
+        return pool.getRemainingTickets();
+    }
+
+    /**
+     * Checks whether the pool is sold out.
+     * @return The check result.
+     */
+    @Benchmark
+    public boolean isSoldOut() {
+        return pool.isSoldOut();
+    }
+
+    /**
+     * Reads the number of tickets in the pool.
+     * @return The number of remaining tickets.
+     */
+    @Benchmark
+    public int getRemainingTickets() {
+        return pool.getRemainingTickets();
+    }
+}
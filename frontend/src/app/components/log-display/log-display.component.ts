@@ -1,12 +1,38 @@
-import {Component, OnInit} from '@angular/core';
+import {Component, OnDestroy, OnInit} from '@angular/core';
 import {NgForOf, NgIf} from '@angular/common';
 import {HttpClient} from '@angular/common/http';
 import {environment} from '../../../environments/environment';
-import {lastValueFrom} from 'rxjs';
+import {Subscription} from 'rxjs';
+import {PoolEventsService} from '../../services/pool-events.service';
 
 /**
- * This component is responsible for displaying real-time logs fetched from the backend.
- * It polls the server at a regular interval to fetch and display log data.
+ * One page of log entries as returned by the incremental logs endpoint.
+ */
+interface LogPage {
+  entries: LogEntry[];
+  nextCursor: number;
+}
+
+/**
+ * A single log message and its sequence number.
+ */
+interface LogEntry {
+  sequence: number;
+  message: string;
+}
+
+/**
+ * Sent in place of the log entries the server left out of a push because too many were written at once.
+ */
+interface LogsSkipped {
+  count: number;
+  restarted: boolean;
+}
+
+/**
+ * This component is responsible for displaying real-time logs from the backend.
+ * It loads the retained backlog once and then appends new entries as they are pushed
+ * over the shared pool event stream, keeping the most recent lines on screen.
  */
 @Component({
   selector: 'app-log-display',
@@ -19,40 +45,117 @@ import {lastValueFrom} from 'rxjs';
   styleUrl: './log-display.component.css'
 })
 
-export class LogDisplayComponent implements OnInit {
+export class LogDisplayComponent implements OnInit, OnDestroy {
   protected logs: string[] = [];
-  private pollingInterval = 500;
+  private readonly pageSize = 200;
+  private readonly maxLines = 500;
+  private cursor = 0;
+  private readonly subscription = new Subscription();
+  private pending: (() => void)[] | null = [];
 
   /**
    * Creates an instance of LogDisplayComponent.
    * @param http - The HttpClient instance used to perform HTTP requests.
+   * @param poolEvents - The shared stream of pool events pushed by the backend.
    */
-  public constructor(private http: HttpClient) {}
+  public constructor(private http: HttpClient, private poolEvents: PoolEventsService) {}
 
   /**
    * Lifecycle hook that runs after component initialization.
-   * Sets up the initial log fetch and starts polling the server at a regular interval.
+   * Subscribes to log entries pushed by the server and loads the existing backlog.
+   * Pushed entries are held back until the backlog has been shown so the order is preserved.
    */
   ngOnInit(): void {
+    this.subscription.add(
+      this.poolEvents.on<LogEntry>('log').subscribe(entry => this.whenLoaded(() => this.append([entry])))
+    );
+    this.subscription.add(
+      this.poolEvents.on<LogsSkipped>('logsSkipped').subscribe(skipped => this.whenLoaded(() => this.skip(skipped)))
+    );
     this.fetchLogs();
-    setInterval(() => this.fetchLogs(), this.pollingInterval);
   }
 
   /**
-   * Fetches log data from the backend server via HTTP GET.
-   * Logs are split by newline (`\n`) into an array for rendering purposes.
+   * Lifecycle hook: Called when the component is destroyed.
+   * Stops listening to the event stream.
+   */
+  ngOnDestroy(): void {
+    this.subscription.unsubscribe();
+  }
+
+  /**
+   * Fetches the log entries recorded since the last known cursor via HTTP GET.
    * Handles server errors gracefully by logging them to the console.
    */
   fetchLogs(): void {
     this.http
-      .get(`${environment.apiUrl}/api/tickets/logs`, { responseType: 'text' })
+      .get<LogPage>(`${environment.apiUrl}/api/tickets/logs`, {
+        params: { since: this.cursor, limit: this.pageSize }
+      })
       .subscribe(
-        (data: string) => {
-          this.logs = data.split('\n');
+        (page: LogPage) => {
+          this.append(page.entries);
+          this.releasePending();
         },
         (error) => {
           console.error('Error fetching logs:', error);
+          this.releasePending();
         }
       );
   }
+
+  /**
+   * Shows the entries pushed while the backlog was loading and switches to appending directly.
+   */
+  private releasePending(): void {
+    const pending = this.pending ?? [];
+    this.pending = null;
+    pending.forEach(update => update());
+  }
+
+  /**
+   * Applies a pushed update now, or once the backlog has been shown if it is still loading.
+   * @param update - The change to the view
+   */
+  private whenLoaded(update: () => void): void {
+    if (this.pending) {
+      this.pending.push(update);
+    } else {
+      update();
+    }
+  }
+
+  /**
+   * Marks where the server left entries out of a busy push, restarting the view first if a fresh log began
+   * among them. The entries that follow are appended as usual.
+   * @param skipped - How many entries were left out and whether the log restarted
+   */
+  private skip(skipped: LogsSkipped): void {
+    if (skipped.restarted) {
+      this.logs = [];
+      this.cursor = 0;
+    }
+    this.logs.push(`... ${skipped.count} log entries skipped`);
+  }
+
+  /**
+   * Appends entries that have not been shown yet and trims the view to the most recent lines.
+   * A sequence number of 0 means the pool was reconfigured with a fresh log, so the view restarts.
+   * @param entries - The entries to append, oldest first
+   */
+  private append(entries: LogEntry[]): void {
+    for (const entry of entries) {
+      if (entry.sequence === 0 && this.cursor > 0) {
+        this.logs = [];
+        this.cursor = 0;
+      }
+      if (entry.sequence >= this.cursor) {
+        this.logs.push(entry.message);
+        this.cursor = entry.sequence + 1;
+      }
+    }
+    if (this.logs.length > this.maxLines) {
+      this.logs = this.logs.slice(-this.maxLines);
+    }
+  }
 }
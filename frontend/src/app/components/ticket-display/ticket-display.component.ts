@@ -1,13 +1,25 @@
 import {AfterViewInit, Component, OnDestroy, OnInit} from '@angular/core';
 import { NgIf } from '@angular/common';
 import { environment } from '../../../environments/environment';
+import { Subscription } from 'rxjs';
+import { PoolEventsService } from '../../services/pool-events.service';
 import { Chart, LinearScale, CategoryScale, LineElement, LineController, PointElement, Title, Tooltip, Legend } from 'chart.js';  // Import necessary modules
 
 Chart.register(LinearScale, CategoryScale, LineElement, LineController, PointElement, Title, Tooltip, Legend);
 
 /**
- * This component displays real-time ticket status using a chart visualization
- * and fetches the ticket status periodically from the backend server.
+ * The coalesced pool status pushed by the backend on the event stream.
+ */
+interface StatusUpdate {
+  remaining: number;
+  added: number;
+  purchased: number;
+}
+
+/**
+ * This component displays real-time ticket status using a chart visualization.
+ * It fetches the current status once and then follows the status updates pushed
+ * by the backend over the shared pool event stream.
  */
 @Component({
   selector: 'app-ticket-display',
@@ -22,7 +34,7 @@ Chart.register(LinearScale, CategoryScale, LineElement, LineController, PointEle
 export class TicketDisplayComponent implements OnInit, OnDestroy, AfterViewInit {
   protected ticketsRemaining: number = 0;
   protected soldOut: boolean = false;
-  private intervalId: any;
+  private readonly subscriptions = new Subscription();
   private readonly ticketHistory: number[] = Array(10).fill(0);
 
   private chart: any;
@@ -30,27 +42,30 @@ export class TicketDisplayComponent implements OnInit, OnDestroy, AfterViewInit
   /**
    * Constructor
    * @constructor - Initializes the TicketDisplayComponent instance.
+   * @param poolEvents - The shared stream of pool events pushed by the backend.
    */
-  public constructor() {}
+  public constructor(private poolEvents: PoolEventsService) {}
 
   /**
    * Lifecycle hook: Called when the component is initialized.
-   * Sets up a timer to fetch ticket status every 500 milliseconds.
+   * Fetches the current status and subscribes to pushed status and sold-out events.
    */
   public ngOnInit(): void {
-    this.intervalId = setInterval(() => {
-      this.fetchTicketStatus();
-    }, 500);
+    this.fetchTicketStatus();
+    this.subscriptions.add(
+      this.poolEvents.on<StatusUpdate>('status').subscribe(status => this.updateRemaining(status.remaining))
+    );
+    this.subscriptions.add(
+      this.poolEvents.on<unknown>('soldOut').subscribe(() => this.updateRemaining(0))
+    );
   }
 
   /**
    * Lifecycle hook: Called when the component is destroyed.
-   * Clears the interval to prevent memory leaks.
+   * Unsubscribes from the event stream to prevent memory leaks.
    */
   public ngOnDestroy(): void {
-    if (this.intervalId) {
-      clearInterval(this.intervalId);
-    }
+    this.subscriptions.unsubscribe();
   }
 
   /**
@@ -63,15 +78,7 @@ export class TicketDisplayComponent implements OnInit, OnDestroy, AfterViewInit
       .then(data => {
         const remaining = parseInt(data.split(':')[1].trim(), 10);
         if (!isNaN(remaining)) {
-          this.ticketsRemaining = remaining;
-          this.soldOut = remaining === 0;
-
-          this.ticketHistory.push(remaining);
-          if (this.ticketHistory.length > 10) {
-            this.ticketHistory.shift();
-          }
-
-          this.updateChart();
+          this.updateRemaining(remaining);
         } else {
           console.error('Failed to parse remaining tickets:', data);
         }
@@ -81,6 +88,22 @@ export class TicketDisplayComponent implements OnInit, OnDestroy, AfterViewInit
       });
   }
 
+  /**
+   * Records a new remaining-ticket count and updates the ticket history and chart.
+   * @param remaining - The number of tickets currently in the pool
+   */
+  private updateRemaining(remaining: number): void {
+    this.ticketsRemaining = remaining;
+    this.soldOut = remaining === 0;
+
+    this.ticketHistory.push(remaining);
+    if (this.ticketHistory.length > 10) {
+      this.ticketHistory.shift();
+    }
+
+    this.updateChart();
+  }
+
   /**
    * Updates the chart with the latest ticket history.
    * Redraws the visualization with the latest data.
@@ -0,0 +1,43 @@
+import {Injectable, OnDestroy} from '@angular/core';
+import {Observable} from 'rxjs';
+import {environment} from '../../environments/environment';
+
+/**
+ * Shares a single Server-Sent Events connection to the backend's pool event stream.
+ * Components subscribe to individual named events (such as `status` or `log`) and receive
+ * their parsed JSON payloads. The browser reconnects automatically if the stream drops.
+ */
+@Injectable({
+  providedIn: 'root'
+})
+export class PoolEventsService implements OnDestroy {
+  private source?: EventSource;
+
+  /**
+   * Returns an observable of the payloads of one named event on the stream.
+   * The connection is opened on first use and shared by all subscribers.
+   * @param eventName - The SSE event name to listen for
+   */
+  public on<T>(eventName: string): Observable<T> {
+    return new Observable<T>(subscriber => {
+      const source = this.connect();
+      const listener = (event: MessageEvent) => subscriber.next(JSON.parse(event.data) as T);
+      source.addEventListener(eventName, listener as EventListener);
+      return () => source.removeEventListener(eventName, listener as EventListener);
+    });
+  }
+
+  /**
+   * Lifecycle hook: Closes the shared connection when the service is destroyed.
+   */
+  public ngOnDestroy(): void {
+    this.source?.close();
+  }
+
+  private connect(): EventSource {
+    if (!this.source) {
+      this.source = new EventSource(`${environment.apiUrl}/api/tickets/events`);
+    }
+    return this.source;
+  }
+}
@@ -0,0 +1,41 @@
+package lk.oop.cw.loadtest;
+
+import lombok.Getter;
+
+/**
+ * A group of identical vendors or customers that join a load run over a period of time.
+ * <p>
+ * The first agent of the group starts {@code startAfterMillis} after the run begins and the rest follow at even
+ * intervals, the last one starting {@code rampMillis} later. A ramp of zero starts the whole group at once,
+ * which is how a flash crowd is described; several ramps in a row describe waves.
+ * </p>
+ */
+@Getter
+public class AgentRamp {
+    private int count;
+    private long startAfterMillis;
+    private long rampMillis;
+    private long intervalMillis;
+    private int ticketsPerAction = 1;
+
+    /**
+     * Works out when one agent of the group starts.
+     * @param index Position of the agent within the group, from zero.
+     * @return Milliseconds after the start of the run.
+     */
+    long startOffsetMillis(int index) {
+        return startAfterMillis + (count <= 1 ? 0 : rampMillis * index / (count - 1));
+    }
+
+    /**
+     * Checks that the group can be run.
+     * @param role Name of the group, used in the error message.
+     * @throws IllegalArgumentException If a count, delay or ticket number is out of range.
+     */
+    void validate(String role) {
+        if (count < 0 || startAfterMillis < 0 || rampMillis < 0 || intervalMillis < 0 || ticketsPerAction <= 0) {
+            throw new IllegalArgumentException(role + " ramp needs a non-negative count, delays and interval, "
+                    + "and at least one ticket per action");
+        }
+    }
+}
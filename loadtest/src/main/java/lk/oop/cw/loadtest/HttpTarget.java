@@ -0,0 +1,89 @@
+package lk.oop.cw.loadtest;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import lk.oop.cw.backend.PoolMode;
+import lk.oop.cw.backend.PurchaseMode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Drives a running backend through the REST endpoints of {@code TicketController}.
+ * <p>
+ * Latencies measured against this target include the HTTP round trip and Spring's request handling, and a
+ * blocked release or purchase holds one of the server's request threads for as long as it waits.
+ * </p>
+ */
+class HttpTarget implements PoolTarget {
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    /**
+     * Creates a target for the server at the given address.
+     * @param serverUrl      Address of the server, e.g. {@code http://localhost:8080}.
+     * @param requestTimeout How long a single request may take, including any wait inside the pool.
+     */
+    HttpTarget(String serverUrl, Duration requestTimeout) {
+        this.baseUrl = serverUrl.replaceAll("/+$", "") + "/api/tickets";
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @Override
+    public void configure(int totalTickets, int maxTicketCapacity, PoolMode engine) throws IOException, InterruptedException {
+        post("/configure?totalTickets=" + totalTickets + "&maxTicketCapacity=" + maxTicketCapacity + "&mode=" + engine);
+    }
+
+    @Override
+    public void release(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category)
+            throws IOException, InterruptedException {
+        post("/add/" + ticketsToAdd + "/" + segment(vendorId) + "/" + segment(eventId) + "/" + segment(eventName)
+                + "/" + price + "/" + segment(category));
+    }
+
+    @Override
+    public int purchase(String customerId, int count, PurchaseMode mode) throws IOException, InterruptedException {
+        String body = post("/remove/" + segment(customerId) + "/" + count + "?mode=" + mode);
+        return JsonParser.parseString(body).getAsJsonObject().get("purchased").getAsInt();
+    }
+
+    @Override
+    public JsonElement metrics() throws IOException, InterruptedException {
+        return JsonParser.parseString(send(HttpRequest.newBuilder(URI.create(baseUrl + "/metrics")).GET()));
+    }
+
+    @Override
+    public String describe() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() {
+        // HttpClient has no close() before Java 21; its pooled connections and threads end when it is collected.
+    }
+
+    private String post(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.timeout(requestTimeout).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + response.uri());
+        }
+        return response.body();
+    }
+
+    private static String segment(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,69 @@
+package lk.oop.cw.loadtest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import lk.oop.cw.backend.AgentExecutionMode;
+import lk.oop.cw.backend.AgentScheduler;
+import lk.oop.cw.backend.LoggingConfig;
+import lk.oop.cw.backend.PoolEventHub;
+import lk.oop.cw.backend.PoolMode;
+import lk.oop.cw.backend.PurchaseRateLimiter;
+import lk.oop.cw.backend.PurchaseMode;
+import lk.oop.cw.backend.SalesJournal;
+import lk.oop.cw.backend.TicketService;
+
+import java.util.logging.Level;
+
+/**
+ * Drives a {@link TicketService} created in the driver's own JVM, without Spring or HTTP in between.
+ * <p>
+ * This measures the pool and the service layer alone. The console logger is raised to {@link Level#WARNING}
+ * so that echoing every ticket operation does not become the bottleneck; {@code logs/app.log} is still written.
+ * Customers are not rate limited, since a scenario's customers deliberately call faster than real ones would.
+ * </p>
+ */
+class InProcessTarget implements PoolTarget {
+    private final PoolEventHub eventHub = new PoolEventHub();
+    private final AgentScheduler agentScheduler = new AgentScheduler();
+    private final TicketService ticketService;
+
+    /**
+     * Creates the service with a placeholder pool; {@link #configure} replaces it before the run.
+     */
+    InProcessTarget() {
+        LoggingConfig.getLogger().setLevel(Level.WARNING);
+        this.ticketService = new TicketService(PoolMode.STANDARD.create(0, 1), eventHub, AgentExecutionMode.PLATFORM,
+                agentScheduler, SalesJournal.DISABLED, new PurchaseRateLimiter(0, 1, 0, 1));
+    }
+
+    @Override
+    public void configure(int totalTickets, int maxTicketCapacity, PoolMode engine) {
+        ticketService.initializeTicketPool(totalTickets, maxTicketCapacity, engine);
+    }
+
+    @Override
+    public void release(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category) {
+        ticketService.addTickets(vendorId, eventId, eventName, price, ticketsToAdd, category);
+    }
+
+    @Override
+    public int purchase(String customerId, int count, PurchaseMode mode) {
+        return ticketService.removeTickets(customerId, count, mode);
+    }
+
+    @Override
+    public JsonElement metrics() {
+        return new Gson().toJsonTree(ticketService.getMetrics());
+    }
+
+    @Override
+    public String describe() {
+        return "in-process";
+    }
+
+    @Override
+    public void close() {
+        eventHub.shutdown();
+        agentScheduler.shutdown();
+    }
+}
@@ -0,0 +1,78 @@
+package lk.oop.cw.loadtest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs a load scenario against the ticketing backend and reports throughput and latency.
+ * <pre>
+ * java -jar target/loadtest.jar scenarios/flash-sale.json [--target=in-process|http://localhost:8080] [--out=load-results]
+ * </pre>
+ * The default target is {@code in-process}, which drives a {@code TicketService} inside the driver. Given a URL,
+ * the driver acts through the REST API of a running server instead; that server's pool is reconfigured by the
+ * run. The text summary is printed and the full report is written as JSON to the output directory, in a file
+ * named after the scenario, the engine and the time of the run.
+ */
+public class LoadDriver {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Runs the scenario given on the command line.
+     * @param args The scenario file, followed by optional {@code --target=} and {@code --out=} options.
+     * @throws IOException          If the scenario cannot be read, the pool cannot be configured or the report
+     *                              cannot be written.
+     * @throws InterruptedException If the run is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String scenarioFile = null;
+        String targetOption = "in-process";
+        Path outputDir = Path.of("load-results");
+        for (String arg : args) {
+            if (arg.startsWith("--target=")) {
+                targetOption = arg.substring("--target=".length());
+            } else if (arg.startsWith("--out=")) {
+                outputDir = Path.of(arg.substring("--out=".length()));
+            } else {
+                scenarioFile = arg;
+            }
+        }
+        if (scenarioFile == null) {
+            System.err.println("Usage: LoadDriver <scenario.json> [--target=in-process|<server url>] [--out=<dir>]");
+            System.exit(2);
+        }
+
+        Scenario scenario = Scenario.load(Path.of(scenarioFile));
+        LoadReport report;
+        try (PoolTarget target = createTarget(targetOption, scenario)) {
+            report = new LoadRun(scenario, target).execute();
+        }
+
+        System.out.print(report.toText());
+        Files.createDirectories(outputDir);
+        Path reportFile = outputDir.resolve(scenario.getName() + "-" + scenario.getEngine().name().toLowerCase()
+                + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".json");
+        Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+        try (Writer writer = Files.newBufferedWriter(reportFile)) {
+            gson.toJson(report, writer);
+        }
+        System.out.println("Report written to " + reportFile);
+    }
+
+    private static PoolTarget createTarget(String option, Scenario scenario) {
+        if (option.equals("in-process")) {
+            return new InProcessTarget();
+        }
+        if (option.startsWith("http://") || option.startsWith("https://")) {
+            return new HttpTarget(option, Duration.ofSeconds(scenario.getTimeoutSeconds()));
+        }
+        throw new IllegalArgumentException("Unknown target " + option + "; use in-process or a server URL");
+    }
+}
@@ -0,0 +1,126 @@
+package lk.oop.cw.loadtest;
+
+import com.google.gson.JsonElement;
+import lk.oop.cw.backend.LatencySummary;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The measurements of one {@link LoadRun}, written as JSON and summarised as text.
+ * <p>
+ * The sustained purchase rate is the median of the one-second buckets between the first and the last sale,
+ * which leaves out the ramp-up second and the final partial second that an overall average would be skewed
+ * by. Latencies are in microseconds, as in {@code GET /api/tickets/metrics}, whose response at the end of the
+ * run is included as {@code serverMetrics}.
+ * </p>
+ */
+@Getter
+public class LoadReport {
+    private final String scenario;
+    private final String target;
+    private final String engine;
+    private final int totalTickets;
+    private final int maxTicketCapacity;
+
+    private final long elapsedMillis;
+    private final boolean soldOut;
+    private final Long timeToSellOutMillis;
+    private final long ticketsPurchased;
+    private final long purchases;
+    private final long failedPurchases;
+    private final long errors;
+
+    private final double averageTicketsPerSecond;
+    private final double sustainedTicketsPerSecond;
+    private final long peakTicketsPerSecond;
+    private final LatencySummary purchaseLatency;
+    private final LatencySummary releaseLatency;
+    private final double vendorBlockedRatio;
+    private final double customerBlockedRatio;
+
+    private final long[] ticketsPerSecond;
+    private final JsonElement serverMetrics;
+
+    LoadReport(Scenario scenario, String target, long elapsedNanos, long soldOutNanos, long ticketsPurchased,
+               long purchases, long failedPurchases, long errors, Histogram purchaseLatency, Histogram releaseLatency,
+               double vendorBlockedRatio, double customerBlockedRatio, AtomicLongArray ticketsPerSecond,
+               JsonElement serverMetrics) {
+        this.scenario = scenario.getName();
+        this.target = target;
+        this.engine = scenario.getEngine().name();
+        this.totalTickets = scenario.getTotalTickets();
+        this.maxTicketCapacity = scenario.getMaxTicketCapacity();
+        this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        this.soldOut = soldOutNanos >= 0;
+        this.timeToSellOutMillis = soldOut ? TimeUnit.NANOSECONDS.toMillis(soldOutNanos) : null;
+        this.ticketsPurchased = ticketsPurchased;
+        this.purchases = purchases;
+        this.failedPurchases = failedPurchases;
+        this.errors = errors;
+        this.purchaseLatency = LatencySummary.of(purchaseLatency);
+        this.releaseLatency = LatencySummary.of(releaseLatency);
+        this.vendorBlockedRatio = vendorBlockedRatio;
+        this.customerBlockedRatio = customerBlockedRatio;
+        this.serverMetrics = serverMetrics;
+
+        int seconds = (int) Math.min(ticketsPerSecond.length(), TimeUnit.NANOSECONDS.toSeconds(elapsedNanos) + 1);
+        this.ticketsPerSecond = new long[seconds];
+        for (int i = 0; i < seconds; i++) {
+            this.ticketsPerSecond[i] = ticketsPerSecond.get(i);
+        }
+        long activeNanos = soldOut ? soldOutNanos : elapsedNanos;
+        this.averageTicketsPerSecond = round(ticketsPurchased / Math.max(1e-9, activeNanos / 1e9));
+        this.peakTicketsPerSecond = Arrays.stream(this.ticketsPerSecond).max().orElse(0);
+        this.sustainedTicketsPerSecond = sustained(this.ticketsPerSecond, averageTicketsPerSecond);
+    }
+
+    /**
+     * Formats the headline numbers for the console.
+     * @return A multi-line summary.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Scenario %s against %s (%s, %d tickets, capacity %d)%n",
+                scenario, target, engine, totalTickets, maxTicketCapacity));
+        text.append(String.format("  Sold                %d/%d tickets in %d purchases, %d failed, %d errors%n",
+                ticketsPurchased, totalTickets, purchases, failedPurchases, errors));
+        text.append(String.format("  Time to sell-out    %s%n",
+                soldOut ? timeToSellOutMillis + " ms" : "not sold out after " + elapsedMillis + " ms"));
+        text.append(String.format("  Tickets/s           sustained %.1f, average %.1f, peak %d%n",
+                sustainedTicketsPerSecond, averageTicketsPerSecond, peakTicketsPerSecond));
+        text.append(String.format("  Purchase latency    p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                purchaseLatency.getP50(), purchaseLatency.getP99(), purchaseLatency.getP999(), purchaseLatency.getMax()));
+        text.append(String.format("  Release latency     p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                releaseLatency.getP50(), releaseLatency.getP99(), releaseLatency.getP999(), releaseLatency.getMax()));
+        text.append(String.format("  Blocked time        vendors %.1f%%, customers %.1f%%%n",
+                vendorBlockedRatio * 100, customerBlockedRatio * 100));
+        return text.toString();
+    }
+
+    private static double sustained(long[] buckets, double fallback) {
+        int first = 0;
+        while (first < buckets.length && buckets[first] == 0) {
+            first++;
+        }
+        int last = buckets.length - 1;
+        while (last > first && buckets[last] == 0) {
+            last--;
+        }
+        // drop the partial seconds at either end of the sale
+        if (last - first < 2) {
+            return fallback;
+        }
+        long[] full = Arrays.copyOfRange(buckets, first + 1, last);
+        Arrays.sort(full);
+        int middle = full.length / 2;
+        return round(full.length % 2 == 1 ? full[middle] : (full[middle - 1] + full[middle]) / 2.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
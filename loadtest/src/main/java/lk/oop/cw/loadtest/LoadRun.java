@@ -0,0 +1,246 @@
+package lk.oop.cw.loadtest;
+
+import com.google.gson.JsonElement;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One execution of a {@link Scenario} against a {@link PoolTarget}.
+ * <p>
+ * Every vendor and customer runs on its own thread and times each call it makes. Purchase latency covers the
+ * whole call, including any wait inside the pool, and is recorded only for calls that bought tickets. The time
+ * an agent spends inside calls, divided by the time it was running, gives its blocked-time ratio; the pause
+ * between calls counts as running but not blocked.
+ * </p>
+ * <p>
+ * Vendors cannot tell from a release call whether the ticket budget is used up, so a monitor thread reads the
+ * pool's metrics a few times a second and stops them once every ticket has been released.
+ * </p>
+ */
+class LoadRun {
+    private static final long MONITOR_INTERVAL_MILLIS = 250;
+    private static final long STOP_GRACE_MILLIS = 2000;
+    private static final String[] EVENT_NAMES = {"Music Concert", "Sports Event", "Theater Play", "Tech Expo", "Art Show"};
+    private static final String[] CATEGORIES = {"VIP", "Regular", "Balcony"};
+
+    private final Scenario scenario;
+    private final PoolTarget target;
+
+    private final Histogram purchaseLatency = new ConcurrentHistogram(2);
+    private final Histogram releaseLatency = new ConcurrentHistogram(2);
+    private final AtomicLongArray ticketsPerSecond;
+    private final AtomicLong ticketsPurchased = new AtomicLong();
+    private final LongAdder purchases = new LongAdder();
+    private final LongAdder failedPurchases = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder vendorBlockedNanos = new LongAdder();
+    private final LongAdder vendorRunningNanos = new LongAdder();
+    private final LongAdder customerBlockedNanos = new LongAdder();
+    private final LongAdder customerRunningNanos = new LongAdder();
+
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final AtomicInteger customersLeft;
+    private final AtomicLong soldOutNanos = new AtomicLong(-1);
+    private volatile boolean fullyReleased;
+    private volatile boolean stopping;
+    private long startNanos;
+
+    /**
+     * Prepares a run.
+     * @param scenario The scenario to execute.
+     * @param target   The backend to execute it against.
+     */
+    LoadRun(Scenario scenario, PoolTarget target) {
+        this.scenario = scenario;
+        this.target = target;
+        this.ticketsPerSecond = new AtomicLongArray(scenario.getTimeoutSeconds() + 1);
+        this.customersLeft = new AtomicInteger(scenario.customerCount());
+    }
+
+    /**
+     * Configures the pool, starts every agent and waits for the run to end.
+     * @return The measurements of the run.
+     * @throws IOException          If the pool cannot be configured.
+     * @throws InterruptedException If the driver is interrupted.
+     */
+    LoadReport execute() throws IOException, InterruptedException {
+        target.configure(scenario.getTotalTickets(), scenario.getMaxTicketCapacity(), scenario.getEngine());
+
+        List<Thread> threads = new ArrayList<>();
+        startNanos = System.nanoTime();
+        int vendorIndex = 0;
+        for (AgentRamp ramp : scenario.getVendors()) {
+            for (int i = 0; i < ramp.getCount(); i++, vendorIndex++) {
+                String vendorId = "Vendor-" + (vendorIndex + 1);
+                int index = vendorIndex;
+                threads.add(startAgent(vendorId, ramp.startOffsetMillis(i), () -> runVendor(vendorId, index, ramp)));
+            }
+        }
+        int customerIndex = 0;
+        for (AgentRamp ramp : scenario.getCustomers()) {
+            for (int i = 0; i < ramp.getCount(); i++, customerIndex++) {
+                String customerId = "Customer-" + (customerIndex + 1);
+                threads.add(startAgent(customerId, ramp.startOffsetMillis(i), () -> runCustomer(customerId, ramp)));
+            }
+        }
+        threads.add(startAgent("load-monitor", 0, this::monitor));
+
+        finished.await(scenario.getTimeoutSeconds(), TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        stopping = true;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join(STOP_GRACE_MILLIS);
+        }
+
+        JsonElement serverMetrics;
+        try {
+            serverMetrics = target.metrics();
+        } catch (IOException e) {
+            serverMetrics = null;
+        }
+        return new LoadReport(scenario, target.describe(), elapsedNanos, soldOutNanos.get(), ticketsPurchased.get(),
+                purchases.sum(), failedPurchases.sum(), errors.sum(), purchaseLatency, releaseLatency,
+                ratio(vendorBlockedNanos, vendorRunningNanos), ratio(customerBlockedNanos, customerRunningNanos),
+                ticketsPerSecond, serverMetrics);
+    }
+
+    private Thread startAgent(String name, long startOffsetMillis, Runnable body) {
+        Thread thread = new Thread(() -> {
+            try {
+                pauseUntil(startOffsetMillis);
+                body.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void runVendor(String vendorId, int index, AgentRamp ramp) {
+        String eventId = "Event-" + ((index % EVENT_NAMES.length) + 1);
+        String eventName = EVENT_NAMES[index % EVENT_NAMES.length];
+        String category = CATEGORIES[index % CATEGORIES.length];
+        double price = 100 + 50 * (index % EVENT_NAMES.length);
+
+        long runningSince = System.nanoTime();
+        try {
+            while (!stopping && !fullyReleased) {
+                long start = System.nanoTime();
+                try {
+                    target.release(vendorId, eventId, eventName, price, ramp.getTicketsPerAction(), category);
+                } catch (IOException e) {
+                    errors.increment();
+                }
+                long elapsed = System.nanoTime() - start;
+                releaseLatency.recordValue(elapsed);
+                vendorBlockedNanos.add(elapsed);
+                pause(ramp.getIntervalMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            vendorRunningNanos.add(System.nanoTime() - runningSince);
+        }
+    }
+
+    private void runCustomer(String customerId, AgentRamp ramp) {
+        long runningSince = System.nanoTime();
+        try {
+            while (!stopping) {
+                long start = System.nanoTime();
+                int bought;
+                try {
+                    bought = target.purchase(customerId, ramp.getTicketsPerAction(), scenario.getPurchaseMode());
+                } catch (IOException e) {
+                    errors.increment();
+                    bought = -1;
+                }
+                long end = System.nanoTime();
+                customerBlockedNanos.add(end - start);
+
+                if (bought == 0) {
+                    // the pool can no longer fill this customer's basket, or the run is being stopped
+                    if (!stopping) {
+                        failedPurchases.increment();
+                    }
+                    break;
+                }
+                if (bought > 0) {
+                    purchaseLatency.recordValue(end - start);
+                    purchases.increment();
+                    recordSale(bought, end);
+                }
+                pause(ramp.getIntervalMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            customerRunningNanos.add(System.nanoTime() - runningSince);
+            if (customersLeft.decrementAndGet() == 0) {
+                finished.countDown();
+            }
+        }
+    }
+
+    private void recordSale(int bought, long nowNanos) {
+        int second = (int) TimeUnit.NANOSECONDS.toSeconds(nowNanos - startNanos);
+        if (second < ticketsPerSecond.length()) {
+            ticketsPerSecond.addAndGet(second, bought);
+        }
+        if (ticketsPurchased.addAndGet(bought) >= scenario.getTotalTickets()
+                && soldOutNanos.compareAndSet(-1, nowNanos - startNanos)) {
+            finished.countDown();
+        }
+    }
+
+    private void monitor() {
+        try {
+            while (!stopping && !fullyReleased) {
+                pause(MONITOR_INTERVAL_MILLIS);
+                try {
+                    JsonElement metrics = target.metrics();
+                    fullyReleased = metrics.getAsJsonObject().get("ticketsReleased").getAsLong() >= scenario.getTotalTickets();
+                } catch (IOException | RuntimeException e) {
+                    // keep the vendors running; the next read may succeed
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pauseUntil(long offsetMillis) throws InterruptedException {
+        long remaining = startNanos + TimeUnit.MILLISECONDS.toNanos(offsetMillis) - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private void pause(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        } else if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private static double ratio(LongAdder blocked, LongAdder running) {
+        long total = running.sum();
+        return total == 0 ? 0 : Math.round(10_000.0 * blocked.sum() / total) / 10_000.0;
+    }
+}
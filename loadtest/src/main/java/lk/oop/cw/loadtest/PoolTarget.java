@@ -0,0 +1,67 @@
+package lk.oop.cw.loadtest;
+
+import com.google.gson.JsonElement;
+import lk.oop.cw.backend.PoolMode;
+import lk.oop.cw.backend.PurchaseMode;
+
+import java.io.IOException;
+
+/**
+ * The backend a load run acts on, either a {@code TicketService} in the driver's own JVM or a running server.
+ */
+public interface PoolTarget extends AutoCloseable {
+    /**
+     * Replaces the pool with a fresh one.
+     * @param totalTickets      The total number of tickets allowed in the system.
+     * @param maxTicketCapacity The maximum number of tickets in the pool at a time.
+     * @param engine            The inventory engine backing the pool.
+     * @throws IOException          If the target rejects the request or cannot be reached.
+     * @throws InterruptedException If the caller is interrupted.
+     */
+    void configure(int totalTickets, int maxTicketCapacity, PoolMode engine) throws IOException, InterruptedException;
+
+    /**
+     * Releases tickets into the pool, waiting while it is full.
+     * @param vendorId     ID of the vendor releasing tickets.
+     * @param eventId      ID of the event the tickets are associated with.
+     * @param eventName    Name of the event.
+     * @param price        Price of the tickets.
+     * @param ticketsToAdd Number of tickets to add.
+     * @param category     Category of the tickets.
+     * @throws IOException          If the target rejects the request or cannot be reached.
+     * @throws InterruptedException If the caller is interrupted.
+     */
+    void release(String vendorId, String eventId, String eventName, double price, int ticketsToAdd, String category)
+            throws IOException, InterruptedException;
+
+    /**
+     * Purchases tickets, waiting while the pool cannot satisfy the basket.
+     * @param customerId ID of the customer purchasing the tickets.
+     * @param count      Number of tickets wanted.
+     * @param mode       Whether a partial basket is acceptable.
+     * @return Number of tickets purchased; zero once the basket can no longer be filled.
+     * @throws IOException          If the target rejects the request or cannot be reached.
+     * @throws InterruptedException If the caller is interrupted.
+     */
+    int purchase(String customerId, int count, PurchaseMode mode) throws IOException, InterruptedException;
+
+    /**
+     * Retrieves the pool's own metrics, as served by {@code GET /api/tickets/metrics}.
+     * @return The metrics as a JSON tree.
+     * @throws IOException          If the target rejects the request or cannot be reached.
+     * @throws InterruptedException If the caller is interrupted.
+     */
+    JsonElement metrics() throws IOException, InterruptedException;
+
+    /**
+     * Describes the target for the report.
+     * @return {@code in-process} or the server's base URL.
+     */
+    String describe();
+
+    /**
+     * Releases the resources held by the target.
+     */
+    @Override
+    void close();
+}
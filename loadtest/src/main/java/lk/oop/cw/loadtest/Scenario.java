@@ -0,0 +1,90 @@
+package lk.oop.cw.loadtest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lk.oop.cw.backend.PoolMode;
+import lk.oop.cw.backend.PurchaseMode;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A load scenario read from a JSON file.
+ * <p>
+ * A scenario sizes the pool and lists the vendor and customer {@link AgentRamp}s that act on it. The run ends
+ * when every ticket is sold, when every customer has given up, or after {@code timeoutSeconds}, whichever
+ * comes first.
+ * </p>
+ * <pre>
+ * {
+ *   "name": "flash-sale",
+ *   "engine": "STANDARD",
+ *   "totalTickets": 5000,
+ *   "maxTicketCapacity": 200,
+ *   "purchaseMode": "BEST_EFFORT",
+ *   "timeoutSeconds": 60,
+ *   "vendors":   [{"count": 4, "intervalMillis": 10, "ticketsPerAction": 25}],
+ *   "customers": [{"count": 200, "startAfterMillis": 500, "rampMillis": 0, "ticketsPerAction": 2}]
+ * }
+ * </pre>
+ */
+@Getter
+public class Scenario {
+    private String name = "scenario";
+    private PoolMode engine = PoolMode.STANDARD;
+    private int totalTickets;
+    private int maxTicketCapacity;
+    private PurchaseMode purchaseMode = PurchaseMode.BEST_EFFORT;
+    private int timeoutSeconds = 60;
+    private List<AgentRamp> vendors = List.of();
+    private List<AgentRamp> customers = List.of();
+
+    /**
+     * Reads and validates a scenario file.
+     * @param file The JSON file to read.
+     * @return The scenario.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a valid scenario.
+     */
+    public static Scenario load(Path file) throws IOException {
+        Scenario scenario;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            scenario = new Gson().fromJson(reader, Scenario.class);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Invalid scenario " + file + ": " + e.getMessage(), e);
+        }
+        if (scenario == null) {
+            throw new IllegalArgumentException("Scenario " + file + " is empty");
+        }
+        scenario.validate();
+        return scenario;
+    }
+
+    /**
+     * Counts the customers across every customer ramp.
+     * @return The number of customers the run will start.
+     */
+    int customerCount() {
+        return customers.stream().mapToInt(AgentRamp::getCount).sum();
+    }
+
+    private void validate() {
+        if (totalTickets <= 0 || maxTicketCapacity <= 0 || timeoutSeconds <= 0) {
+            throw new IllegalArgumentException("Scenario " + name
+                    + " needs positive totalTickets, maxTicketCapacity and timeoutSeconds");
+        }
+        if (engine == null || purchaseMode == null || vendors == null || customers == null) {
+            throw new IllegalArgumentException("Scenario " + name + " has an unknown engine or purchaseMode, "
+                    + "or a null ramp list");
+        }
+        vendors.forEach(ramp -> ramp.validate("Vendor"));
+        customers.forEach(ramp -> ramp.validate("Customer"));
+        if (customerCount() == 0) {
+            throw new IllegalArgumentException("Scenario " + name + " starts no customers");
+        }
+    }
+}